@@ -1,3 +1,5 @@
+import java.util.concurrent.Callable;
+
 //Case 3
 
 public class AdiabaticFeedTemp extends FlashSeparator {
@@ -49,7 +51,7 @@ public class AdiabaticFeedTemp extends FlashSeparator {
 			throws FlashCalculationException, NumericalMethodException, 
 				FunctionException, StreamException {
 
-		Stream feedStream = super.getFeedStream();
+		Stream feedStream = super.getSharedFeedStream();
 		
 		// Step 1. Attempt Flash Separation
 		Stream flashStream = super.performFlash();
@@ -60,17 +62,41 @@ public class AdiabaticFeedTemp extends FlashSeparator {
 		// Step 3. Calculate Feed Temperature
 		
 		// The feed stream is passed to the enthalpy balance as an inlet stream of unknown temperature, 
-		// whereas the flash stream is passed as an outlet stream of known temperature
-		EnthalpyBalance enthalpyBalance = new EnthalpyBalance(Tref, new Stream[] { new Stream(feedStream) }, 
-				null, new Stream[] { new Stream(flashStream) }, super.getBehaviour(), true, true);
+		// whereas the flash stream is passed as an outlet stream of known temperature; the balance keeps its own copies
+		EnthalpyBalance enthalpyBalance = new EnthalpyBalance(Tref, new Stream[] { feedStream }, 
+				null, new Stream[] { flashStream }, super.getSharedBehaviour(), true, true);
+		
+		// Start at the flash temperature and search in the positive direction for the feed temperature.
+		// The enthalpy of the feed rises with its temperature, and only jumps where a component becomes 
+		// non-condensable at its critical temperature, so the root is bracketed between those temperatures and 
+		// found by Newton steps; the incremental search is kept for the cases in which that fails.
+		// The bubble-point and dew-point temperatures at the tank pressure are bracketed on as well, so that the
+		// brackets of the temperatures at which the feed would change phase are as narrow as those of the Tc
+		MixtureCorrelations correlations = feedStream.getMixtureCorrelations();
+		double[] T_boundaries = this.calculatePhaseBoundaryTemperatures(flashStream);
+		int componentCount = feedStream.getComponentCount();
+		double[] breakpoints = new double[componentCount + T_boundaries.length];
+		for (int i = 0; i < componentCount; i++) {
+			breakpoints[i] = correlations.getTc(i);
+		}
+		System.arraycopy(T_boundaries, 0, breakpoints, componentCount, T_boundaries.length);
 		
-		// Start at the flash temperature and search in the positive direction for the feed temperature
 		try {
-			double T_feed = Menu.findRoot(enthalpyBalance, null, super.getT(), true,
-					FlashSeparator.ENTHALPY_BALANCE_INCREMENT_LENGTH, 
-					FlashSeparator.ENTHALPY_BALANCE_SUB_INCREMENT_FRACTION,
-					FlashSeparator.ENTHALPY_BALANCE_TOLERANCE, 
-					FlashSeparator.ENTHALPY_BALANCE_MAX_EVALUATION_COUNT, false);
+			double T_feed;
+			try {
+				enthalpyBalance.setRestoresUnknownTempStreams(true); // Newton steps may move back across a Tc
+				T_feed = Menu.findRoot(enthalpyBalance, null, super.getT(), breakpoints, true, 
+						super.getSolverProfile().getEnthalpyBalanceIncrementLength(), 
+						super.getSolverProfile().getEnthalpyBalanceTolerance(), 
+						super.getSolverProfile().getEnthalpyBalanceMaxEvaluationCount());
+			} catch (NumericalMethodException | UndefinedFunctionException e) {
+				enthalpyBalance.setRestoresUnknownTempStreams(false);
+				T_feed = Menu.findRoot(enthalpyBalance, null, super.getT(), true,
+						super.getSolverProfile().getEnthalpyBalanceIncrementLength(), 
+						super.getSolverProfile().getEnthalpyBalanceSubIncrementFraction(),
+						super.getSolverProfile().getEnthalpyBalanceTolerance(), 
+						super.getSolverProfile().getEnthalpyBalanceMaxEvaluationCount(), false);
+			}
 			super.setFeedStreamTemperature(T_feed, true);
 		} catch (NumericalMethodException | FunctionException e) {
 			System.out.println(e.getMessage());
@@ -86,5 +112,56 @@ public class AdiabaticFeedTemp extends FlashSeparator {
 /*********************************************************************************************************************/
 
 
+/**********************************************************************************************************************
+* 5) calculatePhaseBoundaryTemperatures() : Returns the bubble-point and dew-point temperatures of the flash stream 
+* 							at the tank pressure; a temperature that could not be calculated, or that lies outside of the
+* 							range of the correlations, is left out. The temperatures only narrow the brackets of the search,
+* 							so the warnings of their calculations are not reported.
+* ---------------------------------------------------------------------------------------------------------------------
+*/
+	private double[] calculatePhaseBoundaryTemperatures(Stream flashStream) {
+		
+		double[] T_boundaries;
+		MessageLog previousLog = MessageLog.setCurrent(new MessageLog(1));
+		try {
+			if (super.getSolverProfile().isPhaseBoundariesParallel()) {
+				final Behaviour behaviour = super.getSharedBehaviour();
+				final Stream bubblePointStream = flashStream.clone();
+				final Stream dewPointStream = flashStream.clone();
+				T_boundaries = PhaseBoundaryExecutor.evaluate(new Callable<Double>() {
+					public Double call() throws Exception {
+						return behaviour.calculateBubblePointTemperature(bubblePointStream);
+					}
+				}, new Callable<Double>() {
+					public Double call() throws Exception {
+						return behaviour.calculateDewPointTemperature(dewPointStream);
+					}
+				});
+			}
+			else {
+				T_boundaries = new double[] { 
+						super.getSharedBehaviour().calculateBubblePointTemperature(flashStream.clone()), 
+						super.getSharedBehaviour().calculateDewPointTemperature(flashStream.clone()) };
+			}
+		} catch (NumericalMethodException | FunctionException e) {
+			return new double[0];
+		} finally {
+			MessageLog.setCurrent(previousLog);
+		}
+		
+		int count = 0;
+		for (int i = 0; i < T_boundaries.length; i++) {
+			if (T_boundaries[i] > 0. && T_boundaries[i] < Double.MAX_VALUE) {
+				T_boundaries[count] = T_boundaries[i];
+				count++;
+			}
+		}
+		double[] result = new double[count];
+		System.arraycopy(T_boundaries, 0, result, 0, count);
+		return result;
+	}
+/*********************************************************************************************************************/
+
+
 
 }
\ No newline at end of file
@@ -1,3 +1,5 @@
+import java.util.concurrent.Callable;
+
 //Case 2
 
 public class AdiabaticFlashTemp extends FlashSeparator implements Function {
@@ -9,6 +11,7 @@ public class AdiabaticFlashTemp extends FlashSeparator implements Function {
   public static final int FLASH_TEMPERATURE_MAX_EVALUATION_COUNT = 100000;
   
   private double Tref;
+  private EnthalpyBalance enthalpyBalance; // Reused by calculateFlashTemperature(); created on first use
   
   /**********************************************************************************************************************
     * 1) Constructor
@@ -57,7 +60,7 @@ public class AdiabaticFlashTemp extends FlashSeparator implements Function {
     throws FlashCalculationException, NumericalMethodException, 
     FunctionException, StreamException {
     
-    Stream feedStream = super.getFeedStream(); // Feed Stream
+    Stream feedStream = super.getSharedFeedStream(); // Feed Stream
     Stream flashStream = super.getFlashStream(); // Flash Stream (Liquid + Vapour)
     Stream[] outletStreams; // Outlet Streams (2)
     
@@ -94,7 +97,7 @@ public class AdiabaticFlashTemp extends FlashSeparator implements Function {
     // See end of file for detailed explanation of this algorithm.
     boolean foundFlashTemp = false;
     double T_L = AdiabaticFlashTemp.MIN_TEMPERATURE; // Lower Temperature Bound for Condensable State Assumption
-    double T_U = super.getFeedStream().getT() - 0.001; // Upper Temperature Bound for Condensable State Assumption
+    double T_U = feedStream.getT() - 0.001; // Upper Temperature Bound for Condensable State Assumption
     double T_bp = 0.; // Bubble-Point Temperature
     double T_dp = 0.; // Dew-Point Temperature
     this.Tref = super.selectReferenceTemperature(); // Returns lowest pure-species normal boiling point
@@ -116,8 +119,26 @@ public class AdiabaticFlashTemp extends FlashSeparator implements Function {
       flashStream.setT(0.5*(T_L + T_U), true, false); // Setting the stream temperature also updates isCondensable
       
       // Step 3. Calculate Bubble-Point and Dew-Point Temperatures
-      T_bp = super.getBehaviour().calculateBubblePointTemperature(flashStream.clone());
-      T_dp = super.getBehaviour().calculateDewPointTemperature(flashStream.clone());
+      if (super.getSolverProfile().isPhaseBoundariesParallel()) {
+        final Behaviour behaviour = super.getSharedBehaviour();
+        final Stream bubblePointStream = flashStream.clone();
+        final Stream dewPointStream = flashStream.clone();
+        double[] T_boundaries = PhaseBoundaryExecutor.evaluate(new Callable<Double>() {
+          public Double call() throws Exception {
+            return behaviour.calculateBubblePointTemperature(bubblePointStream);
+          }
+        }, new Callable<Double>() {
+          public Double call() throws Exception {
+            return behaviour.calculateDewPointTemperature(dewPointStream);
+          }
+        });
+        T_bp = T_boundaries[0];
+        T_dp = T_boundaries[1];
+      }
+      else {
+        T_bp = super.getSharedBehaviour().calculateBubblePointTemperature(flashStream.clone());
+        T_dp = super.getSharedBehaviour().calculateDewPointTemperature(flashStream.clone());
+      }
       
       // Sub-Divide Temperature Range into 3
       int iterationCount = 0;
@@ -140,7 +161,7 @@ public class AdiabaticFlashTemp extends FlashSeparator implements Function {
         
         // ii) Second Iteration: Attempt to flash separate the feed stream
         else if (iterationCount == 1) {
-          if (Math.abs(T_dp - T_bp) > Behaviour.BUBBLE_DEW_POINT_TOLERANCE) {
+          if (Math.abs(T_dp - T_bp) > super.getSolverProfile().getBubbleDewPointTolerance()) {
             attemptToSolve = true;
             if (T_bp > T_L && T_bp < T_U) {
               T_L2 = T_bp;
@@ -167,11 +188,11 @@ public class AdiabaticFlashTemp extends FlashSeparator implements Function {
             // Pass AdiabaticFlashTemp as the function and search in the negative direction from
             // T_U2 to T_L2
             Menu.findRoot((Function) this, null, T_U2, T_L2, 
-                          AdiabaticFlashTemp.FLASH_TEMPERATURE_INCREMENT_FRACTION
+                          super.getSolverProfile().getFlashTemperatureIncrementFraction()
                             * Math.abs(T_U2 - T_L2), 
-                          AdiabaticFlashTemp.FLASH_TEMPERATURE_SUB_INCREMENT_FRACTION,
-                          AdiabaticFlashTemp.FLASH_TEMPERATURE_TOLERANCE, 
-                          AdiabaticFlashTemp.FLASH_TEMPERATURE_MAX_EVALUATION_COUNT);
+                          super.getSolverProfile().getFlashTemperatureSubIncrementFraction(),
+                          super.getSolverProfile().getFlashTemperatureTolerance(), 
+                          super.getSolverProfile().getFlashTemperatureMaxEvaluationCount());
             foundFlashTemp = true;
           } 
           catch (NumericalMethodException | FunctionException e) {
@@ -211,7 +232,7 @@ public class AdiabaticFlashTemp extends FlashSeparator implements Function {
   public double calculateFlashTemperature(double T) 
     throws FunctionException {
     
-    Stream feedStream = super.getFeedStream(); // Feed Stream
+    Stream feedStream = super.getSharedFeedStream(); // Feed Stream
     
     // Step 1. Guess a Flash Temperature
     super.setT(T);
@@ -227,22 +248,33 @@ public class AdiabaticFlashTemp extends FlashSeparator implements Function {
     // Step 3. Calculate New Flash Temperature
     
     // The flash stream is passed to the enthalpy balance as an outlet stream of unknown temperature, 
-    // whereas the feed stream is passed as an inlet stream of known temperature
-    EnthalpyBalance enthalpyBalance = new EnthalpyBalance(Tref,
-                                                          new Stream[] { new Stream(flashStream) }, 
-                                                          new Stream[] { new Stream(feedStream) },
-                                                          null, super.getBehaviour(), false, false);
+    // whereas the feed stream is passed as an inlet stream of known temperature; the balance keeps its own copies.
+    // The balance is built on the first call and given the new streams on the later ones.
+    if (this.enthalpyBalance == null) {
+      this.enthalpyBalance = new EnthalpyBalance(Tref,
+                                                 new Stream[] { flashStream }, 
+                                                 new Stream[] { feedStream },
+                                                 null, super.getSharedBehaviour(), false, false);
+    }
+    else {
+      this.enthalpyBalance.setTref(Tref);
+      this.enthalpyBalance.setBehaviour(super.getSharedBehaviour());
+      this.enthalpyBalance.setUnknownTempStream(0, flashStream);
+      this.enthalpyBalance.setInletStream(0, feedStream);
+    }
+    EnthalpyBalance enthalpyBalance = this.enthalpyBalance;
     
     // Start at the feed temperature and search in the negative direction for the flash temperature
+    SolverProfile solverProfile = super.getSolverProfile();
     double T_flash = 1.;
     try {
       T_flash = Menu.findRoot(enthalpyBalance, null, feedStream.getT() 
-                                - FlashSeparator.ENTHALPY_BALANCE_TOLERANCE, 
+                                - solverProfile.getEnthalpyBalanceTolerance(), 
                               AdiabaticFlashTemp.MIN_TEMPERATURE,
-                              FlashSeparator.ENTHALPY_BALANCE_INCREMENT_LENGTH, 
-                              FlashSeparator.ENTHALPY_BALANCE_SUB_INCREMENT_FRACTION,
-                              FlashSeparator.ENTHALPY_BALANCE_TOLERANCE + 0.01,
-                              FlashSeparator.ENTHALPY_BALANCE_MAX_EVALUATION_COUNT);
+                              solverProfile.getEnthalpyBalanceIncrementLength(), 
+                              solverProfile.getEnthalpyBalanceSubIncrementFraction(),
+                              solverProfile.getEnthalpyBalanceTolerance() + 0.01,
+                              solverProfile.getEnthalpyBalanceMaxEvaluationCount());
     } catch(NumericalMethodException | FunctionException | IllegalArgumentException e) {
       throw new UndefinedFunctionException(enthalpyBalance.getID(), enthalpyBalance, super.getT());
     }
@@ -274,6 +306,16 @@ public class AdiabaticFlashTemp extends FlashSeparator implements Function {
   /*********************************************************************************************************************/
   
   
+  /**********************************************************************************************************************
+    * 8) evaluateWithDerivative() : Not defined.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public void evaluateWithDerivative(double x, double[] constants, FunctionValue result) throws FunctionException {
+    throw new DerivativeNotDefinedException("FlashSeparator: AdiabaticFlashTemp", this);
+  }
+  /*********************************************************************************************************************/
+  
+  
   public double getTref() {
     return Tref;
   }
@@ -0,0 +1,246 @@
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/* Runs every case of a case file. The calling thread reads the cases and places them in a bounded queue, from which
+ * the solver threads take them, so that no more than queueCapacity cases are held in memory at any time.
+ * The species data must already be loaded (see Menu.readSpeciesData()) for every component named in the file.
+ * If a time limit is set, a case that runs past it is stopped and reported through handleError() with a
+ * FlashCancelledException, so that a single bad case cannot hold a solver thread.
+ * Each solver thread has a MessageLog, installed as the log of the thread while a case runs and its result is
+ * handled, and cleared once the case is done; the handler writes the messages of the case with its results.
+ * Anything thrown by a case, errors included, is reported through handleError(). If a solver thread stops anyway
+ * (the handler itself threw), the cases still queued are dropped and run() fails with an IllegalStateException
+ * instead of waiting for a thread that will never take them.
+ */
+
+public class BatchFlashRunner {
+
+  public static final int DEFAULT_QUEUE_CAPACITY = 1024;
+  public static final String CASE_TIMEOUT_PROPERTY_NAME = "flash.caseTimeout"; // [ms]
+  public static final long POLL_INTERVAL_MILLIS = 100L; // Time between checks on the solver threads [ms]
+
+  // Placed in the queue once per solver thread after the last case has been read
+  private static final FlashCase END_OF_CASES = new FlashCase(-1L, 0, 0, 0., 0., 0., new String[0], new double[0]);
+
+  private int threadCount;
+  private int queueCapacity;
+  private long caseTimeoutMillis; // Time limit of each case [ms]; 0 if there is none
+
+
+  /**********************************************************************************************************************
+    * 1.1) Constructor : Uses one solver thread per available processor.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public BatchFlashRunner() {
+    this(Runtime.getRuntime().availableProcessors(), BatchFlashRunner.DEFAULT_QUEUE_CAPACITY);
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 1.2) Constructor
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public BatchFlashRunner(int threadCount, int queueCapacity) {
+    this(threadCount, queueCapacity, 0L);
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 1.3) Constructor : caseTimeoutMillis = 0 gives the cases no time limit.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public BatchFlashRunner(int threadCount, int queueCapacity, long caseTimeoutMillis) {
+    this.threadCount = Math.max(1, threadCount);
+    this.queueCapacity = Math.max(1, queueCapacity);
+    this.caseTimeoutMillis = Math.max(0L, caseTimeoutMillis);
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 2) run() : Runs every case read by caseReader and returns the number of rows that were read as cases.
+    *       Rows that cannot be read are passed to the handler and skipped. The method returns once every case has
+    *       been handled, or throws an IllegalStateException once a solver thread has stopped on an unexpected error.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public long run(FlashCaseReader caseReader, final BatchResultHandler handler)
+    throws IOException, InterruptedException {
+
+    final ArrayBlockingQueue<FlashCase> queue = new ArrayBlockingQueue<FlashCase>(this.queueCapacity);
+    final long caseTimeoutMillis = this.caseTimeoutMillis;
+    final AtomicReference<Throwable> solverThreadError = new AtomicReference<Throwable>();
+
+    /*
+     * I. Start the Solver Threads
+     * -----------------------------------------------------------------------------
+     */
+    Thread[] solverThreads = new Thread[this.threadCount];
+    for (int i = 0; i < this.threadCount; i++) {
+      solverThreads[i] = new Thread(new Runnable() {
+        public void run() {
+          MessageLog messageLog = new MessageLog(MessageLog.DEFAULT_CAPACITY);
+          MessageLog previousLog = MessageLog.setCurrent(messageLog);
+          try {
+            FlashCase flashCase = queue.take();
+            while (flashCase != BatchFlashRunner.END_OF_CASES) {
+              try {
+                BatchFlashRunner.runCase(flashCase, handler, caseTimeoutMillis);
+              }
+              finally {
+                messageLog.clear();
+              }
+              flashCase = queue.take();
+            }
+          }
+          catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+          catch (Throwable e) {
+            solverThreadError.compareAndSet(null, e);
+          }
+          finally {
+            MessageLog.setCurrent(previousLog);
+          }
+        }
+      }, "BatchFlashRunner-" + i);
+      solverThreads[i].start();
+    }
+
+    /*
+     * II. Read the Cases
+     * -----------------------------------------------------------------------------
+     */
+    long caseCount = 0;
+    try {
+      while (true) {
+        FlashCase flashCase;
+        try {
+          flashCase = caseReader.next();
+        }
+        catch (FlashCaseException e) {
+          handler.handleError(e.getLineNumber(), e);
+          continue;
+        }
+
+        if (flashCase == null) {
+          break;
+        }
+        if (!BatchFlashRunner.offer(queue, flashCase, solverThreads, solverThreadError)) { // Go to method 4
+          break;
+        }
+        caseCount++;
+      }
+    }
+    finally {
+
+      /*
+       * III. Stop the Solver Threads
+       * -----------------------------------------------------------------------------
+       */
+      if (solverThreadError.get() != null) {
+        queue.clear();
+      }
+      // Threads that have stopped leave their markers in the queue, where they are harmless
+      for (int i = 0; i < this.threadCount; i++) {
+        if (!BatchFlashRunner.offer(queue, BatchFlashRunner.END_OF_CASES, solverThreads, null)) {
+          break;
+        }
+      }
+      for (int i = 0; i < this.threadCount; i++) {
+        solverThreads[i].join();
+      }
+    }
+
+    Throwable error = solverThreadError.get();
+    if (error != null) {
+      throw new IllegalStateException("IllegalStateException: A solver thread stopped after an unexpected error; "
+                                        + "the remaining cases were not run. " + error, error);
+    }
+
+    return caseCount;
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 3) runCase() : Builds and solves a single case; the time limit is counted from the start of the case.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  private static void runCase(FlashCase flashCase, BatchResultHandler handler, long caseTimeoutMillis) {
+    try {
+      FlashSeparator flashSeparator = flashCase.buildFlashSeparator();
+      if (caseTimeoutMillis > 0) {
+        flashSeparator.flashCalculation(new CancellationToken(caseTimeoutMillis));
+      } else {
+        flashSeparator.flashCalculation();
+      }
+      handler.handleResult(flashCase, flashSeparator);
+    }
+    catch (Exception e) {
+      handler.handleError(flashCase.getLineNumber(), e);
+    }
+    catch (Throwable e) { // StackOverflowError, OutOfMemoryError, ... : only this case fails
+      handler.handleError(flashCase.getLineNumber(), new RuntimeException(e.toString(), e));
+    }
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 4) offer() : Places flashCase in the queue, waiting while it is full, and returns true once it is there.
+    *       Returns false instead if a solver thread has stopped on an unexpected error (solverThreadError, if not
+    *       null), or if every solver thread has stopped, since the queue would then never be emptied.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  private static boolean offer(ArrayBlockingQueue<FlashCase> queue, FlashCase flashCase, Thread[] solverThreads,
+                               AtomicReference<Throwable> solverThreadError) throws InterruptedException {
+
+    while (true) {
+      if (solverThreadError != null && solverThreadError.get() != null) {
+        return false;
+      }
+      if (queue.offer(flashCase, BatchFlashRunner.POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS)) {
+        return true;
+      }
+
+      boolean isAnyAlive = false;
+      for (int i = 0; i < solverThreads.length && !isAnyAlive; i++) {
+        isAnyAlive = solverThreads[i].isAlive();
+      }
+      if (!isAnyAlive) {
+        return false;
+      }
+    }
+  }
+  /*********************************************************************************************************************/
+
+
+  public int getThreadCount() {
+    return this.threadCount;
+  }
+
+  public void setThreadCount(int threadCount) {
+    this.threadCount = Math.max(1, threadCount);
+  }
+
+  public int getQueueCapacity() {
+    return this.queueCapacity;
+  }
+
+  public void setQueueCapacity(int queueCapacity) {
+    this.queueCapacity = Math.max(1, queueCapacity);
+  }
+
+  public long getCaseTimeoutMillis() {
+    return this.caseTimeoutMillis;
+  }
+
+  public void setCaseTimeoutMillis(long caseTimeoutMillis) {
+    this.caseTimeoutMillis = Math.max(0L, caseTimeoutMillis);
+  }
+
+}
@@ -0,0 +1,22 @@
+public interface BatchResultHandler {
+  
+  /* BatchResultHandler Interface
+   * Receives the outcome of each case run by BatchFlashRunner. The methods are called from the solver threads,
+   * so implementations must be thread-safe; cases may complete in any order. The messages of the case are held by
+   * MessageLog.getCurrent() during either call, except for rows that could not be read.
+   */
+  
+  /**********************************************************************************************************************
+    * 1) handleResult() : Called once the flash calculation of a case has succeeded.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public void handleResult(FlashCase flashCase, FlashSeparator flashSeparator);
+  /*********************************************************************************************************************/
+  
+  /**********************************************************************************************************************
+    * 2) handleError() : Called when a row could not be read, or when its flash calculation failed.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public void handleError(long lineNumber, Exception e);
+  /*********************************************************************************************************************/
+}
@@ -8,24 +8,59 @@ public class Behaviour implements Cloneable {
   public static final double RACHFORD_RICE_TOLERANCE = 0.0001;
   public static final int RACHFORD_RICE_MAX_EVALUATION_COUNT = 100000;
   
+  private SolverProfile solverProfile; // Tolerances and evaluation budgets of the flash calculations
+  
+  
+  /**********************************************************************************************************************
+    * 0.1) Constructor A : Uses the default solver profile.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public Behaviour() {
+    this.solverProfile = SolverProfile.getPreset(SolverProfile.DEFAULT_NAME);
+  }
+  /*********************************************************************************************************************/
+  
+  
+  /**********************************************************************************************************************
+    * 0.2) Constructor B
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public Behaviour(SolverProfile solverProfile) {
+    this.solverProfile = solverProfile.clone();
+  }
+  /*********************************************************************************************************************/
+  
+  
+  /**********************************************************************************************************************
+    * 0.3) Copy Constructor
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public Behaviour(Behaviour source) {
+    this.solverProfile = source.solverProfile.clone();
+  }
+  /*********************************************************************************************************************/
+  
   
   /**********************************************************************************************************************
     * 1) clone()
     * ---------------------------------------------------------------------------------------------------------------------
     */
   public Behaviour clone() {
-    return new Behaviour();
+    return new Behaviour(this);
   }
   /*********************************************************************************************************************/
   
   
   /**********************************************************************************************************************
-    * 2) phaseEquilibrium() : Calculates the phase mole fractions of the flashStream, if possible.
+    * 2) phaseEquilibrium() : Calculates the phase mole fractions of the flashStream, if possible, and returns the 
+    *       flashStream itself.
     * ---------------------------------------------------------------------------------------------------------------------
     */
   public Stream phaseEquilibrium(Stream flashStream)
     throws FlashCalculationException, NumericalMethodException, FunctionException {
     
+    CancellationToken.checkCurrent();
+    
     /*
      * I. Bubble-Point and Dew-Point Calculations
      * -----------------------------------------------------------------------------
@@ -35,7 +70,7 @@ public class Behaviour implements Cloneable {
     
     //Check if the tank pressure is within the bubble-point/dew-point range.
     if (flashStream.getP() > P_bp || flashStream.getP() < P_dp 
-          || Math.abs(P_bp - P_dp) < Behaviour.BUBBLE_DEW_POINT_TOLERANCE) {
+          || Math.abs(P_bp - P_dp) < this.solverProfile.getBubbleDewPointTolerance()) {
       
       throw new FlashCalculationException(flashStream.getT(), flashStream.getP(), P_bp, P_dp, 0., 0.);
     }
@@ -68,10 +103,10 @@ public class Behaviour implements Cloneable {
     RachfordRice rachfordRice = new RachfordRice(z, K, flashStream.getIsCondensable());
     double vapourFraction = 0.;
     vapourFraction = Menu.findRoot(rachfordRice, null, 0., 1., 
-                                   Behaviour.RACHFORD_RICE_INCREMENT_LENGTH, 
-                                   BracketingRootFinder.DEFAULT_SUB_INCREMENT_FRACTION, 
-                                   Behaviour.RACHFORD_RICE_TOLERANCE, 
-                                   Behaviour.RACHFORD_RICE_MAX_EVALUATION_COUNT);
+                                   this.solverProfile.getRachfordRiceIncrementLength(), 
+                                   this.solverProfile.getRachfordRiceSubIncrementFraction(), 
+                                   this.solverProfile.getRachfordRiceTolerance(), 
+                                   this.solverProfile.getRachfordRiceMaxEvaluationCount());
     
     flashStream.setVapourFraction(vapourFraction);
     flashStream.setK(K);
@@ -93,7 +128,7 @@ public class Behaviour implements Cloneable {
       }
     }
     
-    return flashStream.clone();
+    return flashStream;
   }
   /*********************************************************************************************************************/
   
@@ -113,11 +148,11 @@ public class Behaviour implements Cloneable {
     gamma = new double[componentCount];
     phi = new double[componentCount];
     
+    double[] P_sat = stream.getThermoState().getVapourPressures(); // Vapour Pressures
+    
     for (int i = 0; i < componentCount; i++) {
-      Species component = Menu.getSpecies(stream.getSpeciesIndex(i));
       if (stream.isComponentCondensable(i)) {
-        P_bp += (stream.getZi(i) / stream.getCondensableFraction())
-          * component.evaluateVapourPressure(stream.getT(), false);
+        P_bp += (stream.getZi(i) / stream.getCondensableFraction()) * P_sat[i];
       }
       gamma[i] = 1.;
       phi[i] = 1.;
@@ -143,11 +178,11 @@ public class Behaviour implements Cloneable {
     gamma = new double[componentCount]; 
     phi = new double[componentCount];
     
+    double[] P_sat = stream.getThermoState().getVapourPressures(); // Vapour Pressures
+    
     for (int i = 0; i < componentCount; i++) {
-      Species component = Menu.getSpecies(stream.getSpeciesIndex(i));
       if (stream.isComponentCondensable(i)) {
-        P_dp += (stream.getZi(i) / stream.getCondensableFraction())
-          / component.evaluateVapourPressure(stream.getT(), false);
+        P_dp += (stream.getZi(i) / stream.getCondensableFraction()) / P_sat[i];
       }
       gamma[i] = 1.;
       phi[i] = 1.;
@@ -197,13 +232,8 @@ public class Behaviour implements Cloneable {
     for (int i = 0; i < componentCount; i++) {
       if (isCondensable[i]) {
         try {
-          T_sat[i] = Menu.findRoot(
-                                   Menu.getSpecies(stream.getSpeciesIndex(i)).getCorrelation(Species.VAPOUR_PRESSURE), 
-                                   new double[] {stream.getP()}, 1., true, 
-                                   Behaviour.BUBBLE_DEW_POINT_INCREMENT_LENGTH, 
-                                   Behaviour.BUBBLE_DEW_POINT_SUB_INCREMENT_FRACTION, 
-                                   Behaviour.BUBBLE_DEW_POINT_TOLERANCE, 
-                                   Behaviour.BUBBLE_DEW_POINT_MAX_EVALUATION_COUNT, false);
+          T_sat[i] = Menu.getSpecies(stream.getSpeciesIndex(i))
+            .evaluateSaturationTemperature(stream.getP(), this.solverProfile);
         } catch (NumericalMethodException e) {
           T_sat[i] = 0.; //assume this species has no contribution to VLE
         }
@@ -232,14 +262,7 @@ public class Behaviour implements Cloneable {
     do {
       // Step 1. Calculate Vapour Pressures of each Component
       double[] P_sat = new double[componentCount]; // Vapour Pressures
-      for (int i = 0; i < componentCount; i++) {
-        if (isCondensable[i]) {
-          P_sat[i] = Menu.getSpecies(stream.getSpeciesIndex(i)).evaluateVapourPressure(T_bp, false);
-        }
-        else {
-          P_sat[i] = 0.;
-        }
-      }
+      stream.getMixtureCorrelations().evaluateVapourPressures(T_bp, false, isCondensable, P_sat);
       
       // Step 2. Calculate the Vapour Pressure of Species j
       double P_j = 0.;
@@ -251,13 +274,8 @@ public class Behaviour implements Cloneable {
       P_j = stream.getP() / P_j;
       
       // Step 3. Calculate the New Bubble-Point Temperature
-      double T_new = Menu.findRoot(
-                                   Menu.getSpecies(stream.getSpeciesIndex(j)).getCorrelation(Species.VAPOUR_PRESSURE), 
-                                   new double[] {P_j}, 1., true, 
-                                   Behaviour.BUBBLE_DEW_POINT_INCREMENT_LENGTH, 
-                                   Behaviour.BUBBLE_DEW_POINT_SUB_INCREMENT_FRACTION, 
-                                   Behaviour.BUBBLE_DEW_POINT_TOLERANCE, 
-                                   Behaviour.BUBBLE_DEW_POINT_MAX_EVALUATION_COUNT, false);
+      double T_new = Menu.getSpecies(stream.getSpeciesIndex(j))
+        .evaluateSaturationTemperature(P_j, this.solverProfile);
       
       if (T_new > T_bp) {
         isIncreasing = true;
@@ -274,12 +292,13 @@ public class Behaviour implements Cloneable {
       }
       
       iterationCount++;
-      if (iterationCount > Behaviour.BUBBLE_DEW_POINT_MAX_EVALUATION_COUNT) {
+      CancellationToken.checkCurrent();
+      if (iterationCount > this.solverProfile.getBubbleDewPointMaxEvaluationCount()) {
         throw new TooManyFunctionEvaluationsException("Simple Iteration", 
                                                       "Ideal Bubble-Point Temperature", null, null);
       }
       
-    } while (error > Behaviour.BUBBLE_DEW_POINT_TOLERANCE);
+    } while (error > this.solverProfile.getBubbleDewPointTolerance());
     
     /*
      * V. Verify Integrity of Bubble-Point Temperature
@@ -335,13 +354,8 @@ public class Behaviour implements Cloneable {
     for (int i = 0; i < componentCount; i++) {
       if (isCondensable[i]) {
         try {
-          T_sat[i] = Menu.findRoot(
-                                   Menu.getSpecies(stream.getSpeciesIndex(i)).getCorrelation(Species.VAPOUR_PRESSURE), 
-                                   new double[] {stream.getP()}, 1., true, 
-                                   Behaviour.BUBBLE_DEW_POINT_INCREMENT_LENGTH, 
-                                   Behaviour.BUBBLE_DEW_POINT_SUB_INCREMENT_FRACTION, 
-                                   Behaviour.BUBBLE_DEW_POINT_TOLERANCE, 
-                                   Behaviour.BUBBLE_DEW_POINT_MAX_EVALUATION_COUNT, false);
+          T_sat[i] = Menu.getSpecies(stream.getSpeciesIndex(i))
+            .evaluateSaturationTemperature(stream.getP(), this.solverProfile);
         } catch (NumericalMethodException e) {
           T_sat[i] = 0.00001; //assume this species has no contribution to VLE
         }
@@ -368,14 +382,7 @@ public class Behaviour implements Cloneable {
       
       // Step 1. Calculate Vapour Pressures of each Component
       double[] P_sat = new double[componentCount]; //Vapour Pressures
-      for (int i = 0; i < componentCount; i++) {
-        if (isCondensable[i]) {
-          P_sat[i] = Menu.getSpecies(stream.getSpeciesIndex(i)).evaluateVapourPressure(T_dp, false);
-        }
-        else {
-          P_sat[i] = 0.;
-        }
-      }
+      stream.getMixtureCorrelations().evaluateVapourPressures(T_dp, false, isCondensable, P_sat);
       
       // Step 2. Calculate Vapour Pressure of Species j
       double P_j = 0.;
@@ -387,13 +394,8 @@ public class Behaviour implements Cloneable {
       P_j = stream.getP() * P_j;
       
       // Step 3. Calculate the New Dew-Point Temperature
-      double T_new = Menu.findRoot(
-                                   Menu.getSpecies(stream.getSpeciesIndex(j)).getCorrelation(Species.VAPOUR_PRESSURE), 
-                                   new double[] {P_j}, 1., true, 
-                                   Behaviour.BUBBLE_DEW_POINT_INCREMENT_LENGTH, 
-                                   Behaviour.BUBBLE_DEW_POINT_SUB_INCREMENT_FRACTION, 
-                                   Behaviour.BUBBLE_DEW_POINT_TOLERANCE, 
-                                   Behaviour.BUBBLE_DEW_POINT_MAX_EVALUATION_COUNT, false);
+      double T_new = Menu.getSpecies(stream.getSpeciesIndex(j))
+        .evaluateSaturationTemperature(P_j, this.solverProfile);
       
       if (T_new > T_dp) {
         isIncreasing = true;
@@ -410,12 +412,13 @@ public class Behaviour implements Cloneable {
       }
       
       iterationCount++;
-      if (iterationCount > Behaviour.BUBBLE_DEW_POINT_MAX_EVALUATION_COUNT) {
+      CancellationToken.checkCurrent();
+      if (iterationCount > this.solverProfile.getBubbleDewPointMaxEvaluationCount()) {
         throw new TooManyFunctionEvaluationsException("Simple Iteration", 
                                                       "Ideal Dew-Point Temperature", null, null);
       }
       
-    } while (error > Behaviour.BUBBLE_DEW_POINT_TOLERANCE);
+    } while (error > this.solverProfile.getBubbleDewPointTolerance());
     
     /*
      * V. Verify Integrity of Bubble-Point Temperature
@@ -444,10 +447,10 @@ public class Behaviour implements Cloneable {
     
     int componentCount = stream.getComponentCount();
     double[] K = new double[componentCount];
+    double[] P_sat = stream.getThermoState().getVapourPressures(); // Vapour Pressures
     for (int i = 0; i < componentCount; i++) {
       if (stream.isComponentCondensable(i)) {
-        K[i] = Menu.getSpecies(stream.getSpeciesIndex(i))
-          .evaluateVapourPressure(stream.getT(), false) / stream.getP();
+        K[i] = P_sat[i] / stream.getP();
       }
       else {
         K[i] = 0.; // Partition coefficients of non-condensable components are set to 0
@@ -469,4 +472,48 @@ public class Behaviour implements Cloneable {
   }
   /*********************************************************************************************************************/
   
+  
+  /**********************************************************************************************************************
+    * 10.1) evaluateStreamEnthalpyWithDerivative() : Writes the enthalpy of the stream and its derivative into result.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public void evaluateStreamEnthalpyWithDerivative(double Tref, Stream stream, FunctionValue result) 
+    throws FunctionException {
+    stream.evaluateStreamEnthalpyWithDerivative(Tref, result);
+  }
+  /*********************************************************************************************************************/
+  
+  
+  /**********************************************************************************************************************
+    * 10.2) evaluateStreamEnthalpy() : Calculates the enthalpy of the stream on the arrays of the given workspace.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public double evaluateStreamEnthalpy(double Tref, Stream stream, boolean derivative, EnthalpyWorkspace workspace) 
+    throws FunctionException {
+    return stream.evaluateStreamEnthalpy(Tref, derivative, workspace);
+  }
+  /*********************************************************************************************************************/
+  
+  
+  /**********************************************************************************************************************
+    * 10.3) evaluateStreamEnthalpyWithDerivative() : Writes the enthalpy of the stream and its derivative into result,
+    *            using the arrays of the given workspace.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public void evaluateStreamEnthalpyWithDerivative(double Tref, Stream stream, EnthalpyWorkspace workspace, 
+                                                   FunctionValue result) throws FunctionException {
+    stream.evaluateStreamEnthalpyWithDerivative(Tref, workspace, result);
+  }
+  /*********************************************************************************************************************/
+  
+  
+  // Returns the profile itself rather than a copy, since it is read inside the iteration loops
+  public SolverProfile getSolverProfile() {
+    return this.solverProfile;
+  }
+  
+  public void setSolverProfile(SolverProfile solverProfile) {
+    this.solverProfile = solverProfile.clone();
+  }
+  
 }
\ No newline at end of file
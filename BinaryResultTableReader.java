@@ -0,0 +1,143 @@
+import java.io.Closeable;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+
+/* Reads a result table written by BinaryResultTableWriter. Each column is read from a memory mapping of the file,
+ * one block at a time, without reading the other columns.
+ */
+
+public class BinaryResultTableReader implements Closeable {
+
+  private String filePath;
+  private FileChannel channel;
+  private int columnCount;
+  private int blockRowCount;
+  private long rowCount;
+  private String[] columnNames;
+  private long headerLength; // [bytes]
+
+
+  /**********************************************************************************************************************
+    * 1) Constructor : Opens the file and reads the header.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public BinaryResultTableReader(String filePath) throws IOException {
+
+    try {
+      this.channel = new FileInputStream(filePath).getChannel();
+    }
+    catch (Exception e) {
+      throw new FileNotFoundException(filePath + " was not found.");
+    }
+    this.filePath = filePath;
+
+    ByteBuffer header = this.channel.map(FileChannel.MapMode.READ_ONLY, 0,
+                                         Math.min(this.channel.size(), Integer.MAX_VALUE))
+      .order(ByteOrder.LITTLE_ENDIAN);
+
+    if (header.remaining() < 24 || header.getInt() != BinaryResultTableWriter.MAGIC_NUMBER) {
+      this.channel.close();
+      throw new IOException(filePath + " is not a result table.");
+    }
+    if (header.getInt() != BinaryResultTableWriter.VERSION) {
+      this.channel.close();
+      throw new IOException(filePath + " was written by an unsupported version.");
+    }
+
+    this.columnCount = header.getInt();
+    this.blockRowCount = header.getInt();
+    this.rowCount = header.getLong();
+    this.columnNames = new String[this.columnCount];
+    for (int j = 0; j < this.columnCount; j++) {
+      byte[] name = new byte[header.getShort()];
+      header.get(name);
+      this.columnNames[j] = new String(name, StandardCharsets.US_ASCII);
+    }
+    this.headerLength = (header.position() + 7) / 8 * 8;
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 2) readColumn() : Returns every value of the given column, in row order.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public double[] readColumn(int column) throws IOException {
+
+    if (column < 0 || column >= this.columnCount) {
+      throw new IllegalArgumentException("IllegalArgumentException: " + this.filePath + " has no column " + column
+                                           + ".");
+    }
+    if (this.rowCount > Integer.MAX_VALUE) {
+      throw new IOException(this.filePath + " has too many rows to read a column into an array.");
+    }
+
+    double[] values = new double[(int) this.rowCount];
+    long blockLength = 8L + 8L * this.columnCount * this.blockRowCount; // [bytes] Length of a full block
+
+    int rowIndex = 0;
+    for (long blockPosition = this.headerLength; rowIndex < values.length; blockPosition += blockLength) {
+      int rowsInBlock = Math.min(this.blockRowCount, values.length - rowIndex);
+      DoubleBuffer columnValues = this.channel.map(FileChannel.MapMode.READ_ONLY,
+                                                   blockPosition + 8L + 8L * column * rowsInBlock,
+                                                   8L * rowsInBlock)
+        .order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer();
+      columnValues.get(values, rowIndex, rowsInBlock);
+      rowIndex += rowsInBlock;
+    }
+
+    return values;
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 3) getColumnIndex() : Returns the position of the named column, or -1 if there is no such column.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public int getColumnIndex(String columnName) {
+    for (int j = 0; j < this.columnCount; j++) {
+      if (this.columnNames[j].equals(columnName)) {
+        return j;
+      }
+    }
+    return -1;
+  }
+  /*********************************************************************************************************************/
+
+
+  public void close() throws IOException {
+    this.channel.close();
+  }
+
+  public String getFilePath() {
+    return this.filePath;
+  }
+
+  public int getColumnCount() {
+    return this.columnCount;
+  }
+
+  public String getColumnName(int column) {
+    return this.columnNames[column];
+  }
+
+  public String[] getColumnNames() {
+    return this.columnNames.clone();
+  }
+
+  public int getBlockRowCount() {
+    return this.blockRowCount;
+  }
+
+  public long getRowCount() {
+    return this.rowCount;
+  }
+
+}
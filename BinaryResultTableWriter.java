@@ -0,0 +1,177 @@
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+
+/* Writes the result table as a little-endian binary file that can be memory-mapped by the reader.
+ *
+ *   Header : int magic, int version, int columnCount, int blockRowCount, long rowCount,
+ *            then for each column a short name length followed by the ASCII name,
+ *            padded with zeros to a multiple of 8 bytes.
+ *   Blocks : int blockRowCount', int 0, then for each column blockRowCount' doubles.
+ *
+ * Rows are collected in blocks of blockRowCount rows and each block is stored column by column, so that a column can
+ * be read without reading the other columns. Only the last block may hold fewer rows. rowCount is updated after each
+ * block is written, so that a file that was not closed still gives the rows of its complete blocks. Missing values
+ * are NaN.
+ */
+
+public class BinaryResultTableWriter extends ResultTableWriter {
+
+  public static final int MAGIC_NUMBER = 0x42545246; // "FRTB" in little-endian byte order
+  public static final int VERSION = 1;
+  public static final int DEFAULT_BLOCK_ROW_COUNT = 1024;
+  public static final int ROW_COUNT_POSITION = 16; // [bytes] Position of rowCount in the header
+
+  private String filePath;
+  private FileChannel channel;
+  private int blockRowCount;
+  private double[] block; // Values of the current block, column by column
+  private int blockRowIndex; // Number of rows in the current block
+  private long writtenRowCount; // Number of rows in the blocks written to the file
+  private ByteBuffer byteBuffer;
+
+
+  /**********************************************************************************************************************
+    * 1.1) Constructor
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public BinaryResultTableWriter(String filePath, int componentSlotCount) throws FileNotFoundException {
+    this(filePath, componentSlotCount, BinaryResultTableWriter.DEFAULT_BLOCK_ROW_COUNT);
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 1.2) Constructor : Creates the file and writes the header.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public BinaryResultTableWriter(String filePath, int componentSlotCount, int blockRowCount)
+    throws FileNotFoundException {
+
+    super(componentSlotCount);
+
+    this.filePath = filePath;
+    this.blockRowCount = Math.max(1, blockRowCount);
+    this.block = new double[this.getColumnCount() * this.blockRowCount];
+    this.byteBuffer = ByteBuffer.allocate(8 + 8 * this.block.length).order(ByteOrder.LITTLE_ENDIAN);
+
+    try {
+      this.channel = new FileOutputStream(filePath).getChannel();
+
+      int headerLength = 24;
+      for (int j = 0; j < this.getColumnCount(); j++) {
+        headerLength += 2 + this.getColumnName(j).length();
+      }
+      headerLength = (headerLength + 7) / 8 * 8;
+
+      ByteBuffer header = ByteBuffer.allocate(headerLength).order(ByteOrder.LITTLE_ENDIAN);
+      header.putInt(BinaryResultTableWriter.MAGIC_NUMBER);
+      header.putInt(BinaryResultTableWriter.VERSION);
+      header.putInt(this.getColumnCount());
+      header.putInt(this.blockRowCount);
+      header.putLong(0L);
+      for (int j = 0; j < this.getColumnCount(); j++) {
+        byte[] name = this.getColumnName(j).getBytes(StandardCharsets.US_ASCII);
+        header.putShort((short) name.length);
+        header.put(name);
+      }
+      header.position(0);
+      this.writeFully(header);
+    }
+    catch (IOException e) {
+      throw new FileNotFoundException(filePath + " could not be opened.");
+    }
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 2) writeRow()
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  protected void writeRow(double[] row) throws IOException {
+
+    for (int j = 0; j < row.length; j++) {
+      this.block[j * this.blockRowCount + this.blockRowIndex] = row[j];
+    }
+    this.blockRowIndex++;
+
+    if (this.blockRowIndex == this.blockRowCount) {
+      this.writeBlock();
+    }
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 3) close() : Writes the last block.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public synchronized void close() throws IOException {
+
+    if (!this.channel.isOpen()) {
+      return;
+    }
+
+    try {
+      if (this.blockRowIndex > 0) {
+        this.writeBlock();
+      }
+    }
+    finally {
+      this.channel.close();
+    }
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 4) writeBlock() : Writes the rows of the current block, column by column, and then the new row count.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  private void writeBlock() throws IOException {
+
+    this.byteBuffer.clear();
+    this.byteBuffer.putInt(this.blockRowIndex);
+    this.byteBuffer.putInt(0);
+    for (int j = 0; j < this.getColumnCount(); j++) {
+      int offset = j * this.blockRowCount;
+      for (int r = 0; r < this.blockRowIndex; r++) {
+        this.byteBuffer.putDouble(this.block[offset + r]);
+      }
+    }
+    this.byteBuffer.flip();
+    this.writeFully(this.byteBuffer);
+
+    this.writtenRowCount += this.blockRowIndex;
+    this.blockRowIndex = 0;
+
+    ByteBuffer rowCount = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+    rowCount.putLong(this.writtenRowCount);
+    rowCount.flip();
+    while (rowCount.hasRemaining()) {
+      this.channel.write(rowCount, BinaryResultTableWriter.ROW_COUNT_POSITION + rowCount.position());
+    }
+  }
+  /*********************************************************************************************************************/
+
+
+  private void writeFully(ByteBuffer buffer) throws IOException {
+    while (buffer.hasRemaining()) {
+      this.channel.write(buffer);
+    }
+  }
+
+  public String getFilePath() {
+    return this.filePath;
+  }
+
+  public int getBlockRowCount() {
+    return this.blockRowCount;
+  }
+
+}
@@ -1,5 +1,7 @@
 public class BisectionRootFinder extends BracketingRootFinder {
   
+  private double[] bounds; // Bounds of the current search increment; reused for every increment
+  
   /**********************************************************************************************************************
     * 1.1) Constructor A
     * ----------------------------------------------------------------------------------------------------------------------
@@ -7,6 +9,7 @@ public class BisectionRootFinder extends BracketingRootFinder {
   public BisectionRootFinder(double endPoint, double incrementLength, double subIncrementFraction, 
                              double maxEvaluationCount) {
     super("Bisection Root Finder", endPoint, incrementLength, subIncrementFraction, maxEvaluationCount);
+    this.bounds = new double[2];
   }
   /*********************************************************************************************************************/
   
@@ -18,6 +21,7 @@ public class BisectionRootFinder extends BracketingRootFinder {
   public BisectionRootFinder(double incrementLength, double subIncrementFraction, 
                              boolean positiveDirection, double maxEvaluationCount, boolean useFunctionBounds) {
     super("Bisection Root Finder", incrementLength, subIncrementFraction, positiveDirection, maxEvaluationCount, useFunctionBounds);
+    this.bounds = new double[2];
   }
   /*********************************************************************************************************************/
   
@@ -28,6 +32,7 @@ public class BisectionRootFinder extends BracketingRootFinder {
     */
   public BisectionRootFinder(BisectionRootFinder source) {
     super(source);
+    this.bounds = new double[2];
   }
   /*********************************************************************************************************************/
   
@@ -54,10 +59,10 @@ public class BisectionRootFinder extends BracketingRootFinder {
     boolean foundRoot = false;
     
     do {
-      double[] bounds = super.incrementalSearch(f, constants, endBound, tolerance);
+      super.incrementalSearch(f, constants, endBound, tolerance, this.bounds);
       
-      double xL = bounds[0];
-      double xU = bounds[1];
+      double xL = this.bounds[0];
+      double xU = this.bounds[1];
       double xR_old = 0.;
       
       if (super.getDirection() == 1) {
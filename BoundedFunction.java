@@ -109,6 +109,44 @@ public abstract class BoundedFunction implements Function {
   /*********************************************************************************************************************/
   
   
+  /**********************************************************************************************************************
+    * 8) evaluateWithDerivative() : Applies the checks of evaluate() and evaluateDerivative() to a single evaluation
+    *           of both.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public void evaluateWithDerivative(double x, double[] constants, FunctionValue result) throws FunctionException {
+    
+    if (Double.isNaN(x) || Double.isInfinite(x)) {
+      throw new IllegalArgumentException(this.id);
+    }
+    
+    this.evaluateWithDerivativeWithinBounds(x, constants, result);
+    
+    if (Double.isNaN(result.getValue()) || Double.isInfinite(result.getValue()) 
+          || Double.isNaN(result.getDerivative())) {
+      throw new UndefinedFunctionException(this.id, this, x);
+    }
+    
+    if (x < this.minX || x > this.maxX) {
+      Menu.appendToMessages("\r\nWarning: " + this.id 
+                              + " was evaluated outside of the function bounds.");
+    }
+  }
+  /*********************************************************************************************************************/
+  
+  
+  /**********************************************************************************************************************
+    * 9) evaluateWithDerivativeWithinBounds() : Evaluates the function and its derivative separately. Subclasses 
+    *           that can share work between the two override this method.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  protected void evaluateWithDerivativeWithinBounds(double x, double[] constants, FunctionValue result) 
+    throws FunctionException {
+    result.set(this.evaluateWithinBounds(x, constants), this.evaluateDerivativeWithinBounds(x, constants));
+  }
+  /*********************************************************************************************************************/
+  
+  
   public String getID() {
     return this.id;
   }
@@ -0,0 +1,243 @@
+import java.util.Arrays;
+
+/* Finds the root of a function that changes sign once along the search direction and is smooth between known
+ * breakpoints, at which it may jump; an enthalpy balance over the critical temperatures of its components, for
+ * example. The root is bracketed by evaluating f at the breakpoints beyond the start point, in order, and then at
+ * steps that double in length. Within the bracket, Newton-Raphson steps on the analytic derivative are taken, with
+ * a bisection step whenever a Newton step would leave the bracket or shrink more slowly than bisection would. If f
+ * jumps across zero at a breakpoint rather than passing through it, the bracket closes on the breakpoint, which is
+ * returned.
+ */
+
+public class BracketedNewtonRootFinder extends RootFinder {
+
+  private double[] breakpoints; // Sorted in the search direction
+  private double incrementLength; // First step beyond the last breakpoint
+  private int direction; // 1 for positive direction, -1 for negative direction
+  private FunctionValue f_x; // f(x) and f'(x); reused for every evaluation
+
+
+  /**********************************************************************************************************************
+    * 1) Constructor
+    * ----------------------------------------------------------------------------------------------------------------------
+    */
+  public BracketedNewtonRootFinder(double[] breakpoints, double incrementLength, boolean positiveDirection,
+                                   double maxEvaluationCount) {
+    super("Bracketed Newton Root Finder", maxEvaluationCount);
+    this.f_x = new FunctionValue();
+    this.reset(breakpoints, incrementLength, positiveDirection, maxEvaluationCount);
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 2) Copy Constructor
+    * ----------------------------------------------------------------------------------------------------------------------
+    */
+  public BracketedNewtonRootFinder(BracketedNewtonRootFinder source) {
+    super(source);
+    this.breakpoints = source.breakpoints.clone();
+    this.incrementLength = source.incrementLength;
+    this.direction = source.direction;
+    this.f_x = new FunctionValue();
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 3) clone()
+    * ----------------------------------------------------------------------------------------------------------------------
+    */
+  public BracketedNewtonRootFinder clone() {
+    return new BracketedNewtonRootFinder(this);
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 3.1) reset() : Prepares the root finder for a new search; the breakpoints may be given in any order.
+    * ----------------------------------------------------------------------------------------------------------------------
+    */
+  public void reset(double[] breakpoints, double incrementLength, boolean positiveDirection,
+                    double maxEvaluationCount) {
+    super.reset(maxEvaluationCount);
+    this.direction = positiveDirection ? 1 : -1;
+    this.incrementLength = Math.abs(incrementLength);
+
+    if (this.breakpoints == null || this.breakpoints.length != breakpoints.length) {
+      this.breakpoints = breakpoints.clone();
+    }
+    else {
+      System.arraycopy(breakpoints, 0, this.breakpoints, 0, breakpoints.length);
+    }
+    Arrays.sort(this.breakpoints);
+    if (this.direction == -1) {
+      for (int i = 0; i < this.breakpoints.length / 2; i++) {
+        double breakpoint = this.breakpoints[i];
+        this.breakpoints[i] = this.breakpoints[this.breakpoints.length - 1 - i];
+        this.breakpoints[this.breakpoints.length - 1 - i] = breakpoint;
+      }
+    }
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 4) rootFindingMethod() : Finds and returns the root of function f beyond startPoint.
+    * ----------------------------------------------------------------------------------------------------------------------
+    */
+  protected double rootFindingMethod(Function f, double[] constants, double startPoint, double tolerance)
+    throws NumericalMethodException, FunctionException {
+
+    /*
+     * I. Bracket the Root
+     * -----------------------------------------------------------------------------
+     */
+    double xA = startPoint; // Last point at which f has the sign of f(startPoint)
+    double f_xA = this.evaluate(f, constants, xA);
+    if (f_xA == 0.) {
+      return xA;
+    }
+
+    double xB = xA; // First point at which the sign of f has changed
+    double f_xB = f_xA;
+    double step = this.incrementLength;
+    int breakpointIndex = 0;
+    boolean isBreakpoint; // true if xB is a breakpoint
+    do {
+      // Move on to the next breakpoint beyond xA or, once they are used up, to a step twice as long as the last
+      while (breakpointIndex < this.breakpoints.length
+               && this.direction * (this.breakpoints[breakpointIndex] - xA) <= 0.) {
+        breakpointIndex++;
+      }
+      if (breakpointIndex < this.breakpoints.length) {
+        xB = this.breakpoints[breakpointIndex];
+        breakpointIndex++;
+        isBreakpoint = true;
+      }
+      else {
+        xB = xA + this.direction * step;
+        isBreakpoint = false;
+        step *= 2.;
+      }
+
+      if (Double.isInfinite(xB)) {
+        throw new NoRootFoundException(super.getName(), this.getFunctionName(f), this, f);
+      }
+
+      f_xB = this.evaluate(f, constants, xB);
+      if (f_xB == 0.) {
+        return xB;
+      }
+      if (Math.signum(f_xB) == Math.signum(f_xA)) {
+        xA = xB;
+        f_xA = f_xB;
+      }
+    } while (Math.signum(f_xB) == Math.signum(f_xA));
+
+    /*
+     * II. Safeguarded Newton-Raphson Steps within the Bracket
+     * -----------------------------------------------------------------------------
+     */
+    double xL = Math.min(xA, xB); // Lower Bound
+    double xU = Math.max(xA, xB); // Upper Bound
+    double f_xL = (xL == xA) ? f_xA : f_xB;
+    double dx = xU - xL; // Last step
+    double dxOld = dx; // Step before the last
+    double x = xL + 0.5 * dx;
+
+    while (true) {
+      this.evaluateWithDerivative(f, constants, x);
+      double value = this.f_x.getValue();
+      double derivative = this.f_x.getDerivative();
+      if (value == 0.) {
+        return x;
+      }
+
+      // Step 1. Narrow the bracket to the side of x on which the sign changes
+      if (Math.signum(value) == Math.signum(f_xL)) {
+        xL = x;
+        f_xL = value;
+      }
+      else {
+        xU = x;
+      }
+
+      // Step 2. Take a Newton step if it stays within the bracket and is at most half the step before the last;
+      // otherwise bisect the bracket
+      double xN = x - value / derivative;
+      boolean bisect = derivative == 0. || Double.isNaN(xN) || xN <= xL || xN >= xU
+        || Math.abs(2. * value) > Math.abs(dxOld * derivative);
+      dxOld = dx;
+      if (bisect) {
+        dx = 0.5 * (xU - xL);
+        x = xL + dx;
+      }
+      else {
+        dx = x - xN;
+        x = xN;
+      }
+
+      // Step 3. Check Error
+      if (Math.abs(dx) <= tolerance || xU - xL <= tolerance) {
+        if (isBreakpoint && Math.abs(xB - x) <= tolerance) { // f jumps across zero at the breakpoint
+          return xB;
+        }
+        return x;
+      }
+    }
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 5) evaluate() : Returns f(x), counting the evaluation.
+    * ----------------------------------------------------------------------------------------------------------------------
+    */
+  private double evaluate(Function f, double[] constants, double x) throws NumericalMethodException, FunctionException {
+    super.checkEvaluationCount(f);
+    super.setEvaluationCount(super.getEvaluationCount() + 1);
+    return f.evaluate(x, constants);
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 6) evaluateWithDerivative() : Writes f(x) and f'(x) into f_x, counting the evaluation.
+    * ----------------------------------------------------------------------------------------------------------------------
+    */
+  private void evaluateWithDerivative(Function f, double[] constants, double x)
+    throws NumericalMethodException, FunctionException {
+    super.checkEvaluationCount(f);
+    super.setEvaluationCount(super.getEvaluationCount() + 1);
+    f.evaluateWithDerivative(x, constants, this.f_x);
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 7) getFunctionName() : Returns the ID of f for exception messages.
+    * ----------------------------------------------------------------------------------------------------------------------
+    */
+  private String getFunctionName(Function f) {
+    if (f instanceof BoundedFunction) {
+      return ((BoundedFunction) f).getID();
+    }
+    return "Function";
+  }
+  /*********************************************************************************************************************/
+
+
+  public double[] getBreakpoints() {
+    return this.breakpoints.clone();
+  }
+
+  public double getIncrementLength() {
+    return this.incrementLength;
+  }
+
+  public int getDirection() {
+    return this.direction;
+  }
+
+}
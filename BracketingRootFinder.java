@@ -18,11 +18,7 @@ public abstract class BracketingRootFinder extends RootFinder{
   public BracketingRootFinder(String name, double endPoint, double incrementLength, 
                               double subIncrementFraction, double maxEvaluationCount) {
     super(name, maxEvaluationCount);
-    this.endPoint = endPoint;
-    this.incrementLength = Math.abs(incrementLength);
-    this.subIncrementFraction = Math.abs(subIncrementFraction);
-    this.direction = 1;
-    this.useFunctionBounds = false;
+    this.reset(endPoint, incrementLength, subIncrementFraction, maxEvaluationCount);
   }
   /*********************************************************************************************************************/
   
@@ -34,18 +30,7 @@ public abstract class BracketingRootFinder extends RootFinder{
   public BracketingRootFinder(String name, double incrementLength, double subIncrementFraction, 
                               boolean positiveDirection, double maxEvaluationCount, boolean useFunctionBounds) {
     super(name, maxEvaluationCount);
-    this.incrementLength = Math.abs(incrementLength);
-    this.subIncrementFraction = Math.abs(subIncrementFraction);
-    
-    if (positiveDirection) {
-      this.direction = 1;
-      this.endPoint = Double.MAX_VALUE;
-    } else {
-      this.direction = -1;
-      this.endPoint = Double.MIN_VALUE;
-    }
-    
-    this.useFunctionBounds = useFunctionBounds;
+    this.reset(incrementLength, subIncrementFraction, positiveDirection, maxEvaluationCount, useFunctionBounds);
   }
   /*********************************************************************************************************************/
   
@@ -73,6 +58,47 @@ public abstract class BracketingRootFinder extends RootFinder{
   /*********************************************************************************************************************/
   
   
+  /**********************************************************************************************************************
+    * 3.1) reset() : Prepares the root finder for a new search over [startPoint, endPoint]; takes the same
+    *        parameters as constructor A.
+    * ----------------------------------------------------------------------------------------------------------------------
+    */
+  public void reset(double endPoint, double incrementLength, double subIncrementFraction, 
+                    double maxEvaluationCount) {
+    super.reset(maxEvaluationCount);
+    this.endPoint = endPoint;
+    this.incrementLength = Math.abs(incrementLength);
+    this.subIncrementFraction = Math.abs(subIncrementFraction);
+    this.direction = 1;
+    this.useFunctionBounds = false;
+  }
+  /*********************************************************************************************************************/
+  
+  
+  /**********************************************************************************************************************
+    * 3.2) reset() : Prepares the root finder for a new search in the given direction; takes the same
+    *        parameters as constructor B.
+    * ----------------------------------------------------------------------------------------------------------------------
+    */
+  public void reset(double incrementLength, double subIncrementFraction, boolean positiveDirection, 
+                    double maxEvaluationCount, boolean useFunctionBounds) {
+    super.reset(maxEvaluationCount);
+    this.incrementLength = Math.abs(incrementLength);
+    this.subIncrementFraction = Math.abs(subIncrementFraction);
+    
+    if (positiveDirection) {
+      this.direction = 1;
+      this.endPoint = Double.MAX_VALUE;
+    } else {
+      this.direction = -1;
+      this.endPoint = Double.MIN_VALUE;
+    }
+    
+    this.useFunctionBounds = useFunctionBounds;
+  }
+  /*********************************************************************************************************************/
+  
+  
   /**********************************************************************************************************************
     * 4) findRoot() : Checks the integrity of the parameters and calls the root
     *      finding method. startPoint can either be taken to be the lower bound or
@@ -162,22 +188,22 @@ public abstract class BracketingRootFinder extends RootFinder{
   
   
   /**********************************************************************************************************************
-    * 6) incrementalSearch() : Returns an increment of function f within which a
-    *        single root exists, as well as the current evaluation count; starts at xL and
-    *        moves up; to be used only by root finding methods that require bracketing.
+    * 6) incrementalSearch() : Writes into bounds an increment of function f within which a
+    *        single root exists; starts at xL and moves up; to be used only by root finding
+    *        methods that require bracketing. bounds is supplied by the caller, so that it
+    *        can be reused for every increment.
     *        bounds[0] = Lower Bound (xL)
     *        bounds[1] = Upper Bound (xU)
     * ----------------------------------------------------------------------------------------------------------------------
     */
-  protected double[] incrementalSearch(Function f, double[] constants, double startBound,
-                                       double tolerance) throws NumericalMethodException, FunctionException {
+  protected void incrementalSearch(Function f, double[] constants, double startBound,
+                                   double tolerance, double[] bounds) throws NumericalMethodException, FunctionException {
     
     // startBound: starting x-value of the searching increment
     // endBound: ending x-valye of the searching increment
     // length: length of the searching increment
     
     double endBound = startBound + (double) this.direction * this.incrementLength; // set the endBound based off the startBound
-    double[] bounds = new double[2]; // Bounds of the search increment to be returned
     double length = this.incrementLength;
     
     boolean uniqueRoot = false; // Flag for a single root within the given increment; true if only 1 root exists
@@ -307,8 +333,6 @@ public abstract class BracketingRootFinder extends RootFinder{
         // Restart Loop 1
       }
     } // End of Loop 1
-    
-    return bounds;
   }
   /*********************************************************************************************************************/
   
@@ -0,0 +1,94 @@
+import java.io.BufferedWriter;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/* Writes the result table as a CSV file with a header row. Empty fields denote missing (NaN) values.
+ */
+
+public class CSVResultTableWriter extends ResultTableWriter {
+
+  public static final int DEFAULT_BUFFER_SIZE = 1 << 20; // [chars]
+
+  private String filePath;
+  private Writer fileWriter;
+  private StringBuilder line; // Reused for every row
+
+
+  /**********************************************************************************************************************
+    * 1) Constructor : Creates the file and writes the header row.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public CSVResultTableWriter(String filePath, int componentSlotCount) throws FileNotFoundException {
+
+    super(componentSlotCount);
+
+    this.filePath = filePath;
+    this.line = new StringBuilder(32 * this.getColumnCount());
+
+    try {
+      this.fileWriter = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(filePath),
+                                                                  StandardCharsets.US_ASCII),
+                                           CSVResultTableWriter.DEFAULT_BUFFER_SIZE);
+
+      for (int j = 0; j < this.getColumnCount(); j++) {
+        if (j > 0) {
+          this.line.append(',');
+        }
+        this.line.append(this.getColumnName(j));
+      }
+      this.line.append("\r\n");
+      this.fileWriter.append(this.line);
+    }
+    catch (IOException e) {
+      throw new FileNotFoundException(filePath + " could not be opened.");
+    }
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 2) writeRow()
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  protected void writeRow(double[] row) throws IOException {
+
+    this.line.setLength(0);
+    for (int j = 0; j < row.length; j++) {
+      if (j > 0) {
+        this.line.append(',');
+      }
+      if (Double.isNaN(row[j])) {
+        continue;
+      }
+      if (this.isIntegerColumn(j)) {
+        this.line.append((long) row[j]);
+      } else {
+        this.line.append(row[j]);
+      }
+    }
+    this.line.append("\r\n");
+
+    this.fileWriter.append(this.line);
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 3) close()
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public synchronized void close() throws IOException {
+    this.fileWriter.close();
+  }
+  /*********************************************************************************************************************/
+
+
+  public String getFilePath() {
+    return this.filePath;
+  }
+
+}
@@ -0,0 +1,221 @@
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/* Splits a comma-delimited file into rows and fields without regular expressions. The whole file is read into a
+ * single byte array through a FileChannel, and fields are located by their offsets in that array; numbers are parsed
+ * directly from the bytes by NumberParser. A field is only converted to a String when getString() is called.
+ */
+
+public class CSVTokenizer {
+
+  private String filePath;
+  private byte[] bytes; // Contents of the file
+  private int position; // Start of the next row
+  private long lineNumber; // Line number of the current row
+  private int[] fieldStarts;
+  private int[] fieldEnds;
+  private int fieldCount;
+
+
+  /**********************************************************************************************************************
+    * 1) Constructor : Reads the whole file.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public CSVTokenizer(String filePath) throws IOException {
+
+    FileChannel channel;
+    try {
+      channel = new FileInputStream(filePath).getChannel();
+    }
+    catch (Exception e) {
+      throw new FileNotFoundException(filePath + " was not found.");
+    }
+
+    try {
+      if (channel.size() > Integer.MAX_VALUE) {
+        throw new IOException(filePath + " is too large.");
+      }
+      this.bytes = new byte[(int) channel.size()];
+      ByteBuffer buffer = ByteBuffer.wrap(this.bytes);
+      while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+        // Keep reading until the buffer is full
+      }
+    }
+    finally {
+      channel.close();
+    }
+
+    this.filePath = filePath;
+    this.fieldStarts = new int[64];
+    this.fieldEnds = new int[64];
+
+    // Skip the byte order mark that spreadsheet programs write at the start of the file
+    if (this.bytes.length >= 3 && this.bytes[0] == (byte) 0xEF && this.bytes[1] == (byte) 0xBB
+          && this.bytes[2] == (byte) 0xBF) {
+      this.position = 3;
+    }
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 2) nextRow() : Moves to the next row and splits it into fields. Returns false at the end of the file.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public boolean nextRow() {
+
+    if (this.position >= this.bytes.length) {
+      this.fieldCount = 0;
+      return false;
+    }
+
+    int rowEnd = this.position;
+    while (rowEnd < this.bytes.length && this.bytes[rowEnd] != '\n') {
+      rowEnd++;
+    }
+    int nextPosition = rowEnd + 1;
+    if (rowEnd > this.position && this.bytes[rowEnd - 1] == '\r') {
+      rowEnd--;
+    }
+
+    this.fieldCount = 0;
+    int fieldStart = this.position;
+    for (int i = this.position; i <= rowEnd; i++) {
+      if (i == rowEnd || this.bytes[i] == ',') {
+        if (this.fieldCount == this.fieldStarts.length) {
+          this.fieldStarts = Arrays.copyOf(this.fieldStarts, 2 * this.fieldCount);
+          this.fieldEnds = Arrays.copyOf(this.fieldEnds, 2 * this.fieldCount);
+        }
+        this.fieldStarts[this.fieldCount] = fieldStart;
+        this.fieldEnds[this.fieldCount] = i;
+        this.fieldCount++;
+        fieldStart = i + 1;
+      }
+    }
+
+    this.position = nextPosition;
+    this.lineNumber++;
+    return true;
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 3) getFieldCount() : Returns the number of fields in the current row, excluding trailing empty fields.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public int getFieldCount() {
+    int count = this.fieldCount;
+    while (count > 0 && this.isEmpty(count - 1)) {
+      count--;
+    }
+    return count;
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 4) isEmpty() : Returns true if the field is blank or beyond the end of the row.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public boolean isEmpty(int field) {
+    if (field >= this.fieldCount) {
+      return true;
+    }
+    for (int i = this.fieldStarts[field]; i < this.fieldEnds[field]; i++) {
+      if (this.bytes[i] != ' ' && this.bytes[i] != '\t') {
+        return false;
+      }
+    }
+    return true;
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 5) getString() : Returns the field as a String, or "" if the field is beyond the end of the row.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public String getString(int field) {
+    if (field >= this.fieldCount) {
+      return "";
+    }
+    return new String(this.bytes, this.fieldStarts[field], this.fieldEnds[field] - this.fieldStarts[field],
+                      StandardCharsets.UTF_8);
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 6) fieldEquals() : Returns true if the field holds exactly the given text, without creating a String.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public boolean fieldEquals(int field, byte[] text) {
+    if (field >= this.fieldCount || this.fieldEnds[field] - this.fieldStarts[field] != text.length) {
+      return false;
+    }
+    int start = this.fieldStarts[field];
+    for (int i = 0; i < text.length; i++) {
+      if (this.bytes[start + i] != text[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 7) getDouble() : Parses the field as a number; throws an IOException naming the file, row and column otherwise.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public double getDouble(int field) throws IOException {
+    if (field >= this.fieldCount) {
+      throw new IOException("A value is missing in " + this.filePath + " (row " + this.lineNumber + ", column "
+                              + (field + 1) + ").");
+    }
+    try {
+      return NumberParser.parseDouble(this.bytes, this.fieldStarts[field], this.fieldEnds[field]);
+    }
+    catch (NumberFormatException e) {
+      throw new IOException("\"" + this.getString(field) + "\" is not a number in " + this.filePath + " (row "
+                              + this.lineNumber + ", column " + (field + 1) + ").");
+    }
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 8) getInt() : Parses the field as an integer; throws an IOException naming the file, row and column otherwise.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public int getInt(int field) throws IOException {
+    if (field >= this.fieldCount) {
+      throw new IOException("A value is missing in " + this.filePath + " (row " + this.lineNumber + ", column "
+                              + (field + 1) + ").");
+    }
+    try {
+      return NumberParser.parseInt(this.bytes, this.fieldStarts[field], this.fieldEnds[field]);
+    }
+    catch (NumberFormatException e) {
+      throw new IOException("\"" + this.getString(field) + "\" is not an integer in " + this.filePath + " (row "
+                              + this.lineNumber + ", column " + (field + 1) + ").");
+    }
+  }
+  /*********************************************************************************************************************/
+
+
+  public String getFilePath() {
+    return this.filePath;
+  }
+
+  public long getLineNumber() {
+    return this.lineNumber;
+  }
+
+}
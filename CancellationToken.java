@@ -0,0 +1,125 @@
+/* Stops a flash calculation when cancel() is called from another thread, or once its time limit has passed. The
+ * token is installed for the calculating thread by FlashSeparator.flashCalculation(CancellationToken); the root
+ * finders and the iteration loops of the behaviours then check it at each iteration and throw a
+ * FlashCancelledException when it has been cancelled or has expired.
+ */
+
+public class CancellationToken {
+
+  // Token of the flash calculation running on each thread, or null
+  private static final ThreadLocal<CancellationToken> currentTokens = new ThreadLocal<CancellationToken>();
+
+  private volatile boolean cancelled; // true once cancel() has been called
+  private long timeoutMillis; // Time limit [ms]; 0 if there is none
+  private long deadline; // Value of System.nanoTime() at which the time limit expires
+
+
+  /**********************************************************************************************************************
+    * 1.1) Constructor A : Creates a token without a time limit.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public CancellationToken() {
+    this(0L);
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 1.2) Constructor B : Creates a token that expires timeoutMillis from now; 0 gives no time limit.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public CancellationToken(long timeoutMillis) {
+    if (timeoutMillis < 0) {
+      throw new IllegalArgumentException("IllegalArgumentException: The time limit must not be negative.");
+    }
+    this.cancelled = false;
+    this.timeoutMillis = timeoutMillis;
+    this.deadline = System.nanoTime() + timeoutMillis * 1000000L;
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 2) cancel() : Asks the calculation to stop; it stops at its next check.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public void cancel() {
+    this.cancelled = true;
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 3) isExpired() : Returns true if the time limit has passed.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public boolean isExpired() {
+    return this.timeoutMillis > 0 && System.nanoTime() - this.deadline >= 0;
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 4) check() : Throws a FlashCancelledException if the token has been cancelled or has expired.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public void check() {
+    if (this.cancelled) {
+      throw new FlashCancelledException(false, this.timeoutMillis);
+    }
+    if (this.isExpired()) {
+      throw new FlashCancelledException(true, this.timeoutMillis);
+    }
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 5) getCurrent() : Returns the token of the flash calculation running on this thread, or null.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public static CancellationToken getCurrent() {
+    return CancellationToken.currentTokens.get();
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 6) setCurrent() : Installs the token for this thread and returns the token it replaces, which must be restored
+    *        once the calculation has finished.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public static CancellationToken setCurrent(CancellationToken cancellationToken) {
+    CancellationToken previousToken = CancellationToken.currentTokens.get();
+    if (cancellationToken == null) {
+      CancellationToken.currentTokens.remove();
+    } else {
+      CancellationToken.currentTokens.set(cancellationToken);
+    }
+    return previousToken;
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 7) checkCurrent() : Checks the token of this thread, if there is one.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public static void checkCurrent() {
+    CancellationToken cancellationToken = CancellationToken.currentTokens.get();
+    if (cancellationToken != null) {
+      cancellationToken.check();
+    }
+  }
+  /*********************************************************************************************************************/
+
+
+  public boolean isCancelled() {
+    return this.cancelled;
+  }
+
+  public long getTimeoutMillis() {
+    return this.timeoutMillis;
+  }
+
+}
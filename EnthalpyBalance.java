@@ -6,9 +6,13 @@ public class EnthalpyBalance extends BoundedFunction {
   private boolean updatePhaseFractions; /* if true, update the condensable fractions and the 
    phase mole fractions of the unknown temperature streams */ 
   private Stream[] unknownTempStreams; // Inlet or outlet streams, all evaluated at the same temperature
+  private Stream[] initialUnknownTempStreams; /* The unknown temperature streams as they were given; null unless
+   each evaluation restores them, see setRestoresUnknownTempStreams() */
   private Stream[] inletStreams; // Inlet streams with constant temperatures
   private Stream[] outletStreams; // Outlet streams with constant temperatures
   private Behaviour behaviour;
+  private EnthalpyWorkspace workspace; // Reused by the stream enthalpy evaluations; created on first use
+  private FunctionValue streamEnthalpy; // Enthalpy of a stream and its derivative; reused by every evaluation
   
   
   
@@ -25,14 +29,12 @@ public class EnthalpyBalance extends BoundedFunction {
     this.isInlet = isInlet;
     this.updatePhaseFractions = updatePhaseFractions;
     this.behaviour = behaviour;
-    
-    double[] bounds = { Double.MIN_VALUE, Double.MAX_VALUE };
+    this.streamEnthalpy = new FunctionValue();
     
     if (unknownTempStreams != null) {
       this.unknownTempStreams = new Stream[unknownTempStreams.length];
       for (int i = 0; i < unknownTempStreams.length; i++) {
         this.unknownTempStreams[i] = new Stream(unknownTempStreams[i]);
-        bounds = this.calculateBounds(bounds[0], bounds[1], this.unknownTempStreams[i]);
       }
     }
     
@@ -40,7 +42,6 @@ public class EnthalpyBalance extends BoundedFunction {
       this.inletStreams = new Stream[inletStreams.length];
       for (int i = 0; i < inletStreams.length; i++) {
         this.inletStreams[i] = new Stream(inletStreams[i]);
-        bounds = this.calculateBounds(bounds[0], bounds[1], this.inletStreams[i]);
       }
     }
     
@@ -48,12 +49,10 @@ public class EnthalpyBalance extends BoundedFunction {
       this.outletStreams = new Stream[outletStreams.length];
       for (int i = 0; i < outletStreams.length; i++) {
         this.outletStreams[i] = new Stream(outletStreams[i]);
-        bounds = this.calculateBounds(bounds[0], bounds[1], this.outletStreams[i]);
       }
     }
     
-    super.setMinX(bounds[0]);
-    super.setMaxX(bounds[1]);
+    this.updateBounds();
   }
   /*********************************************************************************************************************/
   
@@ -69,25 +68,33 @@ public class EnthalpyBalance extends BoundedFunction {
     this.isInlet = source.isInlet;
     this.updatePhaseFractions = source.updatePhaseFractions;
     this.behaviour = source.behaviour.clone();
+    this.streamEnthalpy = new FunctionValue();
+    
+    if (source.initialUnknownTempStreams != null) {
+      this.initialUnknownTempStreams = new Stream[source.initialUnknownTempStreams.length];
+      for (int i = 0; i < source.initialUnknownTempStreams.length; i++) {
+        this.initialUnknownTempStreams[i] = source.initialUnknownTempStreams[i].clone();
+      }
+    }
     
     if (source.unknownTempStreams != null) {
-      this.unknownTempStreams = new Stream[unknownTempStreams.length];
-      for (int i = 0; i < unknownTempStreams.length; i++) {
+      this.unknownTempStreams = new Stream[source.unknownTempStreams.length];
+      for (int i = 0; i < source.unknownTempStreams.length; i++) {
         this.unknownTempStreams[i] = source.unknownTempStreams[i].clone();
       }
     }
     
     if (source.inletStreams != null) {
-      this.inletStreams = new Stream[inletStreams.length];
-      for (int i = 0; i < inletStreams.length; i++) {
+      this.inletStreams = new Stream[source.inletStreams.length];
+      for (int i = 0; i < source.inletStreams.length; i++) {
         this.inletStreams[i] = source.inletStreams[i].clone();
       }
     }
     
     if (source.outletStreams != null) {
-      this.outletStreams = new Stream[outletStreams.length];
-      for (int i = 0; i < outletStreams.length; i++) {
-        this.outletStreams[i] = source.outletStreams[i];
+      this.outletStreams = new Stream[source.outletStreams.length];
+      for (int i = 0; i < source.outletStreams.length; i++) {
+        this.outletStreams[i] = source.outletStreams[i].clone();
       }
     }
   }
@@ -128,6 +135,56 @@ public class EnthalpyBalance extends BoundedFunction {
   /*********************************************************************************************************************/
   
   
+  /**********************************************************************************************************************
+    * 5.1) evaluateWithDerivativeWithinBounds() : Returns the energy and its derivative from a single pass over the 
+    *           streams, so that the unknown temperature streams are only updated once. Only the unknown temperature
+    *           streams contribute to the derivative.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  protected void evaluateWithDerivativeWithinBounds(double x, double[] constants, FunctionValue result) 
+    throws FunctionException {
+    
+    double Q = 0;
+    double dQdT = 0;
+    FunctionValue H = this.streamEnthalpy;
+    
+    if (this.unknownTempStreams != null) {
+      for (int i = 0; i < unknownTempStreams.length; i++) {
+        
+        this.restoreUnknownTempStream(i);
+        this.unknownTempStreams[i].setT(x, true, this.updatePhaseFractions);
+        this.behaviour.evaluateStreamEnthalpyWithDerivative(this.Tref, this.unknownTempStreams[i], 
+                                                            this.getWorkspace(this.unknownTempStreams[i]), H);
+        
+        if (this.isInlet) {
+          Q -= H.getValue();
+          dQdT -= H.getDerivative();
+        } else {
+          Q += H.getValue();
+          dQdT += H.getDerivative();
+        }
+      }
+    }
+    
+    if (this.inletStreams != null) {
+      for (int i = 0; i < inletStreams.length; i++) {
+        Q -= this.behaviour.evaluateStreamEnthalpy(this.Tref, this.inletStreams[i], false,
+                                                   this.getWorkspace(this.inletStreams[i]));
+      }
+    }
+    
+    if (this.outletStreams != null) {
+      for (int i = 0; i < outletStreams.length; i++) {
+        Q += this.behaviour.evaluateStreamEnthalpy(this.Tref, this.outletStreams[i], false,
+                                                   this.getWorkspace(this.outletStreams[i]));
+      }
+    }
+    
+    result.set(Q, dQdT);
+  }
+  /*********************************************************************************************************************/
+  
+  
   /**********************************************************************************************************************
     * 6) evaluateHeat() : Returns the heat of the flash separation, Q. 
     *       If Q is positive, then energy must be added to the system. 
@@ -141,27 +198,31 @@ public class EnthalpyBalance extends BoundedFunction {
     if (this.unknownTempStreams != null) {
       for (int i = 0; i < unknownTempStreams.length; i++) {
         
+        this.restoreUnknownTempStream(i);
         this.unknownTempStreams[i].setT(T, true, this.updatePhaseFractions);
         
         if (this.isInlet) {
-          Q -= this.behaviour.evaluateStreamEnthalpy(this.Tref, this.unknownTempStreams[i], 
-                                                     derivative);
+          Q -= this.behaviour.evaluateStreamEnthalpy(this.Tref, this.unknownTempStreams[i], derivative,
+                                                     this.getWorkspace(this.unknownTempStreams[i]));
         } else {
-          Q += this.behaviour.evaluateStreamEnthalpy(this.Tref, this.unknownTempStreams[i], 
-                                                     derivative);
+          Q += this.behaviour.evaluateStreamEnthalpy(this.Tref, this.unknownTempStreams[i], derivative,
+                                                     this.getWorkspace(this.unknownTempStreams[i]));
         }
       }
     }
     
-    if (this.inletStreams != null) {
+    // The streams of known temperature do not contribute to the derivative
+    if (this.inletStreams != null && !derivative) {
       for (int i = 0; i < inletStreams.length; i++) {
-        Q -= this.behaviour.evaluateStreamEnthalpy(this.Tref, this.inletStreams[i], derivative);
+        Q -= this.behaviour.evaluateStreamEnthalpy(this.Tref, this.inletStreams[i], derivative,
+                                                   this.getWorkspace(this.inletStreams[i]));
       }
     }
     
-    if (this.outletStreams != null) {
+    if (this.outletStreams != null && !derivative) {
       for (int i = 0; i < outletStreams.length; i++) {
-        Q += this.behaviour.evaluateStreamEnthalpy(this.Tref, this.outletStreams[i], derivative);
+        Q += this.behaviour.evaluateStreamEnthalpy(this.Tref, this.outletStreams[i], derivative,
+                                                   this.getWorkspace(this.outletStreams[i]));
       }
     }
     
@@ -171,29 +232,60 @@ public class EnthalpyBalance extends BoundedFunction {
   
   
   /**********************************************************************************************************************
-    * 7) calculateBounds()
+    * 7) updateBounds() : Sets the bounds of the balance to the temperature range over which the enthalpy correlations 
+    *       of every stream are valid. The range of each mixture is calculated once, by its MixtureCorrelations.
     * ---------------------------------------------------------------------------------------------------------------------
     */
-  private double[] calculateBounds(double minX, double maxX, Stream stream) {
-    
-    for (int i = 0; i < stream.getComponentCount(); i++) {
-      minX = Math.max(minX,
-                      Menu.getSpecies(stream.getSpeciesIndex(i)).getCorrelation(Species.ENTHALPY_LIQUID).getMinX());
-      minX = Math.max(minX,
-                      Menu.getSpecies(stream.getSpeciesIndex(i)).getCorrelation(Species.ENTHALPY_VAPOUR).getMinX());
-      
-      maxX = Math.min(maxX,
-                      Menu.getSpecies(stream.getSpeciesIndex(i)).getCorrelation(Species.ENTHALPY_LIQUID).getMaxX());
-      maxX = Math.min(maxX,
-                      Menu.getSpecies(stream.getSpeciesIndex(i)).getCorrelation(Species.ENTHALPY_VAPOUR).getMaxX());
+  private void updateBounds() {
+    
+    double minX = Double.MIN_VALUE;
+    double maxX = Double.MAX_VALUE;
+    Stream[][] streamGroups = { this.unknownTempStreams, this.inletStreams, this.outletStreams };
+    
+    for (int i = 0; i < streamGroups.length; i++) {
+      if (streamGroups[i] != null) {
+        for (int j = 0; j < streamGroups[i].length; j++) {
+          MixtureCorrelations correlations = streamGroups[i][j].getMixtureCorrelations();
+          minX = Math.max(minX, correlations.getEnthalpyMinT());
+          maxX = Math.min(maxX, correlations.getEnthalpyMaxT());
+        }
+      }
     }
     
-    return new double[] { minX, maxX };
+    super.setMinX(minX);
+    super.setMaxX(maxX);
+  }
+  /*********************************************************************************************************************/
+  
+  
+  /**********************************************************************************************************************
+    * 8) getWorkspace() : Returns the enthalpy workspace of the balance, replacing it if the stream has a different 
+    *       number of components.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  private EnthalpyWorkspace getWorkspace(Stream stream) {
+    if (this.workspace == null || this.workspace.getComponentCount() != stream.getComponentCount()) {
+      this.workspace = new EnthalpyWorkspace(stream.getComponentCount());
+    }
+    return this.workspace;
   }
   /*********************************************************************************************************************/
   
   
-  public double getTref() {
+  /**********************************************************************************************************************
+    * 9) restoreUnknownTempStream() : Copies the stream as it was given back into an unknown temperature stream, 
+    *       if the balance restores its unknown temperature streams before each evaluation.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  private void restoreUnknownTempStream(int index) {
+    if (this.initialUnknownTempStreams != null) {
+      this.unknownTempStreams[index].copyFrom(this.initialUnknownTempStreams[index]);
+    }
+  }
+  /*********************************************************************************************************************/
+  
+  
+    public double getTref() {
     return this.Tref;
   }
   
@@ -233,6 +325,59 @@ public class EnthalpyBalance extends BoundedFunction {
   }
   
   
+  public boolean getRestoresUnknownTempStreams() {
+    return this.initialUnknownTempStreams != null;
+  }
+  
+  
+  // Updating the phase fractions of a stream removes the components that are above their critical temperatures, which 
+  // cannot be undone by lowering the temperature again; an incremental search, which only moves in one direction, 
+  // does not need the streams to be restored, whereas a root finder that steps back across a critical temperature 
+  // does. Switching the option off leaves the streams as they were given.
+  public void setRestoresUnknownTempStreams(boolean restoresUnknownTempStreams) {
+    if (restoresUnknownTempStreams) {
+      this.initialUnknownTempStreams = this.getUnknownTempStreams();
+    } else if (this.initialUnknownTempStreams != null) {
+      this.unknownTempStreams = this.initialUnknownTempStreams;
+      this.initialUnknownTempStreams = null;
+    }
+  }
+  
+  
+  public Stream[] getUnknownTempStreams() {
+    
+    Stream[] arrayCopy = new Stream[this.unknownTempStreams.length];
+    
+    for (int i = 0; i < this.unknownTempStreams.length; i++) {
+      arrayCopy[i] = this.unknownTempStreams[i].clone();
+    }
+    
+    return arrayCopy;
+  }
+  
+  public void setUnknownTempStreams(Stream[] unknownTempStreams) {
+    
+    this.unknownTempStreams = new Stream[unknownTempStreams.length];
+    
+    for (int i = 0; i < this.unknownTempStreams.length; i++) {
+      this.unknownTempStreams[i] = unknownTempStreams[i].clone();
+    }
+    if (this.initialUnknownTempStreams != null) {
+      this.initialUnknownTempStreams = this.getUnknownTempStreams();
+    }
+    this.updateBounds();
+  }
+  
+  // The single-stream setters replace one stream with a copy of the given one, so that a balance can be reused for 
+  // each new state of its streams instead of being constructed again
+  public void setUnknownTempStream(int index, Stream unknownTempStream) {
+    this.unknownTempStreams[index] = unknownTempStream.clone();
+    if (this.initialUnknownTempStreams != null) {
+      this.initialUnknownTempStreams[index] = unknownTempStream.clone();
+    }
+    this.updateBounds();
+  }
+  
   public Stream[] getInletStreams() {
     
     Stream[] arrayCopy = new Stream[this.inletStreams.length];
@@ -251,6 +396,12 @@ public class EnthalpyBalance extends BoundedFunction {
     for (int i = 0; i < this.inletStreams.length; i++) {
       this.inletStreams[i] = inletStreams[i].clone();
     }
+    this.updateBounds();
+  }
+  
+  public void setInletStream(int index, Stream inletStream) {
+    this.inletStreams[index] = inletStream.clone();
+    this.updateBounds();
   }
   
   public Stream[] getOutletStreams() {
@@ -271,6 +422,12 @@ public class EnthalpyBalance extends BoundedFunction {
     for (int i = 0; i < this.outletStreams.length; i++) {
       this.outletStreams[i] = outletStreams[i].clone();
     }
+    this.updateBounds();
+  }
+  
+  public void setOutletStream(int index, Stream outletStream) {
+    this.outletStreams[index] = outletStream.clone();
+    this.updateBounds();
   }
   
 }
\ No newline at end of file
@@ -103,7 +103,8 @@ public class EnthalpyLiquid extends Correlation {
     } else {
       double t = 1 - T / Tc;
       
-      return 0.001 * -Tc
+      // The -Tc factor of the enthalpy cancels with dt/dT = -1/Tc
+      return 0.001
         * (Math.pow(C[0], 2) / t 
              + C[1] 
              - 2. * C[0] * C[2] * t 
@@ -126,4 +127,53 @@ public class EnthalpyLiquid extends Correlation {
   /*********************************************************************************************************************/
   
   
+  /**********************************************************************************************************************
+    * 7) evaluateWithDerivativeWithinBounds() : The constants and reduced temperatures are shared by the enthalpy 
+    *                                            and its derivative.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  protected void evaluateWithDerivativeWithinBounds(double x, double[] constants, FunctionValue result) {
+    double T = x; // Temperature
+    double Tref = constants[0]; // Reference Temperature 
+    double Tc = constants[1]; // Critical Temperature
+    double[] C = super.getC(); // Correlation Constants
+    
+    // Form 0
+    if (super.getForm() == 0) {
+      result.set(0.001 * (C[0] * (T - Tref) + 0.5 * C[1] * (Math.pow(T, 2) - Math.pow(Tref, 2))
+                            + (1. / 3.) * C[2] * (Math.pow(T, 3) - Math.pow(Tref, 3))
+                            + (1. / 4.) * C[3] * (Math.pow(T, 4) - Math.pow(Tref, 4))
+                            + (1. / 5.) * C[4] * (Math.pow(T, 5) - Math.pow(Tref, 5))), 
+                 0.001 
+                   * (C[0] 
+                        + C[1] * T 
+                        + C[2] * Math.pow(T, 2) 
+                        + C[3] * Math.pow(T, 3) 
+                        + C[4] * Math.pow(T, 4)));
+    } 
+    // Form 1
+    else {
+      double t = 1 - T / Tc;
+      double t0 = 1 - Tref / Tc;
+      
+      result.set(0.001 * -Tc
+                   * (Math.pow(C[0], 2) * Math.log(t / t0) + C[1] * (t - t0)
+                        - C[0] * C[2] * (Math.pow(t, 2) - Math.pow(t0, 2))
+                        - (1. / 3.) * C[0] * C[3] * (Math.pow(t, 3) - Math.pow(t0, 3))
+                        - (1. / 12.) * Math.pow(C[2], 2) * (Math.pow(t, 4) - Math.pow(t0, 4))
+                        - (1. / 10.) * C[2] * C[3] * (Math.pow(t, 5) - Math.pow(t0, 5))
+                        - (1. / 30.) * Math.pow(C[3], 2) * (Math.pow(t, 6) - Math.pow(t0, 6))), 
+                 0.001
+                   * (Math.pow(C[0], 2) / t 
+                        + C[1] 
+                        - 2. * C[0] * C[2] * t 
+                        - C[0] * C[3] * Math.pow(t, 2)
+                        - (1. / 3.) * Math.pow(C[2], 2) * Math.pow(t, 3) 
+                        - (1. / 2.) * C[2] * C[3] * Math.pow(t, 4)
+                        - (1. / 5.) * Math.pow(C[3], 2) * Math.pow(t, 5)));
+    }
+  }
+  /*********************************************************************************************************************/
+  
+  
 }
\ No newline at end of file
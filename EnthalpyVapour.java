@@ -81,16 +81,16 @@ public class EnthalpyVapour extends Correlation {
     */
   protected double evaluateDerivativeWithinBounds(double x, double[] constants) {
     double T = x;
-    double dhLdT = constants[1];
     double[] C = super.getC();
     
+    // The liquid enthalpy at Tb and the latent heat do not depend on T
     double dHvdT = EnthalpyVapour.R 
       * (C[0] 
            + C[1] * T 
            + C[2] * Math.pow(T, 2) 
            + C[3] * Math.pow(T, -2));
     
-    return dhLdT + dHvdT;
+    return dHvdT;
   }
   /*********************************************************************************************************************/
   
@@ -105,4 +105,36 @@ public class EnthalpyVapour extends Correlation {
   /*********************************************************************************************************************/
   
   
+  /**********************************************************************************************************************
+    * 7) evaluateWithDerivativeWithinBounds() : Takes the same constants as evaluateWithinBounds():
+    *             constants[0] = Normal Boiling Point
+    *             constants[1] = Liquid-Phase Enthalpy at Tb
+    *             constants[2] = Latent Heat
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  protected void evaluateWithDerivativeWithinBounds(double x, double[] constants, FunctionValue result) {
+    
+    double T = x;
+    double Tb = constants[0];
+    double hL = constants[1];
+    double lambda = constants[2];
+    double[] C = super.getC();
+    
+    double Hv = EnthalpyVapour.R 
+      * ((C[0] * (T - Tb)) 
+           + (0.5 * C[1] * (Math.pow(T, 2) - Math.pow(Tb, 2)))
+           + ((1. / 3.) * C[2] * (Math.pow(T, 3) - Math.pow(Tb, 3)))
+           + (-1. * C[3] * (Math.pow(T, -1) - Math.pow(Tb, -1))));
+    
+    double dHvdT = EnthalpyVapour.R 
+      * (C[0] 
+           + C[1] * T 
+           + C[2] * Math.pow(T, 2) 
+           + C[3] * Math.pow(T, -2));
+    
+    result.set(hL + lambda + Hv, dHvdT);
+  }
+  /*********************************************************************************************************************/
+  
+  
 }
\ No newline at end of file
@@ -0,0 +1,62 @@
+/* Holds the per-component arrays used by Stream.evaluateStreamEnthalpy() and
+ * Stream.evaluateStreamEnthalpyWithDerivative(), so that a caller which evaluates many stream enthalpies, such as
+ * EnthalpyBalance, can reuse one set of arrays instead of allocating them per evaluation. Every element is
+ * overwritten by each evaluation. An instance must not be used by two threads at once.
+ */
+
+public class EnthalpyWorkspace {
+
+  private boolean[] isLiquid; // Components whose liquid enthalpy is needed
+  private boolean[] isVapour; // Components whose vapour enthalpy is needed
+  private double[] hL; // [J/mol]
+  private double[] Hv; // [J/mol]
+  private double[] dhLdT; // [J/mol/K]
+  private double[] dHvdT; // [J/mol/K]
+
+
+  /**********************************************************************************************************************
+    * 1) Constructor
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public EnthalpyWorkspace(int componentCount) {
+    this.isLiquid = new boolean[componentCount];
+    this.isVapour = new boolean[componentCount];
+    this.hL = new double[componentCount];
+    this.Hv = new double[componentCount];
+    this.dhLdT = new double[componentCount];
+    this.dHvdT = new double[componentCount];
+  }
+  /*********************************************************************************************************************/
+
+
+  // The getters return the arrays themselves rather than copies, since they are written by the evaluations
+
+  public int getComponentCount() {
+    return this.hL.length;
+  }
+
+  public boolean[] getIsLiquid() {
+    return this.isLiquid;
+  }
+
+  public boolean[] getIsVapour() {
+    return this.isVapour;
+  }
+
+  public double[] getHL() {
+    return this.hL;
+  }
+
+  public double[] getHv() {
+    return this.Hv;
+  }
+
+  public double[] getDhLdT() {
+    return this.dhLdT;
+  }
+
+  public double[] getDHvdT() {
+    return this.dHvdT;
+  }
+
+}
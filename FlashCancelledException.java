@@ -0,0 +1,40 @@
+/* Thrown when a flash calculation is stopped by its CancellationToken. It is unchecked so that it passes through
+ * Function.evaluate() and the catch blocks that retry a search after a numerical failure.
+ */
+
+public class FlashCancelledException extends RuntimeException {
+
+  private boolean timedOut; // true if the time limit expired; false if the calculation was cancelled
+  private long timeoutMillis;
+
+  public FlashCancelledException(boolean timedOut, long timeoutMillis) {
+    super();
+    this.timedOut = timedOut;
+    this.timeoutMillis = timeoutMillis;
+  }
+
+  public String getMessage() {
+    if (this.timedOut) {
+      return "FlashCancelledException: The flash calculation exceeded its time limit of " + this.timeoutMillis
+        + " ms.";
+    }
+    return "FlashCancelledException: The flash calculation was cancelled.";
+  }
+
+  public boolean isTimedOut() {
+    return this.timedOut;
+  }
+
+  public void setTimedOut(boolean timedOut) {
+    this.timedOut = timedOut;
+  }
+
+  public long getTimeoutMillis() {
+    return this.timeoutMillis;
+  }
+
+  public void setTimeoutMillis(long timeoutMillis) {
+    this.timeoutMillis = timeoutMillis;
+  }
+
+}
@@ -0,0 +1,176 @@
+/* A single flash separator case, as read from a batch case file.
+ * T = [K]
+ * P = [bar]
+ * F = [mol/h]
+ */
+
+public class FlashCase {
+
+  private long lineNumber; // Line of the case file the case was read from
+  private int flashCase; // 0 = Isothermal Heat, 1 = Adiabatic Flash Temperature, 2 = Adiabatic Feed Temperature
+  private int behaviourCase; // 0 = Ideal, 1 = Non-Ideal
+  private double T;
+  private double P;
+  private double F;
+  private String[] componentNames;
+  private double[] z;
+
+
+  /**********************************************************************************************************************
+    * 1) Constructor : The arrays are stored by reference; they are built by FlashCaseReader for this case only.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public FlashCase(long lineNumber, int flashCase, int behaviourCase, double T, double P, double F,
+                   String[] componentNames, double[] z) {
+    this.lineNumber = lineNumber;
+    this.flashCase = flashCase;
+    this.behaviourCase = behaviourCase;
+    this.T = T;
+    this.P = P;
+    this.F = F;
+    this.componentNames = componentNames;
+    this.z = z;
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 2) Copy Constructor
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public FlashCase(FlashCase source) {
+    this.lineNumber = source.lineNumber;
+    this.flashCase = source.flashCase;
+    this.behaviourCase = source.behaviourCase;
+    this.T = source.T;
+    this.P = source.P;
+    this.F = source.F;
+    this.componentNames = source.componentNames.clone();
+    this.z = source.z.clone();
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 3) clone()
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public FlashCase clone() {
+    return new FlashCase(this);
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 4) validate() : Applies the same checks as Menu.readFlashSeparatorInputFile().
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public void validate() {
+
+    if (this.flashCase < 0 || this.flashCase > 2) {
+      throw new IllegalArgumentException("IllegalArgumentException: Inputted flash case is incorrect.");
+    }
+    else if (this.behaviourCase < 0 || this.behaviourCase > 1) {
+      throw new IllegalArgumentException("IllegalArgumentException: Inputted behaviour case is incorrect.");
+    }
+    else if (!(this.T > 0.)) {
+      throw new IllegalArgumentException("IllegalArgumentException: Inputted temperature is below absolute zero.");
+    }
+    else if (this.T > Double.MAX_VALUE) {
+      throw new IllegalArgumentException("IllegalArgumentException: Inputted temperature is above maximum.");
+    }
+    else if (!(this.P > 0.)) {
+      throw new IllegalArgumentException("IllegalArgumentException: Inputted pressure is less than or equal to 0.");
+    }
+    else if (this.P > Double.MAX_VALUE) {
+      throw new IllegalArgumentException("IllegalArgumentException: Inputted pressure is above maximum.");
+    }
+    else if (!(this.F > 0.)) {
+      throw new IllegalArgumentException("IllegalArgumentException: Inputted molar flow rate is less than or equal to 0.");
+    }
+    else if (this.F > Double.MAX_VALUE) {
+      throw new IllegalArgumentException("IllegalArgumentException: Inputted molar flow rate is above maximum.");
+    }
+
+    if (this.componentNames.length == 0) {
+      throw new IllegalArgumentException("IllegalArgumentException: No components were inputted.");
+    }
+
+    double sum = 0.;
+    for (int i = 0; i < this.componentNames.length; i++) {
+      if (this.componentNames[i] == null || this.componentNames[i].equals("")) {
+        throw new IllegalArgumentException("IllegalArgumentException: A species name is missing.");
+      }
+      if (!(this.z[i] > 0.)) {
+        throw new IllegalArgumentException("IllegalArgumentException: Inputted mole fraction is less than or equal to 0.");
+      }
+      for (int j = i + 1; j < this.componentNames.length; j++) {
+        if (this.componentNames[i].equals(this.componentNames[j])) {
+          throw new IllegalArgumentException("IllegalArgumentException: Component names are not unique.");
+        }
+      }
+      sum += this.z[i];
+    }
+    if (sum > 1.001 || sum < 0.999) {
+      throw new IllegalArgumentException("IllegalArgumentException: Mole fractions do not sum to unity.");
+    }
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 5) buildFlashSeparator() : Builds the FlashSeparator described by this case.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public FlashSeparator buildFlashSeparator() throws java.io.FileNotFoundException, StreamException {
+    return Menu.buildFlashSeparator(this.flashCase, this.behaviourCase, this.T, this.P, this.F,
+                                    this.componentNames, this.z);
+  }
+  /*********************************************************************************************************************/
+
+
+  public long getLineNumber() {
+    return this.lineNumber;
+  }
+
+  public int getFlashCase() {
+    return this.flashCase;
+  }
+
+  public int getBehaviourCase() {
+    return this.behaviourCase;
+  }
+
+  public double getT() {
+    return this.T;
+  }
+
+  public double getP() {
+    return this.P;
+  }
+
+  public double getF() {
+    return this.F;
+  }
+
+  public int getComponentCount() {
+    return this.z.length;
+  }
+
+  public String getComponentName(int componentIndex) {
+    return this.componentNames[componentIndex];
+  }
+
+  public String[] getComponentNames() {
+    return this.componentNames.clone();
+  }
+
+  public double getZi(int componentIndex) {
+    return this.z[componentIndex];
+  }
+
+  public double[] getZ() {
+    return this.z.clone();
+  }
+
+}
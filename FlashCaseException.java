@@ -0,0 +1,22 @@
+public class FlashCaseException extends Exception {
+
+  private long lineNumber;
+
+  public FlashCaseException(String message, long lineNumber) {
+    super(message);
+    this.lineNumber = lineNumber;
+  }
+
+  public String getMessage() {
+    return "FlashCaseException: Line " + this.lineNumber + ": " + super.getMessage();
+  }
+
+  public long getLineNumber() {
+    return this.lineNumber;
+  }
+
+  public void setLineNumber(long lineNumber) {
+    this.lineNumber = lineNumber;
+  }
+
+}
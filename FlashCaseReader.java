@@ -0,0 +1,519 @@
+import java.io.Closeable;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+
+/* Reads flash separator cases one at a time from a large case file, so that memory use does not depend on the
+ * number of cases in the file. Two row formats are accepted, and may be mixed:
+ *
+ *   CSV :        flashCase,behaviourCase,T,P,F,name1,z1,name2,z2,...
+ *   JSON-lines : {"flashCase":2,"behaviourCase":1,"T":200.0,"P":29.0,"F":1.0,"components":{"Ethane":0.2,...}}
+ *
+ * As in Input.txt, T is given in degrees Celsius, P in bar and F in mol/h. A non-numeric first row is treated as
+ * a CSV header and skipped; blank rows and trailing empty CSV fields are ignored.
+ */
+
+public class FlashCaseReader implements Closeable {
+
+  public static final int DEFAULT_BUFFER_SIZE = 1 << 20; // [bytes]
+  private static final int OPERATING_CONDITION_COUNT = 5;
+
+  private String filePath;
+  private FileChannel channel;
+  private byte[] buffer; // Bytes read from the channel; rows are parsed in place
+  private ByteBuffer byteBuffer; // Wraps buffer
+  private int position; // Start of the first unread row in buffer
+  private int limit; // End of the valid bytes in buffer
+  private boolean endOfFile;
+  private long lineNumber; // Line number of the last row read
+  private boolean firstRowRead; // true once the header row, if any, has been passed
+  private int lineStart;
+  private int lineEnd;
+
+  // Scratch space reused for every row
+  private int[] fieldStarts;
+  private int[] fieldEnds;
+  private int fieldCount;
+  private String[] componentNames;
+  private double[] z;
+  private int componentCount;
+  private int cursor; // Position of the JSON parser in buffer
+
+
+  /**********************************************************************************************************************
+    * 1.1) Constructor
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public FlashCaseReader(String filePath) throws FileNotFoundException {
+    this(filePath, FlashCaseReader.DEFAULT_BUFFER_SIZE);
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 1.2) Constructor : The buffer grows if a single row is longer than bufferSize.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public FlashCaseReader(String filePath, int bufferSize) throws FileNotFoundException {
+
+    try {
+      this.channel = new FileInputStream(filePath).getChannel();
+    }
+    catch (Exception e) {
+      throw new FileNotFoundException(filePath + " was not found.");
+    }
+
+    this.filePath = filePath;
+    this.buffer = new byte[Math.max(bufferSize, 64)];
+    this.byteBuffer = ByteBuffer.wrap(this.buffer);
+    this.fieldStarts = new int[32];
+    this.fieldEnds = new int[32];
+    this.componentNames = new String[16];
+    this.z = new double[16];
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 2) next() : Returns the next case in the file, or null at the end of the file.
+    *       A row that cannot be parsed or fails validation throws a FlashCaseException; reading may continue with the
+    *       following row.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public FlashCase next() throws IOException, FlashCaseException {
+
+    while (this.readLine()) {
+
+      // Skip the byte order mark that spreadsheet programs write at the start of the file
+      if (this.lineNumber == 1 && this.lineEnd - this.lineStart >= 3 && this.buffer[this.lineStart] == (byte) 0xEF
+            && this.buffer[this.lineStart + 1] == (byte) 0xBB && this.buffer[this.lineStart + 2] == (byte) 0xBF) {
+        this.lineStart += 3;
+      }
+
+      int start = this.skipBlanks(this.lineStart, this.lineEnd);
+      if (start == this.lineEnd) {
+        continue; // Blank row
+      }
+
+      FlashCase flashCase;
+      if (this.buffer[start] == '{') {
+        this.firstRowRead = true;
+        flashCase = this.parseJSONRow(start);
+      }
+      else {
+        this.splitCSVRow();
+        if (!this.firstRowRead) {
+          this.firstRowRead = true;
+          if (!NumberParser.isNumber(this.buffer, this.fieldStarts[0], this.fieldEnds[0])) {
+            continue; // Header row
+          }
+        }
+        flashCase = this.parseCSVRow();
+      }
+
+      try {
+        flashCase.validate();
+      }
+      catch (IllegalArgumentException e) {
+        throw new FlashCaseException(e.getMessage(), this.lineNumber);
+      }
+
+      return flashCase;
+    }
+
+    return null;
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 3) close()
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public void close() throws IOException {
+    this.channel.close();
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 4) readLine() : Finds the next row in the buffer, refilling the buffer from the channel as needed.
+    *       Returns false at the end of the file.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  private boolean readLine() throws IOException {
+
+    int searchStart = this.position;
+    while (true) {
+      for (int i = searchStart; i < this.limit; i++) {
+        if (this.buffer[i] == '\n') {
+          this.lineStart = this.position;
+          this.lineEnd = i;
+          this.position = i + 1;
+          this.lineNumber++;
+          return true;
+        }
+      }
+
+      if (this.endOfFile) {
+        if (this.position < this.limit) { // Final row without a line feed
+          this.lineStart = this.position;
+          this.lineEnd = this.limit;
+          this.position = this.limit;
+          this.lineNumber++;
+          return true;
+        }
+        return false;
+      }
+
+      searchStart = this.limit - this.position;
+      this.fill();
+    }
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 5) fill() : Moves the unread bytes to the start of the buffer and reads from the channel behind them.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  private void fill() throws IOException {
+
+    if (this.position > 0) {
+      System.arraycopy(this.buffer, this.position, this.buffer, 0, this.limit - this.position);
+      this.limit -= this.position;
+      this.position = 0;
+    }
+
+    if (this.limit == this.buffer.length) { // The current row does not fit in the buffer
+      this.buffer = Arrays.copyOf(this.buffer, 2 * this.buffer.length);
+      this.byteBuffer = ByteBuffer.wrap(this.buffer);
+    }
+
+    this.byteBuffer.clear();
+    this.byteBuffer.position(this.limit);
+    int byteCount = this.channel.read(this.byteBuffer);
+    if (byteCount < 0) {
+      this.endOfFile = true;
+    } else {
+      this.limit += byteCount;
+    }
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 6) splitCSVRow() : Stores the bounds of each field of the current row, ignoring trailing empty fields.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  private void splitCSVRow() {
+
+    int fieldCount = 0;
+    int fieldStart = this.lineStart;
+    for (int i = this.lineStart; i <= this.lineEnd; i++) {
+      if (i == this.lineEnd || this.buffer[i] == ',') {
+        if (fieldCount == this.fieldStarts.length) {
+          this.fieldStarts = Arrays.copyOf(this.fieldStarts, 2 * fieldCount);
+          this.fieldEnds = Arrays.copyOf(this.fieldEnds, 2 * fieldCount);
+        }
+        this.fieldStarts[fieldCount] = this.skipBlanks(fieldStart, i);
+        this.fieldEnds[fieldCount] = this.skipTrailingBlanks(this.fieldStarts[fieldCount], i);
+        fieldCount++;
+        fieldStart = i + 1;
+      }
+    }
+
+    while (fieldCount > 0 && this.fieldStarts[fieldCount - 1] == this.fieldEnds[fieldCount - 1]) {
+      fieldCount--;
+    }
+
+    this.fieldCount = fieldCount;
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 7) parseCSVRow() : Builds a case from the fields of the current CSV row.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  private FlashCase parseCSVRow() throws FlashCaseException {
+
+    int fieldCount = this.fieldCount;
+    if (fieldCount < FlashCaseReader.OPERATING_CONDITION_COUNT + 2
+          || (fieldCount - FlashCaseReader.OPERATING_CONDITION_COUNT) % 2 != 0) {
+      throw new FlashCaseException("Expected the 5 operating conditions followed by name and mole fraction pairs in "
+                                     + this.filePath + ".", this.lineNumber);
+    }
+
+    int flashCase;
+    int behaviourCase;
+    double T;
+    double P;
+    double F;
+    try {
+      flashCase = NumberParser.parseInt(this.buffer, this.fieldStarts[0], this.fieldEnds[0]);
+      behaviourCase = NumberParser.parseInt(this.buffer, this.fieldStarts[1], this.fieldEnds[1]);
+      T = NumberParser.parseDouble(this.buffer, this.fieldStarts[2], this.fieldEnds[2]) + 273.15;
+      P = NumberParser.parseDouble(this.buffer, this.fieldStarts[3], this.fieldEnds[3]);
+      F = NumberParser.parseDouble(this.buffer, this.fieldStarts[4], this.fieldEnds[4]);
+    }
+    catch (NumberFormatException e) {
+      throw new FlashCaseException("Inputted operating conditions in " + this.filePath + " are incorrect.",
+                                   this.lineNumber);
+    }
+
+    this.componentCount = 0;
+    for (int i = FlashCaseReader.OPERATING_CONDITION_COUNT; i < fieldCount; i += 2) {
+      double zi;
+      try {
+        zi = NumberParser.parseDouble(this.buffer, this.fieldStarts[i + 1], this.fieldEnds[i + 1]);
+      }
+      catch (NumberFormatException e) {
+        throw new FlashCaseException("Inputted mole fraction in " + this.filePath + " is incorrect.",
+                                     this.lineNumber);
+      }
+      this.addComponent(this.fieldStarts[i], this.fieldEnds[i], zi);
+    }
+
+    return this.buildFlashCase(flashCase, behaviourCase, T, P, F);
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 8) parseJSONRow() : Builds a case from a JSON object that begins at start.
+    *       Only the flat form described at the top of this file is accepted.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  private FlashCase parseJSONRow(int start) throws FlashCaseException {
+
+    int flashCase = -1;
+    int behaviourCase = -1;
+    double T = Double.NaN;
+    double P = Double.NaN;
+    double F = Double.NaN;
+    boolean componentsRead = false;
+    this.componentCount = 0;
+
+    this.cursor = start;
+    this.expect('{');
+    if (!this.consume('}')) {
+      do {
+        int keyStart = this.cursor + 1;
+        int keyEnd = this.skipString();
+        this.expect(':');
+
+        if (this.keyEquals(keyStart, keyEnd, "components")) {
+          this.expect('{');
+          if (!this.consume('}')) {
+            do {
+              int nameStart = this.cursor + 1;
+              int nameEnd = this.skipString();
+              this.expect(':');
+              this.addComponent(nameStart, nameEnd, this.parseJSONNumber());
+            } while (this.consume(','));
+            this.expect('}');
+          }
+          componentsRead = true;
+        }
+        else if (this.keyEquals(keyStart, keyEnd, "flashCase")) {
+          flashCase = this.parseJSONInt();
+        }
+        else if (this.keyEquals(keyStart, keyEnd, "behaviourCase")) {
+          behaviourCase = this.parseJSONInt();
+        }
+        else if (this.keyEquals(keyStart, keyEnd, "T")) {
+          T = this.parseJSONNumber() + 273.15;
+        }
+        else if (this.keyEquals(keyStart, keyEnd, "P")) {
+          P = this.parseJSONNumber();
+        }
+        else if (this.keyEquals(keyStart, keyEnd, "F")) {
+          F = this.parseJSONNumber();
+        }
+        else {
+          throw new FlashCaseException("Unknown key \"" + new String(this.buffer, keyStart, keyEnd - keyStart,
+                                                                     StandardCharsets.UTF_8)
+                                         + "\" in " + this.filePath + ".", this.lineNumber);
+        }
+      } while (this.consume(','));
+      this.expect('}');
+    }
+
+    if (this.skipBlanks(this.cursor, this.lineEnd) != this.lineEnd) {
+      throw new FlashCaseException("Unexpected characters after the case object in " + this.filePath + ".",
+                                   this.lineNumber);
+    }
+    if (flashCase == -1 || behaviourCase == -1 || Double.isNaN(T) || Double.isNaN(P) || Double.isNaN(F)
+          || !componentsRead) {
+      throw new FlashCaseException("Inputted operating conditions in " + this.filePath + " are incomplete.",
+                                   this.lineNumber);
+    }
+
+    return this.buildFlashCase(flashCase, behaviourCase, T, P, F);
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 9) buildFlashCase() : Copies the components of the current row into a new case.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  private FlashCase buildFlashCase(int flashCase, int behaviourCase, double T, double P, double F) {
+    return new FlashCase(this.lineNumber, flashCase, behaviourCase, T, P, F,
+                         Arrays.copyOf(this.componentNames, this.componentCount),
+                         Arrays.copyOf(this.z, this.componentCount));
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 10) readComponentNames() : Reads the whole file, adds the name of each component of its cases to 
+    *           componentNamesList, once and in order of first use, and returns the largest number of components of
+    *           any of its cases, or 0 if it has none. Rows that cannot be read are skipped.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public static int readComponentNames(String filePath, ArrayList<String> componentNamesList) throws IOException {
+
+    FlashCaseReader caseReader = new FlashCaseReader(filePath);
+    HashSet<String> componentNames = new HashSet<String>(componentNamesList);
+    int maxComponentCount = 0;
+    try {
+      while (true) {
+        FlashCase flashCase;
+        try {
+          flashCase = caseReader.next();
+        }
+        catch (FlashCaseException e) {
+          continue;
+        }
+
+        if (flashCase == null) {
+          break;
+        }
+        maxComponentCount = Math.max(maxComponentCount, flashCase.getComponentCount());
+        for (int i = 0; i < flashCase.getComponentCount(); i++) {
+          if (componentNames.add(flashCase.getComponentName(i))) {
+            componentNamesList.add(flashCase.getComponentName(i));
+          }
+        }
+      }
+    }
+    finally {
+      caseReader.close();
+    }
+
+    return maxComponentCount;
+  }
+  /*********************************************************************************************************************/
+
+
+  private void addComponent(int nameStart, int nameEnd, double zi) {
+    if (this.componentCount == this.z.length) {
+      this.componentNames = Arrays.copyOf(this.componentNames, 2 * this.componentCount);
+      this.z = Arrays.copyOf(this.z, 2 * this.componentCount);
+    }
+    this.componentNames[this.componentCount] = new String(this.buffer, nameStart, nameEnd - nameStart,
+                                                          StandardCharsets.UTF_8);
+    this.z[this.componentCount] = zi;
+    this.componentCount++;
+  }
+
+  private int skipBlanks(int start, int end) {
+    while (start < end && (this.buffer[start] == ' ' || this.buffer[start] == '\t' || this.buffer[start] == '\r')) {
+      start++;
+    }
+    return start;
+  }
+
+  private int skipTrailingBlanks(int start, int end) {
+    while (end > start && (this.buffer[end - 1] == ' ' || this.buffer[end - 1] == '\t'
+                             || this.buffer[end - 1] == '\r')) {
+      end--;
+    }
+    return end;
+  }
+
+  private boolean consume(char c) {
+    this.cursor = this.skipBlanks(this.cursor, this.lineEnd);
+    if (this.cursor < this.lineEnd && this.buffer[this.cursor] == c) {
+      this.cursor++;
+      return true;
+    }
+    return false;
+  }
+
+  private void expect(char c) throws FlashCaseException {
+    if (!this.consume(c)) {
+      throw new FlashCaseException("Expected '" + c + "' at column " + (this.cursor - this.lineStart + 1) + " in "
+                                     + this.filePath + ".", this.lineNumber);
+    }
+  }
+
+  // Moves the cursor past a JSON string without escape sequences and returns the end of its contents
+  private int skipString() throws FlashCaseException {
+    this.expect('"');
+    int start = this.cursor;
+    while (this.cursor < this.lineEnd && this.buffer[this.cursor] != '"') {
+      if (this.buffer[this.cursor] == '\\') {
+        throw new FlashCaseException("Escape sequences are not supported in " + this.filePath + ".",
+                                     this.lineNumber);
+      }
+      this.cursor++;
+    }
+    int end = this.cursor;
+    this.expect('"');
+    return end;
+  }
+
+  private double parseJSONNumber() throws FlashCaseException {
+    int start = this.skipBlanks(this.cursor, this.lineEnd);
+    int end = start;
+    while (end < this.lineEnd && this.buffer[end] != ',' && this.buffer[end] != '}' && this.buffer[end] != ' ') {
+      end++;
+    }
+    this.cursor = end;
+    try {
+      return NumberParser.parseDouble(this.buffer, start, end);
+    }
+    catch (NumberFormatException e) {
+      throw new FlashCaseException("Expected a number at column " + (start - this.lineStart + 1) + " in "
+                                     + this.filePath + ".", this.lineNumber);
+    }
+  }
+
+  private int parseJSONInt() throws FlashCaseException {
+    double value = this.parseJSONNumber();
+    if (value != Math.rint(value) || Math.abs(value) > Integer.MAX_VALUE) {
+      throw new FlashCaseException("Expected an integer case in " + this.filePath + ".", this.lineNumber);
+    }
+    return (int) value;
+  }
+
+  private boolean keyEquals(int start, int end, String key) {
+    if (end - start != key.length()) {
+      return false;
+    }
+    for (int i = 0; i < key.length(); i++) {
+      if (this.buffer[start + i] != key.charAt(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  public String getFilePath() {
+    return this.filePath;
+  }
+
+  public long getLineNumber() {
+    return this.lineNumber;
+  }
+
+}
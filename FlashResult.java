@@ -0,0 +1,183 @@
+/* The outcome of a flash calculation: the temperatures, pressures, flow rate, heat duty and vapour fraction of the
+ * separator, and the species and phase mole fractions, partition coefficients, activity coefficients and fugacity
+ * coefficients of the flash stream, held in primitive arrays. FlashSeparator builds it once, when the flash stream
+ * has been split into its outlet streams, and returns the same object to every reader, so results can be stored or
+ * written without copying Stream objects. Instances cannot be changed after they are constructed; the array getters
+ * return copies.
+ *
+ * T = [K], P = [bar], F = [mol/h], Q = [J/h]. The vapour fraction pertains only to the condensable fraction. Values
+ * that were not calculated are 0, as in Stream.
+ */
+
+public class FlashResult {
+
+  private final double T_feed; // Feed temperature [K]
+  private final double T; // Tank temperature [K]
+  private final double P; // Tank pressure [bar]
+  private final double F; // Feed flow rate [mol/h]
+  private final double Q; // Heat duty [J/h]
+  private final double vapourFraction;
+  private final double P_bp; // Bubble-point pressure [bar]
+  private final double P_dp; // Dew-point pressure [bar]
+  private final int[] speciesIndices;
+  private final double[] x;
+  private final double[] y;
+  private final double[] z;
+  private final double[] K;
+  private final double[] gamma;
+  private final double[] phi;
+
+
+  /**********************************************************************************************************************
+    * 1.1) Constructor A : Copies the given arrays.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public FlashResult(double T_feed, double T, double P, double F, double Q, double vapourFraction, double P_bp,
+                     double P_dp, int[] speciesIndices, double[] x, double[] y, double[] z, double[] K,
+                     double[] gamma, double[] phi) {
+
+    int componentCount = speciesIndices.length;
+    if (x.length != componentCount || y.length != componentCount || z.length != componentCount
+          || K.length != componentCount || gamma.length != componentCount || phi.length != componentCount) {
+      throw new IllegalArgumentException("IllegalArgumentException: Every component array of a flash result must "
+                                           + "have one value per species.");
+    }
+
+    this.T_feed = T_feed;
+    this.T = T;
+    this.P = P;
+    this.F = F;
+    this.Q = Q;
+    this.vapourFraction = vapourFraction;
+    this.P_bp = P_bp;
+    this.P_dp = P_dp;
+    this.speciesIndices = speciesIndices.clone();
+    this.x = x.clone();
+    this.y = y.clone();
+    this.z = z.clone();
+    this.K = K.clone();
+    this.gamma = gamma.clone();
+    this.phi = phi.clone();
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 1.2) Constructor B : Reads the feed and flash streams of a separator operating at T, P and Q.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public FlashResult(Stream feedStream, Stream flashStream, double T, double P, double Q) {
+    this.T_feed = feedStream.getT();
+    this.T = T;
+    this.P = P;
+    this.F = feedStream.getF();
+    this.Q = Q;
+    this.vapourFraction = flashStream.getVapourFraction();
+    this.P_bp = flashStream.getP_bp();
+    this.P_dp = flashStream.getP_dp();
+
+    // The Stream getters return copies, which are kept
+    this.speciesIndices = flashStream.getSpeciesIndices();
+    this.x = flashStream.getX();
+    this.y = flashStream.getY();
+    this.z = flashStream.getZ();
+    this.K = flashStream.getK();
+    this.gamma = flashStream.getGamma();
+    this.phi = flashStream.getPhi();
+  }
+  /*********************************************************************************************************************/
+
+
+  public double getT_feed() {
+    return this.T_feed;
+  }
+
+  public double getT() {
+    return this.T;
+  }
+
+  public double getP() {
+    return this.P;
+  }
+
+  public double getF() {
+    return this.F;
+  }
+
+  public double getQ() {
+    return this.Q;
+  }
+
+  public double getVapourFraction() {
+    return this.vapourFraction;
+  }
+
+  public double getP_bp() {
+    return this.P_bp;
+  }
+
+  public double getP_dp() {
+    return this.P_dp;
+  }
+
+  public int getComponentCount() {
+    return this.speciesIndices.length;
+  }
+
+  public int[] getSpeciesIndices() {
+    return this.speciesIndices.clone();
+  }
+
+  public int getSpeciesIndex(int componentIndex) {
+    return this.speciesIndices[componentIndex];
+  }
+
+  public double[] getX() {
+    return this.x.clone();
+  }
+
+  public double getXi(int componentIndex) {
+    return this.x[componentIndex];
+  }
+
+  public double[] getY() {
+    return this.y.clone();
+  }
+
+  public double getYi(int componentIndex) {
+    return this.y[componentIndex];
+  }
+
+  public double[] getZ() {
+    return this.z.clone();
+  }
+
+  public double getZi(int componentIndex) {
+    return this.z[componentIndex];
+  }
+
+  public double[] getK() {
+    return this.K.clone();
+  }
+
+  public double getKi(int componentIndex) {
+    return this.K[componentIndex];
+  }
+
+  public double[] getGamma() {
+    return this.gamma.clone();
+  }
+
+  public double getGammai(int componentIndex) {
+    return this.gamma[componentIndex];
+  }
+
+  public double[] getPhi() {
+    return this.phi.clone();
+  }
+
+  public double getPhii(int componentIndex) {
+    return this.phi[componentIndex];
+  }
+
+}
@@ -1,3 +1,4 @@
+import java.io.IOException;
 import java.text.DecimalFormat;
 
 public abstract class FlashSeparator {
@@ -18,6 +19,7 @@ public abstract class FlashSeparator {
   private Stream flashStream;
   private Stream[] outletStreams;
   private Behaviour behaviour;
+  private FlashResult result; // Built by splitPhases(); null until then
   
   
   /**********************************************************************************************************************
@@ -69,6 +71,7 @@ public abstract class FlashSeparator {
     this.outletStreams[1] = source.outletStreams[1].clone();
     
     this.behaviour = source.behaviour.clone();
+    this.result = source.result; // Immutable, so it is shared
   }
   /*********************************************************************************************************************/
   
@@ -82,33 +85,50 @@ public abstract class FlashSeparator {
   
   
   /**********************************************************************************************************************
-    * 4) toString() : Returns the state of the FlashSeparator object in the form of a String.
+    * 4.1) toString() : Returns the state of the FlashSeparator object in the form of a String.
     * ---------------------------------------------------------------------------------------------------------------------
     */
   public String toString() {
     
-    String message = new String();
-    DecimalFormat formatter = new DecimalFormat("###,###,##0.00");
+    StringBuilder message = new StringBuilder(4096);
+    try {
+      this.appendTo(message, new DecimalFormat("###,###,##0.00"));
+    } catch (IOException e) {
+      // A StringBuilder does not throw IOException
+    }
+    
+    return message.toString();
+  }
+  /*********************************************************************************************************************/
+  
+  
+  /**********************************************************************************************************************
+    * 4.2) appendTo() : Appends the report returned by toString() to output without building intermediate Strings.
+    *         The formatter is not thread-safe; each thread must use its own.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public void appendTo(Appendable output, DecimalFormat formatter) throws IOException {
     
-    String behaviourCase = new String();
+    String behaviourCase;
     if (this.behaviour instanceof NonIdealBehaviour) {
       behaviourCase = "Non-Ideal Behaviour";
     } else {
       behaviourCase = "Ideal Behaviour";
     }
     
-    message = "Flash Separator: " + this.type + " - " + behaviourCase + " \r\n" 
-      + "   Status: " + this.status + " \r\n"
-      + "   T = " + formatter.format(this.T) + " K \r\n" 
-      + "   P = " + formatter.format(this.P) + " bar \r\n" 
-      + "   Q = " + formatter.format(this.Q) + " J/h \r\n\r\n" 
-      + this.feedStream.toString() + "\r\n\r\n"
-      + this.flashStream.toString() + "\r\n\r\n" 
-      + "Outlet Streams: \r\n" 
-      + this.outletStreams[0].toString() + "\r\n" 
-      + this.outletStreams[1].toString() + "\r\n";
-    
-    return message;
+    output.append("Flash Separator: ").append(this.type).append(" - ").append(behaviourCase).append(" \r\n")
+      .append("   Status: ").append(this.status).append(" \r\n")
+      .append("   T = ").append(formatter.format(this.T)).append(" K \r\n")
+      .append("   P = ").append(formatter.format(this.P)).append(" bar \r\n")
+      .append("   Q = ").append(formatter.format(this.Q)).append(" J/h \r\n\r\n");
+    this.feedStream.appendTo(output, formatter);
+    output.append("\r\n\r\n");
+    this.flashStream.appendTo(output, formatter);
+    output.append("\r\n\r\n").append("Outlet Streams: \r\n");
+    this.outletStreams[0].appendTo(output, formatter);
+    output.append("\r\n");
+    this.outletStreams[1].appendTo(output, formatter);
+    output.append("\r\n");
   }
   /*********************************************************************************************************************/
   
@@ -123,10 +143,32 @@ public abstract class FlashSeparator {
   /*********************************************************************************************************************/
   
   
+  /**********************************************************************************************************************
+    * 5.1) flashCalculation() : Performs the flash calculation under the given cancellation token; throws a
+    *         FlashCancelledException if the token is cancelled or expires before the calculation has finished.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public Stream[] flashCalculation(CancellationToken cancellationToken) 
+    throws FlashCalculationException, NumericalMethodException, 
+    FunctionException, StreamException {
+    
+    CancellationToken previousToken = CancellationToken.setCurrent(cancellationToken);
+    try {
+      cancellationToken.check();
+      return this.flashCalculation();
+    }
+    finally {
+      CancellationToken.setCurrent(previousToken);
+    }
+  }
+  /*********************************************************************************************************************/
+  
+  
   /**********************************************************************************************************************
     * 6) performFlash() : Attempts to flash the feed stream. Returns the flash stream if successful.
     *       If the tank pressure is outside of the bubble-point/dew-point range, then a single-phase
-    *       stream is returned instead.
+    *       stream is returned instead. The flash stream itself is returned rather than a copy; it must not be
+    *       changed, and its results are also held by the FlashResult built by splitPhases().
     * ---------------------------------------------------------------------------------------------------------------------
     */
   public Stream performFlash() 
@@ -200,14 +242,15 @@ public abstract class FlashSeparator {
       }
     }
     
-    return this.flashStream.clone();
+    return this.flashStream;
   }
   /*********************************************************************************************************************/
   
   
   /**********************************************************************************************************************
     * 7) splitPhases() : Splits the flash stream into liquid (i = 0) and vapour/gas (i = 1) phase outlet streams and
-    *       returns the outlet streams as an array.
+    *       returns the outlet streams as an array. It is the last step of every flash calculation, so it also builds 
+    *       the FlashResult of the separator.
     * ---------------------------------------------------------------------------------------------------------------------
     */
   public Stream[] splitPhases() throws StreamException {
@@ -217,6 +260,9 @@ public abstract class FlashSeparator {
     int componentCountGas = 0; // number of components in the vapour phase
     double F_liquid = 0.; // moles in the liquid phase
     double F_gas = 0.; // moles in the vapour/gase phase, including non-condensable components
+    double condensableFraction = this.flashStream.getCondensableFraction();
+    double vapourFraction = this.flashStream.getVapourFraction();
+    double F = this.flashStream.getF();
     
     // Calculate the number of moles in the liquid and vapour/gas phases, and count the number of 
     // components in each phase.
@@ -224,57 +270,55 @@ public abstract class FlashSeparator {
       if (this.flashStream.isComponentCondensable(i)) {
         if (this.flashStream.getXi(i) > 0) {
           componentCountLiquid++;
-          F_liquid += this.flashStream.getCondensableFraction() * (1 - this.flashStream.getVapourFraction())
-            * this.flashStream.getXi(i) * this.flashStream.getF();
+          F_liquid += condensableFraction * (1 - vapourFraction) * this.flashStream.getXi(i) * F;
         }
         if (this.flashStream.getYi(i) > 0) {
           componentCountGas++;
-          F_gas += this.flashStream.getCondensableFraction() * this.flashStream.getVapourFraction()
-            * this.flashStream.getYi(i) * this.flashStream.getF();
+          F_gas += condensableFraction * vapourFraction * this.flashStream.getYi(i) * F;
         }
       } else {
-        F_gas += this.flashStream.getZi(i) * this.flashStream.getF();
+        F_gas += this.flashStream.getZi(i) * F;
         componentCountGas++;
       }
     }
     
     int liquidIndex = 0; // iterator for the liquid phase components
     int gasIndex = 0; // iterator for the gas phase components
-    double[] x = new double[componentCountLiquid]; // liquid phase mole fractions
-    double[] y = new double[componentCountGas]; // gas phase mole fractions
-    int[][] speciesIndices = new int[2][]; // indices of the species present in both phases
-    speciesIndices[0] = new int[componentCountLiquid];
-    speciesIndices[1] = new int[componentCountGas];
+    double[] x = new double[componentCountLiquid]; // liquid phase mole fractions; kept by the outlet stream
+    double[] y = new double[componentCountGas]; // gas phase mole fractions; kept by the outlet stream
+    int[][] componentIndices = new int[2][]; // components of the flash stream present in each phase
+    componentIndices[0] = new int[componentCountLiquid];
+    componentIndices[1] = new int[componentCountGas];
     
     // Calculate the mole fractions of both streams, and identify each component.
     for (int i = 0; i < componentCountTotal; i++) {
       if (this.flashStream.isComponentCondensable(i)) {
         if (this.flashStream.getXi(i) > 0) {
-          x[liquidIndex] = this.flashStream.getXi(i) * (1 - this.flashStream.getVapourFraction())
-            * this.flashStream.getCondensableFraction() * this.flashStream.getF() / F_liquid;
-          speciesIndices[0][liquidIndex] = this.flashStream.getSpeciesIndex(i);
+          x[liquidIndex] = this.flashStream.getXi(i) * (1 - vapourFraction) * condensableFraction * F / F_liquid;
+          componentIndices[0][liquidIndex] = i;
           liquidIndex++;
         }
         if (this.flashStream.getYi(i) > 0) {
-          y[gasIndex] = this.flashStream.getYi(i) * this.flashStream.getVapourFraction()
-            * this.flashStream.getCondensableFraction() * this.flashStream.getF() / F_gas;
-          speciesIndices[1][gasIndex] = this.flashStream.getSpeciesIndex(i);
+          y[gasIndex] = this.flashStream.getYi(i) * vapourFraction * condensableFraction * F / F_gas;
+          componentIndices[1][gasIndex] = i;
           gasIndex++;
         }
       } else {
         this.flashStream.setXi(0., i);
         this.flashStream.setYi(0., i);
-        y[gasIndex] = this.flashStream.getZi(i) * this.flashStream.getF() / F_gas;
-        speciesIndices[1][gasIndex] = this.flashStream.getSpeciesIndex(i);
+        y[gasIndex] = this.flashStream.getZi(i) * F / F_gas;
+        componentIndices[1][gasIndex] = i;
         gasIndex++;
       }
     }
     
-    // Build both stream objects
-    this.outletStreams[0] = new Stream("Liquid Phase", this.T, this.P, F_liquid, 0, 0., 0., 0.,
-                                       x, null, x, null, null, null, speciesIndices[0]); // Liquid phase
-    this.outletStreams[1] = new Stream("Vapour/Gas Phase", this.T, this.P, F_gas, 1, 1., 0., 0.,
-                                       null, y, y, null, null, null, speciesIndices[1]); // Vapour phase
+    // Build both stream objects from the flash stream; the fractions above sum to 1 and need not be checked again
+    this.outletStreams[0] = new Stream("Liquid Phase", this.T, this.P, F_liquid, 0, x, this.flashStream,
+                                       componentIndices[0]); // Liquid phase
+    this.outletStreams[1] = new Stream("Vapour/Gas Phase", this.T, this.P, F_gas, 1, y, this.flashStream,
+                                       componentIndices[1]); // Vapour phase
+    
+    this.result = new FlashResult(this.feedStream, this.flashStream, this.T, this.P, this.Q);
     
     return this.getOutletStreams();
   }
@@ -358,6 +402,11 @@ public abstract class FlashSeparator {
     return this.feedStream.clone();
   }
   
+  // Returns the feed stream itself rather than a copy, for the flash calculations of subclasses; it must not be changed
+  Stream getSharedFeedStream() {
+    return this.feedStream;
+  }
+  
   public void setFeedStream(Stream feedStream) {
     this.feedStream = feedStream.clone();
   }
@@ -370,6 +419,11 @@ public abstract class FlashSeparator {
     this.flashStream = flashStream.clone();
   }
   
+  // Returns the result itself, which cannot be changed; null if no flash calculation has been completed
+  public FlashResult getResult() {
+    return this.result;
+  }
+  
   public Stream[] getOutletStreams() {
     
     Stream[] arrayCopy = new Stream[this.outletStreams.length];
@@ -394,6 +448,16 @@ public abstract class FlashSeparator {
     return this.behaviour.clone();
   }
   
+  // Returns the behaviour itself rather than a copy, for the flash calculations of subclasses; it must not be changed
+  Behaviour getSharedBehaviour() {
+    return this.behaviour;
+  }
+  
+  // Returns the profile of the behaviour itself rather than a copy, since it is read inside the root searches
+  public SolverProfile getSolverProfile() {
+    return this.behaviour.getSolverProfile();
+  }
+  
   public void setBehaviour(Behaviour behaviour) {
     this.behaviour = behaviour.clone();
   }
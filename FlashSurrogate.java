@@ -0,0 +1,497 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+/* Precomputed isothermal flash tables over a T/P domain for a fixed feed.
+ * The tables are sampled from the exact FlashSeparator path by FlashSurrogateBuilder and are read back with
+ * bilinear interpolation. Each node stores [vapourFraction, Q, x[0..n-1], y[0..n-1]].
+ * The domain is divided into the cells of a grid over the T and P axes, and each cell may be divided into four
+ * children of half its width and height, down to the leaf cells whose corners are interpolated. Since a leaf may
+ * border smaller leaves, the interpolated values can step by up to the error of the larger leaf across their edge.
+ * T = [K]
+ * P = [bar]
+ * Q = [J/h]
+ */
+
+public class FlashSurrogate {
+
+  public static final int FILE_VERSION = 2;
+  static final int NO_CHILDREN = -1;
+  private static final int FILE_MAGIC = 0x46535247; // "FSRG"
+
+  private double[] T; // Temperature axis of the grid, strictly increasing
+  private double[] P; // Pressure axis of the grid, strictly increasing
+  private double[] values; // Node values; the grid nodes come first, row-major over (T, P)
+  private int[] cellCorners; // Nodes at (T0, P0), (T0, P1), (T1, P0), (T1, P1) of each cell
+  private int[] firstChildren; // Index of the first of the four children of each cell, or NO_CHILDREN
+  private double[] vapourFractionError; // Estimated interpolation error of each cell; NaN if not estimated
+  private double[] QError; // Estimated interpolation error of each cell; NaN if not estimated
+  private double[] compositionError; // Largest estimated error of x and y in each cell; NaN if not estimated
+  private double F;
+  private double[] z;
+  private int[] speciesIndices;
+  private Behaviour behaviour;
+
+
+  /**********************************************************************************************************************
+    * 1) Constructor : Used by FlashSurrogateBuilder; the arrays are stored by reference. The first
+    *       (T.length - 1) * (P.length - 1) cells are those of the grid, row-major over (T, P); the four children of
+    *       a cell are stored one after another, in the order (lower T, lower P), (lower T, upper P),
+    *       (upper T, lower P), (upper T, upper P).
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public FlashSurrogate(double[] T, double[] P, double[] values, int[] cellCorners, int[] firstChildren,
+                        double[] vapourFractionError, double[] QError, double[] compositionError, double F,
+                        double[] z, int[] speciesIndices, Behaviour behaviour) {
+
+    if (T.length < 2 || P.length < 2) {
+      throw new IllegalArgumentException("IllegalArgumentException: A surrogate table requires at least two nodes "
+                                           + "along each axis.");
+    }
+    int stride = FlashSurrogate.getStride(speciesIndices.length);
+    int cellCount = firstChildren.length;
+    if (values.length % stride != 0 || values.length < T.length * P.length * stride
+          || cellCount < (T.length - 1) * (P.length - 1) || cellCorners.length != 4 * cellCount
+          || vapourFractionError.length != cellCount || QError.length != cellCount
+          || compositionError.length != cellCount) {
+      throw new IllegalArgumentException("IllegalArgumentException: The surrogate table is inconsistent with its axes.");
+    }
+    int nodeCount = values.length / stride;
+    for (int cell = 0; cell < cellCount; cell++) {
+      for (int k = 0; k < 4; k++) {
+        if (cellCorners[4 * cell + k] < 0 || cellCorners[4 * cell + k] >= nodeCount) {
+          throw new IllegalArgumentException("IllegalArgumentException: The surrogate table is inconsistent with its "
+                                               + "nodes.");
+        }
+      }
+      if (firstChildren[cell] != FlashSurrogate.NO_CHILDREN
+            && (firstChildren[cell] <= cell || firstChildren[cell] > cellCount - 4)) {
+        throw new IllegalArgumentException("IllegalArgumentException: The surrogate table is inconsistent with its "
+                                             + "cells.");
+      }
+    }
+
+    this.T = T;
+    this.P = P;
+    this.values = values;
+    this.cellCorners = cellCorners;
+    this.firstChildren = firstChildren;
+    this.vapourFractionError = vapourFractionError;
+    this.QError = QError;
+    this.compositionError = compositionError;
+    this.F = F;
+    this.z = z.clone();
+    this.speciesIndices = speciesIndices.clone();
+    this.behaviour = behaviour.clone();
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 2) Copy Constructor
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public FlashSurrogate(FlashSurrogate source) {
+    this.T = source.T.clone();
+    this.P = source.P.clone();
+    this.values = source.values.clone();
+    this.cellCorners = source.cellCorners.clone();
+    this.firstChildren = source.firstChildren.clone();
+    this.vapourFractionError = source.vapourFractionError.clone();
+    this.QError = source.QError.clone();
+    this.compositionError = source.compositionError.clone();
+    this.F = source.F;
+    this.z = source.z.clone();
+    this.speciesIndices = source.speciesIndices.clone();
+    this.behaviour = source.behaviour.clone();
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 3) clone()
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public FlashSurrogate clone() {
+    return new FlashSurrogate(this);
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 4) evaluate() : Interpolates the flash state at (T, P) into the supplied result holder. No objects are
+    *       allocated, so that the method may be called from real-time control loops. If the exact flash failed at
+    *       a corner of the cell, every value of the result is set to NaN and its phase regime to UNDEFINED; the
+    *       caller may then use evaluateExact().
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public void evaluate(double T, double P, FlashSurrogateResult result) {
+
+    int componentCount = this.speciesIndices.length;
+    if (result.getComponentCount() != componentCount) {
+      throw new IllegalArgumentException("IllegalArgumentException: The result holder does not match the "
+                                           + "composition of the surrogate.");
+    }
+    if (!this.isWithinDomain(T, P)) {
+      throw new IllegalArgumentException("IllegalArgumentException: (T = " + T + " K, P = " + P
+                                           + " bar) lies outside of the surrogate domain.");
+    }
+
+    // Step 1. Locate the Cell of the Grid, then the Leaf Cell within it
+    int i = FlashSurrogate.locate(this.T, T);
+    int j = FlashSurrogate.locate(this.P, P);
+    int cell = i * (this.P.length - 1) + j;
+    double T0 = this.T[i];
+    double T1 = this.T[i + 1];
+    double P0 = this.P[j];
+    double P1 = this.P[j + 1];
+    while (this.firstChildren[cell] != FlashSurrogate.NO_CHILDREN) {
+      double Tm = 0.5 * (T0 + T1);
+      double Pm = 0.5 * (P0 + P1);
+      cell = this.firstChildren[cell];
+      if (T < Tm) {
+        T1 = Tm;
+      }
+      else {
+        T0 = Tm;
+        cell += 2;
+      }
+      if (P < Pm) {
+        P1 = Pm;
+      }
+      else {
+        P0 = Pm;
+        cell += 1;
+      }
+    }
+    double u = (T - T0) / (T1 - T0);
+    double v = (P - P0) / (P1 - P0);
+
+    int stride = FlashSurrogate.getStride(componentCount);
+    int n00 = this.cellCorners[4 * cell] * stride;
+    int n01 = this.cellCorners[4 * cell + 1] * stride;
+    int n10 = this.cellCorners[4 * cell + 2] * stride;
+    int n11 = this.cellCorners[4 * cell + 3] * stride;
+
+    // A failed corner stores NaN in every value, so the cell cannot be interpolated
+    if (Double.isNaN(this.values[n00]) || Double.isNaN(this.values[n01]) || Double.isNaN(this.values[n10])
+          || Double.isNaN(this.values[n11])) {
+      result.setVapourFraction(Double.NaN);
+      result.setQ(Double.NaN);
+      for (int k = 0; k < componentCount; k++) {
+        result.setXi(Double.NaN, k);
+        result.setYi(Double.NaN, k);
+      }
+      result.setPhaseRegime(FlashSurrogateResult.UNDEFINED);
+      result.setVapourFractionError(Double.NaN);
+      result.setQError(Double.NaN);
+      result.setCompositionError(Double.NaN);
+      return;
+    }
+
+    double w00 = (1. - u) * (1. - v);
+    double w01 = (1. - u) * v;
+    double w10 = u * (1. - v);
+    double w11 = u * v;
+
+    // Step 2. Interpolate the Node Values
+    double vapourFraction = w00 * this.values[n00] + w01 * this.values[n01]
+      + w10 * this.values[n10] + w11 * this.values[n11];
+    result.setVapourFraction(Math.min(1., Math.max(0., vapourFraction)));
+    result.setQ(w00 * this.values[n00 + 1] + w01 * this.values[n01 + 1]
+                  + w10 * this.values[n10 + 1] + w11 * this.values[n11 + 1]);
+
+    for (int k = 0; k < componentCount; k++) {
+      int xk = 2 + k;
+      int yk = 2 + componentCount + k;
+      result.setXi(w00 * this.values[n00 + xk] + w01 * this.values[n01 + xk]
+                     + w10 * this.values[n10 + xk] + w11 * this.values[n11 + xk], k);
+      result.setYi(w00 * this.values[n00 + yk] + w01 * this.values[n01 + yk]
+                     + w10 * this.values[n10 + yk] + w11 * this.values[n11 + yk], k);
+    }
+
+    // Step 3. Determine the Phase Regime
+    // If all corners share a regime, the cell lies entirely within it; otherwise, the cell straddles a phase
+    // boundary and the regime is inferred from the interpolated vapour fraction.
+    int regime = FlashSurrogateResult.classifyPhaseRegime(this.values[n00]);
+    if (regime != FlashSurrogateResult.classifyPhaseRegime(this.values[n01])
+          || regime != FlashSurrogateResult.classifyPhaseRegime(this.values[n10])
+          || regime != FlashSurrogateResult.classifyPhaseRegime(this.values[n11])) {
+      regime = FlashSurrogateResult.classifyPhaseRegime(result.getVapourFraction());
+    }
+    result.setPhaseRegime(regime);
+
+    // Step 4. Report the Error Estimate of the Cell
+    result.setVapourFractionError(this.vapourFractionError[cell]);
+    result.setQError(this.QError[cell]);
+    result.setCompositionError(this.compositionError[cell]);
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 5) evaluateExact() : Runs the exact flash calculation at (T, P) for validation of the tables.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public FlashSeparator evaluateExact(double T, double P)
+    throws FlashCalculationException, NumericalMethodException, FunctionException, StreamException {
+
+    FlashSeparator flashSeparator = new IsothermalHeat(T, P, this.F, this.z, this.speciesIndices, this.behaviour);
+    flashSeparator.flashCalculation();
+    return flashSeparator;
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 6) isWithinDomain() : Returns true if (T, P) lies within the tabulated domain.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public boolean isWithinDomain(double T, double P) {
+    return T >= this.T[0] && T <= this.T[this.T.length - 1]
+      && P >= this.P[0] && P <= this.P[this.P.length - 1];
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 7) writeToFile() : Stores the tables in a compact binary file.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public void writeToFile(String filePath) throws IOException {
+
+    DataOutputStream fileWriter = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(filePath)));
+
+    try {
+      fileWriter.writeInt(FlashSurrogate.FILE_MAGIC);
+      fileWriter.writeInt(FlashSurrogate.FILE_VERSION);
+      fileWriter.writeBoolean(this.behaviour instanceof NonIdealBehaviour);
+      fileWriter.writeDouble(this.F);
+      fileWriter.writeInt(this.speciesIndices.length);
+      for (int i = 0; i < this.speciesIndices.length; i++) {
+        fileWriter.writeInt(this.speciesIndices[i]);
+        fileWriter.writeDouble(this.z[i]);
+      }
+      FlashSurrogate.writeArray(fileWriter, this.T);
+      FlashSurrogate.writeArray(fileWriter, this.P);
+      FlashSurrogate.writeArray(fileWriter, this.values);
+      FlashSurrogate.writeArray(fileWriter, this.cellCorners);
+      FlashSurrogate.writeArray(fileWriter, this.firstChildren);
+      FlashSurrogate.writeArray(fileWriter, this.vapourFractionError);
+      FlashSurrogate.writeArray(fileWriter, this.QError);
+      FlashSurrogate.writeArray(fileWriter, this.compositionError);
+    }
+    finally {
+      fileWriter.close();
+    }
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 8) readFromFile() : Loads tables previously stored with writeToFile(). Files of version 1 hold only the
+    *       cells of the grid, without composition errors.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public static FlashSurrogate readFromFile(String filePath) throws IOException {
+
+    DataInputStream fileReader;
+    try {
+      fileReader = new DataInputStream(new BufferedInputStream(new FileInputStream(filePath)));
+    }
+    catch (Exception e) {
+      throw new FileNotFoundException(filePath + " was not found.");
+    }
+
+    try {
+      if (fileReader.readInt() != FlashSurrogate.FILE_MAGIC) {
+        throw new IOException(filePath + " is not a flash surrogate file.");
+      }
+      int version = fileReader.readInt();
+      if (version != 1 && version != FlashSurrogate.FILE_VERSION) {
+        throw new IOException(filePath + " has an unsupported version (" + version + ").");
+      }
+
+      Behaviour behaviour;
+      if (fileReader.readBoolean()) {
+        behaviour = new NonIdealBehaviour();
+      }
+      else {
+        behaviour = new Behaviour();
+      }
+
+      double F = fileReader.readDouble();
+      int componentCount = fileReader.readInt();
+      int[] speciesIndices = new int[componentCount];
+      double[] z = new double[componentCount];
+      for (int i = 0; i < componentCount; i++) {
+        speciesIndices[i] = fileReader.readInt();
+        z[i] = fileReader.readDouble();
+      }
+
+      double[] T = FlashSurrogate.readArray(fileReader);
+      double[] P = FlashSurrogate.readArray(fileReader);
+      double[] values = FlashSurrogate.readArray(fileReader);
+      int[] cellCorners;
+      int[] firstChildren;
+      if (version == 1) {
+        cellCorners = FlashSurrogate.buildGridCellCorners(T.length, P.length);
+        firstChildren = new int[cellCorners.length / 4];
+        Arrays.fill(firstChildren, FlashSurrogate.NO_CHILDREN);
+      }
+      else {
+        cellCorners = FlashSurrogate.readIntArray(fileReader);
+        firstChildren = FlashSurrogate.readIntArray(fileReader);
+      }
+      double[] vapourFractionError = FlashSurrogate.readArray(fileReader);
+      double[] QError = FlashSurrogate.readArray(fileReader);
+      double[] compositionError;
+      if (version == 1) {
+        compositionError = new double[firstChildren.length];
+        Arrays.fill(compositionError, Double.NaN);
+      }
+      else {
+        compositionError = FlashSurrogate.readArray(fileReader);
+      }
+
+      return new FlashSurrogate(T, P, values, cellCorners, firstChildren, vapourFractionError, QError,
+                                compositionError, F, z, speciesIndices, behaviour);
+    }
+    catch (IllegalArgumentException e) {
+      throw new IOException(filePath + " is corrupted. " + e.getMessage());
+    }
+    finally {
+      fileReader.close();
+    }
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 9) getStride() : Returns the number of values stored per node.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public static int getStride(int componentCount) {
+    return 2 + 2 * componentCount;
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 9.1) buildGridCellCorners() : Returns the corners of the cells of a grid of TNodeCount by PNodeCount nodes,
+    *         whose nodes are numbered row-major over (T, P).
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public static int[] buildGridCellCorners(int TNodeCount, int PNodeCount) {
+    int[] cellCorners = new int[4 * (TNodeCount - 1) * (PNodeCount - 1)];
+    int cell = 0;
+    for (int i = 0; i < TNodeCount - 1; i++) {
+      for (int j = 0; j < PNodeCount - 1; j++) {
+        cellCorners[4 * cell] = i * PNodeCount + j;
+        cellCorners[4 * cell + 1] = i * PNodeCount + j + 1;
+        cellCorners[4 * cell + 2] = (i + 1) * PNodeCount + j;
+        cellCorners[4 * cell + 3] = (i + 1) * PNodeCount + j + 1;
+        cell++;
+      }
+    }
+    return cellCorners;
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 10) locate() : Returns the index of the interval of a strictly increasing axis that contains x.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  private static int locate(double[] axis, double x) {
+    int lower = 0;
+    int upper = axis.length - 1;
+    while (upper - lower > 1) {
+      int middle = (lower + upper) >>> 1;
+      if (axis[middle] > x) {
+        upper = middle;
+      }
+      else {
+        lower = middle;
+      }
+    }
+    return lower;
+  }
+  /*********************************************************************************************************************/
+
+
+  private static void writeArray(DataOutputStream fileWriter, double[] array) throws IOException {
+    fileWriter.writeInt(array.length);
+    for (int i = 0; i < array.length; i++) {
+      fileWriter.writeDouble(array[i]);
+    }
+  }
+
+  private static void writeArray(DataOutputStream fileWriter, int[] array) throws IOException {
+    fileWriter.writeInt(array.length);
+    for (int i = 0; i < array.length; i++) {
+      fileWriter.writeInt(array[i]);
+    }
+  }
+
+  private static double[] readArray(DataInputStream fileReader) throws IOException {
+    double[] array = new double[fileReader.readInt()];
+    for (int i = 0; i < array.length; i++) {
+      array[i] = fileReader.readDouble();
+    }
+    return array;
+  }
+
+  private static int[] readIntArray(DataInputStream fileReader) throws IOException {
+    int[] array = new int[fileReader.readInt()];
+    for (int i = 0; i < array.length; i++) {
+      array[i] = fileReader.readInt();
+    }
+    return array;
+  }
+
+  public double[] getTAxis() {
+    return this.T.clone();
+  }
+
+  public double[] getPAxis() {
+    return this.P.clone();
+  }
+
+  public int getNodeCount() {
+    return this.values.length / FlashSurrogate.getStride(this.speciesIndices.length);
+  }
+
+  public int getLeafCellCount() {
+    int leafCellCount = 0;
+    for (int cell = 0; cell < this.firstChildren.length; cell++) {
+      if (this.firstChildren[cell] == FlashSurrogate.NO_CHILDREN) {
+        leafCellCount++;
+      }
+    }
+    return leafCellCount;
+  }
+
+  public double getF() {
+    return this.F;
+  }
+
+  public double[] getZ() {
+    return this.z.clone();
+  }
+
+  public int[] getSpeciesIndices() {
+    return this.speciesIndices.clone();
+  }
+
+  public Behaviour getBehaviour() {
+    return this.behaviour.clone();
+  }
+
+}
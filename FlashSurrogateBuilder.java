@@ -0,0 +1,369 @@
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/* Samples the exact isothermal flash over a T/P domain and stores the results as FlashSurrogate tables.
+ * The domain starts out as a uniform grid, and each cell is divided into four on its own, so that the exact flash
+ * is only run where it is needed. A cell is divided if the phase regime (liquid, two-phase or vapour) differs
+ * between its corners and centre, so that the tables are densest where performFlash() switches between
+ * single-phase and two-phase outlets. If the errors are estimated, a cell is also divided while the error of the
+ * vapour fraction or of any x or y at its centre is above errorTolerance, or that of Q is above errorTolerance
+ * times |Q|.
+ */
+
+public class FlashSurrogateBuilder {
+
+  public static final int DEFAULT_NODE_COUNT = 9;
+  public static final int DEFAULT_MAX_REFINEMENT_DEPTH = 4;
+  public static final double DEFAULT_ERROR_TOLERANCE = 0.01;
+
+  private double minT; // [K]
+  private double maxT; // [K]
+  private double minP; // [bar]
+  private double maxP; // [bar]
+  private int TNodeCount; // Number of nodes along the T axis of the grid
+  private int PNodeCount; // Number of nodes along the P axis of the grid
+  private int maxRefinementDepth; // Number of times a cell of the grid may be divided
+  private boolean estimateErrors; // if true, each cell is checked against the exact flash at its centre
+  private double errorTolerance; // Largest accepted error of the mole fractions, and relative error of Q
+  private double F; // [mol/h]
+  private int[] speciesIndices;
+  private Behaviour behaviour;
+  private HashMap<String, double[]> samples; // Exact flash results of the current build, keyed by (T, P)
+  private HashMap<String, Integer> nodeIndices; // Index of each node of the current build, keyed by (T, P)
+  private ArrayList<double[]> nodes; // Values of each node of the current build
+
+
+  /**********************************************************************************************************************
+    * 1) Constructor
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public FlashSurrogateBuilder(double minT, double maxT, double minP, double maxP, double F, int[] speciesIndices,
+                               Behaviour behaviour) {
+
+    if (minT <= 0. || maxT <= minT) {
+      throw new IllegalArgumentException("IllegalArgumentException: The temperature domain of the surrogate is "
+                                           + "incorrect.");
+    }
+    if (minP <= 0. || maxP <= minP) {
+      throw new IllegalArgumentException("IllegalArgumentException: The pressure domain of the surrogate is "
+                                           + "incorrect.");
+    }
+    if (F <= 0.) {
+      throw new IllegalArgumentException("IllegalArgumentException: Inputted molar flow rate is less than or "
+                                           + "equal to 0.");
+    }
+
+    this.minT = minT;
+    this.maxT = maxT;
+    this.minP = minP;
+    this.maxP = maxP;
+    this.TNodeCount = FlashSurrogateBuilder.DEFAULT_NODE_COUNT;
+    this.PNodeCount = FlashSurrogateBuilder.DEFAULT_NODE_COUNT;
+    this.maxRefinementDepth = FlashSurrogateBuilder.DEFAULT_MAX_REFINEMENT_DEPTH;
+    this.estimateErrors = true;
+    this.errorTolerance = FlashSurrogateBuilder.DEFAULT_ERROR_TOLERANCE;
+    this.F = F;
+    this.speciesIndices = speciesIndices.clone();
+    this.behaviour = behaviour.clone();
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 2) build() : Samples the exact flash of the feed composition z and returns the resulting tables.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public FlashSurrogate build(double[] z) {
+
+    if (z.length != this.speciesIndices.length) {
+      throw new IllegalArgumentException("IllegalArgumentException: The length of z is inconsistent with the "
+                                           + "number of species.");
+    }
+
+    this.samples = new HashMap<String, double[]>();
+    this.nodeIndices = new HashMap<String, Integer>();
+    this.nodes = new ArrayList<double[]>();
+    int stride = FlashSurrogate.getStride(this.speciesIndices.length);
+
+    /*
+     * I. Build the Initial Uniform Grid
+     * -----------------------------------------------------------------------------
+     */
+    double[] T = FlashSurrogateBuilder.buildUniformAxis(this.minT, this.maxT, this.TNodeCount);
+    double[] P = FlashSurrogateBuilder.buildUniformAxis(this.minP, this.maxP, this.PNodeCount);
+
+    // Numbered row-major over (T, P), as the cell corners of the grid expect
+    for (int i = 0; i < T.length; i++) {
+      for (int j = 0; j < P.length; j++) {
+        this.getNode(T[i], P[j], z);
+      }
+    }
+
+    // Bounds [T0, T1, P0, P1] and depth of each cell
+    ArrayList<double[]> cellBounds = new ArrayList<double[]>();
+    ArrayList<Integer> cellCorners = new ArrayList<Integer>();
+    int[] gridCellCorners = FlashSurrogate.buildGridCellCorners(T.length, P.length);
+    for (int i = 0; i < T.length - 1; i++) {
+      for (int j = 0; j < P.length - 1; j++) {
+        cellBounds.add(new double[] {T[i], T[i + 1], P[j], P[j + 1], 0.});
+      }
+    }
+    for (int k = 0; k < gridCellCorners.length; k++) {
+      cellCorners.add(Integer.valueOf(gridCellCorners[k]));
+    }
+
+    /*
+     * II. Check each Cell and Divide it if Needed
+     * -----------------------------------------------------------------------------
+     */
+    // The children of a cell are added behind the cells still to be checked, so they are checked in turn
+    ArrayList<Integer> firstChildren = new ArrayList<Integer>();
+    ArrayList<Double> vapourFractionError = new ArrayList<Double>();
+    ArrayList<Double> QError = new ArrayList<Double>();
+    ArrayList<Double> compositionError = new ArrayList<Double>();
+    for (int cell = 0; cell < cellBounds.size(); cell++) {
+      double[] bounds = cellBounds.get(cell);
+      double Tm = 0.5 * (bounds[0] + bounds[1]);
+      double Pm = 0.5 * (bounds[2] + bounds[3]);
+      int n00 = cellCorners.get(4 * cell).intValue();
+      int n01 = cellCorners.get(4 * cell + 1).intValue();
+      int n10 = cellCorners.get(4 * cell + 2).intValue();
+      int n11 = cellCorners.get(4 * cell + 3).intValue();
+      double[] corner00 = this.nodes.get(n00);
+      double[] corner01 = this.nodes.get(n01);
+      double[] corner10 = this.nodes.get(n10);
+      double[] corner11 = this.nodes.get(n11);
+
+      int regime = FlashSurrogateResult.classifyPhaseRegime(corner00[0]);
+      boolean isDivided = regime != FlashSurrogateResult.classifyPhaseRegime(corner01[0])
+        || regime != FlashSurrogateResult.classifyPhaseRegime(corner10[0])
+        || regime != FlashSurrogateResult.classifyPhaseRegime(corner11[0]);
+
+      double[] errors = {Double.NaN, Double.NaN, Double.NaN};
+      if (this.estimateErrors) {
+
+        // Compare the bilinear value at the centre of the cell, i.e. the mean of its corners, with the exact flash
+        double[] exact = this.getSample(Tm, Pm, z);
+        double compositionErrorMax = 0.;
+        for (int k = 0; k < stride; k++) {
+          double error = FlashSurrogateBuilder.absoluteError(exact[k],
+                                                             0.25 * (corner00[k] + corner01[k] + corner10[k]
+                                                                       + corner11[k]));
+          if (k < 2) {
+            errors[k] = error;
+          }
+          else {
+            compositionErrorMax = Math.max(compositionErrorMax, error);
+          }
+        }
+        errors[2] = compositionErrorMax;
+
+        // Errors are only meaningful where the exact flash succeeded at every point of the cell
+        if (regime != FlashSurrogateResult.UNDEFINED) {
+          isDivided = isDivided || regime != FlashSurrogateResult.classifyPhaseRegime(exact[0])
+            || errors[0] > this.errorTolerance || errors[1] > this.errorTolerance * Math.abs(exact[1])
+            || errors[2] > this.errorTolerance;
+        }
+      }
+      vapourFractionError.add(Double.valueOf(errors[0]));
+      QError.add(Double.valueOf(errors[1]));
+      compositionError.add(Double.valueOf(errors[2]));
+
+      if (!isDivided || bounds[4] >= this.maxRefinementDepth) {
+        firstChildren.add(Integer.valueOf(FlashSurrogate.NO_CHILDREN));
+        continue;
+      }
+
+      // Nodes at the middle of each edge and at the centre
+      int n0m = this.getNode(bounds[0], Pm, z);
+      int nm0 = this.getNode(Tm, bounds[2], z);
+      int nmm = this.getNode(Tm, Pm, z);
+      int nm1 = this.getNode(Tm, bounds[3], z);
+      int n1m = this.getNode(bounds[1], Pm, z);
+
+      firstChildren.add(Integer.valueOf(cellBounds.size()));
+      double depth = bounds[4] + 1.;
+      FlashSurrogateBuilder.addCell(cellBounds, cellCorners, bounds[0], Tm, bounds[2], Pm, depth, n00, n0m, nm0, nmm);
+      FlashSurrogateBuilder.addCell(cellBounds, cellCorners, bounds[0], Tm, Pm, bounds[3], depth, n0m, n01, nmm, nm1);
+      FlashSurrogateBuilder.addCell(cellBounds, cellCorners, Tm, bounds[1], bounds[2], Pm, depth, nm0, nmm, n10, n1m);
+      FlashSurrogateBuilder.addCell(cellBounds, cellCorners, Tm, bounds[1], Pm, bounds[3], depth, nmm, nm1, n1m, n11);
+    }
+
+    /*
+     * III. Store the Tables
+     * -----------------------------------------------------------------------------
+     */
+    double[] values = new double[this.nodes.size() * stride];
+    for (int n = 0; n < this.nodes.size(); n++) {
+      System.arraycopy(this.nodes.get(n), 0, values, n * stride, stride);
+    }
+
+    int cellCount = cellBounds.size();
+    int[] corners = new int[4 * cellCount];
+    int[] children = new int[cellCount];
+    double[] vapourFractionErrors = new double[cellCount];
+    double[] QErrors = new double[cellCount];
+    double[] compositionErrors = new double[cellCount];
+    for (int cell = 0; cell < cellCount; cell++) {
+      for (int k = 0; k < 4; k++) {
+        corners[4 * cell + k] = cellCorners.get(4 * cell + k).intValue();
+      }
+      children[cell] = firstChildren.get(cell).intValue();
+      vapourFractionErrors[cell] = vapourFractionError.get(cell).doubleValue();
+      QErrors[cell] = QError.get(cell).doubleValue();
+      compositionErrors[cell] = compositionError.get(cell).doubleValue();
+    }
+
+    this.samples = null;
+    this.nodeIndices = null;
+    this.nodes = null;
+
+    return new FlashSurrogate(T, P, values, corners, children, vapourFractionErrors, QErrors, compositionErrors,
+                              this.F, z, this.speciesIndices, this.behaviour);
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 3) buildFamily() : Builds one set of tables for each feed composition of a feed family.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public FlashSurrogate[] buildFamily(double[][] feedCompositions) {
+
+    FlashSurrogate[] surrogates = new FlashSurrogate[feedCompositions.length];
+    for (int i = 0; i < feedCompositions.length; i++) {
+      surrogates[i] = this.build(feedCompositions[i]);
+    }
+
+    return surrogates;
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 4) getSample() : Returns the exact flash result at (T, P), performing the flash only once per build.
+    *       If the flash fails, all values of the node are NaN.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  private double[] getSample(double T, double P, double[] z) {
+
+    String key = T + "," + P;
+    double[] sample = this.samples.get(key);
+    if (sample != null) {
+      return sample;
+    }
+
+    int componentCount = this.speciesIndices.length;
+    sample = new double[FlashSurrogate.getStride(componentCount)];
+
+    try {
+      FlashSeparator flashSeparator = new IsothermalHeat(T, P, this.F, z, this.speciesIndices, this.behaviour);
+      flashSeparator.flashCalculation();
+      FlashResult result = flashSeparator.getResult();
+
+      sample[0] = result.getVapourFraction();
+      sample[1] = result.getQ();
+      for (int k = 0; k < componentCount; k++) {
+        sample[2 + k] = result.getXi(k);
+        sample[2 + componentCount + k] = result.getYi(k);
+      }
+    }
+    catch (Exception e) {
+      for (int k = 0; k < sample.length; k++) {
+        sample[k] = Double.NaN;
+      }
+      Menu.appendToMessages("\r\nWarning: The exact flash failed at T = " + T + " K and P = " + P
+                              + " bar while building a surrogate. \r\n" + e.getMessage());
+    }
+
+    this.samples.put(key, sample);
+    return sample;
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 5) getNode() : Returns the index of the node at (T, P), adding the node if the build does not have it yet.
+    *       Failed flashes form the UNDEFINED regime, so that cells are also divided around them.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  private int getNode(double T, double P, double[] z) {
+
+    String key = T + "," + P;
+    Integer nodeIndex = this.nodeIndices.get(key);
+    if (nodeIndex != null) {
+      return nodeIndex.intValue();
+    }
+
+    this.nodes.add(this.getSample(T, P, z));
+    this.nodeIndices.put(key, Integer.valueOf(this.nodes.size() - 1));
+    return this.nodes.size() - 1;
+  }
+  /*********************************************************************************************************************/
+
+
+  private static void addCell(ArrayList<double[]> cellBounds, ArrayList<Integer> cellCorners, double T0, double T1,
+                              double P0, double P1, double depth, int n00, int n01, int n10, int n11) {
+    cellBounds.add(new double[] {T0, T1, P0, P1, depth});
+    cellCorners.add(Integer.valueOf(n00));
+    cellCorners.add(Integer.valueOf(n01));
+    cellCorners.add(Integer.valueOf(n10));
+    cellCorners.add(Integer.valueOf(n11));
+  }
+
+  private static double[] buildUniformAxis(double min, double max, int nodeCount) {
+    double[] axis = new double[nodeCount];
+    for (int i = 0; i < nodeCount; i++) {
+      axis[i] = min + (max - min) * i / (nodeCount - 1);
+    }
+    return axis;
+  }
+
+  private static double absoluteError(double exact, double interpolated) {
+    if (Double.isNaN(exact) || Double.isNaN(interpolated)) {
+      return Double.POSITIVE_INFINITY;
+    }
+    return Math.abs(exact - interpolated);
+  }
+
+  public int getTNodeCount() {
+    return this.TNodeCount;
+  }
+
+  public void setTNodeCount(int TNodeCount) {
+    this.TNodeCount = Math.max(2, TNodeCount);
+  }
+
+  public int getPNodeCount() {
+    return this.PNodeCount;
+  }
+
+  public void setPNodeCount(int PNodeCount) {
+    this.PNodeCount = Math.max(2, PNodeCount);
+  }
+
+  public int getMaxRefinementDepth() {
+    return this.maxRefinementDepth;
+  }
+
+  public void setMaxRefinementDepth(int maxRefinementDepth) {
+    this.maxRefinementDepth = Math.max(0, maxRefinementDepth);
+  }
+
+  public boolean isEstimateErrors() {
+    return this.estimateErrors;
+  }
+
+  public void setEstimateErrors(boolean estimateErrors) {
+    this.estimateErrors = estimateErrors;
+  }
+
+  public double getErrorTolerance() {
+    return this.errorTolerance;
+  }
+
+  public void setErrorTolerance(double errorTolerance) {
+    this.errorTolerance = errorTolerance;
+  }
+
+}
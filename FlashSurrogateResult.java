@@ -0,0 +1,158 @@
+public class FlashSurrogateResult {
+
+  public static final int LIQUID = 0;
+  public static final int TWO_PHASE = 1;
+  public static final int VAPOUR = 2;
+  public static final int UNDEFINED = -1; // The exact flash failed at a corner of the cell
+
+  private double vapourFraction; // mole fraction; pertains only to the condensable fraction
+  private double Q; // [J/h]
+  private double[] x;
+  private double[] y;
+  private int phaseRegime;
+  private double vapourFractionError; // estimated absolute interpolation error of the vapour fraction
+  private double QError; // estimated absolute interpolation error of Q [J/h]
+  private double compositionError; // largest estimated absolute interpolation error of x and y
+
+
+  /**********************************************************************************************************************
+    * 1) Constructor : The result holder is meant to be allocated once and reused for every evaluation.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public FlashSurrogateResult(int componentCount) {
+    this.vapourFraction = 0.;
+    this.Q = 0.;
+    this.x = new double[componentCount];
+    this.y = new double[componentCount];
+    this.phaseRegime = FlashSurrogateResult.LIQUID;
+    this.vapourFractionError = 0.;
+    this.QError = 0.;
+    this.compositionError = 0.;
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 2) Copy Constructor
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public FlashSurrogateResult(FlashSurrogateResult source) {
+    this.vapourFraction = source.vapourFraction;
+    this.Q = source.Q;
+    this.x = source.x.clone();
+    this.y = source.y.clone();
+    this.phaseRegime = source.phaseRegime;
+    this.vapourFractionError = source.vapourFractionError;
+    this.QError = source.QError;
+    this.compositionError = source.compositionError;
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 3) clone()
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public FlashSurrogateResult clone() {
+    return new FlashSurrogateResult(this);
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 4) classifyPhaseRegime() : Returns the phase regime that corresponds to a vapour fraction; UNDEFINED for NaN,
+    *       the value stored at nodes where the exact flash failed.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public static int classifyPhaseRegime(double vapourFraction) {
+    if (Double.isNaN(vapourFraction)) {
+      return FlashSurrogateResult.UNDEFINED;
+    }
+    else if (vapourFraction <= 0.) {
+      return FlashSurrogateResult.LIQUID;
+    }
+    else if (vapourFraction >= 1.) {
+      return FlashSurrogateResult.VAPOUR;
+    }
+    return FlashSurrogateResult.TWO_PHASE;
+  }
+  /*********************************************************************************************************************/
+
+
+  public int getComponentCount() {
+    return this.x.length;
+  }
+
+  public double getVapourFraction() {
+    return this.vapourFraction;
+  }
+
+  public void setVapourFraction(double vapourFraction) {
+    this.vapourFraction = vapourFraction;
+  }
+
+  public double getQ() {
+    return this.Q;
+  }
+
+  public void setQ(double Q) {
+    this.Q = Q;
+  }
+
+  public double[] getX() {
+    return this.x.clone();
+  }
+
+  public double getXi(int componentIndex) {
+    return this.x[componentIndex];
+  }
+
+  public void setXi(double x_i, int componentIndex) {
+    this.x[componentIndex] = x_i;
+  }
+
+  public double[] getY() {
+    return this.y.clone();
+  }
+
+  public double getYi(int componentIndex) {
+    return this.y[componentIndex];
+  }
+
+  public void setYi(double y_i, int componentIndex) {
+    this.y[componentIndex] = y_i;
+  }
+
+  public int getPhaseRegime() {
+    return this.phaseRegime;
+  }
+
+  public void setPhaseRegime(int phaseRegime) {
+    this.phaseRegime = phaseRegime;
+  }
+
+  public double getVapourFractionError() {
+    return this.vapourFractionError;
+  }
+
+  public void setVapourFractionError(double vapourFractionError) {
+    this.vapourFractionError = vapourFractionError;
+  }
+
+  public double getQError() {
+    return this.QError;
+  }
+
+  public void setQError(double QError) {
+    this.QError = QError;
+  }
+
+  public double getCompositionError() {
+    return this.compositionError;
+  }
+
+  public void setCompositionError(double compositionError) {
+    this.compositionError = compositionError;
+  }
+
+}
@@ -25,4 +25,13 @@ public interface Function {
     */
   public double evaluateDerivative(double x, double[] constants) throws FunctionException;
   /*********************************************************************************************************************/
+  
+  /**********************************************************************************************************************
+    * 4) evaluateWithDerivative() : Writes the result of the function and of its derivative evaluated at x into 
+    *                  result. Newton-type root finders call this method, so that work shared by the function and 
+    *                  its derivative is only done once per step.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public void evaluateWithDerivative(double x, double[] constants, FunctionValue result) throws FunctionException;
+  /*********************************************************************************************************************/
 }
\ No newline at end of file
@@ -0,0 +1,49 @@
+/* Holds the value of a function and of its derivative at the same point, as written by
+ * Function.evaluateWithDerivative(). A single instance can be reused for every evaluation.
+ */
+
+public class FunctionValue {
+
+  private double value;
+  private double derivative;
+
+
+  /**********************************************************************************************************************
+    * 1) Constructor
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public FunctionValue() {
+    this.value = 0.;
+    this.derivative = 0.;
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 2) set()
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public void set(double value, double derivative) {
+    this.value = value;
+    this.derivative = derivative;
+  }
+  /*********************************************************************************************************************/
+
+
+  public double getValue() {
+    return this.value;
+  }
+
+  public void setValue(double value) {
+    this.value = value;
+  }
+
+  public double getDerivative() {
+    return this.derivative;
+  }
+
+  public void setDerivative(double derivative) {
+    this.derivative = derivative;
+  }
+
+}
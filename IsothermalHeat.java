@@ -47,7 +47,7 @@ public class IsothermalHeat extends FlashSeparator {
     throws FlashCalculationException, NumericalMethodException, 
     FunctionException, StreamException {
     
-    Stream feedStream = super.getFeedStream();
+    Stream feedStream = super.getSharedFeedStream();
     
     // Step 1. Attempt Flash Separator
     Stream flashStream = super.performFlash();
@@ -57,9 +57,9 @@ public class IsothermalHeat extends FlashSeparator {
     
     // Step 3. Calculate Heat Duty [J/h]
     // The feed and flash streams are passed to the enthalpy balance as inlet and outlet streams
-    // of known temperature respectively 
-    EnthalpyBalance enthalpyBalance = new EnthalpyBalance(Tref, null, new Stream[] { new Stream(feedStream) },
-                                                          new Stream[] { new Stream(flashStream) }, super.getBehaviour(), true, false);
+    // of known temperature respectively; the balance keeps its own copies
+    EnthalpyBalance enthalpyBalance = new EnthalpyBalance(Tref, null, new Stream[] { feedStream },
+                                                          new Stream[] { flashStream }, super.getSharedBehaviour(), true, false);
     
     try {
       super.setQ(enthalpyBalance.evaluate(enthalpyBalance.getMinX(), new double[] { Tref }));
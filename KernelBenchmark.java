@@ -0,0 +1,145 @@
+import java.util.Random;
+
+/* Compares the scalar, unrolled and vector kernels on synthetic data; the vector kernels are left out if they are
+ * not available (see Kernels).
+ *
+ *   java [--add-modules jdk.incubator.vector] KernelBenchmark [componentCount] [caseCount]
+ *
+ * Two shapes are timed for each kernel:
+ *   one feed  : a single feed with componentCount components (default 200), evaluated repeatedly;
+ *   batch     : caseCount cases (default 100000) of 5 components each, every case evaluated once per pass.
+ * The figures are the best of several passes, in nanoseconds per component evaluation, after a warm-up.
+ */
+
+public class KernelBenchmark {
+
+  public static final int DEFAULT_COMPONENT_COUNT = 200;
+  public static final int DEFAULT_CASE_COUNT = 100000;
+  public static final int BATCH_COMPONENT_COUNT = 5;
+  public static final int PASS_COUNT = 7;
+
+  private static double sink; // Keeps the results live so that the loops are not removed
+
+
+  /**********************************************************************************************************************
+    * 1) main()
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public static void main(String[] args) {
+
+    int componentCount = KernelBenchmark.DEFAULT_COMPONENT_COUNT;
+    int caseCount = KernelBenchmark.DEFAULT_CASE_COUNT;
+    try {
+      if (args.length >= 1) {
+        componentCount = Integer.parseInt(args[0]);
+      }
+      if (args.length >= 2) {
+        caseCount = Integer.parseInt(args[1]);
+      }
+    }
+    catch (NumberFormatException e) {
+      System.out.println("Usage: java KernelBenchmark [componentCount] [caseCount]");
+      return;
+    }
+
+    Kernels vectorKernels = Kernels.select(Kernels.VECTOR_NAME);
+    Kernels[] kernels;
+    if (vectorKernels.getName().equals(Kernels.VECTOR_NAME)) {
+      kernels = new Kernels[] {new ScalarKernels(), new UnrolledKernels(), vectorKernels};
+    }
+    else {
+      kernels = new Kernels[] {new ScalarKernels(), new UnrolledKernels()};
+    }
+
+    System.out.println("Kernel     Shape                    Rachford-Rice  Vapour Pressure  Dot Product   [ns/component]");
+    for (int pass = 0; pass < 2; pass++) { // The first pass warms up both kernels
+      for (int j = 0; j < kernels.length; j++) {
+        double[] oneFeed = KernelBenchmark.time(kernels[j], 1, componentCount);
+        double[] batch = KernelBenchmark.time(kernels[j], caseCount, KernelBenchmark.BATCH_COMPONENT_COUNT);
+        if (pass == 1) {
+          KernelBenchmark.print(kernels[j].getName(), "one feed, " + componentCount + " components", oneFeed);
+          KernelBenchmark.print(kernels[j].getName(), "batch, " + caseCount + " cases", batch);
+        }
+      }
+    }
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 2) time() : Returns the best time per component evaluation of each kernel, over caseCount cases of n
+    *          components. The data of each case is held in its own arrays, as it is in RachfordRice and
+    *          MixtureCorrelations.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  private static double[] time(Kernels kernels, int caseCount, int n) {
+
+    Random random = new Random(1);
+    double[][] z = new double[caseCount][n];
+    double[][] Km1 = new double[caseCount][n];
+    double[][][] C = new double[5][caseCount][n];
+    for (int c = 0; c < caseCount; c++) {
+      for (int i = 0; i < n; i++) {
+        z[c][i] = random.nextDouble() / n;
+        Km1[c][i] = 4. * random.nextDouble() - 0.9;
+        C[0][c][i] = 50. + 50. * random.nextDouble();
+        C[1][c][i] = -3000. - 5000. * random.nextDouble();
+        C[2][c][i] = -5. - 5. * random.nextDouble();
+        C[3][c][i] = 0.00001 * random.nextDouble();
+        C[4][c][i] = 2.;
+      }
+    }
+    double[] result = new double[n];
+
+    // Repeat the single feed so that each pass makes a comparable number of evaluations
+    int repeatCount = Math.max(1, 1000000 / (caseCount * n));
+    double evaluationCount = (double) repeatCount * caseCount * n;
+
+    double[] best = {Double.MAX_VALUE, Double.MAX_VALUE, Double.MAX_VALUE};
+    for (int pass = 0; pass < KernelBenchmark.PASS_COUNT; pass++) {
+      double sum = 0.;
+
+      long start = System.nanoTime();
+      for (int r = 0; r < repeatCount; r++) {
+        for (int c = 0; c < caseCount; c++) {
+          sum += kernels.rachfordRice(0.5, z[c], Km1[c], n);
+        }
+      }
+      best[0] = Math.min(best[0], (System.nanoTime() - start) / evaluationCount);
+
+      start = System.nanoTime();
+      for (int r = 0; r < repeatCount; r++) {
+        for (int c = 0; c < caseCount; c++) {
+          kernels.vapourPressures(350., false, C[0][c], C[1][c], C[2][c], C[3][c], C[4][c], result, n);
+          sum += result[0];
+        }
+      }
+      best[1] = Math.min(best[1], (System.nanoTime() - start) / evaluationCount);
+
+      start = System.nanoTime();
+      for (int r = 0; r < repeatCount; r++) {
+        for (int c = 0; c < caseCount; c++) {
+          sum += kernels.dotProduct(z[c], Km1[c], n);
+        }
+      }
+      best[2] = Math.min(best[2], (System.nanoTime() - start) / evaluationCount);
+
+      KernelBenchmark.sink += sum;
+    }
+
+    return best;
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 3) print()
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  private static void print(String name, String shape, double[] times) {
+    System.out.println(String.format("%-10s %-24s %13.2f  %15.2f  %11.2f", name, shape, times[0], times[1],
+                                     times[2]));
+  }
+  /*********************************************************************************************************************/
+
+}
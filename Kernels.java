@@ -0,0 +1,122 @@
+/* Inner loops over components that are shared by the correlations, the Rachford-Rice equation and UNIFAC. The data
+ * is passed as primitive arrays with one element per component, and masked-out components are given values that
+ * make their terms zero, so the loops have no branches.
+ *
+ * The implementation is selected once, when the class is loaded, from the system property flash.kernels:
+ *   scalar   : ScalarKernels; sums are taken in component order, exactly as the per-component code did.
+ *   unrolled : UnrolledKernels; sums are split over four independent partial sums, so results can differ
+ *              from the scalar kernels in the last bits.
+ *   vector   : VectorKernels (vector/VectorKernels.java), which use the jdk.incubator.vector module; results can
+ *              differ from the scalar kernels in the last bits. They are loaded by name, so the other classes
+ *              compile without the module; if they were not compiled, or the module was not added with
+ *              --add-modules jdk.incubator.vector, the scalar kernels are used instead.
+ * Any other value, or no value, selects the scalar kernels.
+ */
+
+public abstract class Kernels {
+
+  public static final String PROPERTY_NAME = "flash.kernels";
+  public static final String VECTOR_NAME = "vector";
+  public static final String VECTOR_CLASS_NAME = "VectorKernels";
+
+  private static final Kernels INSTANCE = Kernels.select(System.getProperty(Kernels.PROPERTY_NAME));
+
+
+  /**********************************************************************************************************************
+    * 1) getInstance() : Returns the kernels selected at startup.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public static Kernels getInstance() {
+    return Kernels.INSTANCE;
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 2) select() : Returns the kernels with the given name.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public static Kernels select(String name) {
+    if (name != null && name.trim().equalsIgnoreCase(UnrolledKernels.NAME)) {
+      return new UnrolledKernels();
+    }
+    if (name != null && name.trim().equalsIgnoreCase(Kernels.VECTOR_NAME)) {
+      try {
+        return (Kernels) Class.forName(Kernels.VECTOR_CLASS_NAME).getDeclaredConstructor().newInstance();
+      }
+      catch (ReflectiveOperationException | LinkageError e) {
+        System.out.println("Warning: The vector kernels are not available (" + e + "). "
+                             + "The scalar kernels are used.");
+      }
+    }
+    return new ScalarKernels();
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 3) rachfordRice() : Returns sum( z[i] * Km1[i] / (1 + Km1[i] * vapourFraction) ), where Km1 = K - 1.
+    *          z and Km1 must be 0 for components that are excluded.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public abstract double rachfordRice(double vapourFraction, double[] z, double[] Km1, int n);
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 4) rachfordRiceDerivative() : Returns -sum( z[i] * (Km1[i] / (1 + Km1[i] * vapourFraction))^2 ).
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public abstract double rachfordRiceDerivative(double vapourFraction, double[] z, double[] Km1, int n);
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 4.1) rachfordRiceWithDerivative() : Writes both rachfordRice() and rachfordRiceDerivative() into result, in a
+    *          single pass over the components.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public abstract void rachfordRiceWithDerivative(double vapourFraction, double[] z, double[] Km1, int n,
+                                                  FunctionValue result);
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 5) vapourPressures() : Evaluates the vapour pressure correlation [bar], or its derivative, of n components at
+    *          temperature T into result.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public abstract void vapourPressures(double T, boolean derivative, double[] C1, double[] C2, double[] C3,
+                                       double[] C4, double[] C5, double[] result, int n);
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 6) dotProduct() : Returns sum( a[i] * b[i] ).
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public abstract double dotProduct(double[] a, double[] b, int n);
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 7) accumulateProduct() : Adds a * b[i] to result[i]. Calling this for each row m of a matrix with the m-th
+    *          element of a vector gives the product of the vector with the matrix, summed in row order.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public void accumulateProduct(double a, double[] b, double[] result, int n) {
+    for (int i = 0; i < n; i++) {
+      result[i] += a * b[i];
+    }
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 8) getName()
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public abstract String getName();
+  /*********************************************************************************************************************/
+
+}
@@ -1,4 +1,5 @@
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.text.DecimalFormat;
 import java.io.File;
 import java.io.FileInputStream;
@@ -8,6 +9,7 @@ import java.io.IOException;
 import java.util.NoSuchElementException;
 import java.io.PrintWriter;
 import java.util.Scanner;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class Menu {
   
@@ -23,6 +25,7 @@ public class Menu {
   private static final String INTERACTION_PARAMETERS_FILE_PATH = "IO/InteractionParameters.csv"; // IO/InteractionParameters.csv
   private static final String INPUT_FILE_PATH = "IO/Input.txt"; // IO/Input.txt
   private static final String OUTPUT_FILE_PATH = "IO/Output.txt"; // IO/Output.txt
+  private static final String PROPERTY_DATABASE_FILE_PATH = "IO/PropertyDatabase.bin"; // IO/PropertyDatabase.bin
   
   private static Species[] species;
   private static int[] subGroupIndices;
@@ -30,7 +33,15 @@ public class Menu {
   private static double[] subGroupRelativeSurfaceArea; //Q
   private static double[][] interactionParameters;
   
-  private static ArrayList<String> messages;
+  private static final MessageLog messages = new MessageLog(MessageLog.DEFAULT_CAPACITY); // Interactive simulation
+  private static SolverProfile solverProfile = SolverProfile.getPreset(SolverProfile.DEFAULT_NAME);
+  
+  // Root finders are reused by every search; each thread has its own pool
+  private static final ThreadLocal<RootFinderPool> rootFinderPools = new ThreadLocal<RootFinderPool>() {
+    protected RootFinderPool initialValue() {
+      return new RootFinderPool();
+    }
+  };
   
   
   /**********************************************************************************************************************
@@ -38,7 +49,52 @@ public class Menu {
     * ---------------------------------------------------------------------------------------------------------------------
     */
   public static void main(String[] args) {
-    Menu.messages = new ArrayList<String>();
+    
+    // Select the solver profile : java -Dflash.profile=<default|fast-screening|tight> Menu ...
+    try {
+      Menu.solverProfile = SolverProfile.getPreset(System.getProperty(SolverProfile.PROPERTY_NAME));
+    }
+    catch (IllegalArgumentException e) {
+      System.out.println(e.getMessage() + " The default profile is used.");
+    }
+    
+    // Evaluate the bubble-point and dew-point pairs concurrently : java -Dflash.parallelPhaseBoundaries=true Menu ...
+    Menu.solverProfile.setPhaseBoundariesParallel(Boolean.getBoolean(PhaseBoundaryExecutor.PROPERTY_NAME));
+    
+    // Turn the phase stability test on or off, whatever the profile : java -Dflash.stabilityTest=<true|false> Menu ...
+    String stabilityTest = System.getProperty(PhaseStabilityTest.PROPERTY_NAME);
+    if (stabilityTest != null) {
+      Menu.solverProfile.setStabilityTestEnabled(Boolean.parseBoolean(stabilityTest));
+    }
+    
+    // Compile the property database : java Menu -compile
+    if (args.length >= 1 && args[0].equals("-compile")) {
+      try {
+        PropertyDatabase.compile(Menu.SPECIES_FILE_PATH, Menu.SUB_GROUPS_FILE_PATH, 
+                                 Menu.INTERACTION_PARAMETERS_FILE_PATH, Menu.PROPERTY_DATABASE_FILE_PATH);
+        System.out.println(Menu.PROPERTY_DATABASE_FILE_PATH + " was compiled.");
+      }
+      catch (Exception e) {
+        System.out.println("\r\nError: " + Menu.PROPERTY_DATABASE_FILE_PATH + " could not be compiled. \r\n" 
+                             + e.getMessage());
+      }
+      return;
+    }
+    
+    // Batch mode : java Menu -batch <case file> [thread count] [result table file (.csv or binary)]
+    if (args.length >= 2 && args[0].equals("-batch")) {
+      int threadCount = Runtime.getRuntime().availableProcessors();
+      String resultTableFilePath = null;
+      if (args.length >= 3) {
+        threadCount = Integer.parseInt(args[2]);
+      }
+      if (args.length >= 4) {
+        resultTableFilePath = args[3];
+      }
+      Menu.runBatch(args[1], threadCount, resultTableFilePath); // Go to method 17
+      return;
+    }
+    
     Menu.launchMainMenu(); // Go to method 2
   }
   /*********************************************************************************************************************/
@@ -168,15 +224,11 @@ public class Menu {
             exit = true;
             break;
           case 1: // Run the Simulation
-            Menu.messages.clear();
             Menu.runSimulation(operatingConditionsList, componentNamesList, moleFractionsList);
             
-            // Print to Output File
-            String messagesString = new String();
-            for (int i = 0; i < Menu.messages.size(); i++) {
-              messagesString += Menu.messages.get(i);
-            }
-            Menu.outputToFile(messagesString + "\r\n\r\n", Menu.OUTPUT_FILE_PATH, true);
+            // Print to Output File; the messages from reading the input files are printed with the first run
+            Menu.outputToFile(Menu.messages.toString() + "\r\n\r\n", Menu.OUTPUT_FILE_PATH, true);
+            Menu.messages.clear();
             System.out.println("\nPress any key to continue.");
             keyboardReader.next();
             break;
@@ -342,361 +394,29 @@ public class Menu {
   public static void readSpeciesData(ArrayList<String> speciesNamesList) 
     throws IOException {
     
-    /*
-     * I. Local Variable Declarations
-     * -----------------------------------------------------------------------------
-     */
-    Scanner fileReader; // Parses comma-delimited text files
-    Scanner lineReader; // Parses an individual line from a file
-    
-    int speciesCount = speciesNamesList.size(); // Number of required species
-    int subGroupCount = 0; // Number of required sub-group types
-    int speciesSubGroupCount; // Number of a given sub-group type associated with a given species
-    int masterTotalSubGroupCount; // Number of defined sub-group types in Species.csv
-    int totalSubGroupCount; // Number of defined sub-group types in all other files
-    int storedSpeciesIterator = 0; // Denotes the instantaneous number of required species objects that have been built
-    int speciesIndex; // Unique identifier of a species
-    int subGroupIndex; // Unique identifier of a sub-group
-    double interactionParameter; // Describes the interaction between two sub-groups i and j
-    
-    String name; // Stores species and sub-group names
-    
-    ArrayList<String> allSpeciesNamesList; // Stores the names of all defined species in Species.csv
-    ArrayList<Integer> allSpeciesIndicesList; // Stores the indices of all defined species in Species.csv
-    ArrayList<String> speciesToStoreNamesList; // Stores the names of all required species from Input.csv
-    ArrayList<String> allSubGroupNamesList; // Stores the names of all defined sub-groups in a given file
-    ArrayList<String> allSubGroupNamesList2; // Stores the names of all defined sub-groups (row headers) in InteractionParameters.csv
-    ArrayList<Integer> allSubGroupIndicesList; // Stores the indices of all defined sub-groups in SubGroups.csv
-    ArrayList<Integer> subGroupPositionsList; // Stores the column positions of all defined sub-groups in Species.csv
-    ArrayList<String> subGroupNamesList; // Stores the names of all required sub-groups 
-    ArrayList<Integer> speciesSubGroupPositionsList; // Stores the column positions (Species.csv) of all sub-group types in a given species
-    ArrayList<Integer> speciesSubGroupCountsList; // Stores the numbers of all sub-group types in a given species
-    
-    double[] properties; // Stores the properties of a given species
-    double[] correlationParameters; // Stores the correlation parameters of a given species
-    int[][] speciesSubGroups; // Stores the sub-group column positions and numbers of a given species
-    
-    boolean isUnique;
-    
-    /*
-     * II. Store Species Data
-     * -----------------------------------------------------------------------------
-     */
-    // i) Open Species.csv
-    try {
-      fileReader = new Scanner(new FileInputStream(Menu.SPECIES_FILE_PATH));
-      fileReader.useDelimiter(",");
-    }
-    catch (Exception e) {
-      throw new FileNotFoundException(Menu.SPECIES_FILE_PATH + " was not found.");
-    }
-    
-    // ii) Initialize Arrays
-    Menu.species = new Species[speciesCount]; // Initialize the species array
-    allSpeciesNamesList = new ArrayList<String>();
-    allSpeciesIndicesList = new ArrayList<Integer>();
-    speciesToStoreNamesList = new ArrayList<String>();
-    allSubGroupNamesList = new ArrayList<String>();
-    subGroupPositionsList = new ArrayList<Integer>();
-    subGroupNamesList = new ArrayList<String>();
-    
-    // iii) Flag Unstored Species 
-    for (int i = 0; i < speciesCount; i++) {
-      speciesToStoreNamesList.add(speciesNamesList.get(i));
-    }
-    
-    // iv) Store Sub-Group Names
-    fileReader.nextLine();
-    lineReader = new Scanner(fileReader.nextLine()); // Store current row
-    lineReader.useDelimiter(",");
-    
-    masterTotalSubGroupCount = 0;
-    for (int i = 0; i < Species.PHYSICAL_PROPERTY_COUNT 
-           + Species.getCorrelationParameterCount() + 2; i++) {
-      lineReader.next();
-    }
-    while (lineReader.hasNext()) {
-      name = lineReader.next();
-      
-      if (!name.equals("")) {
-        allSubGroupNamesList.add(name);
-        masterTotalSubGroupCount++;
-      }
-    }
-    lineReader.close();
-    
-    // v) Store Species Data and Create Species Objects
-    while (fileReader.hasNextLine()) {
-      lineReader = new Scanner(fileReader.nextLine()); // Store current row
-      lineReader.useDelimiter(",");
-      
-      name = lineReader.next(); // Store the name of the species in Column A
-      allSpeciesNamesList.add(name);
-      
-      speciesIndex = (int) lineReader.nextDouble(); // Store the index of the species in Column B
-      allSpeciesIndicesList.add(new Integer(speciesIndex));
-      
-      System.out.println(name);
-      
-      // Check whether the file reader has reached the end of the file
-      if (name.equals("") || name == null) {
-        
-        // End of the Species.csv File
-        break;
-      } else {
-        
-        // Species name is not blank - continue reading
-        for (int i = 0; i < speciesToStoreNamesList.size(); i++) {
-          
-          System.out.println("Compare to: " + speciesToStoreNamesList.get(i));
-          
-          // Check whether the current species requires storage 
-          if (name.equals(speciesToStoreNamesList.get(i))) {
-            
-            //Remove current species name from species-to-store array
-            speciesToStoreNamesList.remove(i); 
-            
-            //Store the species properties
-            properties = new double[Species.PHYSICAL_PROPERTY_COUNT];
-            for (int j = 0; j < Species.PHYSICAL_PROPERTY_COUNT; j++) {
-              properties[j] = lineReader.nextDouble(); // Next column
-            }
-            
-            //Store the species correlation parameters
-            correlationParameters 
-              = new double[Species.getCorrelationParameterCount()];
-            for (int j = 0; j < Species.getCorrelationParameterCount(); j++) {
-              correlationParameters[j] = lineReader.nextDouble(); // Next column
-            }
-            
-            //Store the species sub-groups 
-            speciesSubGroupPositionsList = new ArrayList<Integer>();
-            speciesSubGroupCountsList = new ArrayList<Integer>();
-            for (int j = 0; j < masterTotalSubGroupCount; j++) {
-              String token = lineReader.next();
-              
-              //Check if the current sub-group count is non-zero
-              if (token != null && !token.equals("")) {
-                speciesSubGroupCount = Integer.parseInt(token); 
-                if (speciesSubGroupCount != 0) {
-                  
-                  //If this species possesses this sub-group, 
-                  //add it to the species' own array
-                  speciesSubGroupPositionsList.add(new Integer(j));
-                  speciesSubGroupCountsList.add(new Integer(speciesSubGroupCount));
-                  
-                  //Check if the current sub-group has already been flagged as in use
-                  isUnique = true;
-                  for (int k = 0; k < subGroupPositionsList.size(); k++) {
-                    if (j == subGroupPositionsList.get(k).intValue()) {
-                      isUnique = false;
-                      break;
-                    }
-                  }
-                  
-                  //Check if the current sub-group has yet to be flagged, add it to the
-                  // sub-group position and name arrays.
-                  if (isUnique) {
-                    subGroupPositionsList.add(new Integer(j));
-                    subGroupNamesList.add(allSubGroupNamesList.get(j));
-                    subGroupCount++;
-                  }
-                }
-              }
-            }
-            
-            //Convert the species sub-group array lists into arrays
-            speciesSubGroups = new int[2][speciesSubGroupPositionsList.size()];
-            for (int j = 0; j < speciesSubGroupPositionsList.size(); j++) {
-              speciesSubGroups[0][j] = speciesSubGroupPositionsList.get(j).intValue();
-              speciesSubGroups[1][j] = speciesSubGroupCountsList.get(j).intValue();
-            }
-            
-            //Create a new species object
-            Menu.species[storedSpeciesIterator] = new Species(name, speciesIndex, 
-                                                              properties, correlationParameters, speciesSubGroups);
-            storedSpeciesIterator++;
-            
-            break;
-          }
-        }
-      }
-      
-      lineReader.close();
-    }
-    fileReader.close();
-    
-    // vi) Verify Data Integrity
-    if (speciesToStoreNamesList.size() != 0) {
-      throw new IOException("The following species were not found in " + Menu.SPECIES_FILE_PATH 
-                              + " : " + speciesToStoreNamesList.toString());
-    }
-    if (!Menu.areArrayListElementsUnique(allSpeciesNamesList)) {
-      throw new IOException("Species names in " + Menu.SPECIES_FILE_PATH + " are not unique.");
-    }
-    if (!Menu.areArrayListElementsUnique(allSpeciesIndicesList)) {
-      throw new IOException("Species indices in " + Menu.SPECIES_FILE_PATH + " are not unique.");
-    }
-    if (!Menu.areArrayListElementsUnique(allSubGroupNamesList)) {
-      throw new IOException("Sub-group names in " + Menu.SPECIES_FILE_PATH + " are not unique.");
-    }
-    
-    /*
-     * III. Store Sub-Group Data
-     * -----------------------------------------------------------------------------
-     */
-    // i) Open SubGroups.csv
-    try {
-      fileReader = new Scanner(new FileInputStream(Menu.SUB_GROUPS_FILE_PATH));
-      fileReader.useDelimiter(",");
-      fileReader.nextLine();
-    }
-    catch (Exception e) {
-      throw new FileNotFoundException(Menu.SUB_GROUPS_FILE_PATH + " was not found.");
-    }
-    
-    // ii) Initialize Arrays
-    Menu.subGroupIndices = new int[subGroupCount];
-    Menu.subGroupRelativeVolume = new double[subGroupCount];
-    Menu.subGroupRelativeSurfaceArea = new double[subGroupCount];
-    
-    allSubGroupNamesList.clear();
-    allSubGroupIndicesList = new ArrayList<Integer>();
-    
-    // iii) Store Sub-Groups
-    while (fileReader.hasNext()) {
-      lineReader = new Scanner(fileReader.nextLine()); // Store current row
-      lineReader.useDelimiter(",");
-      
-      name = lineReader.next();
-      allSubGroupNamesList.add(name);
-      
-      subGroupIndex = lineReader.nextInt();
-      allSubGroupIndicesList.add(new Integer(subGroupIndex));
-      
-      for (int i = 0; i < subGroupCount; i++) {
-        if (name.equals(subGroupNamesList.get(i))) {
-          Menu.subGroupIndices[i] = subGroupIndex;
-          Menu.subGroupRelativeVolume[i] = lineReader.nextDouble();
-          Menu.subGroupRelativeSurfaceArea[i] = lineReader.nextDouble();
-          break;
-        }
-      }
-      
-      lineReader.close();
-    }
-    fileReader.close();
-    
-    // iv) Convert Sub-Group Positions stored in Species Objects to Sub-Group Indices
-    for (int i = 0; i < speciesCount; i++) {
-      speciesSubGroups = Menu.species[i].getSubGroups();
-      for (int j = 0; j < speciesSubGroups[0].length; j++) {
-        for (int k = 0; k < subGroupCount; k++) {
-          if (speciesSubGroups[0][j] == subGroupPositionsList.get(k).intValue()) {
-            speciesSubGroups[0][j] = Menu.subGroupIndices[k];
-            break;
-          }
-        }
-      }
-      Menu.species[i].setSubGroups(speciesSubGroups);
-    }
-    
-    // v) Verify Data Integrity
-    if (!Menu.areArrayListElementsUnique(allSubGroupNamesList)) {
-      throw new IOException("Sub-group names in " + Menu.SUB_GROUPS_FILE_PATH + " are not unique.");
-    }
-    if (!Menu.areArrayListElementsUnique(allSubGroupIndicesList)) {
-      throw new IOException("Sub-group indices in " + Menu.SUB_GROUPS_FILE_PATH + " are not unique.");
-    }
-    if (allSubGroupNamesList.size() != masterTotalSubGroupCount) {
-      throw new IOException("Number of sub-groups in " + Menu.SUB_GROUPS_FILE_PATH 
-                              + " is inconsistant with that in " + Menu.SPECIES_FILE_PATH 
-                              + ". \r\nThere are " + masterTotalSubGroupCount + " sub-groups defined in " 
-                              + Menu.SPECIES_FILE_PATH + " and " + allSubGroupNamesList.size() + " in " 
-                              + Menu.SUB_GROUPS_FILE_PATH);
-    }
-    
-    /*
-     * IV. Store Interaction Parameters
-     * -----------------------------------------------------------------------------
-     */
-    // i) Open InteractionParameters.csv
-    try {
-      fileReader = new Scanner(new FileInputStream(Menu.INTERACTION_PARAMETERS_FILE_PATH));
-      fileReader.useDelimiter(",");
-      fileReader.nextLine(); // Skip a row
-    }
-    catch (Exception e) {
-      throw new FileNotFoundException(Menu.INTERACTION_PARAMETERS_FILE_PATH + " was not found.");
-    }
-    
-    lineReader = new Scanner(fileReader.nextLine()); // Store current row
-    lineReader.useDelimiter(",");
-    lineReader.next();
-    
-    // ii) Initialize Arrays
-    Menu.interactionParameters = new double[subGroupCount][subGroupCount];
-    allSubGroupNamesList.clear();
-    allSubGroupNamesList2 = new ArrayList<String>();
-    
-    // iii) Store Sub-Group Names (Row Headers)
-    totalSubGroupCount = 0;
-    while (lineReader.hasNext()) {
-      allSubGroupNamesList.add(lineReader.next());
-      totalSubGroupCount++;
-    }
-    lineReader.close();
-    
-    // iV) Store Interaction Parameters
-    while (fileReader.hasNext()) {
-      lineReader = new Scanner(fileReader.nextLine()); // Store current row
-      lineReader.useDelimiter(",");
-      
-      name = lineReader.next();
-      allSubGroupNamesList2.add(name);
-      
-      for (int i = 0; i < subGroupCount; i++) {
-        if (name.equals(subGroupNamesList.get(i))) {
-          for (int j = 0; j < totalSubGroupCount; j++) {
-            interactionParameter = lineReader.nextDouble();
-            for (int k = 0; k < subGroupCount; k++) {
-              if (allSubGroupNamesList.get(j).equals(subGroupNamesList.get(k))) {
-                Menu.interactionParameters[i][k] = interactionParameter;
-              }
-            }
-          }
-          break;
-        }
-      }
+    PropertyDatabase database = Menu.openPropertyDatabase(); // Go to method 19
+    if (database != null) {
+      database.load(speciesNamesList, Menu.SPECIES_FILE_PATH);
       
-      lineReader.close();
-    }
-    fileReader.close();
-    
-    // v) Verify Data Integrity
-    if (!Menu.areArrayListElementsUnique(allSubGroupNamesList)) {
-      throw new IOException("Sub-group names in " + Menu.INTERACTION_PARAMETERS_FILE_PATH 
-                              + " are not unique.");
-    }
-    if (allSubGroupNamesList.size() != masterTotalSubGroupCount) {
-      throw new IOException("Number of sub-groups in " + Menu.INTERACTION_PARAMETERS_FILE_PATH 
-                              + " (row headers) is inconsistant with that in " + Menu.SPECIES_FILE_PATH 
-                              + ". \r\nThere are " + masterTotalSubGroupCount + " sub-groups defined in " 
-                              + Menu.SPECIES_FILE_PATH + " and " + allSubGroupNamesList.size() + " in " 
-                              + Menu.INTERACTION_PARAMETERS_FILE_PATH);
-    }
-    if (allSubGroupNamesList2.size() != masterTotalSubGroupCount) {
-      throw new IOException("Number of sub-groups in " + Menu.INTERACTION_PARAMETERS_FILE_PATH 
-                              + " (column headers) is inconsistant with that in " + Menu.SPECIES_FILE_PATH 
-                              + ". \r\nThere are " + masterTotalSubGroupCount + " sub-groups defined in " 
-                              + Menu.SPECIES_FILE_PATH + " and " + allSubGroupNamesList2.size() + " in " 
-                              + Menu.INTERACTION_PARAMETERS_FILE_PATH);
-    }
-    if (allSubGroupNamesList.size() != allSubGroupNamesList2.size()) {
-      throw new IOException("The interaction parameters matrix in " 
-                              + Menu.INTERACTION_PARAMETERS_FILE_PATH + " is not a square matrix.");
-    }
-    
+      Menu.species = database.getSpecies();
+      Menu.subGroupIndices = database.getSubGroupIndices();
+      Menu.subGroupRelativeVolume = database.getSubGroupRelativeVolume();
+      Menu.subGroupRelativeSurfaceArea = database.getSubGroupRelativeSurfaceArea();
+      Menu.interactionParameters = database.getInteractionParameters();
+      MixtureParameters.clearCache();
+      return;
+    }
+    
+    SpeciesDataLoader loader = new SpeciesDataLoader(Menu.SPECIES_FILE_PATH, Menu.SUB_GROUPS_FILE_PATH, 
+                                                     Menu.INTERACTION_PARAMETERS_FILE_PATH);
+    loader.load(speciesNamesList);
+    
+    Menu.species = loader.getSpecies();
+    Menu.subGroupIndices = loader.getSubGroupIndices();
+    Menu.subGroupRelativeVolume = loader.getSubGroupRelativeVolume();
+    Menu.subGroupRelativeSurfaceArea = loader.getSubGroupRelativeSurfaceArea();
+    Menu.interactionParameters = loader.getInteractionParameters();
+    MixtureParameters.clearCache();
   }
   /*********************************************************************************************************************/
   
@@ -762,37 +482,55 @@ public class Menu {
   
   /**********************************************************************************************************************
     * 6) buildFlashSeparator() : Reads the species data and the user input from the
-    *         input file and builds a FlashSeparator.
+    *         input file and builds a FlashSeparator that uses the solver profile selected at startup.
     * ---------------------------------------------------------------------------------------------------------------------
     */
   public static FlashSeparator buildFlashSeparator(int flashCase, int behaviourCase,
                                                    double T, double P, double F, String[] componentNames, double[] z) 
     throws FileNotFoundException, StreamException {
+    return Menu.buildFlashSeparator(flashCase, behaviourCase, T, P, F, componentNames, z, Menu.solverProfile);
+  }
+  /*********************************************************************************************************************/
+  
+  
+  /**********************************************************************************************************************
+    * 6.1) buildFlashSeparator() : Builds a FlashSeparator that uses the given solver profile.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public static FlashSeparator buildFlashSeparator(int flashCase, int behaviourCase, double T, double P, double F, 
+                                                   String[] componentNames, double[] z, SolverProfile solverProfile) 
+    throws FileNotFoundException, StreamException {
     
     int[] speciesIndices = new int[componentNames.length];
     
     for (int i = 0; i < componentNames.length; i++) {
+      boolean found = false;
       for (int j = 0; j < Menu.species.length; j++) {
         Species species = Menu.species[j];
         if (componentNames[i].equals(species.getName())) {
           speciesIndices[i] = species.getIndex();
+          found = true;
         }
       }
+      if (!found) {
+        throw new IllegalArgumentException("IllegalArgumentException: " + componentNames[i] 
+                                             + " was not found in " + Menu.SPECIES_FILE_PATH + ".");
+      }
     }
     
     // Create Behaviour Object
     Behaviour behaviour;
     switch (behaviourCase) {
       case 0: // Ideal Behaviour
-        behaviour = new Behaviour();
+        behaviour = new Behaviour(solverProfile);
         break;
         
       case 1: // Non-Ideal Behaviour
-        behaviour = new NonIdealBehaviour();
+        behaviour = new NonIdealBehaviour(solverProfile);
         break;
         
       default: 
-        behaviour = new Behaviour();
+        behaviour = new Behaviour(solverProfile);
         break;
     }
     
@@ -840,7 +578,7 @@ public class Menu {
   
   
   /**********************************************************************************************************************
-    * 8) getSpecies() : Returns a copy of the species at the given index.
+    * 8.1) getSpecies() : Returns a copy of the species at the given index.
     * ----------------------------------------------------------------------------------------------------------------------
     */
   public static Species getSpecies(int speciesIndex) {
@@ -855,6 +593,22 @@ public class Menu {
   /*********************************************************************************************************************/
   
   
+  /**********************************************************************************************************************
+    * 8.2) getSpeciesName() : Returns the name of the species at the given index without copying the species.
+    * ----------------------------------------------------------------------------------------------------------------------
+    */
+  public static String getSpeciesName(int speciesIndex) {
+    
+    for (int i = 0; i < Menu.species.length; i++) {
+      if (speciesIndex == Menu.species[i].getIndex()) {
+        return Menu.species[i].getName();
+      }
+    }
+    return null;
+  }
+  /*********************************************************************************************************************/
+  
+  
   /**********************************************************************************************************************
     * 9) getSubGroupIndex() : Returns the sub-group index at position i.
     * ----------------------------------------------------------------------------------------------------------------------
@@ -916,19 +670,28 @@ public class Menu {
   
   
   /**********************************************************************************************************************
-    * 14.1) findRoot() : Returns root of function f.
+    * 14.1) findRoot() : Returns root of function f. The tolerance and evaluation budget are those of the 
+    *          SolverProfile of the calculation; the search increment is derived from the tolerance.
     * ----------------------------------------------------------------------------------------------------------------------
     */
-  public static double findRoot(Function f, double[] constants, double startPoint, 
-                                boolean positiveDirection) throws NumericalMethodException, FunctionException {
+  public static double findRoot(Function f, double[] constants, double startPoint, boolean positiveDirection, 
+                                double tolerance, int maxEvaluationCount) 
+    throws NumericalMethodException, FunctionException {
     
     // RootFinder rootFinder = new NewtonRaphsonRootFinder(maxEvaluationCount);
-    RootFinder rootFinder = new RiddersMethodRootFinder(
-                                                        BracketingRootFinder.DEFAULT_INCREMENT_FACTOR * RootFinder.DEFAULT_TOLERANCE, 
-                                                        BracketingRootFinder.DEFAULT_SUB_INCREMENT_FRACTION,
-                                                        positiveDirection, RootFinder.DEFAULT_MAX_EVALUATION_COUNT, true);
-    
-    return rootFinder.findRoot(f, constants, startPoint, RootFinder.DEFAULT_TOLERANCE);
+    RootFinderPool pool = Menu.rootFinderPools.get();
+    RiddersMethodRootFinder rootFinder = pool.acquire();
+    try {
+      rootFinder.reset(BracketingRootFinder.DEFAULT_INCREMENT_FACTOR * tolerance, 
+                       BracketingRootFinder.DEFAULT_SUB_INCREMENT_FRACTION,
+                       positiveDirection, maxEvaluationCount, true);
+      rootFinder.setCancellationToken(CancellationToken.getCurrent());
+      
+      return rootFinder.findRoot(f, constants, startPoint, tolerance);
+    }
+    finally {
+      pool.release();
+    }
   }
   /*********************************************************************************************************************/
   
@@ -942,10 +705,17 @@ public class Menu {
     throws NumericalMethodException, FunctionException {
     
     // RootFinder rootFinder = new NewtonRaphsonRootFinder(maxEvaluationCount);
-    RootFinder rootFinder = new RiddersMethodRootFinder(endPoint, incrementLength, subIncrementFraction, 
-                                                        maxEvaluationCount);
-    
-    return rootFinder.findRoot(f, constants, startPoint, tolerance);
+    RootFinderPool pool = Menu.rootFinderPools.get();
+    RiddersMethodRootFinder rootFinder = pool.acquire();
+    try {
+      rootFinder.reset(endPoint, incrementLength, subIncrementFraction, maxEvaluationCount);
+      rootFinder.setCancellationToken(CancellationToken.getCurrent());
+      
+      return rootFinder.findRoot(f, constants, startPoint, tolerance);
+    }
+    finally {
+      pool.release();
+    }
   }
   /*********************************************************************************************************************/
   
@@ -960,10 +730,42 @@ public class Menu {
     throws NumericalMethodException, FunctionException {
     
     // RootFinder rootFinder = new NewtonRaphsonRootFinder(maxEvaluationCount);
-    RootFinder rootFinder = new RiddersMethodRootFinder(incrementLength, subIncrementFraction, 
-                                                        positiveDirection, maxEvaluationCount, useFunctionBounds);
+    RootFinderPool pool = Menu.rootFinderPools.get();
+    RiddersMethodRootFinder rootFinder = pool.acquire();
+    try {
+      rootFinder.reset(incrementLength, subIncrementFraction, positiveDirection, maxEvaluationCount, 
+                       useFunctionBounds);
+      rootFinder.setCancellationToken(CancellationToken.getCurrent());
+      
+      return rootFinder.findRoot(f, constants, startPoint, tolerance);
+    }
+    finally {
+      pool.release();
+    }
+  }
+  /*********************************************************************************************************************/
+  
+  
+  /**********************************************************************************************************************
+    * 14.4) findRoot() : Returns the root of function f, which changes sign once beyond startPoint and may only jump 
+    *          at the given breakpoints; see BracketedNewtonRootFinder.
+    * ----------------------------------------------------------------------------------------------------------------------
+    */
+  public static double findRoot(Function f, double[] constants, double startPoint, double[] breakpoints,
+                                boolean positiveDirection, double incrementLength, double tolerance, 
+                                int maxEvaluationCount) throws NumericalMethodException, FunctionException {
     
-    return rootFinder.findRoot(f, constants, startPoint, tolerance);
+    RootFinderPool pool = Menu.rootFinderPools.get();
+    BracketedNewtonRootFinder rootFinder = pool.acquireBracketedNewton();
+    try {
+      rootFinder.reset(breakpoints, incrementLength, positiveDirection, maxEvaluationCount);
+      rootFinder.setCancellationToken(CancellationToken.getCurrent());
+      
+      return rootFinder.findRoot(f, constants, startPoint, tolerance);
+    }
+    finally {
+      pool.releaseBracketedNewton();
+    }
   }
   /*********************************************************************************************************************/
   
@@ -974,18 +776,30 @@ public class Menu {
     */
   public static void appendToMessages(String message) {
     
-    boolean unique = true;
-    
-    for (int i = 0; i < Menu.messages.size(); i++) {
-      // System.out.println(message);
-      // System.out.println(Menu.messages.get(i));
-      if (message.equals(Menu.messages.get(i))) {
-        unique = false;
-      }
+    // The messages of a batch case go to the log of its solver thread, to be written with its results
+    MessageLog messageLog = MessageLog.getCurrent();
+    if (messageLog == null) {
+      messageLog = Menu.messages;
     }
+    messageLog.append(message);
+  }
+  /*********************************************************************************************************************/
+  
+  
+  /**********************************************************************************************************************
+    * 15.1) appendCaseMessages() : Appends the messages of the batch case running on this thread to its results.
+    * ----------------------------------------------------------------------------------------------------------------------
+    */
+  private static void appendCaseMessages(StringBuilder output) {
     
-    if (unique) {
-      Menu.messages.add(message);
+    MessageLog messageLog = MessageLog.getCurrent();
+    if (messageLog != null && !messageLog.isEmpty()) {
+      try {
+        messageLog.appendTo(output);
+      } catch (IOException e) {
+        // A StringBuilder does not throw IOException
+      }
+      output.append("\r\n");
     }
   }
   /*********************************************************************************************************************/
@@ -1015,4 +829,175 @@ public class Menu {
   /*********************************************************************************************************************/
   
   
+  
+  
+  /**********************************************************************************************************************
+    * 17) runBatch() : Runs every case of a CSV or JSON-lines case file and prints the results to the output file.
+    *           If resultTableFilePath is not null, the results are also written to a ResultTableWriter, with
+    *           enough component slots for the largest case in the file.
+    *           The case file is read once before the cases are run, and only the species that its cases name are
+    *           loaded. Names that are not in Species.csv are left for the cases that use them to report.
+    * ----------------------------------------------------------------------------------------------------------------------
+    */
+  public static void runBatch(String caseFilePath, int threadCount, String resultTableFilePath) {
+    
+    FlashCaseReader caseReader = null;
+    ResultWriter resultWriter = null;
+    ResultTableWriter resultTableWriter = null;
+    
+    try {
+      ArrayList<String> componentNamesList = new ArrayList<String>();
+      int maxComponentCount = FlashCaseReader.readComponentNames(caseFilePath, componentNamesList);
+      componentNamesList.retainAll(new HashSet<String>(Menu.readSpeciesNames())); // Go to method 18
+      Menu.readSpeciesData(componentNamesList); // Go to method 4
+      
+      caseReader = new FlashCaseReader(caseFilePath);
+      resultWriter = new ResultWriter(Menu.OUTPUT_FILE_PATH, false);
+      if (resultTableFilePath != null) {
+        int componentSlotCount = Math.max(ResultTableWriter.DEFAULT_COMPONENT_SLOT_COUNT, maxComponentCount);
+        resultTableWriter = ResultTableWriter.open(resultTableFilePath, componentSlotCount);
+      }
+      final ResultWriter writer = resultWriter;
+      final ResultTableWriter tableWriter = resultTableWriter;
+      final AtomicLong failedCaseCount = new AtomicLong();
+      
+      // Messages from loading the species data
+      if (!Menu.messages.isEmpty()) {
+        writer.write(Menu.messages.toString() + "\r\n\r\n");
+        Menu.messages.clear();
+      }
+      
+      // DecimalFormat is not thread-safe; each solver thread uses its own
+      final ThreadLocal<DecimalFormat> formatters = new ThreadLocal<DecimalFormat>() {
+        protected DecimalFormat initialValue() {
+          return new DecimalFormat("###,###,##0.00");
+        }
+      };
+      
+      // Time limit of each case : java -Dflash.caseTimeout=<milliseconds> Menu -batch ...
+      long caseTimeoutMillis = Long.getLong(BatchFlashRunner.CASE_TIMEOUT_PROPERTY_NAME, 0L).longValue();
+      BatchFlashRunner runner = new BatchFlashRunner(threadCount, BatchFlashRunner.DEFAULT_QUEUE_CAPACITY, 
+                                                     caseTimeoutMillis);
+      long caseCount = runner.run(caseReader, new BatchResultHandler() {
+        public void handleResult(FlashCase flashCase, FlashSeparator flashSeparator) {
+          StringBuilder output = writer.getBuffer();
+          try {
+            output.append("\r\nCase on line ").append(flashCase.getLineNumber())
+              .append(": Simulation was successful. \r\n\r\n\r\n");
+            flashSeparator.appendTo(output, formatters.get());
+            Menu.appendCaseMessages(output);
+            
+            if (tableWriter != null) {
+              try {
+                tableWriter.addRow(flashCase, flashSeparator);
+              }
+              catch (IOException | IllegalArgumentException e) {
+                output.append("\r\nError: The results were not added to the result table. ").append(e.getMessage())
+                  .append(" \r\n");
+                failedCaseCount.incrementAndGet();
+              }
+            }
+            output.append("\r\n");
+            writer.write(output);
+          }
+          catch (IOException e) {
+            System.out.println(e.getMessage());
+          }
+        }
+        
+        public void handleError(long lineNumber, Exception e) {
+          if (!(e instanceof FlashCaseException)) {
+            failedCaseCount.incrementAndGet();
+          }
+          StringBuilder output = writer.getBuffer();
+          output.append("\r\nCase on line ").append(lineNumber).append(": Error: Simulation failed. ")
+            .append(e.getMessage()).append(" \r\n\r\n");
+          try {
+            Menu.appendCaseMessages(output);
+            output.append("\r\n");
+            writer.write(output);
+          }
+          catch (IOException e2) {
+            System.out.println(e2.getMessage());
+          }
+        }
+      });
+      
+      System.out.println(caseCount + " cases were run; " + failedCaseCount.get() + " of them failed.");
+    }
+    catch (Exception e) {
+      System.out.println("\r\nError: Batch run failed. \r\n" + e.getMessage() + "\r\n\r\n");
+      if (resultWriter == null) {
+        Menu.outputToFile("\r\nError: Batch run failed. \r\n" + e.getMessage() + "\r\n\r\n", 
+                          Menu.OUTPUT_FILE_PATH, false);
+      } else {
+        try {
+          resultWriter.write("\r\nError: Batch run failed. \r\n" + e.getMessage() + "\r\n\r\n");
+        }
+        catch (IOException e2) {
+          System.out.println(e2.getMessage());
+        }
+      }
+    }
+    finally {
+      try {
+        if (caseReader != null) {
+          caseReader.close();
+        }
+        if (resultWriter != null) {
+          resultWriter.close();
+        }
+        if (resultTableWriter != null) {
+          resultTableWriter.close();
+        }
+      }
+      catch (IOException e) {
+        System.out.println(e.getMessage());
+      }
+    }
+  }
+  /*********************************************************************************************************************/
+  
+  
+  /**********************************************************************************************************************
+    * 18) readSpeciesNames() : Returns the names of all species defined in Species.csv.
+    * ----------------------------------------------------------------------------------------------------------------------
+    */
+  public static ArrayList<String> readSpeciesNames() throws IOException {
+    
+    PropertyDatabase database = Menu.openPropertyDatabase(); // Go to method 19
+    if (database != null) {
+      return database.getSpeciesNames();
+    }
+    return SpeciesDataLoader.readSpeciesNames(Menu.SPECIES_FILE_PATH);
+  }
+  /*********************************************************************************************************************/
+  
+  
+  /**********************************************************************************************************************
+    * 19) openPropertyDatabase() : Returns the compiled property database, or null if it has not been compiled or 
+    *           is older than the CSV files, in which case the CSV files are read instead.
+    * ----------------------------------------------------------------------------------------------------------------------
+    */
+  private static PropertyDatabase openPropertyDatabase() {
+    
+    if (!new File(Menu.PROPERTY_DATABASE_FILE_PATH).exists()) {
+      return null;
+    }
+    
+    try {
+      PropertyDatabase database = new PropertyDatabase(Menu.PROPERTY_DATABASE_FILE_PATH);
+      if (database.isUpToDate(Menu.SPECIES_FILE_PATH, Menu.SUB_GROUPS_FILE_PATH, 
+                              Menu.INTERACTION_PARAMETERS_FILE_PATH)) {
+        return database;
+      }
+      Menu.appendToMessages("\r\nWarning: " + Menu.PROPERTY_DATABASE_FILE_PATH + " is out of date and was not used. "
+                              + "Run \"java Menu -compile\" to update it. \r\n");
+    }
+    catch (IOException e) {
+      Menu.appendToMessages("\r\nWarning: " + e.getMessage() + " The CSV files were read instead. \r\n");
+    }
+    return null;
+  }
+  /*********************************************************************************************************************/
 }
\ No newline at end of file
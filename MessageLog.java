@@ -0,0 +1,144 @@
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+
+/* Collects the warnings and errors passed to Menu.appendToMessages() for the output file. Each message is kept once,
+ * in the order it was first appended, and at most capacity messages are kept; the others are only counted. Menu holds
+ * the log of the interactive simulation. BatchFlashRunner installs a log of its own for the solver thread of each
+ * case, so that the messages of a case are written with its results and the log is cleared before the next case;
+ * PhaseBoundaryExecutor installs the log of the calling thread for the pool thread that works on the case. A log may
+ * be appended to by several threads at once.
+ */
+
+public class MessageLog {
+
+  public static final int DEFAULT_CAPACITY = 100;
+
+  // Log of the case running on each thread, or null
+  private static final ThreadLocal<MessageLog> currentLogs = new ThreadLocal<MessageLog>();
+
+  private LinkedHashSet<String> messages;
+  private int capacity; // Largest number of messages kept
+  private int droppedCount; // Number of distinct messages that were not kept
+
+
+  /**********************************************************************************************************************
+    * 1) Constructor
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public MessageLog(int capacity) {
+    if (capacity < 1) {
+      throw new IllegalArgumentException("IllegalArgumentException: A message log must keep at least one message.");
+    }
+    this.messages = new LinkedHashSet<String>();
+    this.capacity = capacity;
+    this.droppedCount = 0;
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 2) append() : Keeps the message unless it is already in the log or the log is full.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public synchronized void append(String message) {
+    if (this.messages.contains(message)) {
+      return;
+    }
+    if (this.messages.size() < this.capacity) {
+      this.messages.add(message);
+    } else {
+      this.droppedCount++;
+    }
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 3) appendTo() : Appends the messages to output, in order, followed by the number of messages that were not kept.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public synchronized void appendTo(Appendable output) throws IOException {
+    Iterator<String> iterator = this.messages.iterator();
+    while (iterator.hasNext()) {
+      output.append(iterator.next());
+    }
+    if (this.droppedCount > 0) {
+      output.append("\r\nWarning: ").append(String.valueOf(this.droppedCount))
+        .append(" further messages were not kept. \r\n");
+    }
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 4) clear() : Discards every message.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public synchronized void clear() {
+    this.messages.clear();
+    this.droppedCount = 0;
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 5) toString() : Returns the text written by appendTo().
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public String toString() {
+    StringBuilder output = new StringBuilder();
+    try {
+      this.appendTo(output);
+    } catch (IOException e) {
+      // A StringBuilder does not throw IOException
+    }
+    return output.toString();
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 6) getCurrent() : Returns the log of the case running on this thread, or null.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public static MessageLog getCurrent() {
+    return MessageLog.currentLogs.get();
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 7) setCurrent() : Installs the log for this thread and returns the log it replaces, which must be restored once
+    *        the case has finished.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public static MessageLog setCurrent(MessageLog messageLog) {
+    MessageLog previousLog = MessageLog.currentLogs.get();
+    if (messageLog == null) {
+      MessageLog.currentLogs.remove();
+    } else {
+      MessageLog.currentLogs.set(messageLog);
+    }
+    return previousLog;
+  }
+  /*********************************************************************************************************************/
+
+
+  public synchronized boolean isEmpty() {
+    return this.messages.isEmpty();
+  }
+
+  public synchronized int getMessageCount() {
+    return this.messages.size();
+  }
+
+  public synchronized int getDroppedCount() {
+    return this.droppedCount;
+  }
+
+  public int getCapacity() {
+    return this.capacity;
+  }
+
+}
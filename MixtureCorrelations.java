@@ -0,0 +1,490 @@
+import java.util.Arrays;
+
+/* Evaluates the vapour pressure and enthalpy correlations of every component of a mixture at one temperature.
+ * The correlation constants are copied out of the Species objects once, into one array per constant, so each
+ * evaluation is a single loop over the components that writes into an array supplied by the caller; no Species
+ * copies or constants arrays are created per call. The results, warnings and exceptions are the same as calling
+ * the Species methods component by component.
+ *
+ * An optional mask selects the components to evaluate; the results of the other components are set to 0 and
+ * their correlations are not checked.
+ *
+ * The vapour enthalpy is built on the liquid enthalpy at the normal boiling point plus the latent heat, which depend
+ * only on the reference temperature and not on T. Their sum is calculated once per component for the reference
+ * temperature in use, the first time the component is evaluated, and kept until a different reference temperature
+ * is passed; the vapour enthalpy is then a single polynomial per component. Instances can be shared between threads.
+ *
+ * The temperature range [K] over which every enthalpy correlation of the mixture is valid is also calculated once,
+ * for the bounds of EnthalpyBalance.
+ */
+
+public class MixtureCorrelations {
+
+  private int[] speciesIndices;
+  private Correlation[] vapourPressures;
+  private Correlation[] enthalpiesLiquid;
+  private Correlation[] enthalpiesVapour;
+
+  // Vapour Pressure Constants
+  private double[] vpC1;
+  private double[] vpC2;
+  private double[] vpC3;
+  private double[] vpC4;
+  private double[] vpC5;
+
+  // Liquid Enthalpy Constants
+  private boolean[] hLIsForm1;
+  private double[] hLC1;
+  private double[] hLC2;
+  private double[] hLC3;
+  private double[] hLC4;
+  private double[] hLC5;
+
+  // Vapour Enthalpy Constants
+  private double[] HvC1;
+  private double[] HvC2;
+  private double[] HvC3;
+  private double[] HvC4;
+
+  private double[] Tb; // [K]
+  private double[] Tc; // [K]
+  private double[] latentHeat; // [J/mol]
+
+  private double enthalpyMinT; // [K]; largest lower bound of the liquid and vapour enthalpy correlations
+  private double enthalpyMaxT; // [K]; smallest upper bound of the liquid and vapour enthalpy correlations
+
+  // Reference term of the vapour enthalpy: liquid enthalpy at Tb plus latent heat, NaN until the component is first
+  // evaluated; the last element is the Tref used
+  private volatile double[] HvAtTb;
+
+
+  /**********************************************************************************************************************
+    * 1.1) Constructor A : Reads the components from Menu.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public MixtureCorrelations(int[] speciesIndices) {
+    this(MixtureCorrelations.getSpecies(speciesIndices));
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 1.2) Constructor B
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public MixtureCorrelations(Species[] components) {
+
+    int n = components.length;
+
+    this.speciesIndices = new int[n];
+    this.vapourPressures = new Correlation[n];
+    this.enthalpiesLiquid = new Correlation[n];
+    this.enthalpiesVapour = new Correlation[n];
+
+    this.vpC1 = new double[n];
+    this.vpC2 = new double[n];
+    this.vpC3 = new double[n];
+    this.vpC4 = new double[n];
+    this.vpC5 = new double[n];
+
+    this.hLIsForm1 = new boolean[n];
+    this.hLC1 = new double[n];
+    this.hLC2 = new double[n];
+    this.hLC3 = new double[n];
+    this.hLC4 = new double[n];
+    this.hLC5 = new double[n];
+
+    this.HvC1 = new double[n];
+    this.HvC2 = new double[n];
+    this.HvC3 = new double[n];
+    this.HvC4 = new double[n];
+
+    this.Tb = new double[n];
+    this.Tc = new double[n];
+    this.latentHeat = new double[n];
+
+    this.enthalpyMinT = Double.NEGATIVE_INFINITY;
+    this.enthalpyMaxT = Double.POSITIVE_INFINITY;
+
+    for (int i = 0; i < n; i++) {
+      this.speciesIndices[i] = components[i].getIndex();
+      this.vapourPressures[i] = components[i].getCorrelation(Species.VAPOUR_PRESSURE);
+      this.enthalpiesLiquid[i] = components[i].getCorrelation(Species.ENTHALPY_LIQUID);
+      this.enthalpiesVapour[i] = components[i].getCorrelation(Species.ENTHALPY_VAPOUR);
+
+      double[] C = this.vapourPressures[i].getC();
+      this.vpC1[i] = C[0];
+      this.vpC2[i] = C[1];
+      this.vpC3[i] = C[2];
+      this.vpC4[i] = C[3];
+      this.vpC5[i] = C[4];
+
+      C = this.enthalpiesLiquid[i].getC();
+      this.hLIsForm1[i] = this.enthalpiesLiquid[i].getForm() != 0;
+      this.hLC1[i] = C[0];
+      this.hLC2[i] = C[1];
+      this.hLC3[i] = C[2];
+      this.hLC4[i] = C[3];
+      this.hLC5[i] = C[4];
+
+      C = this.enthalpiesVapour[i].getC();
+      this.HvC1[i] = C[0];
+      this.HvC2[i] = C[1];
+      this.HvC3[i] = C[2];
+      this.HvC4[i] = C[3];
+
+      this.Tb[i] = components[i].getTb();
+      this.Tc[i] = components[i].getTc();
+      this.latentHeat[i] = 1000 * components[i].getLatentHeat();
+
+      this.enthalpyMinT = Math.max(this.enthalpyMinT, this.enthalpiesLiquid[i].getMinX());
+      this.enthalpyMinT = Math.max(this.enthalpyMinT, this.enthalpiesVapour[i].getMinX());
+      this.enthalpyMaxT = Math.min(this.enthalpyMaxT, this.enthalpiesLiquid[i].getMaxX());
+      this.enthalpyMaxT = Math.min(this.enthalpyMaxT, this.enthalpiesVapour[i].getMaxX());
+    }
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 1.3) Constructor C : Copies the constants of the given components of source, in the given order, and the vapour
+    *       enthalpy reference terms that source has already calculated for them.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  private MixtureCorrelations(MixtureCorrelations source, int[] componentIndices) {
+
+    int n = componentIndices.length;
+
+    this.speciesIndices = new int[n];
+    this.vapourPressures = new Correlation[n];
+    this.enthalpiesLiquid = new Correlation[n];
+    this.enthalpiesVapour = new Correlation[n];
+
+    this.vpC1 = new double[n];
+    this.vpC2 = new double[n];
+    this.vpC3 = new double[n];
+    this.vpC4 = new double[n];
+    this.vpC5 = new double[n];
+
+    this.hLIsForm1 = new boolean[n];
+    this.hLC1 = new double[n];
+    this.hLC2 = new double[n];
+    this.hLC3 = new double[n];
+    this.hLC4 = new double[n];
+    this.hLC5 = new double[n];
+
+    this.HvC1 = new double[n];
+    this.HvC2 = new double[n];
+    this.HvC3 = new double[n];
+    this.HvC4 = new double[n];
+
+    this.Tb = new double[n];
+    this.Tc = new double[n];
+    this.latentHeat = new double[n];
+
+    this.enthalpyMinT = Double.NEGATIVE_INFINITY;
+    this.enthalpyMaxT = Double.POSITIVE_INFINITY;
+
+    // The Correlation objects are shared, since they are only read
+    for (int k = 0; k < n; k++) {
+      int i = componentIndices[k];
+      this.speciesIndices[k] = source.speciesIndices[i];
+      this.vapourPressures[k] = source.vapourPressures[i];
+      this.enthalpiesLiquid[k] = source.enthalpiesLiquid[i];
+      this.enthalpiesVapour[k] = source.enthalpiesVapour[i];
+
+      this.vpC1[k] = source.vpC1[i];
+      this.vpC2[k] = source.vpC2[i];
+      this.vpC3[k] = source.vpC3[i];
+      this.vpC4[k] = source.vpC4[i];
+      this.vpC5[k] = source.vpC5[i];
+
+      this.hLIsForm1[k] = source.hLIsForm1[i];
+      this.hLC1[k] = source.hLC1[i];
+      this.hLC2[k] = source.hLC2[i];
+      this.hLC3[k] = source.hLC3[i];
+      this.hLC4[k] = source.hLC4[i];
+      this.hLC5[k] = source.hLC5[i];
+
+      this.HvC1[k] = source.HvC1[i];
+      this.HvC2[k] = source.HvC2[i];
+      this.HvC3[k] = source.HvC3[i];
+      this.HvC4[k] = source.HvC4[i];
+
+      this.Tb[k] = source.Tb[i];
+      this.Tc[k] = source.Tc[i];
+      this.latentHeat[k] = source.latentHeat[i];
+
+      this.enthalpyMinT = Math.max(this.enthalpyMinT, this.enthalpiesLiquid[k].getMinX());
+      this.enthalpyMinT = Math.max(this.enthalpyMinT, this.enthalpiesVapour[k].getMinX());
+      this.enthalpyMaxT = Math.min(this.enthalpyMaxT, this.enthalpiesLiquid[k].getMaxX());
+      this.enthalpyMaxT = Math.min(this.enthalpyMaxT, this.enthalpiesVapour[k].getMaxX());
+    }
+
+    double[] Hv_b = source.HvAtTb;
+    if (Hv_b != null) {
+      double[] HvAtTb = new double[n + 1];
+      for (int k = 0; k < n; k++) {
+        HvAtTb[k] = Hv_b[componentIndices[k]];
+      }
+      HvAtTb[n] = Hv_b[Hv_b.length - 1];
+      this.HvAtTb = HvAtTb;
+    }
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 2) evaluateVapourPressures() : Calculates the vapour pressure [bar] of each component at temperature T.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public void evaluateVapourPressures(double T, boolean derivative, boolean[] mask, double[] result)
+    throws FunctionException {
+
+    this.checkArguments(mask, result);
+    int n = this.speciesIndices.length;
+    Kernels.getInstance().vapourPressures(T, derivative, this.vpC1, this.vpC2, this.vpC3, this.vpC4, this.vpC5,
+                                          result, n);
+
+    this.checkResults(this.vapourPressures, T, derivative, mask, result);
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 3) evaluateEnthalpiesLiquid() : Calculates the liquid-phase molar enthalpy [J/mol] of each component at
+    *          temperature T relative to a reference temperature Tref.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public void evaluateEnthalpiesLiquid(double T, double Tref, boolean derivative, boolean[] mask, double[] result)
+    throws FunctionException {
+
+    this.checkArguments(mask, result);
+    int n = this.speciesIndices.length;
+
+    if (derivative) {
+      for (int i = 0; i < n; i++) {
+        if (!this.hLIsForm1[i]) {
+          result[i] = 0.001 * (this.hLC1[i] + T * (this.hLC2[i] + T * (this.hLC3[i] + T * (this.hLC4[i]
+                                                                                                + T * this.hLC5[i]))));
+        }
+        else {
+          double t = 1 - T / this.Tc[i];
+          double C1 = this.hLC1[i];
+          double C3 = this.hLC3[i];
+          double C4 = this.hLC4[i];
+          result[i] = 0.001
+            * (C1 * C1 / t + this.hLC2[i] - 2. * C1 * C3 * t - C1 * C4 * t * t - (1. / 3.) * C3 * C3 * t * t * t
+                 - (1. / 2.) * C3 * C4 * t * t * t * t - (1. / 5.) * C4 * C4 * t * t * t * t * t);
+        }
+      }
+    }
+    else {
+      double Tref2 = Tref * Tref;
+      double T2 = T * T;
+      for (int i = 0; i < n; i++) {
+        if (!this.hLIsForm1[i]) {
+          result[i] = 0.001 * (this.hLC1[i] * (T - Tref) + 0.5 * this.hLC2[i] * (T2 - Tref2)
+                                 + (1. / 3.) * this.hLC3[i] * (T2 * T - Tref2 * Tref)
+                                 + (1. / 4.) * this.hLC4[i] * (T2 * T2 - Tref2 * Tref2)
+                                 + (1. / 5.) * this.hLC5[i] * (T2 * T2 * T - Tref2 * Tref2 * Tref));
+        }
+        else {
+          result[i] = this.evaluateEnthalpyLiquidForm1(i, T, Tref);
+        }
+      }
+    }
+
+    this.checkResults(this.enthalpiesLiquid, T, derivative, mask, result);
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 4) evaluateEnthalpiesVapour() : Calculates the vapour-phase molar enthalpy [J/mol] of each component at
+    *          temperature T relative to a reference temperature Tref.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public void evaluateEnthalpiesVapour(double T, double Tref, boolean derivative, boolean[] mask, double[] result)
+    throws FunctionException {
+
+    this.checkArguments(mask, result);
+    int n = this.speciesIndices.length;
+
+    if (derivative) {
+      for (int i = 0; i < n; i++) {
+        result[i] = EnthalpyVapour.R * (this.HvC1[i] + this.HvC2[i] * T + this.HvC3[i] * T * T + this.HvC4[i] / (T * T));
+      }
+    }
+    else {
+      double[] Hv_b = this.getEnthalpyVapourAtTb(Tref, mask);
+      for (int i = 0; i < n; i++) {
+        double Tb = this.Tb[i];
+        double Hv = EnthalpyVapour.R
+          * (this.HvC1[i] * (T - Tb) + 0.5 * this.HvC2[i] * (T * T - Tb * Tb)
+               + (1. / 3.) * this.HvC3[i] * (T * T * T - Tb * Tb * Tb) - this.HvC4[i] * (1. / T - 1. / Tb));
+        result[i] = Hv_b[i] + Hv;
+      }
+    }
+
+    this.checkResults(this.enthalpiesVapour, T, derivative, mask, result);
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 5) evaluateEnthalpyLiquidForm1() : Liquid enthalpy of component i for correlations of form 1.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  private double evaluateEnthalpyLiquidForm1(int i, double T, double Tref) {
+
+    double t = 1 - T / this.Tc[i];
+    double t0 = 1 - Tref / this.Tc[i];
+    double C1 = this.hLC1[i];
+    double C3 = this.hLC3[i];
+    double C4 = this.hLC4[i];
+    double t2 = t * t;
+    double t02 = t0 * t0;
+
+    return 0.001 * -this.Tc[i]
+      * (C1 * C1 * Math.log(t / t0) + this.hLC2[i] * (t - t0)
+           - C1 * C3 * (t2 - t02)
+           - (1. / 3.) * C1 * C4 * (t2 * t - t02 * t0)
+           - (1. / 12.) * C3 * C3 * (t2 * t2 - t02 * t02)
+           - (1. / 10.) * C3 * C4 * (t2 * t2 * t - t02 * t02 * t0)
+           - (1. / 30.) * C4 * C4 * (t2 * t2 * t2 - t02 * t02 * t02));
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 6) getEnthalpyVapourAtTb() : Returns the vapour enthalpy of each component at its normal boiling point relative 
+    *          to Tref, i.e. the liquid enthalpy at Tb plus the latent heat. Only the components in the mask are 
+    *          guaranteed to be set; those that have not been evaluated before are calculated and kept.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  private double[] getEnthalpyVapourAtTb(double Tref, boolean[] mask) throws FunctionException {
+
+    int n = this.speciesIndices.length;
+    double[] Hv_b = this.HvAtTb;
+    if (Hv_b == null || Hv_b[n] != Tref) {
+      Hv_b = new double[n + 1];
+      Arrays.fill(Hv_b, 0, n, Double.NaN);
+      Hv_b[n] = Tref;
+    }
+
+    double[] updated = null; // Copy of Hv_b with the new components, so that readers never see a partial update
+    for (int i = 0; i < n; i++) {
+      if ((mask == null || mask[i]) && Double.isNaN(Hv_b[i])) {
+        if (updated == null) {
+          updated = Hv_b.clone();
+        }
+        updated[i] = this.enthalpiesLiquid[i].evaluate(this.Tb[i], new double[] {Tref, this.Tc[i]})
+          + this.latentHeat[i];
+      }
+    }
+    if (updated != null) {
+      this.HvAtTb = updated;
+      return updated;
+    }
+
+    return Hv_b;
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 7) checkArguments()
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  private void checkArguments(boolean[] mask, double[] result) {
+
+    int n = this.speciesIndices.length;
+    if (result.length < n || (mask != null && mask.length < n)) {
+      throw new IllegalArgumentException("IllegalArgumentException: The result and mask arrays must have an element "
+                                           + "for each of the " + n + " components.");
+    }
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 8) checkResults() : Applies the checks of BoundedFunction to each result in the mask, in component order, and
+    *          sets the results outside of the mask to 0.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  private void checkResults(Correlation[] correlations, double T, boolean derivative, boolean[] mask,
+                            double[] result) throws FunctionException {
+
+    for (int i = 0; i < correlations.length; i++) {
+      if (mask != null && !mask[i]) {
+        result[i] = 0.;
+        continue;
+      }
+
+      if (Double.isNaN(T) || Double.isInfinite(T)) {
+        throw new IllegalArgumentException(correlations[i].getID());
+      }
+      if (Double.isNaN(result[i]) || (!derivative && Double.isInfinite(result[i]))) {
+        throw new UndefinedFunctionException(correlations[i].getID(), correlations[i], T);
+      }
+      if (T < correlations[i].getMinX() || T > correlations[i].getMaxX()) {
+        Menu.appendToMessages("\r\nWarning: " + correlations[i].getID()
+                                + " was evaluated outside of the function bounds.");
+      }
+    }
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 9) getSpecies() : Returns the Menu species of each component.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  private static Species[] getSpecies(int[] speciesIndices) {
+
+    Species[] components = new Species[speciesIndices.length];
+    for (int i = 0; i < speciesIndices.length; i++) {
+      components[i] = Menu.getSpecies(speciesIndices[i]);
+      if (components[i] == null) {
+        throw new IllegalArgumentException("IllegalArgumentException: No species has the index "
+                                             + speciesIndices[i] + ".");
+      }
+    }
+    return components;
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 10) getSubset() : Returns the correlations of the given components of the mixture, in the given order, without
+    *         reading the species from Menu again.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public MixtureCorrelations getSubset(int[] componentIndices) {
+    return new MixtureCorrelations(this, componentIndices);
+  }
+  /*********************************************************************************************************************/
+
+
+  public int getComponentCount() {
+    return this.speciesIndices.length;
+  }
+
+  public int[] getSpeciesIndices() {
+    return this.speciesIndices.clone();
+  }
+
+  public double getTc(int componentIndex) {
+    return this.Tc[componentIndex];
+  }
+
+  public double getEnthalpyMinT() {
+    return this.enthalpyMinT;
+  }
+
+  public double getEnthalpyMaxT() {
+    return this.enthalpyMaxT;
+  }
+
+}
@@ -0,0 +1,213 @@
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/* The critical interaction parameters of a mixture: the symmetric n x n matrices of the interaction accentric
+ * factors, critical temperatures, pressures, compressibility factors and volumes, stored as packed SymmetricMatrix
+ * objects. They depend only on the species of the
+ * mixture and their order, so getInstance() calculates them once per species list and returns the same object to
+ * every stream of that mixture; streams and their copies share it by reference. Instances cannot be changed after
+ * they are constructed, so they can be shared between threads; the matrix getters return full copies.
+ *
+ * The shared instances are built from the species data held by Menu; clearCache() must be called whenever that data
+ * is replaced.
+ */
+
+public class MixtureParameters {
+
+  // Shared instances, keyed by the species indices of the mixture
+  private static final ConcurrentHashMap<String, MixtureParameters> instances
+    = new ConcurrentHashMap<String, MixtureParameters>();
+
+  private SymmetricMatrix omega_ij;
+  private SymmetricMatrix Tc_ij; // [K]
+  private SymmetricMatrix Pc_ij; // [bar]
+  private SymmetricMatrix Zc_ij;
+  private SymmetricMatrix Vc_ij; // [cm^3/mol]
+
+
+  /**********************************************************************************************************************
+    * 1.1) Constructor A : Calculates the parameters of the given species, read from Menu.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public MixtureParameters(int[] speciesIndices) {
+
+    int componentCount = speciesIndices.length;
+    this.omega_ij = new SymmetricMatrix(componentCount);
+    this.Tc_ij = new SymmetricMatrix(componentCount);
+    this.Pc_ij = new SymmetricMatrix(componentCount);
+    this.Zc_ij = new SymmetricMatrix(componentCount);
+    this.Vc_ij = new SymmetricMatrix(componentCount);
+    Species[] components = new Species[componentCount];
+
+    for (int i = 0; i < componentCount; i++) {
+      components[i] = Menu.getSpecies(speciesIndices[i]);
+    }
+
+    for (int i = 0; i < componentCount; i++) {
+      for (int j = i; j < componentCount; j++) {
+
+        /* Calculate interaction accentric factors (unitless) */
+        this.omega_ij.set(i, j, (components[i].getAccentricFactor() + components[j].getAccentricFactor()) / 2.);
+
+        /* Calculate interactions Z_c_ij (unitless) */
+        double Zc = (components[i].getZc() + components[j].getZc()) / 2.;
+        this.Zc_ij.set(i, j, Zc);
+
+        /* Calculate interactions T_c_ij, in K */
+        double Tc = Math.pow((components[i].getTc() * components[j].getTc()), 0.5);
+        this.Tc_ij.set(i, j, Tc);
+
+        /* Calculate interactions V_c_ij, in cm^3/mol */
+        double Vc = Math.pow((Math.pow(components[i].getVc(), 1./3.) + Math.pow(components[j].getVc(), 1./3.)) / 2.,
+                             3);
+        this.Vc_ij.set(i, j, Vc);
+
+        /* Calculate interactions P_c_ij, in bar */
+        this.Pc_ij.set(i, j, (Zc * 10.*Menu.GAS_CONSTANT * Tc) / (Vc));
+      }
+    }
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 1.2) Constructor B : Packs the upper triangles of the given matrices.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public MixtureParameters(double[][] omega_ij, double[][] Tc_ij, double[][] Pc_ij, double[][] Zc_ij,
+                           double[][] Vc_ij) {
+    this(new SymmetricMatrix(omega_ij), new SymmetricMatrix(Tc_ij), new SymmetricMatrix(Pc_ij),
+         new SymmetricMatrix(Zc_ij), new SymmetricMatrix(Vc_ij));
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 1.3) Constructor C : Keeps the given matrices, which must not be changed afterwards.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  private MixtureParameters(SymmetricMatrix omega_ij, SymmetricMatrix Tc_ij, SymmetricMatrix Pc_ij,
+                            SymmetricMatrix Zc_ij, SymmetricMatrix Vc_ij) {
+    this.omega_ij = omega_ij;
+    this.Tc_ij = Tc_ij;
+    this.Pc_ij = Pc_ij;
+    this.Zc_ij = Zc_ij;
+    this.Vc_ij = Vc_ij;
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 2) getInstance() : Returns the shared parameters of the given species, calculating them on first use.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public static MixtureParameters getInstance(int[] speciesIndices) {
+    String key = Arrays.toString(speciesIndices);
+    MixtureParameters parameters = MixtureParameters.instances.get(key);
+    if (parameters == null) {
+      parameters = new MixtureParameters(speciesIndices);
+      MixtureParameters existing = MixtureParameters.instances.putIfAbsent(key, parameters);
+      if (existing != null) {
+        parameters = existing;
+      }
+    }
+    return parameters;
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 3) clearCache() : Discards the shared instances; streams that already hold one keep it.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public static void clearCache() {
+    MixtureParameters.instances.clear();
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 4) with...() : Return a new instance in which one matrix has been replaced by the upper triangle of the given
+    *        one; the other matrices are shared with this instance, which is left unchanged.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public MixtureParameters withOmega_ij(double[][] omega_ij) {
+    return new MixtureParameters(new SymmetricMatrix(omega_ij), this.Tc_ij, this.Pc_ij, this.Zc_ij, this.Vc_ij);
+  }
+
+  public MixtureParameters withTc_ij(double[][] Tc_ij) {
+    return new MixtureParameters(this.omega_ij, new SymmetricMatrix(Tc_ij), this.Pc_ij, this.Zc_ij, this.Vc_ij);
+  }
+
+  public MixtureParameters withPc_ij(double[][] Pc_ij) {
+    return new MixtureParameters(this.omega_ij, this.Tc_ij, new SymmetricMatrix(Pc_ij), this.Zc_ij, this.Vc_ij);
+  }
+
+  public MixtureParameters withZc_ij(double[][] Zc_ij) {
+    return new MixtureParameters(this.omega_ij, this.Tc_ij, this.Pc_ij, new SymmetricMatrix(Zc_ij), this.Vc_ij);
+  }
+
+  public MixtureParameters withVc_ij(double[][] Vc_ij) {
+    return new MixtureParameters(this.omega_ij, this.Tc_ij, this.Pc_ij, this.Zc_ij, new SymmetricMatrix(Vc_ij));
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 5) getSubset() : Returns the parameters of the given components of the mixture, in the given order, taken from
+    *        the matrices of this instance rather than calculated again.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public MixtureParameters getSubset(int[] componentIndices) {
+    return new MixtureParameters(this.omega_ij.getSubmatrix(componentIndices),
+                                 this.Tc_ij.getSubmatrix(componentIndices), this.Pc_ij.getSubmatrix(componentIndices),
+                                 this.Zc_ij.getSubmatrix(componentIndices), this.Vc_ij.getSubmatrix(componentIndices));
+  }
+  /*********************************************************************************************************************/
+
+
+  public int getComponentCount() {
+    return this.omega_ij.getSize();
+  }
+
+  public double[][] getOmega_ij() {
+    return this.omega_ij.toArray();
+  }
+
+  public double getOmega_ij(int i, int j) {
+    return this.omega_ij.get(i, j);
+  }
+
+  public double[][] getTc_ij() {
+    return this.Tc_ij.toArray();
+  }
+
+  public double getTc_ij(int i, int j) {
+    return this.Tc_ij.get(i, j);
+  }
+
+  public double[][] getPc_ij() {
+    return this.Pc_ij.toArray();
+  }
+
+  public double getPc_ij(int i, int j) {
+    return this.Pc_ij.get(i, j);
+  }
+
+  public double[][] getZc_ij() {
+    return this.Zc_ij.toArray();
+  }
+
+  public double getZc_ij(int i, int j) {
+    return this.Zc_ij.get(i, j);
+  }
+
+  public double[][] getVc_ij() {
+    return this.Vc_ij.toArray();
+  }
+
+  public double getVc_ij(int i, int j) {
+    return this.Vc_ij.get(i, j);
+  }
+
+}
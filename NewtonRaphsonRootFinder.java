@@ -1,5 +1,6 @@
 public class NewtonRaphsonRootFinder extends RootFinder {
   
+  private FunctionValue f_x; // f(x) and f'(x); reused for every evaluation
   
   /**********************************************************************************************************************
     * 1) Constructor
@@ -7,6 +8,7 @@ public class NewtonRaphsonRootFinder extends RootFinder {
     */
   public NewtonRaphsonRootFinder(double maxEvaluationCount) {
     super("Newton-Raphson Root Finder", maxEvaluationCount);
+    this.f_x = new FunctionValue();
   }
   /*********************************************************************************************************************/
   
@@ -17,6 +19,7 @@ public class NewtonRaphsonRootFinder extends RootFinder {
     */
   public NewtonRaphsonRootFinder(NewtonRaphsonRootFinder source) {
     super(source);
+    this.f_x = new FunctionValue();
   }
   /*********************************************************************************************************************/
   
@@ -47,8 +50,9 @@ public class NewtonRaphsonRootFinder extends RootFinder {
       boolean evaluated = false;
       while (!evaluated) {
         try {
-          super.setEvaluationCount(super.getEvaluationCount() + 2);
-          newX = oldX - f.evaluate(oldX, constants) / f.evaluateDerivative(oldX, constants);
+          super.setEvaluationCount(super.getEvaluationCount() + 1);
+          f.evaluateWithDerivative(oldX, constants, this.f_x);
+          newX = oldX - this.f_x.getValue() / this.f_x.getDerivative();
           evaluated = true;
         }
         catch (UndefinedFunctionException e) {
@@ -1,3 +1,5 @@
+import java.util.concurrent.Callable;
+
 public class NonIdealBehaviour extends Behaviour {
   
   public static final double PRESSURE_TOLERANCE = 0.01;
@@ -6,23 +8,56 @@ public class NonIdealBehaviour extends Behaviour {
   public static final double X_Y_TOLERANCE = 0.001;
   
   
+  /**********************************************************************************************************************
+    * 0.1) Constructor A : Uses the default solver profile.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public NonIdealBehaviour() {
+    super();
+  }
+  /*********************************************************************************************************************/
+  
+  
+  /**********************************************************************************************************************
+    * 0.2) Constructor B
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public NonIdealBehaviour(SolverProfile solverProfile) {
+    super(solverProfile);
+  }
+  /*********************************************************************************************************************/
+  
+  
+  /**********************************************************************************************************************
+    * 0.3) Copy Constructor
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public NonIdealBehaviour(NonIdealBehaviour source) {
+    super(source);
+  }
+  /*********************************************************************************************************************/
+  
+  
   /**********************************************************************************************************************
     * 1) clone()
     * ---------------------------------------------------------------------------------------------------------------------
     */
   public NonIdealBehaviour clone() {
-    return new NonIdealBehaviour();
+    return new NonIdealBehaviour(this);
   }
   /*********************************************************************************************************************/
   
   
   /**********************************************************************************************************************
-    * 2) phaseEquilibrium() : Calculates the phase mole fractions of the flashStream, if possible.
+    * 2) phaseEquilibrium() : Calculates the phase mole fractions of the flashStream, if possible, and returns the 
+    *       converged flashStream.
     * ---------------------------------------------------------------------------------------------------------------------
     */
   public Stream phaseEquilibrium(Stream flashStream)
     throws FlashCalculationException, NumericalMethodException, FunctionException {
     
+    CancellationToken.checkCurrent();
+    
     /*
      * I. Bubble-Point and Dew-Point Calculations
      * -----------------------------------------------------------------------------
@@ -30,17 +65,66 @@ public class NonIdealBehaviour extends Behaviour {
     
     int componentCount = flashStream.getComponentCount(); // Number of Components
     
-    double[] gamma_bp = new double[componentCount]; // Bubble-Point Activity Coefficients
-    double[] gamma_dp = new double[componentCount]; // Dew-Point Activity Coefficients
-    double[] phi_bp = new double[componentCount]; // Bubble-Point Fugacity Coefficients
-    double[] phi_dp = new double[componentCount];  // Dew-Point Fugacity Coefficients
+    // When the profile allows it, decide from the partition coefficients at the overall composition whether the 
+    // stream is clearly liquid or clearly vapour before the bubble-point and dew-point pressures are calculated. 
+    // Any other state, two-phase included, is left to the bubble-point and dew-point calculations, so that the 
+    // pressures reported and the initial vapour fraction of a flash are calculated rather than estimated
+    if (super.getSolverProfile().isStabilityTestEnabled()) {
+      // At the dew point the liquid composition is not known yet, so its activity coefficients are set to 1, as 
+      // in the first iteration of calculateDewPointPressure()
+      Stream trialStream = flashStream.clone();
+      double[] gamma_z = new double[componentCount];
+      for (int i = 0; i < componentCount; i++) {
+        gamma_z[i] = 1.;
+      }
+      trialStream.setGamma(gamma_z);
+      trialStream.setPhi(this.calculateFugacityCoefficients(trialStream, true));
+      double[] K_dp = this.calculatePartitionCoefficients(trialStream); // Estimated Dew-Point Partition Coefficients
+      
+      gamma_z = this.calculateActivityCoefficients(trialStream, true);
+      trialStream.setGamma(gamma_z);
+      double[] K_bp = this.calculatePartitionCoefficients(trialStream); // Estimated Bubble-Point Partition Coefficients
+      
+      double[] P_estimate = new double[2]; // Estimated Bubble-Point and Dew-Point Pressures
+      int phaseState = PhaseStabilityTest.classify(trialStream, K_bp, K_dp, 
+                                                   super.getSolverProfile().getStabilityTestMargin(), P_estimate);
+      
+      if (phaseState == PhaseStabilityTest.LIQUID || phaseState == PhaseStabilityTest.VAPOUR) {
+        throw new FlashCalculationException(flashStream.getT(), flashStream.getP(), P_estimate[0], P_estimate[1], 
+                                            0., 0.);
+      }
+    }
     
-    double P_bp = this.calculateBubblePointPressure(flashStream.clone(), gamma_bp, phi_bp); // Bubble-Point Pressure
-    double P_dp = this.calculateDewPointPressure(flashStream.clone(), gamma_dp, phi_dp); // Dew-Point Pressure
+    final double[] gamma_bp = new double[componentCount]; // Bubble-Point Activity Coefficients
+    final double[] gamma_dp = new double[componentCount]; // Dew-Point Activity Coefficients
+    final double[] phi_bp = new double[componentCount]; // Bubble-Point Fugacity Coefficients
+    final double[] phi_dp = new double[componentCount];  // Dew-Point Fugacity Coefficients
+    
+    double P_bp; // Bubble-Point Pressure
+    double P_dp; // Dew-Point Pressure
+    if (super.getSolverProfile().isPhaseBoundariesParallel()) {
+      final Stream bubblePointStream = flashStream.clone();
+      final Stream dewPointStream = flashStream.clone();
+      double[] P_boundaries = PhaseBoundaryExecutor.evaluate(new Callable<Double>() {
+        public Double call() throws Exception {
+          return NonIdealBehaviour.this.calculateBubblePointPressure(bubblePointStream, gamma_bp, phi_bp);
+        }
+      }, new Callable<Double>() {
+        public Double call() throws Exception {
+          return NonIdealBehaviour.this.calculateDewPointPressure(dewPointStream, gamma_dp, phi_dp);
+        }
+      });
+      P_bp = P_boundaries[0];
+      P_dp = P_boundaries[1];
+    }
+    else {
+      P_bp = this.calculateBubblePointPressure(flashStream.clone(), gamma_bp, phi_bp);
+      P_dp = this.calculateDewPointPressure(flashStream.clone(), gamma_dp, phi_dp);
+    }
     
     // Check if the tank pressure is within the bubble-point/dew-point range
     if (flashStream.getP() > P_bp || flashStream.getP() < P_dp 
-          || Math.abs(P_bp - P_dp) < Behaviour.BUBBLE_DEW_POINT_TOLERANCE) {
+          || Math.abs(P_bp - P_dp) < super.getSolverProfile().getBubbleDewPointTolerance()) {
       
       throw new FlashCalculationException(flashStream.getT(), flashStream.getP(), P_bp, P_dp, 0., 0.);
     }
@@ -52,17 +136,6 @@ public class NonIdealBehaviour extends Behaviour {
      * II. Calculate Initial Values
      * -----------------------------------------------------------------------------
      */
-    // Store Condensable Mole Fractions
-    double[] z = new double[componentCount];
-    for (int i = 0; i < componentCount; i++) {
-      if (flashStream.isComponentCondensable(i)) {
-        z[i] = flashStream.getZi(i) / flashStream.getCondensableFraction();
-      }
-      else {
-        z[i] = 0;
-      }
-    }
-    
     // Interpolate between the bubble-point and dew-point values of the vapour fraction, the activity 
     // coefficients and the fugacity coefficients to obtain initial estimates for these same quantities
     // at the tank pressure.
@@ -83,11 +156,40 @@ public class NonIdealBehaviour extends Behaviour {
      * III. Iterate until Convergence
      * -----------------------------------------------------------------------------
      */
+    return this.iteratePhaseEquilibrium(flashStream, vapourFraction);
+  }
+  /*********************************************************************************************************************/
+  
+  
+  /**********************************************************************************************************************
+    * 2.1) iteratePhaseEquilibrium() : Iterates the phase mole fractions of the flashStream from its activity and 
+    *           fugacity coefficients and an initial vapour fraction until they converge.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  private Stream iteratePhaseEquilibrium(Stream flashStream, double vapourFraction) 
+    throws NumericalMethodException, FunctionException {
     
+    int componentCount = flashStream.getComponentCount(); // Number of Components
+    
+    // Store Condensable Mole Fractions
+    double[] z = new double[componentCount];
+    for (int i = 0; i < componentCount; i++) {
+      if (flashStream.isComponentCondensable(i)) {
+        z[i] = flashStream.getZi(i) / flashStream.getCondensableFraction();
+      }
+      else {
+        z[i] = 0;
+      }
+    }
+    
+    double[] gamma; // Activity Coefficients
+    double[] phi; // Fugacity Coefficients
     boolean criteria = false; // When true, v {x} and {y} have converged, and the loop may end
     double[] K = new double[componentCount]; // Partition Coefficients
     while (!criteria) {
       
+      CancellationToken.checkCurrent(); // The loop has no iteration limit
+      
       // Step 1. Calculate the Partition Coefficients
       K = calculatePartitionCoefficients(flashStream);
       flashStream.setK(K);
@@ -96,16 +198,16 @@ public class NonIdealBehaviour extends Behaviour {
       RachfordRice rachfordRice = new RachfordRice(z, K, flashStream.getIsCondensable());
       double newVapourFraction = 0.; // New Vapour Fraction
       newVapourFraction = Menu.findRoot(rachfordRice, null, 0., 1., 
-                                        Behaviour.RACHFORD_RICE_INCREMENT_LENGTH,
-                                        BracketingRootFinder.DEFAULT_SUB_INCREMENT_FRACTION, 
-                                        Behaviour.RACHFORD_RICE_TOLERANCE,
-                                        Behaviour.RACHFORD_RICE_MAX_EVALUATION_COUNT);
+                                        super.getSolverProfile().getRachfordRiceIncrementLength(),
+                                        super.getSolverProfile().getRachfordRiceSubIncrementFraction(), 
+                                        super.getSolverProfile().getRachfordRiceTolerance(),
+                                        super.getSolverProfile().getRachfordRiceMaxEvaluationCount());
       
       criteria = true;
       
       // Verify whether the vapour fraction has converged
       flashStream.setVapourFraction(newVapourFraction);
-      if (Math.abs(newVapourFraction - vapourFraction) > NonIdealBehaviour.VAPOUR_FRACTION_TOLERANCE) {
+      if (Math.abs(newVapourFraction - vapourFraction) > super.getSolverProfile().getVapourFractionTolerance()) {
         criteria = false; // Vapour fraction has not converged
       } 
       vapourFraction = newVapourFraction;
@@ -117,11 +219,11 @@ public class NonIdealBehaviour extends Behaviour {
           double y = x * K[i];
           
           // Verify whether x[i] has converged
-          if (Math.abs(x - flashStream.getXi(i)) > NonIdealBehaviour.X_Y_TOLERANCE) {
+          if (Math.abs(x - flashStream.getXi(i)) > super.getSolverProfile().getXyTolerance()) {
             criteria = false; // x[i] has not converged
           }
           // Verify whether y[i] has converged
-          if (Math.abs(y - flashStream.getYi(i)) > NonIdealBehaviour.X_Y_TOLERANCE) {
+          if (Math.abs(y - flashStream.getYi(i)) > super.getSolverProfile().getXyTolerance()) {
             criteria = false; // y[i] has not converged
           }
           
@@ -138,7 +240,7 @@ public class NonIdealBehaviour extends Behaviour {
       phi = calculateFugacityCoefficients(flashStream, false);
     }
     
-    return flashStream.clone();
+    return flashStream;
   }
   /*********************************************************************************************************************/
   
@@ -161,7 +263,6 @@ public class NonIdealBehaviour extends Behaviour {
     double[] phi = new double[componentCount]; // Fugacity Coefficients
     double[] gamma = calculateActivityCoefficients(stream, true); // Activity Coefficients
     double[] y = new double[componentCount]; // Condensable Mole Fractions
-    double[] P_sat = new double[componentCount]; // Vapour Pressures
     
     /*
      * II. Calculate Vapour Pressures
@@ -169,16 +270,11 @@ public class NonIdealBehaviour extends Behaviour {
      */
     for (int i = 0; i < componentCount; i++) {
       phi[i] = 1.; // Set all phi = 1
-      
-      // Calculate the vapour Pressure of each condensable component
-      if (stream.isComponentCondensable(i)) {
-        P_sat[i] = Menu.getSpecies(stream.getSpeciesIndex(i)).evaluateVapourPressure(stream.getT(), false);
-      }
-      else {
-        P_sat[i] = 0.;
-      }
     }
     
+    // Read the vapour Pressure of each condensable component; the temperature does not change during the iteration
+    double[] P_sat = stream.getThermoState().getVapourPressures(); // Vapour Pressures
+    
     /*
      * III. Calculate Initial Estimate of Bubble-Point Pressure
      * -----------------------------------------------------------------------------
@@ -234,12 +330,13 @@ public class NonIdealBehaviour extends Behaviour {
       }
       
       iterationCount++;
-      if (iterationCount > Behaviour.BUBBLE_DEW_POINT_MAX_EVALUATION_COUNT) {
+      CancellationToken.checkCurrent();
+      if (iterationCount > super.getSolverProfile().getBubbleDewPointMaxEvaluationCount()) {
         throw new TooManyFunctionEvaluationsException("Simple Iteration", 
                                                       "Non-Ideal Bubble-Point Pressure", null, null);
       }
       
-    } while (error > NonIdealBehaviour.PRESSURE_TOLERANCE);
+    } while (error > super.getSolverProfile().getPressureTolerance());
     
     if (Double.isNaN(P_bp) || Double.isInfinite(P_bp) || P_bp < 0.) {
       if (isIncreasing || P_bp > 0.) {
@@ -285,7 +382,6 @@ public class NonIdealBehaviour extends Behaviour {
     double[] y = new double[componentCount];
     double[] phi = new double[componentCount];
     double[] gamma = new double[componentCount];
-    double[] P_sat = new double[componentCount];
     boolean[] isCondensable = new boolean[componentCount];
     
     /*
@@ -295,17 +391,15 @@ public class NonIdealBehaviour extends Behaviour {
     for (int i = 0; i < componentCount; i++) {
       if (stream.isComponentCondensable(i)) {
         y[i] = stream.getZi(i) / stream.getCondensableFraction();
-        P_sat[i] = Menu.getSpecies(stream.getSpeciesIndex(i)).evaluateVapourPressure(stream.getT(), 
-                                                                                     false);
       }
       else {
         y[i] = 0.;
-        P_sat[i] = 0.;
       }
       gamma[i] = 1.; // Set all gamma = 1
       phi[i] = 1.; //  Set all phi = 1
       isCondensable[i] = stream.isComponentCondensable(i);
     }
+    double[] P_sat = stream.getThermoState().getVapourPressures(); // Vapour Pressures
     
     /*
      * II. Initialize Arrays
@@ -354,7 +448,7 @@ public class NonIdealBehaviour extends Behaviour {
             // Check if error is within tolerance for each activity coefficient
             gammaWithinTolerance = true;
             for (int i = 0; i < componentCount; i++) {
-              if (Math.abs(gamma_new[i] - gamma[i]) > NonIdealBehaviour.GAMMA_TOLERANCE) {
+              if (Math.abs(gamma_new[i] - gamma[i]) > super.getSolverProfile().getGammaTolerance()) {
                 gammaWithinTolerance = false;
               }
               gamma[i] = gamma_new[i];
@@ -399,12 +493,13 @@ public class NonIdealBehaviour extends Behaviour {
       stream.setP(P_dp);
       
       iterationCount++;
-      if (iterationCount > Behaviour.BUBBLE_DEW_POINT_MAX_EVALUATION_COUNT) {
+      CancellationToken.checkCurrent();
+      if (iterationCount > super.getSolverProfile().getBubbleDewPointMaxEvaluationCount()) {
         throw new TooManyFunctionEvaluationsException("Simple Iteration", 
                                                       "Non-Ideal Dew-Point Pressure", null, null);
       }
       
-    } while (error > NonIdealBehaviour.PRESSURE_TOLERANCE || iterationCount < 3);
+    } while (error > super.getSolverProfile().getPressureTolerance() || iterationCount < 3);
     
     /*
      * III. Verify Integrity of Dew-Point Pressure
@@ -477,13 +572,8 @@ public class NonIdealBehaviour extends Behaviour {
     for (int i = 0; i < componentCount; i++) {
       if (isCondensable[i]) {
         try {
-          T_sat[i] = Menu.findRoot(
-                                   Menu.getSpecies(stream.getSpeciesIndex(i)).getCorrelation(Species.VAPOUR_PRESSURE), 
-                                   new double[] {stream.getP()}, 1., true, 
-                                   Behaviour.BUBBLE_DEW_POINT_INCREMENT_LENGTH, 
-                                   Behaviour.BUBBLE_DEW_POINT_SUB_INCREMENT_FRACTION, 
-                                   Behaviour.BUBBLE_DEW_POINT_TOLERANCE, 
-                                   Behaviour.BUBBLE_DEW_POINT_MAX_EVALUATION_COUNT, false);
+          T_sat[i] = Menu.getSpecies(stream.getSpeciesIndex(i))
+            .evaluateSaturationTemperature(stream.getP(), super.getSolverProfile());
         } catch (NumericalMethodException e) {
           T_sat[i] = 0.0; //assume this species has no contribution to VLE
         }
@@ -511,19 +601,11 @@ public class NonIdealBehaviour extends Behaviour {
     boolean isIncreasing = true;
     do {
       
-      // Step 1. Calculate Vapour Pressures
-      double[] P_sat = new double[componentCount]; // Vapour Pressures
-      for (int i = 0; i < componentCount; i++) {
-        if (isCondensable[i]) {
-          P_sat[i] = Menu.getSpecies(stream.getSpeciesIndex(i)).evaluateVapourPressure(T_bp, false);
-        }
-        else {
-          P_sat[i] = 0.;
-        }
-      }
+      // Step 1. Calculate Vapour Pressures; the fugacity and activity coefficients below read the same state
+      stream.setT(T_bp, false, false);
+      double[] P_sat = stream.getThermoState().getVapourPressures(); // Vapour Pressures
       
       // Only perform Steps 2 and 3 after the first iteration
-      stream.setT(T_bp, false, false);
       if (iterationCount > 0) {
         
         // Step 2. Calculate the Vapour-Phase Mole Fractions, {y}
@@ -551,13 +633,8 @@ public class NonIdealBehaviour extends Behaviour {
       }
       
       // Step 6. Calculate New Bubble-Point Temperature
-      double T_new = Menu.findRoot(
-                                   Menu.getSpecies(stream.getSpeciesIndex(j)).getCorrelation(Species.VAPOUR_PRESSURE), 
-                                   new double[] {P_j}, 1., true, 
-                                   Behaviour.BUBBLE_DEW_POINT_INCREMENT_LENGTH, 
-                                   Behaviour.BUBBLE_DEW_POINT_SUB_INCREMENT_FRACTION, 
-                                   Behaviour.BUBBLE_DEW_POINT_TOLERANCE, 
-                                   Behaviour.BUBBLE_DEW_POINT_MAX_EVALUATION_COUNT, false);
+      double T_new = Menu.getSpecies(stream.getSpeciesIndex(j))
+        .evaluateSaturationTemperature(P_j, super.getSolverProfile());
       
       if (T_new > T_bp) {
         isIncreasing = true;
@@ -574,12 +651,13 @@ public class NonIdealBehaviour extends Behaviour {
       }
       
       iterationCount++;
-      if (iterationCount > Behaviour.BUBBLE_DEW_POINT_MAX_EVALUATION_COUNT) {
+      CancellationToken.checkCurrent();
+      if (iterationCount > super.getSolverProfile().getBubbleDewPointMaxEvaluationCount()) {
         throw new TooManyFunctionEvaluationsException("Simple Iteration", 
                                                       "Non-Ideal Bubble-Point Temperature", null, null);
       }
       
-    } while (error > Behaviour.BUBBLE_DEW_POINT_TOLERANCE || iterationCount == 1);
+    } while (error > super.getSolverProfile().getBubbleDewPointTolerance() || iterationCount == 1);
     
     /*
      * V. Verify Integrity of Bubble-Point Temperature
@@ -641,13 +719,8 @@ public class NonIdealBehaviour extends Behaviour {
     for (int i = 0; i < componentCount; i++) {
       if (isCondensable[i]) {
         try {
-          T_sat[i] = Menu.findRoot(
-                                   Menu.getSpecies(stream.getSpeciesIndex(i)).getCorrelation(Species.VAPOUR_PRESSURE), 
-                                   new double[] {stream.getP()}, 1., true, 
-                                   Behaviour.BUBBLE_DEW_POINT_INCREMENT_LENGTH, 
-                                   Behaviour.BUBBLE_DEW_POINT_SUB_INCREMENT_FRACTION, 
-                                   Behaviour.BUBBLE_DEW_POINT_TOLERANCE, 
-                                   Behaviour.BUBBLE_DEW_POINT_MAX_EVALUATION_COUNT, false);
+          T_sat[i] = Menu.getSpecies(stream.getSpeciesIndex(i))
+            .evaluateSaturationTemperature(stream.getP(), super.getSolverProfile());
         } catch (NumericalMethodException e) {
           T_sat[i] = 0.00001; //assume this species has no contribution to VLE
         }
@@ -672,19 +745,11 @@ public class NonIdealBehaviour extends Behaviour {
     boolean isIncreasing = true;
     do {
       
-      // Step 1. Calculate Vapour Pressures
-      double[] P_sat = new double[componentCount]; // Vapour Pressures
-      for (int i = 0; i < componentCount; i++) {
-        if (isCondensable[i]) {
-          P_sat[i] = Menu.getSpecies(stream.getSpeciesIndex(i)).evaluateVapourPressure(T_dp, false);
-        }
-        else {
-          P_sat[i] = 0.;
-        }
-      }
+      // Step 1. Calculate Vapour Pressures; the fugacity and activity coefficients below read the same state
+      stream.setT(T_dp, false, false);
+      double[] P_sat = stream.getThermoState().getVapourPressures(); // Vapour Pressures
       
       // Only perform Steps 2, 3 and 4 after the first iteration 
-      stream.setT(T_dp, false, false);
       if (iterationCount > 0) {
         
         // Step 2. Calculate Fugacity Coefficients 
@@ -720,7 +785,7 @@ public class NonIdealBehaviour extends Behaviour {
             
             gammaWithinTolerance = true;
             for (int i = 0; i < componentCount; i++) {
-              if (Math.abs(gamma_new[i] - gamma[i]) > NonIdealBehaviour.GAMMA_TOLERANCE) {
+              if (Math.abs(gamma_new[i] - gamma[i]) > super.getSolverProfile().getGammaTolerance()) {
                 gammaWithinTolerance = false;
               }
               gamma[i] = gamma_new[i];
@@ -747,13 +812,8 @@ public class NonIdealBehaviour extends Behaviour {
       P_j = stream.getP() * P_j;
       
       // Step 6. Calculate New Dew-Point Temperature
-      double T_new = Menu.findRoot(
-                                   Menu.getSpecies(stream.getSpeciesIndex(j)).getCorrelation(Species.VAPOUR_PRESSURE), 
-                                   new double[] {P_j}, 1., true, 
-                                   Behaviour.BUBBLE_DEW_POINT_INCREMENT_LENGTH, 
-                                   Behaviour.BUBBLE_DEW_POINT_SUB_INCREMENT_FRACTION, 
-                                   Behaviour.BUBBLE_DEW_POINT_TOLERANCE, 
-                                   Behaviour.BUBBLE_DEW_POINT_MAX_EVALUATION_COUNT, false);
+      double T_new = Menu.getSpecies(stream.getSpeciesIndex(j))
+        .evaluateSaturationTemperature(P_j, super.getSolverProfile());
       
       if (T_new > T_dp) {
         isIncreasing = true;
@@ -770,12 +830,13 @@ public class NonIdealBehaviour extends Behaviour {
       }
       
       iterationCount++;
-      if (iterationCount > Behaviour.BUBBLE_DEW_POINT_MAX_EVALUATION_COUNT) {
+      CancellationToken.checkCurrent();
+      if (iterationCount > super.getSolverProfile().getBubbleDewPointMaxEvaluationCount()) {
         throw new TooManyFunctionEvaluationsException("Simple Iteration", 
                                                       "Non-Ideal Dew-Point Temperature", null, null);
       }
       
-    } while (error > Behaviour.BUBBLE_DEW_POINT_TOLERANCE || iterationCount < 3);
+    } while (error > super.getSolverProfile().getBubbleDewPointTolerance() || iterationCount < 3);
     
     /*
      * V. Verify Integrity of Dew-Point Pressure
@@ -813,7 +874,7 @@ public class NonIdealBehaviour extends Behaviour {
     double r[] = new double[componentCount];
     double q[] = new double[componentCount];
     double e[][] = new double[subGroupTypeCount][componentCount];
-    double tau[][] = new double[subGroupTypeCount][subGroupTypeCount];
+    double tau[][] = stream.getThermoState().getTau(); // Depends only on T
     double beta[][] = new double[componentCount][subGroupTypeCount];
     double theta[] = new double[subGroupTypeCount];
     double s[] = new double[subGroupTypeCount];
@@ -867,33 +928,26 @@ public class NonIdealBehaviour extends Behaviour {
       }
     }
     
-    // Step 3. Calculate tau[m][k]
-    for (int m = 0; m < subGroupTypeCount; m++) {
-      for (int k = 0; k < subGroupTypeCount; k++) {
-        tau[m][k] = Math.exp(-Menu.getInteractionParameter(m, k) / stream.getT());
-      }
-    }
+    // Step 3. tau[m][k] is read from the state of the stream's temperature
     
-    // Step 4. Calculate beta[i][k]
+    // Step 4. Calculate beta[i][k], summing e[m][i] * tau[m][k] over m one row of tau at a time
+    Kernels kernels = Kernels.getInstance();
     for (int i = 0; i < componentCount; i++) {
-      for (int k = 0; k < subGroupTypeCount; k++) {
-        beta[i][k] = 0.;
-        for (int m = 0; m < subGroupTypeCount; m++) {
-          beta[i][k] += e[m][i] * tau[m][k];
-        }
+      for (int m = 0; m < subGroupTypeCount; m++) {
+        kernels.accumulateProduct(e[m][i], tau[m], beta[i], subGroupTypeCount);
       }
     }
     
     // Step 5. Calculate theta[k] */
+    double[] xq = new double[componentCount]; // x[i] * q[i]
+    double dem = 0;
+    for (int i = 0; i < componentCount; i++) {
+      xq[i] = x[i] * q[i];
+      dem += xq[i];
+    }
     for (int k = 0; k < subGroupTypeCount; k++) {
-      double num = 0;
-      double dem = 0;
-      for (int i = 0; i < componentCount; i++) {
-        num += x[i] * q[i] * e[k][i];
-        dem += x[i] * q[i];
-      }
       if (dem != 0) {
-        theta[k] = num / dem;
+        theta[k] = kernels.dotProduct(xq, e[k], componentCount) / dem;
       }
       else {
         theta[k] = 0.;
@@ -901,10 +955,8 @@ public class NonIdealBehaviour extends Behaviour {
     }
     
     // Step 6. Calculate s[k]
-    for (int k = 0; k < subGroupTypeCount; k++) {
-      for (int m = 0; m < subGroupTypeCount; m++) {
-        s[k] += theta[m] * tau[m][k];
-      }
+    for (int m = 0; m < subGroupTypeCount; m++) {
+      kernels.accumulateProduct(theta[m], tau[m], s, subGroupTypeCount);
     }
     
     // Step 7. Calculate average r and q values
@@ -975,7 +1027,6 @@ public class NonIdealBehaviour extends Behaviour {
      */
     
     double[] y; // Vapour-Phase Mole Fractions, {y}
-    double[] P_sat = new double[componentCount]; // Vapour Pressures
     double[] phi = new double[componentCount]; // Fugacity Coefficients
     
     // Dew-Point Calculation: use overall mole fractions
@@ -988,107 +1039,43 @@ public class NonIdealBehaviour extends Behaviour {
       y = stream.getY();
     }
     
-    // Store critical mixture properties
-    double[][] omega = stream.getOmega_ij();
-    double[][] Tc = stream.getTc_ij(); // [K]
-    double[][] Pc = stream.getPc_ij(); // [bar]
-    
-    double[][] Tr = new double[componentCount][componentCount]; // Reduced Temperatures
-    
-    // Virial Coefficients
-    double[][] B0 = new double[componentCount][componentCount];
-    double[][] B1 = new double[componentCount][componentCount];
-    double[][] B_hat = new double[componentCount][componentCount];
-    double[][] B = new double[componentCount][componentCount];
-    
-    double[][] delta = new double[componentCount][componentCount];
-    
     /*
-     * II. Calculate Virial Coefficients
+     * II. Read Virial Coefficients and Vapour Pressures
      * -----------------------------------------------------------------------------
      */
     
-    // Step 1. Calculate Reduced Temperatures
-    for (int i = 0; i < componentCount; i++) {
-      for (int j = 0; j < componentCount; j++) {
-        Tr[i][j] = stream.getT() / Tc[i][j];
-      }
-    }
-    
-    // Step 2. Calculate B0[i][j]
-    for (int i = 0; i < componentCount; i++) {
-      for (int j = 0; j < componentCount; j++) {
-        B0[i][j] = 0.083 - (0.422 / Math.pow(Tr[i][j], 1.6));
-      }
-    }
-    
-    // Step 3. Calculate B1[i][j] 
-    for (int i = 0; i < componentCount; i++) {
-      for (int j = 0; j < componentCount; j++) {
-        B1[i][j] = 0.139 - (0.172 / Math.pow(Tr[i][j], 4.2));
-      }
-    }
-    
-    // Step 4. Calculate Bhat[i][j] 
-    for (int i = 0; i < componentCount; i++) {
-      for (int j = 0; j < componentCount; j++) {
-        B_hat[i][j] = B0[i][j] + omega[i][j] * B1[i][j];
-      }
-    }
-    
-    // Step 5. Calculate B[i][j]
-    for (int i = 0; i < componentCount; i++) {
-      for (int j = 0; j < componentCount; j++) {
-        if (i != j) {
-          // P = [bar], T = [K], B = [cm^3/mol], R = 83.14
-          B[i][j] = (B_hat[i][j] * 10.*Menu.GAS_CONSTANT * Tc[i][j]) / Pc[i][j];
-        }
-        else {
-          B[i][j] = 0.;
-        }
-      }
-    }
-    
-    // Step 6. Calculate delta[i][j]
-    for (int i = 0; i < componentCount; i++) {
-      for (int j = 0; j < componentCount; j++) {
-        delta[i][j] = 2 * B[i][j] - B[i][i] - B[j][j];
-      }
-    }
-    
-    /*
-     * III. Calculate Vapour Pressures
-     * -----------------------------------------------------------------------------
-     */
-    for (int i = 0; i < componentCount; i++) {
-      if (stream.isComponentCondensable(i)) {
-        P_sat[i] = Menu.getSpecies(stream.getSpeciesIndex(i)).evaluateVapourPressure(stream.getT(), 
-                                                                                     false);
-      }
-      else {
-        P_sat[i] = 0;
-      }
-    }
+    // They depend only on the temperature and the mixture, so they are calculated once per temperature by the 
+    // state of the stream; B and delta are symmetric and stored as their upper triangles
+    ThermoState state = stream.getThermoState();
+    MixtureParameters mixtureParameters = stream.getMixtureParameters();
+    SymmetricMatrix B = state.getVirialCoefficients(mixtureParameters); // Virial Coefficients
+    SymmetricMatrix delta = state.getVirialDeltas(mixtureParameters);
+    double[] P_sat = state.getVapourPressures(); // Vapour Pressures
     
     /*
-     * IV. Calculate Fugacity Coefficients
+     * III. Calculate Fugacity Coefficients
      * -----------------------------------------------------------------------------
      */
+    double[] deltaValues = delta.getValues();
     for (int i = 0; i < componentCount; i++) {
       double outerSum = 0.;
       
       for (int j = 0; j < componentCount; j++) {
         double innerSum = 0.;
+        double delta_ji = delta.get(j, i);
         
+        // delta[j][k] is read from the packed triangle: down column j to the diagonal, then along row j
+        int index = j; // Position of delta[0][j]
         for (int k = 0; k < componentCount; k++) {
-          innerSum += y[j] * y[k] * (2 * delta[j][i] - delta[j][k]);
+          innerSum += y[j] * y[k] * (2 * delta_ji - deltaValues[index]);
+          index += (k < j) ? componentCount - k - 1 : 1;
         }
         
         outerSum += innerSum;
       }
       
       // P and P_sat = [bar], T = [K], delta and B = [cm^3/mol], R = 83.14
-      phi[i] = Math.exp((B[i][i] * (stream.getP() - P_sat[i]) + 0.5 * stream.getP() * outerSum)
+      phi[i] = Math.exp((B.get(i, i) * (stream.getP() - P_sat[i]) + 0.5 * stream.getP() * outerSum)
                           / (10. * Menu.GAS_CONSTANT * stream.getT()));
     }
     
@@ -1108,11 +1095,10 @@ public class NonIdealBehaviour extends Behaviour {
     double[] K = new double[componentCount];
     double[] gamma = stream.getGamma();
     double[] phi = stream.getPhi();
+    double[] P_sat = stream.getThermoState().getVapourPressures(); // Vapour Pressures
     for (int i = 0; i < componentCount; i++) {
       if (stream.isComponentCondensable(i)) {
-        K[i] = (gamma[i]
-                  * Menu.getSpecies(stream.getSpeciesIndex(i)).evaluateVapourPressure(stream.getT(), false))
-          / (phi[i] * stream.getP());
+        K[i] = (gamma[i] * P_sat[i]) / (phi[i] * stream.getP());
       }
       else {
         K[i] = 0.; // Partition coefficients of non-condensable components are set to 0
@@ -0,0 +1,169 @@
+import java.nio.charset.StandardCharsets;
+
+/* Parses numbers directly from ASCII bytes without creating intermediate String objects.
+ * Decimal numbers with at most 15 significant digits and a decimal exponent within [-22, 22] are converted
+ * exactly (the result is correctly rounded); any other number falls back to Double.parseDouble().
+ */
+
+public class NumberParser {
+
+  private static final double[] POWERS_OF_TEN = {
+    1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+    1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22 };
+  private static final int MAX_EXACT_DIGITS = 15;
+
+
+  /**********************************************************************************************************************
+    * 1) parseDouble() : Parses the bytes in [start, end) as a decimal number.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public static double parseDouble(byte[] bytes, int start, int end) {
+
+    // Trim surrounding blanks and quotes
+    while (start < end && NumberParser.isBlank(bytes[start])) {
+      start++;
+    }
+    while (end > start && NumberParser.isBlank(bytes[end - 1])) {
+      end--;
+    }
+    if (start == end) {
+      throw new NumberFormatException("Empty number.");
+    }
+
+    int i = start;
+    boolean negative = false;
+    if (bytes[i] == '-' || bytes[i] == '+') {
+      negative = bytes[i] == '-';
+      i++;
+    }
+
+    long mantissa = 0; // Significant digits
+    int digitCount = 0; // Number of significant digits
+    int exponent = 0; // Decimal exponent
+    boolean anyDigits = false;
+
+    // Integer part
+    while (i < end && bytes[i] >= '0' && bytes[i] <= '9') {
+      anyDigits = true;
+      if (digitCount > 0 || bytes[i] != '0') {
+        if (digitCount < 18) {
+          mantissa = 10 * mantissa + (bytes[i] - '0');
+        } else {
+          exponent++;
+        }
+        digitCount++;
+      }
+      i++;
+    }
+
+    // Fractional part
+    if (i < end && bytes[i] == '.') {
+      i++;
+      while (i < end && bytes[i] >= '0' && bytes[i] <= '9') {
+        anyDigits = true;
+        if (digitCount > 0 || bytes[i] != '0') {
+          if (digitCount < 18) {
+            mantissa = 10 * mantissa + (bytes[i] - '0');
+            exponent--;
+          }
+          digitCount++;
+        } else {
+          exponent--;
+        }
+        i++;
+      }
+    }
+
+    if (!anyDigits) {
+      return NumberParser.fallback(bytes, start, end);
+    }
+
+    // Exponent part
+    if (i < end && (bytes[i] == 'e' || bytes[i] == 'E')) {
+      i++;
+      boolean negativeExponent = false;
+      if (i < end && (bytes[i] == '-' || bytes[i] == '+')) {
+        negativeExponent = bytes[i] == '-';
+        i++;
+      }
+      int explicitExponent = 0;
+      boolean anyExponentDigits = false;
+      while (i < end && bytes[i] >= '0' && bytes[i] <= '9') {
+        anyExponentDigits = true;
+        if (explicitExponent < 100000) {
+          explicitExponent = 10 * explicitExponent + (bytes[i] - '0');
+        }
+        i++;
+      }
+      if (!anyExponentDigits) {
+        throw new NumberFormatException("Malformed exponent: " + new String(bytes, start, end - start));
+      }
+      exponent += negativeExponent ? -explicitExponent : explicitExponent;
+    }
+
+    if (i != end) {
+      return NumberParser.fallback(bytes, start, end);
+    }
+
+    // Exact fast path
+    double value;
+    if (mantissa == 0) {
+      value = 0.;
+    }
+    else if (digitCount <= NumberParser.MAX_EXACT_DIGITS && exponent >= -22 && exponent <= 22) {
+      value = (double) mantissa;
+      if (exponent < 0) {
+        value /= NumberParser.POWERS_OF_TEN[-exponent];
+      } else {
+        value *= NumberParser.POWERS_OF_TEN[exponent];
+      }
+    }
+    else {
+      return NumberParser.fallback(bytes, start, end);
+    }
+
+    return negative ? -value : value;
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 2) parseInt() : Parses the bytes in [start, end) as an integer. A decimal point followed by zeros is accepted,
+    *       since spreadsheets often export integers as "2.0".
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public static int parseInt(byte[] bytes, int start, int end) {
+    double value = NumberParser.parseDouble(bytes, start, end);
+    if (value != Math.rint(value) || value > Integer.MAX_VALUE || value < Integer.MIN_VALUE) {
+      throw new NumberFormatException("Not an integer: " + new String(bytes, start, end - start));
+    }
+    return (int) value;
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 3) isNumber() : Returns true if the bytes in [start, end) form a number.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public static boolean isNumber(byte[] bytes, int start, int end) {
+    try {
+      NumberParser.parseDouble(bytes, start, end);
+      return true;
+    }
+    catch (NumberFormatException e) {
+      return false;
+    }
+  }
+  /*********************************************************************************************************************/
+
+
+  private static double fallback(byte[] bytes, int start, int end) {
+    return Double.parseDouble(new String(bytes, start, end - start, StandardCharsets.ISO_8859_1));
+  }
+
+  private static boolean isBlank(byte b) {
+    return b == ' ' || b == '\t' || b == '"' || b == '\r';
+  }
+
+}
@@ -10,9 +10,7 @@ public class NumericalMethodException extends Exception {
     super();
     this.numericalMethodName = numericalMethodName;
     this.functionName = functionName;
-    if (rootFinder != null) {
-      this.rootFinder = rootFinder.clone();
-    }
+    this.rootFinder = rootFinder; // Not copied; root finders are pooled, and a flash can throw and catch many of these
     if (function != null) {
       this.function = function.clone();
     }
@@ -39,6 +37,7 @@ public class NumericalMethodException extends Exception {
     this.functionName = functionName;
   }
   
+  // The root finder may have been reset for another search since the exception was thrown
   public RootFinder getRootFinder() {
     return this.rootFinder.clone();
   }
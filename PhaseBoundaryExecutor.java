@@ -0,0 +1,118 @@
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/* Evaluates the bubble-point and dew-point calculations of a stream concurrently. The second calculation is handed to
+ * a shared pool of daemon threads while the calling thread performs the first; if no pool thread has started the
+ * second by the time the first has finished, the calling thread performs it as well. A calculation therefore never
+ * waits on the pool, so nested calls and a pool that is busy with other cases cannot dead-lock. The CancellationToken
+ * and MessageLog of the calling thread are installed for the pool thread while it works on the calculation.
+ */
+
+public class PhaseBoundaryExecutor {
+
+  public static final String PROPERTY_NAME = "flash.parallelPhaseBoundaries";
+
+  private static ExecutorService executor; // Created on first use
+
+
+  /**********************************************************************************************************************
+    * 1) evaluate() : Returns the results of both calculations, in the order they were given. An exception thrown by
+    *          either calculation is rethrown once both have finished or the second has been abandoned.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public static double[] evaluate(Callable<Double> first, Callable<Double> second)
+    throws NumericalMethodException, FunctionException {
+
+    final Callable<Double> task = second;
+    final CancellationToken cancellationToken = CancellationToken.getCurrent();
+    final MessageLog messageLog = MessageLog.getCurrent();
+    FutureTask<Double> secondTask = new FutureTask<Double>(new Callable<Double>() {
+      public Double call() throws Exception {
+        CancellationToken previousToken = CancellationToken.setCurrent(cancellationToken);
+        MessageLog previousLog = MessageLog.setCurrent(messageLog);
+        try {
+          return task.call();
+        }
+        finally {
+          CancellationToken.setCurrent(previousToken);
+          MessageLog.setCurrent(previousLog);
+        }
+      }
+    });
+    PhaseBoundaryExecutor.getExecutor().execute(secondTask);
+
+    double[] results = new double[2];
+    try {
+      results[0] = first.call().doubleValue();
+    }
+    catch (Exception e) {
+      secondTask.cancel(false);
+      PhaseBoundaryExecutor.rethrow(e);
+    }
+
+    secondTask.run(); // Does nothing if a pool thread has already started the task
+    try {
+      results[1] = secondTask.get().doubleValue();
+    }
+    catch (ExecutionException e) {
+      PhaseBoundaryExecutor.rethrow(e.getCause());
+    }
+    catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new FlashCancelledException(false, 0L);
+    }
+
+    return results;
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 2) rethrow() : Rethrows an exception of one of the calculations as the type it was thrown as.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  private static void rethrow(Throwable e) throws NumericalMethodException, FunctionException {
+    if (e instanceof NumericalMethodException) {
+      throw (NumericalMethodException) e;
+    }
+    if (e instanceof FunctionException) {
+      throw (FunctionException) e;
+    }
+    if (e instanceof RuntimeException) {
+      throw (RuntimeException) e;
+    }
+    if (e instanceof Error) {
+      throw (Error) e;
+    }
+    throw new IllegalStateException(e);
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 3) getExecutor() : Returns the shared pool, which has one thread per available processor.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  private static synchronized ExecutorService getExecutor() {
+    if (PhaseBoundaryExecutor.executor == null) {
+      PhaseBoundaryExecutor.executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(),
+                                                                    new ThreadFactory() {
+        private AtomicInteger threadCount = new AtomicInteger();
+
+        public Thread newThread(Runnable runnable) {
+          Thread thread = new Thread(runnable, "PhaseBoundaryExecutor-" + this.threadCount.getAndIncrement());
+          thread.setDaemon(true);
+          return thread;
+        }
+      });
+    }
+    return PhaseBoundaryExecutor.executor;
+  }
+  /*********************************************************************************************************************/
+
+}
@@ -0,0 +1,76 @@
+/* A quick estimate of whether a stream at its T and P is liquid, vapour or two-phase, made from estimated partition
+ * coefficients instead of the bubble-point and dew-point calculations. The Rachford-Rice function is evaluated at
+ * both ends of its range:
+ *   f(0) = sum(z * K_bp) - 1     : negative below the bubble point; the stream is liquid
+ *   f(1) = 1 - sum(z / K_dp)     : positive above the dew point; the stream is vapour
+ * K_bp estimates the partition coefficients at the bubble point, where the liquid has the overall composition, and
+ * K_dp those at the dew point, where the vapour has it. The estimates are only approximate, so a state is only
+ * decided when the sums are beyond 1 by more than the given margin; anything closer is left undecided for the full
+ * calculation.
+ * Only the LIQUID and VAPOUR states are used to skip the full calculation; a TWO_PHASE stream is still flashed from
+ * its calculated bubble-point and dew-point pressures.
+ * The test is turned on by the fast-screening profile, and can be turned on or off for any profile with the
+ * flash.stabilityTest system property.
+ */
+
+public class PhaseStabilityTest {
+
+  public static final String PROPERTY_NAME = "flash.stabilityTest";
+
+  public static final int UNDECIDED = 0;
+  public static final int LIQUID = 1;
+  public static final int VAPOUR = 2;
+  public static final int TWO_PHASE = 3;
+
+
+  /**********************************************************************************************************************
+    * 1) classify() : Returns LIQUID, VAPOUR, TWO_PHASE or UNDECIDED from the estimated bubble-point and dew-point
+    *          partition coefficients of the stream. The matching estimates of the bubble-point and dew-point
+    *          pressures [bar] are written into pressures[0] and pressures[1].
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public static int classify(Stream stream, double[] K_bp, double[] K_dp, double margin, double[] pressures) {
+
+    pressures[0] = 0.;
+    pressures[1] = 0.;
+
+    double condensableFraction = stream.getCondensableFraction();
+    if (condensableFraction <= 0.) {
+      return PhaseStabilityTest.UNDECIDED;
+    }
+
+    int componentCount = stream.getComponentCount();
+    double sumZK = 0.; // f(0) + 1
+    double sumZOverK = 0.; // 1 - f(1)
+    for (int i = 0; i < componentCount; i++) {
+      if (stream.isComponentCondensable(i)) {
+        double z = stream.getZi(i) / condensableFraction;
+        sumZK += z * K_bp[i];
+        sumZOverK += z / K_dp[i];
+      }
+    }
+
+    if (Double.isNaN(sumZK) || Double.isNaN(sumZOverK) || Double.isInfinite(sumZK) || Double.isInfinite(sumZOverK)
+          || sumZK <= 0.) {
+      return PhaseStabilityTest.UNDECIDED;
+    }
+
+    // K is inversely proportional to P, so P * sum(z * K) and P / sum(z / K) estimate the bubble-point and
+    // dew-point pressures
+    pressures[0] = stream.getP() * sumZK;
+    pressures[1] = stream.getP() / sumZOverK;
+
+    if (sumZK < 1. - margin) {
+      return PhaseStabilityTest.LIQUID;
+    }
+    if (sumZOverK < 1. - margin) {
+      return PhaseStabilityTest.VAPOUR;
+    }
+    if (sumZK > 1. + margin && sumZOverK > 1. + margin) {
+      return PhaseStabilityTest.TWO_PHASE;
+    }
+    return PhaseStabilityTest.UNDECIDED;
+  }
+  /*********************************************************************************************************************/
+
+}
@@ -0,0 +1,516 @@
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/* A binary image of Species.csv, SubGroups.csv and InteractionParameters.csv that is memory-mapped at startup, so that
+ * the CSV files do not have to be parsed. compile() writes the image; the constructor maps it, and load() builds
+ * only the requested species, directly from their records. The image stores the length and modification time of
+ * each CSV file it was compiled from, and isUpToDate() compares them with the files on disk.
+ *
+ * Layout (little-endian):
+ *   Header            : see the *_POSITION constants
+ *   Name hash table   : hashTableSize ints; record number + 1 of the species whose name hashes there, or 0
+ *   Name pool         : UTF-8 species names
+ *   Species records   : int index, int name offset, int name length, int sub-group type count,
+ *                       the physical properties, the correlation parameters,
+ *                       then maxSubGroupTypeCount pairs of (int sub-group record, int count)
+ *   Sub-group records : int index, int 0, double R, double Q
+ *   Interaction matrix: subGroupCount x subGroupCount doubles, by sub-group record
+ *
+ * Species records are in the order of Species.csv, and sub-group records in the order in which the sub-groups are
+ * first used in Species.csv, so load() returns the same arrays as SpeciesDataLoader.load().
+ */
+
+public class PropertyDatabase {
+
+  public static final int MAGIC_NUMBER = 0x42445046; // "FPDB" in little-endian byte order
+  public static final int VERSION = 1;
+
+  private static final int SPECIES_COUNT_POSITION = 8;
+  private static final int SUB_GROUP_COUNT_POSITION = 12;
+  private static final int PROPERTY_COUNT_POSITION = 16;
+  private static final int CORRELATION_PARAMETER_COUNT_POSITION = 20;
+  private static final int MAX_SUB_GROUP_TYPE_COUNT_POSITION = 24;
+  private static final int HASH_TABLE_SIZE_POSITION = 28;
+  private static final int SOURCE_LENGTHS_POSITION = 32; // 3 longs
+  private static final int SOURCE_MODIFICATION_TIMES_POSITION = 56; // 3 longs
+  private static final int HASH_TABLE_OFFSET_POSITION = 80;
+  private static final int NAME_POOL_OFFSET_POSITION = 88;
+  private static final int SPECIES_RECORDS_OFFSET_POSITION = 96;
+  private static final int SUB_GROUP_RECORDS_OFFSET_POSITION = 104;
+  private static final int INTERACTION_MATRIX_OFFSET_POSITION = 112;
+  private static final int HEADER_LENGTH = 120;
+  private static final int SUB_GROUP_RECORD_LENGTH = 24;
+
+  private String imageFilePath;
+  private ByteBuffer image;
+  private int speciesCount;
+  private int subGroupCount;
+  private int propertyCount;
+  private int correlationParameterCount;
+  private int maxSubGroupTypeCount;
+  private int hashTableSize;
+  private int hashTableOffset;
+  private int namePoolOffset;
+  private int speciesRecordsOffset;
+  private int speciesRecordLength;
+  private int subGroupRecordsOffset;
+  private int interactionMatrixOffset;
+
+  private Species[] species;
+  private int[] subGroupIndices;
+  private double[] subGroupRelativeVolume; // R
+  private double[] subGroupRelativeSurfaceArea; // Q
+  private double[][] interactionParameters;
+
+
+  /**********************************************************************************************************************
+    * 1) Constructor : Memory-maps an image written by compile().
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public PropertyDatabase(String imageFilePath) throws IOException {
+
+    FileChannel channel;
+    try {
+      channel = new FileInputStream(imageFilePath).getChannel();
+    }
+    catch (Exception e) {
+      throw new FileNotFoundException(imageFilePath + " was not found.");
+    }
+
+    try {
+      this.image = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()).order(ByteOrder.LITTLE_ENDIAN);
+    }
+    finally {
+      channel.close(); // The mapping remains valid
+    }
+
+    if (this.image.capacity() < PropertyDatabase.HEADER_LENGTH
+          || this.image.getInt(0) != PropertyDatabase.MAGIC_NUMBER) {
+      throw new IOException(imageFilePath + " is not a property database.");
+    }
+    if (this.image.getInt(4) != PropertyDatabase.VERSION
+          || this.image.getInt(PropertyDatabase.PROPERTY_COUNT_POSITION) != Species.PHYSICAL_PROPERTY_COUNT
+          || this.image.getInt(PropertyDatabase.CORRELATION_PARAMETER_COUNT_POSITION)
+               != Species.getCorrelationParameterCount()) {
+      throw new IOException(imageFilePath + " was compiled by an incompatible version.");
+    }
+
+    this.imageFilePath = imageFilePath;
+    this.speciesCount = this.image.getInt(PropertyDatabase.SPECIES_COUNT_POSITION);
+    this.subGroupCount = this.image.getInt(PropertyDatabase.SUB_GROUP_COUNT_POSITION);
+    this.propertyCount = Species.PHYSICAL_PROPERTY_COUNT;
+    this.correlationParameterCount = Species.getCorrelationParameterCount();
+    this.maxSubGroupTypeCount = this.image.getInt(PropertyDatabase.MAX_SUB_GROUP_TYPE_COUNT_POSITION);
+    this.hashTableSize = this.image.getInt(PropertyDatabase.HASH_TABLE_SIZE_POSITION);
+    this.hashTableOffset = (int) this.image.getLong(PropertyDatabase.HASH_TABLE_OFFSET_POSITION);
+    this.namePoolOffset = (int) this.image.getLong(PropertyDatabase.NAME_POOL_OFFSET_POSITION);
+    this.speciesRecordsOffset = (int) this.image.getLong(PropertyDatabase.SPECIES_RECORDS_OFFSET_POSITION);
+    this.subGroupRecordsOffset = (int) this.image.getLong(PropertyDatabase.SUB_GROUP_RECORDS_OFFSET_POSITION);
+    this.interactionMatrixOffset = (int) this.image.getLong(PropertyDatabase.INTERACTION_MATRIX_OFFSET_POSITION);
+    this.speciesRecordLength = PropertyDatabase.getSpeciesRecordLength(this.maxSubGroupTypeCount);
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 2) compile() : Reads the CSV files and writes the image. The image is written to a temporary file first, so an
+    *       existing image is only replaced once the new one is complete.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public static void compile(String speciesFilePath, String subGroupsFilePath, String interactionParametersFilePath,
+                             String imageFilePath) throws IOException {
+
+    /*
+     * I. Load every Species
+     * -----------------------------------------------------------------------------
+     */
+    String[] sourceFilePaths = { speciesFilePath, subGroupsFilePath, interactionParametersFilePath };
+    long[] sourceLengths = new long[3];
+    long[] sourceModificationTimes = new long[3];
+    for (int i = 0; i < 3; i++) { // Stamped before reading, so that an edit made while compiling makes the image stale
+      sourceLengths[i] = new File(sourceFilePaths[i]).length();
+      sourceModificationTimes[i] = new File(sourceFilePaths[i]).lastModified();
+    }
+
+    SpeciesDataLoader loader = new SpeciesDataLoader(speciesFilePath, subGroupsFilePath,
+                                                     interactionParametersFilePath);
+    loader.load(SpeciesDataLoader.readSpeciesNames(speciesFilePath));
+
+    Species[] species = loader.getSpecies();
+    int[] subGroupIndices = loader.getSubGroupIndices();
+    int speciesCount = species.length;
+    int subGroupCount = subGroupIndices.length;
+
+    /*
+     * II. Lay out the Image
+     * -----------------------------------------------------------------------------
+     */
+    byte[][] names = new byte[speciesCount][];
+    int namePoolLength = 0;
+    int maxSubGroupTypeCount = 0;
+    for (int i = 0; i < speciesCount; i++) {
+      names[i] = species[i].getName().getBytes(StandardCharsets.UTF_8);
+      namePoolLength += names[i].length;
+      maxSubGroupTypeCount = Math.max(maxSubGroupTypeCount, species[i].getSubGroupTypeCount());
+    }
+
+    int hashTableSize = Integer.highestOneBit(Math.max(2 * speciesCount, 8) - 1) << 1;
+    int hashTableOffset = PropertyDatabase.HEADER_LENGTH;
+    int namePoolOffset = hashTableOffset + 4 * hashTableSize;
+    int speciesRecordsOffset = PropertyDatabase.alignTo8(namePoolOffset + namePoolLength);
+    int speciesRecordLength = PropertyDatabase.getSpeciesRecordLength(maxSubGroupTypeCount);
+    int subGroupRecordsOffset = speciesRecordsOffset + speciesCount * speciesRecordLength;
+    int interactionMatrixOffset = subGroupRecordsOffset + subGroupCount * PropertyDatabase.SUB_GROUP_RECORD_LENGTH;
+    int imageLength = interactionMatrixOffset + 8 * subGroupCount * subGroupCount;
+
+    ByteBuffer image = ByteBuffer.allocate(imageLength).order(ByteOrder.LITTLE_ENDIAN);
+
+    /*
+     * III. Write the Header
+     * -----------------------------------------------------------------------------
+     */
+    image.putInt(0, PropertyDatabase.MAGIC_NUMBER);
+    image.putInt(4, PropertyDatabase.VERSION);
+    image.putInt(PropertyDatabase.SPECIES_COUNT_POSITION, speciesCount);
+    image.putInt(PropertyDatabase.SUB_GROUP_COUNT_POSITION, subGroupCount);
+    image.putInt(PropertyDatabase.PROPERTY_COUNT_POSITION, Species.PHYSICAL_PROPERTY_COUNT);
+    image.putInt(PropertyDatabase.CORRELATION_PARAMETER_COUNT_POSITION, Species.getCorrelationParameterCount());
+    image.putInt(PropertyDatabase.MAX_SUB_GROUP_TYPE_COUNT_POSITION, maxSubGroupTypeCount);
+    image.putInt(PropertyDatabase.HASH_TABLE_SIZE_POSITION, hashTableSize);
+    for (int i = 0; i < 3; i++) {
+      image.putLong(PropertyDatabase.SOURCE_LENGTHS_POSITION + 8 * i, sourceLengths[i]);
+      image.putLong(PropertyDatabase.SOURCE_MODIFICATION_TIMES_POSITION + 8 * i, sourceModificationTimes[i]);
+    }
+    image.putLong(PropertyDatabase.HASH_TABLE_OFFSET_POSITION, hashTableOffset);
+    image.putLong(PropertyDatabase.NAME_POOL_OFFSET_POSITION, namePoolOffset);
+    image.putLong(PropertyDatabase.SPECIES_RECORDS_OFFSET_POSITION, speciesRecordsOffset);
+    image.putLong(PropertyDatabase.SUB_GROUP_RECORDS_OFFSET_POSITION, subGroupRecordsOffset);
+    image.putLong(PropertyDatabase.INTERACTION_MATRIX_OFFSET_POSITION, interactionMatrixOffset);
+
+    /*
+     * IV. Write the Species Records, Names and Name Hash Table
+     * -----------------------------------------------------------------------------
+     */
+    int nameOffset = 0;
+    for (int i = 0; i < speciesCount; i++) {
+
+      // Name hash table; linear probing
+      int slot = PropertyDatabase.hash(names[i], 0, names[i].length) & (hashTableSize - 1);
+      while (image.getInt(hashTableOffset + 4 * slot) != 0) {
+        slot = (slot + 1) & (hashTableSize - 1);
+      }
+      image.putInt(hashTableOffset + 4 * slot, i + 1);
+
+      image.position(namePoolOffset + nameOffset);
+      image.put(names[i]);
+
+      int record = speciesRecordsOffset + i * speciesRecordLength;
+      double[] properties = loader.getSpeciesProperties(i);
+      double[] correlationParameters = loader.getSpeciesCorrelationParameters(i);
+      int[][] subGroups = species[i].getSubGroups();
+
+      image.putInt(record, species[i].getIndex());
+      image.putInt(record + 4, nameOffset);
+      image.putInt(record + 8, names[i].length);
+      image.putInt(record + 12, subGroups[0].length);
+      int position = record + 16;
+      for (int j = 0; j < properties.length; j++, position += 8) {
+        image.putDouble(position, properties[j]);
+      }
+      for (int j = 0; j < correlationParameters.length; j++, position += 8) {
+        image.putDouble(position, correlationParameters[j]);
+      }
+      for (int j = 0; j < subGroups[0].length; j++, position += 8) {
+        image.putInt(position, PropertyDatabase.indexOf(subGroupIndices, subGroups[0][j]));
+        image.putInt(position + 4, subGroups[1][j]);
+      }
+
+      nameOffset += names[i].length;
+    }
+
+    /*
+     * V. Write the Sub-Group Records and Interaction Matrix
+     * -----------------------------------------------------------------------------
+     */
+    double[] subGroupRelativeVolume = loader.getSubGroupRelativeVolume();
+    double[] subGroupRelativeSurfaceArea = loader.getSubGroupRelativeSurfaceArea();
+    double[][] interactionParameters = loader.getInteractionParameters();
+    for (int k = 0; k < subGroupCount; k++) {
+      int record = subGroupRecordsOffset + k * PropertyDatabase.SUB_GROUP_RECORD_LENGTH;
+      image.putInt(record, subGroupIndices[k]);
+      image.putDouble(record + 8, subGroupRelativeVolume[k]);
+      image.putDouble(record + 16, subGroupRelativeSurfaceArea[k]);
+      for (int l = 0; l < subGroupCount; l++) {
+        image.putDouble(interactionMatrixOffset + 8 * (k * subGroupCount + l), interactionParameters[k][l]);
+      }
+    }
+
+    /*
+     * VI. Write the Image File
+     * -----------------------------------------------------------------------------
+     */
+    File temporaryFile = new File(imageFilePath + ".tmp");
+    FileChannel channel = new FileOutputStream(temporaryFile).getChannel();
+    try {
+      image.clear();
+      while (image.hasRemaining()) {
+        channel.write(image);
+      }
+    }
+    finally {
+      channel.close();
+    }
+    Files.move(temporaryFile.toPath(), new File(imageFilePath).toPath(), StandardCopyOption.REPLACE_EXISTING);
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 3) isUpToDate() : Returns true if the given CSV files have not changed since the image was compiled.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public boolean isUpToDate(String speciesFilePath, String subGroupsFilePath, String interactionParametersFilePath) {
+
+    String[] sourceFilePaths = { speciesFilePath, subGroupsFilePath, interactionParametersFilePath };
+    for (int i = 0; i < 3; i++) {
+      File sourceFile = new File(sourceFilePaths[i]);
+      if (sourceFile.length() != this.image.getLong(PropertyDatabase.SOURCE_LENGTHS_POSITION + 8 * i)
+            || sourceFile.lastModified()
+                 != this.image.getLong(PropertyDatabase.SOURCE_MODIFICATION_TIMES_POSITION + 8 * i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 4) load() : Builds the species named in speciesNamesList and the arrays of their sub-groups.
+    *       speciesFilePath is only used in the error message for missing species.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public void load(ArrayList<String> speciesNamesList, String speciesFilePath) throws IOException {
+
+    /*
+     * I. Find the Records of the Requested Species
+     * -----------------------------------------------------------------------------
+     */
+    int[] records = new int[speciesNamesList.size()];
+    ArrayList<String> missingSpeciesNamesList = new ArrayList<String>();
+    int recordCount = 0;
+    for (int i = 0; i < speciesNamesList.size(); i++) {
+      int record = this.findSpeciesRecord(speciesNamesList.get(i));
+
+      // A name that is requested twice is missing the second time, as each name appears once in the file
+      for (int j = 0; j < recordCount && record != -1; j++) {
+        if (records[j] == record) {
+          record = -1;
+        }
+      }
+
+      if (record == -1) {
+        missingSpeciesNamesList.add(speciesNamesList.get(i));
+      } else {
+        records[recordCount++] = record;
+      }
+    }
+    if (missingSpeciesNamesList.size() != 0) {
+      throw new IOException("The following species were not found in " + speciesFilePath
+                              + " : " + missingSpeciesNamesList.toString());
+    }
+    Arrays.sort(records); // Order of Species.csv
+
+    /*
+     * II. Build the Species and Number their Sub-Groups in Order of First Use
+     * -----------------------------------------------------------------------------
+     */
+    this.species = new Species[records.length];
+    int[] subGroupSlots = new int[this.subGroupCount]; // Position of each used sub-group record, or -1
+    Arrays.fill(subGroupSlots, -1);
+    int[] usedSubGroupRecords = new int[this.subGroupCount];
+    int usedSubGroupCount = 0;
+
+    for (int i = 0; i < records.length; i++) {
+      int record = this.speciesRecordsOffset + records[i] * this.speciesRecordLength;
+
+      byte[] name = new byte[this.image.getInt(record + 8)];
+      for (int j = 0; j < name.length; j++) {
+        name[j] = this.image.get(this.namePoolOffset + this.image.getInt(record + 4) + j);
+      }
+
+      int position = record + 16;
+      double[] properties = new double[this.propertyCount];
+      for (int j = 0; j < this.propertyCount; j++, position += 8) {
+        properties[j] = this.image.getDouble(position);
+      }
+      double[] correlationParameters = new double[this.correlationParameterCount];
+      for (int j = 0; j < this.correlationParameterCount; j++, position += 8) {
+        correlationParameters[j] = this.image.getDouble(position);
+      }
+
+      int[][] subGroups = new int[2][this.image.getInt(record + 12)];
+      for (int j = 0; j < subGroups[0].length; j++, position += 8) {
+        int subGroupRecord = this.image.getInt(position);
+        subGroups[0][j] = this.image.getInt(this.subGroupRecordsOffset
+                                              + subGroupRecord * PropertyDatabase.SUB_GROUP_RECORD_LENGTH);
+        subGroups[1][j] = this.image.getInt(position + 4);
+
+        if (subGroupSlots[subGroupRecord] == -1) {
+          subGroupSlots[subGroupRecord] = usedSubGroupCount;
+          usedSubGroupRecords[usedSubGroupCount++] = subGroupRecord;
+        }
+      }
+
+      this.species[i] = new Species(new String(name, StandardCharsets.UTF_8), this.image.getInt(record),
+                                    properties, correlationParameters, subGroups);
+    }
+
+    /*
+     * III. Copy the Sub-Group Data and Interaction Parameters of the Used Sub-Groups
+     * -----------------------------------------------------------------------------
+     */
+    this.subGroupIndices = new int[usedSubGroupCount];
+    this.subGroupRelativeVolume = new double[usedSubGroupCount];
+    this.subGroupRelativeSurfaceArea = new double[usedSubGroupCount];
+    this.interactionParameters = new double[usedSubGroupCount][usedSubGroupCount];
+
+    for (int k = 0; k < usedSubGroupCount; k++) {
+      int record = this.subGroupRecordsOffset + usedSubGroupRecords[k] * PropertyDatabase.SUB_GROUP_RECORD_LENGTH;
+      this.subGroupIndices[k] = this.image.getInt(record);
+      this.subGroupRelativeVolume[k] = this.image.getDouble(record + 8);
+      this.subGroupRelativeSurfaceArea[k] = this.image.getDouble(record + 16);
+      for (int l = 0; l < usedSubGroupCount; l++) {
+        this.interactionParameters[k][l] = this.image.getDouble(this.interactionMatrixOffset
+                                                                  + 8 * (usedSubGroupRecords[k] * this.subGroupCount
+                                                                           + usedSubGroupRecords[l]));
+      }
+    }
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 5) getSpeciesNames() : Returns the names of all species in the image, in the order of Species.csv.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public ArrayList<String> getSpeciesNames() {
+
+    ArrayList<String> speciesNamesList = new ArrayList<String>();
+    for (int i = 0; i < this.speciesCount; i++) {
+      int record = this.speciesRecordsOffset + i * this.speciesRecordLength;
+      byte[] name = new byte[this.image.getInt(record + 8)];
+      for (int j = 0; j < name.length; j++) {
+        name[j] = this.image.get(this.namePoolOffset + this.image.getInt(record + 4) + j);
+      }
+      speciesNamesList.add(new String(name, StandardCharsets.UTF_8));
+    }
+    return speciesNamesList;
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 6) findSpeciesRecord() : Returns the record number of the named species, or -1 if it is not in the image.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  private int findSpeciesRecord(String name) {
+
+    byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+    int slot = PropertyDatabase.hash(nameBytes, 0, nameBytes.length) & (this.hashTableSize - 1);
+
+    while (true) {
+      int record = this.image.getInt(this.hashTableOffset + 4 * slot) - 1;
+      if (record == -1) {
+        return -1;
+      }
+
+      int recordPosition = this.speciesRecordsOffset + record * this.speciesRecordLength;
+      if (this.image.getInt(recordPosition + 8) == nameBytes.length) {
+        int nameOffset = this.namePoolOffset + this.image.getInt(recordPosition + 4);
+        boolean equal = true;
+        for (int j = 0; j < nameBytes.length && equal; j++) {
+          equal = this.image.get(nameOffset + j) == nameBytes[j];
+        }
+        if (equal) {
+          return record;
+        }
+      }
+
+      slot = (slot + 1) & (this.hashTableSize - 1);
+    }
+  }
+  /*********************************************************************************************************************/
+
+
+  // FNV-1a hash of the UTF-8 bytes of a name; independent of the JVM
+  private static int hash(byte[] bytes, int start, int end) {
+    int hash = 0x811C9DC5;
+    for (int i = start; i < end; i++) {
+      hash = (hash ^ (bytes[i] & 0xFF)) * 0x01000193;
+    }
+    return hash;
+  }
+
+  private static int getSpeciesRecordLength(int maxSubGroupTypeCount) {
+    return 16 + 8 * (Species.PHYSICAL_PROPERTY_COUNT + Species.getCorrelationParameterCount())
+      + 8 * maxSubGroupTypeCount;
+  }
+
+  private static int alignTo8(int position) {
+    return (position + 7) / 8 * 8;
+  }
+
+  private static int indexOf(int[] array, int value) {
+    for (int i = 0; i < array.length; i++) {
+      if (array[i] == value) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  public String getImageFilePath() {
+    return this.imageFilePath;
+  }
+
+  public int getSpeciesCount() {
+    return this.speciesCount;
+  }
+
+  public int getSubGroupCount() {
+    return this.subGroupCount;
+  }
+
+  public Species[] getSpecies() {
+    return this.species;
+  }
+
+  public int[] getSubGroupIndices() {
+    return this.subGroupIndices;
+  }
+
+  public double[] getSubGroupRelativeVolume() {
+    return this.subGroupRelativeVolume;
+  }
+
+  public double[] getSubGroupRelativeSurfaceArea() {
+    return this.subGroupRelativeSurfaceArea;
+  }
+
+  public double[][] getInteractionParameters() {
+    return this.interactionParameters;
+  }
+
+}
@@ -3,6 +3,8 @@ public class RachfordRice extends BoundedFunction {
   private double[] z;
   private double[] K;
   private boolean[] isCondensable;
+  private double[] zCondensable; // z, with 0 for non-condensable components
+  private double[] Km1; // K - 1, with 0 for non-condensable components
   
   /* RachfordRice Equation: 
    * Used to calcultate partition coefficients.
@@ -18,6 +20,7 @@ public class RachfordRice extends BoundedFunction {
     this.z = z.clone();
     this.K = K.clone();
     this.isCondensable = isCondensable.clone();
+    this.updateKernelArrays();
   }
   /*********************************************************************************************************************/
   
@@ -31,6 +34,7 @@ public class RachfordRice extends BoundedFunction {
     this.z = source.z.clone();
     this.K = source.K.clone();
     this.isCondensable = source.isCondensable.clone();
+    this.updateKernelArrays();
   }
   /*********************************************************************************************************************/
   
@@ -50,16 +54,7 @@ public class RachfordRice extends BoundedFunction {
     * ---------------------------------------------------------------------------------------------------------------------
     */
   public double evaluateWithinBounds(double x, double[] constants) {
-    
-    double f = 0.;
-    
-    for (int i = 0; i < this.z.length; i++) {
-      if (this.isCondensable[i]) {
-        f += (this.z[i] * (this.K[i] - 1)) / (1 + (this.K[i] - 1) * x);
-      }
-    }
-    
-    return f;
+    return Kernels.getInstance().rachfordRice(x, this.zCondensable, this.Km1, this.zCondensable.length);
   }
   /*********************************************************************************************************************/
   
@@ -69,16 +64,39 @@ public class RachfordRice extends BoundedFunction {
     * ---------------------------------------------------------------------------------------------------------------------
     */
   public double evaluateDerivativeWithinBounds(double x, double[] constants) {
+    return Kernels.getInstance().rachfordRiceDerivative(x, this.zCondensable, this.Km1, this.zCondensable.length);
+  }
+  /*********************************************************************************************************************/
+  
+  
+  /**********************************************************************************************************************
+    * 5.1) evaluateWithDerivativeWithinBounds() : Both sums are taken in a single pass over the components.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  protected void evaluateWithDerivativeWithinBounds(double x, double[] constants, FunctionValue result) {
+    Kernels.getInstance().rachfordRiceWithDerivative(x, this.zCondensable, this.Km1, this.zCondensable.length, 
+                                                     result);
+  }
+  /*********************************************************************************************************************/
+  
+  
+  /**********************************************************************************************************************
+    * 6) updateKernelArrays() : Lays out z and K for the kernels. The terms of non-condensable components are 
+    *          made zero instead of being skipped.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  private void updateKernelArrays() {
     
-    double df = 0.;
+    int n = Math.min(this.z.length, Math.min(this.K.length, this.isCondensable.length));
+    this.zCondensable = new double[n];
+    this.Km1 = new double[n];
     
-    for (int i = 0; i < this.z.length; i++) {
+    for (int i = 0; i < n; i++) {
       if (this.isCondensable[i]) {
-        df -= this.z[i] * Math.pow((this.K[i] - 1) / (1 + (this.K[i] - 1) * x), 2);
+        this.zCondensable[i] = this.z[i];
+        this.Km1[i] = this.K[i] - 1;
       }
     }
-    
-    return df;
   }
   /*********************************************************************************************************************/
   
@@ -89,6 +107,7 @@ public class RachfordRice extends BoundedFunction {
   
   public void setZ(double[] z) {
     this.z = z.clone();
+    this.updateKernelArrays();
   }
   
   public double[] getK() {
@@ -97,6 +116,7 @@ public class RachfordRice extends BoundedFunction {
   
   public void setK(double[] K) {
     this.K = K.clone();
+    this.updateKernelArrays();
   }
   
   public boolean[] getIsCondensable() {
@@ -105,6 +125,7 @@ public class RachfordRice extends BoundedFunction {
   
   public void setIsCondensable(boolean[] isCondensable) {
     this.isCondensable = isCondensable.clone();
+    this.updateKernelArrays();
   }
   
 }
\ No newline at end of file
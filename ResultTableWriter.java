@@ -0,0 +1,182 @@
+import java.io.Closeable;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+
+/* Writes the results of a multi-case run as a table with one row per case and a fixed set of columns:
+ *
+ *   line, flashCase, behaviourCase, T_feed, T, P, F, Q, vapourFraction, P_bp, P_dp, componentCount,
+ *   then for each component slot i = 1, 2, ... : species_i, x_i, y_i, z_i, K_i, gamma_i, phi_i
+ *
+ * T = [K], P = [bar], F = [mol/h], Q = [J/h]. The component values are those of the flash stream. Slots beyond the
+ * number of components in a case are left empty (NaN), and K, gamma and phi are NaN where they were not calculated.
+ * Rows are written in the order in which addRow() is called, which need not be the order of the case file.
+ */
+
+public abstract class ResultTableWriter implements Closeable {
+
+  public static final int DEFAULT_COMPONENT_SLOT_COUNT = 10;
+
+  private static final String[] CASE_COLUMN_NAMES = { "line", "flashCase", "behaviourCase", "T_feed", "T", "P", "F",
+    "Q", "vapourFraction", "P_bp", "P_dp", "componentCount" };
+  private static final String[] COMPONENT_COLUMN_NAMES = { "species", "x", "y", "z", "K", "gamma", "phi" };
+  private static final int COMPONENT_COUNT_COLUMN = 11;
+
+  private int componentSlotCount;
+  private String[] columnNames;
+  private boolean[] isIntegerColumn;
+  private double[] row; // Reused for every row; guarded by this
+  private long rowCount;
+
+
+  /**********************************************************************************************************************
+    * 1) Constructor
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public ResultTableWriter(int componentSlotCount) {
+
+    if (componentSlotCount < 1) {
+      throw new IllegalArgumentException("IllegalArgumentException: The result table must have at least one "
+                                           + "component slot.");
+    }
+
+    this.componentSlotCount = componentSlotCount;
+
+    int caseColumnCount = ResultTableWriter.CASE_COLUMN_NAMES.length;
+    int columnCount = caseColumnCount + componentSlotCount * ResultTableWriter.COMPONENT_COLUMN_NAMES.length;
+    this.columnNames = new String[columnCount];
+    this.isIntegerColumn = new boolean[columnCount];
+
+    for (int j = 0; j < caseColumnCount; j++) {
+      this.columnNames[j] = ResultTableWriter.CASE_COLUMN_NAMES[j];
+    }
+    this.isIntegerColumn[0] = true;
+    this.isIntegerColumn[1] = true;
+    this.isIntegerColumn[2] = true;
+    this.isIntegerColumn[ResultTableWriter.COMPONENT_COUNT_COLUMN] = true;
+
+    for (int i = 0; i < componentSlotCount; i++) {
+      for (int j = 0; j < ResultTableWriter.COMPONENT_COLUMN_NAMES.length; j++) {
+        int column = caseColumnCount + i * ResultTableWriter.COMPONENT_COLUMN_NAMES.length + j;
+        this.columnNames[column] = ResultTableWriter.COMPONENT_COLUMN_NAMES[j] + "_" + (i + 1);
+        this.isIntegerColumn[column] = j == 0;
+      }
+    }
+
+    this.row = new double[columnCount];
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 2) open() : Returns a CSV table writer if the file name ends with ".csv" and a binary one otherwise.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public static ResultTableWriter open(String filePath, int componentSlotCount) throws FileNotFoundException {
+    if (filePath.toLowerCase().endsWith(".csv")) {
+      return new CSVResultTableWriter(filePath, componentSlotCount);
+    } else {
+      return new BinaryResultTableWriter(filePath, componentSlotCount);
+    }
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 3) addRow() : Adds the results of a solved case to the table. May be called from several threads at once.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public void addRow(FlashCase flashCase, FlashSeparator flashSeparator) throws IOException {
+    this.addRow(flashCase, flashSeparator.getResult());
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 3.1) addRow() : Adds the result of a solved case to the table. May be called from several threads at once.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public synchronized void addRow(FlashCase flashCase, FlashResult result) throws IOException {
+
+    int componentCount = result.getComponentCount();
+
+    if (componentCount > this.componentSlotCount) {
+      throw new IllegalArgumentException("IllegalArgumentException: The case has " + componentCount
+                                           + " components, but the result table only has "
+                                           + this.componentSlotCount + " component slots.");
+    }
+
+    this.row[0] = flashCase.getLineNumber();
+    this.row[1] = flashCase.getFlashCase();
+    this.row[2] = flashCase.getBehaviourCase();
+    this.row[3] = result.getT_feed();
+    this.row[4] = result.getT();
+    this.row[5] = result.getP();
+    this.row[6] = result.getF();
+    this.row[7] = result.getQ();
+    this.row[8] = result.getVapourFraction();
+    this.row[9] = ResultTableWriter.positiveOrNaN(result.getP_bp());
+    this.row[10] = ResultTableWriter.positiveOrNaN(result.getP_dp());
+    this.row[ResultTableWriter.COMPONENT_COUNT_COLUMN] = componentCount;
+
+    int column = ResultTableWriter.CASE_COLUMN_NAMES.length;
+    for (int i = 0; i < this.componentSlotCount; i++) {
+      if (i < componentCount) {
+        this.row[column++] = result.getSpeciesIndex(i);
+        this.row[column++] = result.getXi(i);
+        this.row[column++] = result.getYi(i);
+        this.row[column++] = result.getZi(i);
+        this.row[column++] = ResultTableWriter.positiveOrNaN(result.getKi(i));
+        this.row[column++] = ResultTableWriter.positiveOrNaN(result.getGammai(i));
+        this.row[column++] = ResultTableWriter.positiveOrNaN(result.getPhii(i));
+      }
+      else {
+        for (int j = 0; j < ResultTableWriter.COMPONENT_COLUMN_NAMES.length; j++) {
+          this.row[column++] = Double.NaN;
+        }
+      }
+    }
+
+    this.writeRow(this.row);
+    this.rowCount++;
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 4) writeRow() : Writes a row of values, ordered as the columns are.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  protected abstract void writeRow(double[] row) throws IOException;
+  /*********************************************************************************************************************/
+
+
+  // Values that were not calculated are stored as 0 by Stream and FlashResult
+  private static double positiveOrNaN(double value) {
+    return value > 0. ? value : Double.NaN;
+  }
+
+  public int getComponentSlotCount() {
+    return this.componentSlotCount;
+  }
+
+  public int getColumnCount() {
+    return this.columnNames.length;
+  }
+
+  public String getColumnName(int column) {
+    return this.columnNames[column];
+  }
+
+  public String[] getColumnNames() {
+    return this.columnNames.clone();
+  }
+
+  public boolean isIntegerColumn(int column) {
+    return this.isIntegerColumn[column];
+  }
+
+  public synchronized long getRowCount() {
+    return this.rowCount;
+  }
+
+}
@@ -0,0 +1,236 @@
+import java.io.Closeable;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/* Writes text to an output file that stays open for the lifetime of the writer. Callers format their output into a
+ * StringBuilder obtained from getBuffer() and hand it to write(); a background thread encodes the queued text into a
+ * large byte buffer and writes it to the file channel, then returns the StringBuilder to the pool for reuse.
+ * write() may be called from several threads at once; the text of each call is written as one block.
+ * close() must be called once every write() has returned.
+ */
+
+public class ResultWriter implements Closeable {
+
+  public static final int DEFAULT_QUEUE_CAPACITY = 256;
+  public static final int DEFAULT_BUFFER_SIZE = 1 << 20; // [bytes]
+  public static final long FLUSH_INTERVAL = 500; // [ms] The buffer is written out when no text arrives for this long
+  private static final int MAX_POOLED_CAPACITY = 1 << 16; // [chars] Larger builders are left to the garbage collector
+
+  // Placed in the queue by close() to stop the writer thread
+  private static final StringBuilder END_OF_OUTPUT = new StringBuilder(0);
+
+  private String outputFilePath;
+  private FileChannel channel;
+  private ByteBuffer byteBuffer;
+  private CharsetEncoder encoder;
+  private ArrayBlockingQueue<StringBuilder> queue; // Text waiting to be written
+  private ArrayBlockingQueue<StringBuilder> pool; // Emptied builders ready for reuse
+  private Thread writerThread;
+  private volatile IOException failure; // First error raised by the writer thread
+  private boolean closed;
+
+
+  /**********************************************************************************************************************
+    * 1) Constructor : Opens the output file, replacing its contents unless append is true.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public ResultWriter(String outputFilePath, boolean append) throws FileNotFoundException {
+
+    try {
+      this.channel = new FileOutputStream(outputFilePath, append).getChannel();
+    }
+    catch (Exception e) {
+      throw new FileNotFoundException(outputFilePath + " could not be opened.");
+    }
+
+    this.outputFilePath = outputFilePath;
+    this.byteBuffer = ByteBuffer.allocate(ResultWriter.DEFAULT_BUFFER_SIZE);
+    this.encoder = Charset.defaultCharset().newEncoder() // Same encoding as Menu.outputToFile()
+      .onMalformedInput(CodingErrorAction.REPLACE).onUnmappableCharacter(CodingErrorAction.REPLACE);
+    this.queue = new ArrayBlockingQueue<StringBuilder>(ResultWriter.DEFAULT_QUEUE_CAPACITY);
+    this.pool = new ArrayBlockingQueue<StringBuilder>(ResultWriter.DEFAULT_QUEUE_CAPACITY);
+
+    this.writerThread = new Thread(new Runnable() {
+      public void run() {
+        ResultWriter.this.writeQueuedText();
+      }
+    }, "ResultWriter");
+    this.writerThread.setDaemon(true);
+    this.writerThread.start();
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 2) getBuffer() : Returns an empty StringBuilder to format output into.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public StringBuilder getBuffer() {
+    StringBuilder buffer = this.pool.poll();
+    if (buffer == null) {
+      buffer = new StringBuilder(4096);
+    }
+    return buffer;
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 3.1) write() : Queues the text for writing. The buffer must not be used by the caller afterwards.
+    *         Blocks while the queue is full.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public void write(StringBuilder buffer) throws IOException {
+
+    if (this.failure != null) {
+      throw this.failure;
+    }
+    if (this.closed) {
+      throw new IOException(this.outputFilePath + " has already been closed.");
+    }
+
+    try {
+      while (!this.queue.offer(buffer, ResultWriter.FLUSH_INTERVAL, TimeUnit.MILLISECONDS)) {
+        if (this.failure != null) {
+          throw this.failure;
+        }
+      }
+    }
+    catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Writing to " + this.outputFilePath + " was interrupted.");
+    }
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 3.2) write()
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public void write(CharSequence text) throws IOException {
+    this.write(this.getBuffer().append(text));
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 4) close() : Writes all queued text and closes the file.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public void close() throws IOException {
+
+    if (this.closed) {
+      return;
+    }
+    this.closed = true;
+
+    try {
+      while (this.failure == null
+               && !this.queue.offer(ResultWriter.END_OF_OUTPUT, ResultWriter.FLUSH_INTERVAL, TimeUnit.MILLISECONDS)) {
+        // Wait for the writer thread to make room
+      }
+      this.writerThread.join();
+    }
+    catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    finally {
+      this.channel.close();
+    }
+
+    if (this.failure != null) {
+      throw this.failure;
+    }
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 5) writeQueuedText() : Body of the writer thread.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  private void writeQueuedText() {
+    try {
+      while (true) {
+        StringBuilder text = this.queue.poll(ResultWriter.FLUSH_INTERVAL, TimeUnit.MILLISECONDS);
+
+        if (text == null) { // Idle; make the output written so far visible
+          this.flush();
+          continue;
+        }
+        if (text == ResultWriter.END_OF_OUTPUT) {
+          break;
+        }
+
+        this.encode(text);
+
+        if (text.capacity() <= ResultWriter.MAX_POOLED_CAPACITY) {
+          text.setLength(0);
+          this.pool.offer(text);
+        }
+      }
+      this.flush();
+    }
+    catch (IOException e) {
+      this.failure = e;
+    }
+    catch (InterruptedException e) {
+      this.failure = new IOException("Writing to " + this.outputFilePath + " was interrupted.");
+    }
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 6) encode() : Encodes the text into the byte buffer, writing the buffer to the channel whenever it is full.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  private void encode(CharSequence text) throws IOException {
+
+    CharBuffer chars = CharBuffer.wrap(text);
+    this.encoder.reset();
+
+    while (true) {
+      CoderResult result = this.encoder.encode(chars, this.byteBuffer, true);
+      if (result.isOverflow()) {
+        this.flush();
+      }
+      else if (result.isError()) {
+        result.throwException();
+      }
+      else {
+        break;
+      }
+    }
+
+    while (this.encoder.flush(this.byteBuffer).isOverflow()) {
+      this.flush();
+    }
+  }
+  /*********************************************************************************************************************/
+
+
+  private void flush() throws IOException {
+    this.byteBuffer.flip();
+    while (this.byteBuffer.hasRemaining()) {
+      this.channel.write(this.byteBuffer);
+    }
+    this.byteBuffer.clear();
+  }
+
+  public String getOutputFilePath() {
+    return this.outputFilePath;
+  }
+
+}
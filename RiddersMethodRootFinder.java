@@ -1,5 +1,7 @@
 public class RiddersMethodRootFinder extends BracketingRootFinder {
   
+  private double[] bounds; // Bounds of the current search increment; reused for every increment
+  
   /**********************************************************************************************************************
     * 1.1) Constructor A
     * ----------------------------------------------------------------------------------------------------------------------
@@ -7,6 +9,7 @@ public class RiddersMethodRootFinder extends BracketingRootFinder {
   public RiddersMethodRootFinder(double endPoint, double incrementLength, double subIncrementFraction, 
                                  double maxEvaluationCount) {
     super("Ridders Method Root Finder", endPoint, incrementLength, subIncrementFraction, maxEvaluationCount);
+    this.bounds = new double[2];
   }
   /*********************************************************************************************************************/
   
@@ -19,6 +22,7 @@ public class RiddersMethodRootFinder extends BracketingRootFinder {
                                  boolean positiveDirection, double maxEvaluationCount, boolean useFunctionBounds) {
     super("Ridders Method Root Finder", incrementLength, subIncrementFraction, positiveDirection, maxEvaluationCount, 
           useFunctionBounds);
+    this.bounds = new double[2];
   }
   /*********************************************************************************************************************/
   
@@ -29,6 +33,7 @@ public class RiddersMethodRootFinder extends BracketingRootFinder {
     */
   public RiddersMethodRootFinder(RiddersMethodRootFinder source) {
     super(source);
+    this.bounds = new double[2];
   }
   /*********************************************************************************************************************/
   
@@ -61,10 +66,10 @@ public class RiddersMethodRootFinder extends BracketingRootFinder {
     do {
       
       // Calculate the bounds of the search increment. 
-      double[] bounds = super.incrementalSearch(f, constants, endBound, tolerance); 
+      super.incrementalSearch(f, constants, endBound, tolerance, this.bounds); 
       
-      double xL = bounds[0]; // Lower Bound
-      double xU = bounds[1]; // Upper Bound
+      double xL = this.bounds[0]; // Lower Bound
+      double xU = this.bounds[1]; // Upper Bound
       double xR_old = 0.;
       
       // Set the endBound of the search increment to the endBound of the returned search increment 
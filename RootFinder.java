@@ -7,6 +7,7 @@ public abstract class RootFinder {
   private String name; // Name of RootFinder Object; used in exception handling
   private double evaluationCount; // Number of times the function f has been evaluated
   private double maxEvaluationCount; // The maximum number of times function f is allowed to be evaluated before an exception is thrown
+  private CancellationToken cancellationToken; // Checked with the evaluation count; null if the search cannot be cancelled
   
   /**********************************************************************************************************************
     * 1) Constructor
@@ -28,6 +29,7 @@ public abstract class RootFinder {
     this.name = source.name;
     this.evaluationCount = source.evaluationCount;
     this.maxEvaluationCount = source.maxEvaluationCount;
+    this.cancellationToken = source.cancellationToken;
   }
   /*********************************************************************************************************************/
   
@@ -40,6 +42,19 @@ public abstract class RootFinder {
   /*********************************************************************************************************************/
   
   
+  /**********************************************************************************************************************
+    * 3.1) reset() : Prepares the root finder for a new search, so that one instance can be reused for any
+    *        number of searches.
+    * ----------------------------------------------------------------------------------------------------------------------
+    */
+  public void reset(double maxEvaluationCount) {
+    this.evaluationCount = 0.;
+    this.maxEvaluationCount = Math.abs(maxEvaluationCount);
+    this.cancellationToken = null;
+  }
+  /*********************************************************************************************************************/
+  
+  
   /**********************************************************************************************************************
     * 4.1) findRoot() : Checks the integrity of the parameters and calls the root
     *      finding method. startPoint can either be taken to be the lower bound or
@@ -98,12 +113,15 @@ public abstract class RootFinder {
   
   /**********************************************************************************************************************
     * 6) checkEvaluationCount() : Safeguard that checks whether the root finding
-    *         method has exceeded the provided maximum number of function evaluations; 
-    *         to be called periodically from rootFindingMethod().
+    *         method has exceeded the provided maximum number of function evaluations,
+    *         or has been cancelled; to be called periodically from rootFindingMethod().
     * ----------------------------------------------------------------------------------------------------------------------
     */
   protected void checkEvaluationCount(Function f) 
     throws TooManyFunctionEvaluationsException {
+    if (this.cancellationToken != null) {
+      this.cancellationToken.check();
+    }
     if (this.evaluationCount > this.maxEvaluationCount) {
       String functionName = "Function";
       if (f instanceof BoundedFunction) {
@@ -173,4 +191,12 @@ public abstract class RootFinder {
     this.maxEvaluationCount = maxEvaluationCount;
   }
   
+  public CancellationToken getCancellationToken() {
+    return this.cancellationToken;
+  }
+  
+  public void setCancellationToken(CancellationToken cancellationToken) {
+    this.cancellationToken = cancellationToken;
+  }
+  
 }
\ No newline at end of file
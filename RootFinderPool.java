@@ -0,0 +1,102 @@
+import java.util.ArrayList;
+
+/* Holds the root finders of a single thread so that they can be reused by every search instead of being created for
+ * each one. A search can start another search while it evaluates its function (a flash inside an adiabatic flash
+ * temperature search, for example), so the pool is a stack: acquire() hands out the finder for the next nesting
+ * level and release() returns it. The bracketed Newton finders are held on a stack of their own, handed out by
+ * acquireBracketedNewton() and returned by releaseBracketedNewton(). The pool must not be shared between threads.
+ */
+
+public class RootFinderPool {
+
+  private ArrayList<RiddersMethodRootFinder> rootFinders; // One finder per nesting level
+  private int depth; // Number of finders that are currently in use
+  private ArrayList<BracketedNewtonRootFinder> bracketedNewtonRootFinders; // One finder per nesting level
+  private int bracketedNewtonDepth; // Number of bracketed Newton finders that are currently in use
+
+
+  /**********************************************************************************************************************
+    * 1) Constructor
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public RootFinderPool() {
+    this.rootFinders = new ArrayList<RiddersMethodRootFinder>();
+    this.depth = 0;
+    this.bracketedNewtonRootFinders = new ArrayList<BracketedNewtonRootFinder>();
+    this.bracketedNewtonDepth = 0;
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 2) acquire() : Returns a finder that is not in use; it must be reset before it is used and returned with
+    *          release() once the search has finished.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public RiddersMethodRootFinder acquire() {
+    if (this.depth == this.rootFinders.size()) {
+      this.rootFinders.add(new RiddersMethodRootFinder(RootFinder.DEFAULT_START_POINT,
+                                                       BracketingRootFinder.DEFAULT_INCREMENT_FACTOR
+                                                         * RootFinder.DEFAULT_TOLERANCE,
+                                                       BracketingRootFinder.DEFAULT_SUB_INCREMENT_FRACTION,
+                                                       RootFinder.DEFAULT_MAX_EVALUATION_COUNT));
+    }
+    RiddersMethodRootFinder rootFinder = this.rootFinders.get(this.depth);
+    this.depth++;
+    return rootFinder;
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 3) release() : Returns the finder most recently handed out by acquire().
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public void release() {
+    if (this.depth > 0) {
+      this.depth--;
+    }
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 4) acquireBracketedNewton() : Returns a bracketed Newton finder that is not in use; it must be reset before it is
+    *          used and returned with releaseBracketedNewton() once the search has finished.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public BracketedNewtonRootFinder acquireBracketedNewton() {
+    if (this.bracketedNewtonDepth == this.bracketedNewtonRootFinders.size()) {
+      this.bracketedNewtonRootFinders.add(new BracketedNewtonRootFinder(new double[0], 
+                                                                        BracketingRootFinder.DEFAULT_INCREMENT_FACTOR
+                                                                          * RootFinder.DEFAULT_TOLERANCE, 
+                                                                        true, RootFinder.DEFAULT_MAX_EVALUATION_COUNT));
+    }
+    BracketedNewtonRootFinder rootFinder = this.bracketedNewtonRootFinders.get(this.bracketedNewtonDepth);
+    this.bracketedNewtonDepth++;
+    return rootFinder;
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 5) releaseBracketedNewton() : Returns the finder most recently handed out by acquireBracketedNewton().
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public void releaseBracketedNewton() {
+    if (this.bracketedNewtonDepth > 0) {
+      this.bracketedNewtonDepth--;
+    }
+  }
+  /*********************************************************************************************************************/
+
+
+  public int getDepth() {
+    return this.depth;
+  }
+
+  public int getBracketedNewtonDepth() {
+    return this.bracketedNewtonDepth;
+  }
+
+}
@@ -0,0 +1,185 @@
+/* Inverts the vapour pressure correlation of a species to give its saturation temperature at a pressure P.
+ * ln P_sat is tabulated against 1/T across the bounds of the correlation, where it is nearly linear, so interpolating
+ * the table gives a close first estimate of T_sat. The estimate is then polished with Newton steps on the analytic
+ * derivative of the correlation, without leaving the table interval that brackets it. If the steps run out before
+ * the step at the last estimate is below NEWTON_TOLERANCE, or fail, the interval is bisected instead.
+ * Pressures outside of the table, and correlations that do not give a monotone table, are solved with the
+ * incremental search that was used before, with the bubble-point and dew-point increment, tolerance and evaluation
+ * budget of the SolverProfile of the calculation.
+ * T = [K]
+ * P = [bar]
+ */
+
+public class SaturationTemperatureTable {
+
+  public static final int DEFAULT_POINT_COUNT = 64;
+  public static final int MAX_NEWTON_STEP_COUNT = 3;
+  public static final double NEWTON_TOLERANCE = 0.000001; // [K]
+
+  private Correlation vapourPressure;
+  private double[] T; // Table temperatures, increasing
+  private double[] lnP; // ln P_sat at each table temperature, increasing
+  private boolean isMonotone; // false if the table cannot be used, in which case every call falls back to a search
+
+
+  /**********************************************************************************************************************
+    * 1.1) Constructor A
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public SaturationTemperatureTable(Correlation vapourPressure) {
+    this(vapourPressure, SaturationTemperatureTable.DEFAULT_POINT_COUNT);
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 1.2) Constructor B : Builds the table, evenly spaced in 1/T between the bounds of the correlation.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public SaturationTemperatureTable(Correlation vapourPressure, int pointCount) {
+
+    this.vapourPressure = vapourPressure.clone();
+
+    pointCount = Math.max(2, pointCount);
+    this.T = new double[pointCount];
+    this.lnP = new double[pointCount];
+
+    double minT = vapourPressure.getMinX();
+    double maxT = vapourPressure.getMaxX();
+
+    // The default bounds of a correlation (MIN_VALUE to MAX_VALUE) cannot be tabulated
+    this.isMonotone = minT > 0. && maxT > minT && maxT < Double.MAX_VALUE;
+
+    for (int k = 0; k < pointCount && this.isMonotone; k++) {
+      if (k == 0) {
+        this.T[k] = minT;
+      }
+      else if (k == pointCount - 1) {
+        this.T[k] = maxT; // Exactly maxT, so that the Newton steps never leave the bounds of the correlation
+      }
+      else {
+        this.T[k] = 1. / (1. / minT - k * (1. / minT - 1. / maxT) / (pointCount - 1));
+      }
+
+      try {
+        this.lnP[k] = Math.log(this.vapourPressure.evaluate(this.T[k], null));
+      }
+      catch (FunctionException e) {
+        this.isMonotone = false;
+      }
+
+      if (Double.isNaN(this.lnP[k]) || Double.isInfinite(this.lnP[k]) || (k > 0 && this.lnP[k] <= this.lnP[k - 1])) {
+        this.isMonotone = false;
+      }
+    }
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 2) evaluate() : Returns the saturation temperature at pressure P.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public double evaluate(double P, SolverProfile solverProfile) throws NumericalMethodException, FunctionException {
+
+    double lnTarget = Math.log(P);
+    int n = this.T.length;
+
+    if (!this.isMonotone || !(lnTarget >= this.lnP[0] && lnTarget <= this.lnP[n - 1])) {
+      return Menu.findRoot(this.vapourPressure, new double[] {P}, 1., true,
+                           solverProfile.getBubbleDewPointIncrementLength(),
+                           solverProfile.getBubbleDewPointSubIncrementFraction(),
+                           solverProfile.getBubbleDewPointTolerance(),
+                           solverProfile.getBubbleDewPointMaxEvaluationCount(), false);
+    }
+
+    /*
+     * I. Find the Table Interval and Interpolate in 1/T
+     * -----------------------------------------------------------------------------
+     */
+    int lower = 0;
+    int upper = n - 1;
+    while (upper - lower > 1) {
+      int middle = (lower + upper) >>> 1;
+      if (this.lnP[middle] <= lnTarget) {
+        lower = middle;
+      }
+      else {
+        upper = middle;
+      }
+    }
+
+    double weight = (lnTarget - this.lnP[lower]) / (this.lnP[upper] - this.lnP[lower]);
+    double T_sat = 1. / ((1. - weight) / this.T[lower] + weight / this.T[upper]);
+
+    /*
+     * II. Polish with Newton Steps on ln P_sat(T) - ln P
+     * -----------------------------------------------------------------------------
+     */
+    FunctionValue P_sat = new FunctionValue(); // Vapour pressure and its derivative
+    boolean isConverged = false;
+    for (int step = 0; step < SaturationTemperatureTable.MAX_NEWTON_STEP_COUNT; step++) {
+      this.vapourPressure.evaluateWithDerivative(T_sat, null, P_sat);
+
+      double newtonStep = (Math.log(P_sat.getValue()) - lnTarget) * P_sat.getValue() / P_sat.getDerivative();
+      double T_new = Math.max(this.T[lower], Math.min(this.T[upper], T_sat - newtonStep)); // Stay within the interval
+      if (Double.isNaN(T_new)) {
+        break;
+      }
+
+      // The step before it is held within the interval, so that a step stopped at its end is not taken as converged
+      isConverged = Math.abs(newtonStep) < SaturationTemperatureTable.NEWTON_TOLERANCE;
+      T_sat = T_new;
+      if (isConverged) {
+        break;
+      }
+    }
+
+    // The steps ran out; the estimate is kept if the step from it would be small enough
+    if (!isConverged && !Double.isNaN(T_sat)) {
+      this.vapourPressure.evaluateWithDerivative(T_sat, null, P_sat);
+      double newtonStep = (Math.log(P_sat.getValue()) - lnTarget) * P_sat.getValue() / P_sat.getDerivative();
+      isConverged = Math.abs(newtonStep) < SaturationTemperatureTable.NEWTON_TOLERANCE;
+    }
+
+    /*
+     * III. Bisect the Table Interval if the Newton Steps did not Converge
+     * -----------------------------------------------------------------------------
+     */
+    if (!isConverged) {
+      double T_lower = this.T[lower];
+      double T_upper = this.T[upper];
+      while (T_upper - T_lower > SaturationTemperatureTable.NEWTON_TOLERANCE) {
+        double T_middle = 0.5 * (T_lower + T_upper);
+        if (Math.log(this.vapourPressure.evaluate(T_middle, null)) < lnTarget) {
+          T_lower = T_middle;
+        }
+        else {
+          T_upper = T_middle;
+        }
+      }
+      T_sat = 0.5 * (T_lower + T_upper);
+    }
+
+    return T_sat;
+  }
+  /*********************************************************************************************************************/
+
+
+  public double getMinP() {
+    return this.isMonotone ? Math.exp(this.lnP[0]) : Double.NaN;
+  }
+
+  public double getMaxP() {
+    return this.isMonotone ? Math.exp(this.lnP[this.lnP.length - 1]) : Double.NaN;
+  }
+
+  public int getPointCount() {
+    return this.T.length;
+  }
+
+  public boolean isMonotone() {
+    return this.isMonotone;
+  }
+
+}
@@ -0,0 +1,99 @@
+/* Kernels that take every sum in component order, giving the same results as the per-component code. */
+
+public class ScalarKernels extends Kernels {
+
+  public static final String NAME = "scalar";
+
+
+  /**********************************************************************************************************************
+    * 1) rachfordRice()
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public double rachfordRice(double vapourFraction, double[] z, double[] Km1, int n) {
+    double f = 0.;
+    for (int i = 0; i < n; i++) {
+      f += (z[i] * Km1[i]) / (1 + Km1[i] * vapourFraction);
+    }
+    return f;
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 2) rachfordRiceDerivative()
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public double rachfordRiceDerivative(double vapourFraction, double[] z, double[] Km1, int n) {
+    double df = 0.;
+    for (int i = 0; i < n; i++) {
+      double r = Km1[i] / (1 + Km1[i] * vapourFraction);
+      df -= z[i] * (r * r);
+    }
+    return df;
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 2.1) rachfordRiceWithDerivative()
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public void rachfordRiceWithDerivative(double vapourFraction, double[] z, double[] Km1, int n,
+                                         FunctionValue result) {
+    double f = 0.;
+    double df = 0.;
+    for (int i = 0; i < n; i++) {
+      double denominator = 1 + Km1[i] * vapourFraction;
+      double r = Km1[i] / denominator;
+      f += (z[i] * Km1[i]) / denominator;
+      df -= z[i] * (r * r);
+    }
+    result.set(f, df);
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 3) vapourPressures()
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public void vapourPressures(double T, boolean derivative, double[] C1, double[] C2, double[] C3, double[] C4,
+                              double[] C5, double[] result, int n) {
+
+    double lnT = Math.log(T);
+
+    if (derivative) {
+      for (int i = 0; i < n; i++) {
+        double T_C5 = Math.pow(T, C5[i]);
+        result[i] = (1. / 100000.) * (-C2[i] / (T * T) + C3[i] / T + C4[i] * C5[i] * T_C5 / T)
+          * Math.exp(C1[i] + C2[i] / T + C3[i] * lnT + C4[i] * T_C5);
+      }
+    }
+    else {
+      for (int i = 0; i < n; i++) {
+        result[i] = (1. / 100000.) * Math.exp(C1[i] + C2[i] / T + C3[i] * lnT + C4[i] * Math.pow(T, C5[i]));
+      }
+    }
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 4) dotProduct()
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public double dotProduct(double[] a, double[] b, int n) {
+    double sum = 0.;
+    for (int i = 0; i < n; i++) {
+      sum += a[i] * b[i];
+    }
+    return sum;
+  }
+  /*********************************************************************************************************************/
+
+
+  public String getName() {
+    return ScalarKernels.NAME;
+  }
+
+}
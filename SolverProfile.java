@@ -0,0 +1,396 @@
+/* The tolerances, search increments and evaluation budgets used by a flash calculation. A profile is given to a
+ * Behaviour, which carries it into the FlashSeparator that it is passed to.
+ *
+ * Presets, returned by getPreset():
+ *   default        : the values the solvers have always used (the constants in Behaviour, NonIdealBehaviour,
+ *                    FlashSeparator and AdiabaticFlashTemp).
+ *   fast-screening : looser tolerances and smaller budgets, for screening many operating points; results are
+ *                    less accurate. The enthalpy balance and flash temperature searches keep the default increments,
+ *                    and the pressure and enthalpy balance tolerances are left at the defaults, so that the cases
+ *                    that converge with the default profile still converge.
+ *   tight          : tighter tolerances and larger budgets, for final design cases. The bubble-point and dew-point
+ *                    tolerance, which is also the smallest phase range searched, is left at the default, and the
+ *                    flash temperature tolerance, which is also the step taken past an undefined flash, is only
+ *                    tightened to 0.25 K.
+ * fast-screening also turns on the phase stability test (see PhaseStabilityTest), which skips the non-ideal
+ * bubble-point and dew-point pressure calculations when its estimates show that the stream is clearly liquid or
+ * clearly vapour; the pressures reported for such a stream are then those estimates. Two-phase streams are
+ * flashed as they are without the test. The test can also be turned on or off for any profile with
+ * setStabilityTestEnabled(), or from the command line with -Dflash.stabilityTest=<true|false>.
+ * getPreset() returns a new copy, so any value can be overridden with the setters for a single call.
+ */
+
+public class SolverProfile {
+
+  public static final String PROPERTY_NAME = "flash.profile";
+  public static final String DEFAULT_NAME = "default";
+  public static final String FAST_SCREENING_NAME = "fast-screening";
+  public static final String TIGHT_NAME = "tight";
+
+  private String name;
+
+  private double bubbleDewPointIncrementLength; // [K]; saturation temperatures that are not tabulated
+  private double bubbleDewPointSubIncrementFraction;
+  private double bubbleDewPointTolerance; // [bar] or [K]; also the smallest bubble-point/dew-point range
+  private int bubbleDewPointMaxEvaluationCount; // Maximum iterations of the bubble-point and dew-point loops
+
+  private double rachfordRiceIncrementLength;
+  private double rachfordRiceSubIncrementFraction;
+  private double rachfordRiceTolerance;
+  private int rachfordRiceMaxEvaluationCount;
+
+  private double pressureTolerance; // [bar]; non-ideal bubble-point and dew-point loops
+  private double gammaTolerance; // Activity coefficient loops
+  private double vapourFractionTolerance; // Non-ideal flash loop
+  private double xyTolerance; // Non-ideal flash loop; phase mole fractions
+
+  private double enthalpyBalanceIncrementLength; // [K]
+  private double enthalpyBalanceSubIncrementFraction;
+  private double enthalpyBalanceTolerance; // [K]
+  private int enthalpyBalanceMaxEvaluationCount;
+
+  private double flashTemperatureIncrementFraction; // Fraction of the temperature range searched per increment
+  private double flashTemperatureSubIncrementFraction;
+  private double flashTemperatureTolerance; // [K]
+  private int flashTemperatureMaxEvaluationCount;
+
+  private boolean stabilityTestEnabled; // Non-ideal flash; see PhaseStabilityTest
+  private double stabilityTestMargin; // Fraction by which the Rachford-Rice sums must differ from 1 to decide
+
+  private boolean phaseBoundariesParallel; // Bubble-point and dew-point pair; see PhaseBoundaryExecutor
+
+
+  /**********************************************************************************************************************
+    * 1) Constructor : Creates a profile with the default values.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public SolverProfile(String name) {
+    this.name = name;
+
+    this.bubbleDewPointIncrementLength = Behaviour.BUBBLE_DEW_POINT_INCREMENT_LENGTH;
+    this.bubbleDewPointSubIncrementFraction = Behaviour.BUBBLE_DEW_POINT_SUB_INCREMENT_FRACTION;
+    this.bubbleDewPointTolerance = Behaviour.BUBBLE_DEW_POINT_TOLERANCE;
+    this.bubbleDewPointMaxEvaluationCount = Behaviour.BUBBLE_DEW_POINT_MAX_EVALUATION_COUNT;
+
+    this.rachfordRiceIncrementLength = Behaviour.RACHFORD_RICE_INCREMENT_LENGTH;
+    this.rachfordRiceSubIncrementFraction = BracketingRootFinder.DEFAULT_SUB_INCREMENT_FRACTION;
+    this.rachfordRiceTolerance = Behaviour.RACHFORD_RICE_TOLERANCE;
+    this.rachfordRiceMaxEvaluationCount = Behaviour.RACHFORD_RICE_MAX_EVALUATION_COUNT;
+
+    this.pressureTolerance = NonIdealBehaviour.PRESSURE_TOLERANCE;
+    this.gammaTolerance = NonIdealBehaviour.GAMMA_TOLERANCE;
+    this.vapourFractionTolerance = NonIdealBehaviour.VAPOUR_FRACTION_TOLERANCE;
+    this.xyTolerance = NonIdealBehaviour.X_Y_TOLERANCE;
+
+    this.enthalpyBalanceIncrementLength = FlashSeparator.ENTHALPY_BALANCE_INCREMENT_LENGTH;
+    this.enthalpyBalanceSubIncrementFraction = FlashSeparator.ENTHALPY_BALANCE_SUB_INCREMENT_FRACTION;
+    this.enthalpyBalanceTolerance = FlashSeparator.ENTHALPY_BALANCE_TOLERANCE;
+    this.enthalpyBalanceMaxEvaluationCount = FlashSeparator.ENTHALPY_BALANCE_MAX_EVALUATION_COUNT;
+
+    this.flashTemperatureIncrementFraction = AdiabaticFlashTemp.FLASH_TEMPERATURE_INCREMENT_FRACTION;
+    this.flashTemperatureSubIncrementFraction = AdiabaticFlashTemp.FLASH_TEMPERATURE_SUB_INCREMENT_FRACTION;
+    this.flashTemperatureTolerance = AdiabaticFlashTemp.FLASH_TEMPERATURE_TOLERANCE;
+    this.flashTemperatureMaxEvaluationCount = AdiabaticFlashTemp.FLASH_TEMPERATURE_MAX_EVALUATION_COUNT;
+
+    this.stabilityTestEnabled = false;
+    this.stabilityTestMargin = 0.25;
+
+    this.phaseBoundariesParallel = false;
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 2) Copy Constructor
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public SolverProfile(SolverProfile source) {
+    this.name = source.name;
+
+    this.bubbleDewPointIncrementLength = source.bubbleDewPointIncrementLength;
+    this.bubbleDewPointSubIncrementFraction = source.bubbleDewPointSubIncrementFraction;
+    this.bubbleDewPointTolerance = source.bubbleDewPointTolerance;
+    this.bubbleDewPointMaxEvaluationCount = source.bubbleDewPointMaxEvaluationCount;
+
+    this.rachfordRiceIncrementLength = source.rachfordRiceIncrementLength;
+    this.rachfordRiceSubIncrementFraction = source.rachfordRiceSubIncrementFraction;
+    this.rachfordRiceTolerance = source.rachfordRiceTolerance;
+    this.rachfordRiceMaxEvaluationCount = source.rachfordRiceMaxEvaluationCount;
+
+    this.pressureTolerance = source.pressureTolerance;
+    this.gammaTolerance = source.gammaTolerance;
+    this.vapourFractionTolerance = source.vapourFractionTolerance;
+    this.xyTolerance = source.xyTolerance;
+
+    this.enthalpyBalanceIncrementLength = source.enthalpyBalanceIncrementLength;
+    this.enthalpyBalanceSubIncrementFraction = source.enthalpyBalanceSubIncrementFraction;
+    this.enthalpyBalanceTolerance = source.enthalpyBalanceTolerance;
+    this.enthalpyBalanceMaxEvaluationCount = source.enthalpyBalanceMaxEvaluationCount;
+
+    this.flashTemperatureIncrementFraction = source.flashTemperatureIncrementFraction;
+    this.flashTemperatureSubIncrementFraction = source.flashTemperatureSubIncrementFraction;
+    this.flashTemperatureTolerance = source.flashTemperatureTolerance;
+    this.flashTemperatureMaxEvaluationCount = source.flashTemperatureMaxEvaluationCount;
+
+    this.stabilityTestEnabled = source.stabilityTestEnabled;
+    this.stabilityTestMargin = source.stabilityTestMargin;
+
+    this.phaseBoundariesParallel = source.phaseBoundariesParallel;
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 3) clone()
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public SolverProfile clone() {
+    return new SolverProfile(this);
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 4) getPreset() : Returns a new copy of the preset with the given name; null selects the default preset.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public static SolverProfile getPreset(String name) {
+
+    if (name == null || name.trim().equalsIgnoreCase(SolverProfile.DEFAULT_NAME)) {
+      return new SolverProfile(SolverProfile.DEFAULT_NAME);
+    }
+
+    if (name.trim().equalsIgnoreCase(SolverProfile.FAST_SCREENING_NAME)) {
+      SolverProfile profile = new SolverProfile(SolverProfile.FAST_SCREENING_NAME);
+      profile.bubbleDewPointTolerance = 0.1;
+      profile.bubbleDewPointMaxEvaluationCount = 1000;
+      profile.rachfordRiceIncrementLength = 0.25;
+      profile.rachfordRiceSubIncrementFraction = 0.2;
+      profile.rachfordRiceTolerance = 0.001;
+      profile.rachfordRiceMaxEvaluationCount = 10000;
+      profile.gammaTolerance = 0.05;
+      profile.vapourFractionTolerance = 0.01;
+      profile.xyTolerance = 0.01;
+      profile.enthalpyBalanceMaxEvaluationCount = 50000;
+      profile.flashTemperatureTolerance = 5.;
+      profile.flashTemperatureMaxEvaluationCount = 10000;
+      profile.stabilityTestEnabled = true;
+      return profile;
+    }
+
+    if (name.trim().equalsIgnoreCase(SolverProfile.TIGHT_NAME)) {
+      SolverProfile profile = new SolverProfile(SolverProfile.TIGHT_NAME);
+      profile.bubbleDewPointMaxEvaluationCount = 1000000;
+      profile.rachfordRiceTolerance = 0.000001;
+      profile.rachfordRiceMaxEvaluationCount = 1000000;
+      profile.pressureTolerance = 0.001;
+      profile.gammaTolerance = 0.0001;
+      profile.vapourFractionTolerance = 0.00001;
+      profile.xyTolerance = 0.00001;
+      profile.enthalpyBalanceTolerance = 0.001;
+      profile.enthalpyBalanceMaxEvaluationCount = 5000000;
+      profile.flashTemperatureTolerance = 0.25;
+      profile.flashTemperatureMaxEvaluationCount = 1000000;
+      return profile;
+    }
+
+    throw new IllegalArgumentException("IllegalArgumentException: '" + name + "' is not a solver profile. Expected '"
+                                         + SolverProfile.DEFAULT_NAME + "', '" + SolverProfile.FAST_SCREENING_NAME
+                                         + "' or '" + SolverProfile.TIGHT_NAME + "'.");
+  }
+  /*********************************************************************************************************************/
+
+
+  public String getName() {
+    return this.name;
+  }
+
+  public void setName(String name) {
+    this.name = name;
+  }
+
+  public double getBubbleDewPointIncrementLength() {
+    return this.bubbleDewPointIncrementLength;
+  }
+
+  public void setBubbleDewPointIncrementLength(double bubbleDewPointIncrementLength) {
+    this.bubbleDewPointIncrementLength = Math.abs(bubbleDewPointIncrementLength);
+  }
+
+  public double getBubbleDewPointSubIncrementFraction() {
+    return this.bubbleDewPointSubIncrementFraction;
+  }
+
+  public void setBubbleDewPointSubIncrementFraction(double bubbleDewPointSubIncrementFraction) {
+    this.bubbleDewPointSubIncrementFraction = Math.abs(bubbleDewPointSubIncrementFraction);
+  }
+
+  public double getBubbleDewPointTolerance() {
+    return this.bubbleDewPointTolerance;
+  }
+
+  public void setBubbleDewPointTolerance(double bubbleDewPointTolerance) {
+    this.bubbleDewPointTolerance = Math.abs(bubbleDewPointTolerance);
+  }
+
+  public int getBubbleDewPointMaxEvaluationCount() {
+    return this.bubbleDewPointMaxEvaluationCount;
+  }
+
+  public void setBubbleDewPointMaxEvaluationCount(int bubbleDewPointMaxEvaluationCount) {
+    this.bubbleDewPointMaxEvaluationCount = Math.abs(bubbleDewPointMaxEvaluationCount);
+  }
+
+  public double getRachfordRiceIncrementLength() {
+    return this.rachfordRiceIncrementLength;
+  }
+
+  public void setRachfordRiceIncrementLength(double rachfordRiceIncrementLength) {
+    this.rachfordRiceIncrementLength = Math.abs(rachfordRiceIncrementLength);
+  }
+
+  public double getRachfordRiceSubIncrementFraction() {
+    return this.rachfordRiceSubIncrementFraction;
+  }
+
+  public void setRachfordRiceSubIncrementFraction(double rachfordRiceSubIncrementFraction) {
+    this.rachfordRiceSubIncrementFraction = Math.abs(rachfordRiceSubIncrementFraction);
+  }
+
+  public double getRachfordRiceTolerance() {
+    return this.rachfordRiceTolerance;
+  }
+
+  public void setRachfordRiceTolerance(double rachfordRiceTolerance) {
+    this.rachfordRiceTolerance = Math.abs(rachfordRiceTolerance);
+  }
+
+  public int getRachfordRiceMaxEvaluationCount() {
+    return this.rachfordRiceMaxEvaluationCount;
+  }
+
+  public void setRachfordRiceMaxEvaluationCount(int rachfordRiceMaxEvaluationCount) {
+    this.rachfordRiceMaxEvaluationCount = Math.abs(rachfordRiceMaxEvaluationCount);
+  }
+
+  public double getPressureTolerance() {
+    return this.pressureTolerance;
+  }
+
+  public void setPressureTolerance(double pressureTolerance) {
+    this.pressureTolerance = Math.abs(pressureTolerance);
+  }
+
+  public double getGammaTolerance() {
+    return this.gammaTolerance;
+  }
+
+  public void setGammaTolerance(double gammaTolerance) {
+    this.gammaTolerance = Math.abs(gammaTolerance);
+  }
+
+  public double getVapourFractionTolerance() {
+    return this.vapourFractionTolerance;
+  }
+
+  public void setVapourFractionTolerance(double vapourFractionTolerance) {
+    this.vapourFractionTolerance = Math.abs(vapourFractionTolerance);
+  }
+
+  public double getXyTolerance() {
+    return this.xyTolerance;
+  }
+
+  public void setXyTolerance(double xyTolerance) {
+    this.xyTolerance = Math.abs(xyTolerance);
+  }
+
+  public double getEnthalpyBalanceIncrementLength() {
+    return this.enthalpyBalanceIncrementLength;
+  }
+
+  public void setEnthalpyBalanceIncrementLength(double enthalpyBalanceIncrementLength) {
+    this.enthalpyBalanceIncrementLength = Math.abs(enthalpyBalanceIncrementLength);
+  }
+
+  public double getEnthalpyBalanceSubIncrementFraction() {
+    return this.enthalpyBalanceSubIncrementFraction;
+  }
+
+  public void setEnthalpyBalanceSubIncrementFraction(double enthalpyBalanceSubIncrementFraction) {
+    this.enthalpyBalanceSubIncrementFraction = Math.abs(enthalpyBalanceSubIncrementFraction);
+  }
+
+  public double getEnthalpyBalanceTolerance() {
+    return this.enthalpyBalanceTolerance;
+  }
+
+  public void setEnthalpyBalanceTolerance(double enthalpyBalanceTolerance) {
+    this.enthalpyBalanceTolerance = Math.abs(enthalpyBalanceTolerance);
+  }
+
+  public int getEnthalpyBalanceMaxEvaluationCount() {
+    return this.enthalpyBalanceMaxEvaluationCount;
+  }
+
+  public void setEnthalpyBalanceMaxEvaluationCount(int enthalpyBalanceMaxEvaluationCount) {
+    this.enthalpyBalanceMaxEvaluationCount = Math.abs(enthalpyBalanceMaxEvaluationCount);
+  }
+
+  public double getFlashTemperatureIncrementFraction() {
+    return this.flashTemperatureIncrementFraction;
+  }
+
+  public void setFlashTemperatureIncrementFraction(double flashTemperatureIncrementFraction) {
+    this.flashTemperatureIncrementFraction = Math.abs(flashTemperatureIncrementFraction);
+  }
+
+  public double getFlashTemperatureSubIncrementFraction() {
+    return this.flashTemperatureSubIncrementFraction;
+  }
+
+  public void setFlashTemperatureSubIncrementFraction(double flashTemperatureSubIncrementFraction) {
+    this.flashTemperatureSubIncrementFraction = Math.abs(flashTemperatureSubIncrementFraction);
+  }
+
+  public double getFlashTemperatureTolerance() {
+    return this.flashTemperatureTolerance;
+  }
+
+  public void setFlashTemperatureTolerance(double flashTemperatureTolerance) {
+    this.flashTemperatureTolerance = Math.abs(flashTemperatureTolerance);
+  }
+
+  public int getFlashTemperatureMaxEvaluationCount() {
+    return this.flashTemperatureMaxEvaluationCount;
+  }
+
+  public void setFlashTemperatureMaxEvaluationCount(int flashTemperatureMaxEvaluationCount) {
+    this.flashTemperatureMaxEvaluationCount = Math.abs(flashTemperatureMaxEvaluationCount);
+  }
+
+  public boolean isStabilityTestEnabled() {
+    return this.stabilityTestEnabled;
+  }
+
+  public void setStabilityTestEnabled(boolean stabilityTestEnabled) {
+    this.stabilityTestEnabled = stabilityTestEnabled;
+  }
+
+  public double getStabilityTestMargin() {
+    return this.stabilityTestMargin;
+  }
+
+  public void setStabilityTestMargin(double stabilityTestMargin) {
+    this.stabilityTestMargin = Math.abs(stabilityTestMargin);
+  }
+
+  public boolean isPhaseBoundariesParallel() {
+    return this.phaseBoundariesParallel;
+  }
+
+  public void setPhaseBoundariesParallel(boolean phaseBoundariesParallel) {
+    this.phaseBoundariesParallel = phaseBoundariesParallel;
+  }
+
+}
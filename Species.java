@@ -19,6 +19,7 @@ public class Species {
   private double Zc;
   private Correlation[] correlations;
   private int[][] subGroups;
+  private SaturationTemperatureTable saturationTemperatureTable; // Shared between copies; rebuilt with the correlations
   
   
   /**********************************************************************************************************************
@@ -83,6 +84,9 @@ public class Species {
     
     // Initialize Sub-Groups
     this.setSubGroups(subGroups);
+    
+    // Tabulate the Saturation Temperature
+    this.saturationTemperatureTable = new SaturationTemperatureTable(this.correlations[Species.VAPOUR_PRESSURE]);
   }
   /*********************************************************************************************************************/
   
@@ -113,6 +117,8 @@ public class Species {
     
     // Store Sub-Group Counts
     this.setSubGroups(source.subGroups);
+    
+    this.saturationTemperatureTable = source.saturationTemperatureTable;
   }
   /*********************************************************************************************************************/
   
@@ -189,10 +195,9 @@ public class Species {
     throws FunctionException {
     
     if (derivative) {
-      double dhdL = this.correlations[Species.ENTHALPY_LIQUID].evaluateDerivative(this.Tb,
-                                                                                  new double[] { Tref, this.Tc });
+      // The liquid enthalpy at Tb is a constant of the vapour enthalpy, so it is not needed for the derivative
       return this.correlations[Species.ENTHALPY_VAPOUR].evaluateDerivative(T,
-                                                                           new double[] { this.Tb, dhdL, 1000 * this.latentHeat });
+                                                                           new double[] { this.Tb, 0., 1000 * this.latentHeat });
     } else {
       double hL = this.correlations[Species.ENTHALPY_LIQUID].evaluate(this.Tb, new double[] { Tref, this.Tc });
       return this.correlations[Species.ENTHALPY_VAPOUR].evaluate(T,
@@ -202,6 +207,18 @@ public class Species {
   /*********************************************************************************************************************/
   
   
+  /**********************************************************************************************************************
+    * 9) evaluateSaturationTemperature() : Calculates the saturation temperature of the species at a pressure P.
+    *          Should only be called if the species is condensable. solverProfile is that of the calculation.
+    * ----------------------------------------------------------------------------------------------------------------------
+    */
+  public double evaluateSaturationTemperature(double P, SolverProfile solverProfile) 
+    throws NumericalMethodException, FunctionException {
+    return this.saturationTemperatureTable.evaluate(P, solverProfile);
+  }
+  /*********************************************************************************************************************/
+  
+  
   public String getName() {
     return this.name;
   }
@@ -305,6 +322,7 @@ public class Species {
     for (int i = 0; i < correlations.length; i++) {
       this.correlations[i] = correlations[i].clone();
     }
+    this.saturationTemperatureTable = new SaturationTemperatureTable(this.correlations[Species.VAPOUR_PRESSURE]);
   }
   
   
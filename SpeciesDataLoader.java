@@ -0,0 +1,360 @@
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+
+/* Loads the data of the requested species from Species.csv, and of their sub-groups from SubGroups.csv and
+ * InteractionParameters.csv, in a single pass over each file. Only the rows of the requested species and sub-groups
+ * are converted into numbers and objects; every other row is checked for unique names and indices only.
+ * The species are stored in the order in which they appear in Species.csv, and the sub-groups in the order in which
+ * they are first used by a stored species.
+ */
+
+public class SpeciesDataLoader {
+
+  private String speciesFilePath;
+  private String subGroupsFilePath;
+  private String interactionParametersFilePath;
+
+  private Species[] species;
+  private double[][] speciesProperties; // As read, for PropertyDatabase.compile()
+  private double[][] speciesCorrelationParameters; // As read, for PropertyDatabase.compile()
+  private int[] subGroupIndices;
+  private double[] subGroupRelativeVolume; // R
+  private double[] subGroupRelativeSurfaceArea; // Q
+  private double[][] interactionParameters;
+
+
+  /**********************************************************************************************************************
+    * 1) Constructor
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public SpeciesDataLoader(String speciesFilePath, String subGroupsFilePath, String interactionParametersFilePath) {
+    this.speciesFilePath = speciesFilePath;
+    this.subGroupsFilePath = subGroupsFilePath;
+    this.interactionParametersFilePath = interactionParametersFilePath;
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 2) load() : Loads the species named in speciesNamesList and their sub-groups.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public void load(ArrayList<String> speciesNamesList) throws IOException {
+
+    /*
+     * I. Store Species Data
+     * -----------------------------------------------------------------------------
+     */
+    CSVTokenizer file = new CSVTokenizer(this.speciesFilePath);
+    int propertyCount = Species.PHYSICAL_PROPERTY_COUNT;
+    int correlationParameterCount = Species.getCorrelationParameterCount();
+    int firstSubGroupColumn = propertyCount + correlationParameterCount + 2;
+
+    // i) Count the requested species by name; a name requested twice must appear twice
+    HashMap<String, Integer> speciesToStore = new HashMap<String, Integer>();
+    for (int i = 0; i < speciesNamesList.size(); i++) {
+      Integer count = speciesToStore.get(speciesNamesList.get(i));
+      speciesToStore.put(speciesNamesList.get(i), Integer.valueOf(count == null ? 1 : count.intValue() + 1));
+    }
+
+    // ii) Store Sub-Group Names
+    file.nextRow(); // Skip Row 1
+    file.nextRow();
+    ArrayList<String> allSubGroupNamesList = new ArrayList<String>();
+    for (int j = firstSubGroupColumn; j < file.getFieldCount(); j++) {
+      if (!file.isEmpty(j)) {
+        allSubGroupNamesList.add(file.getString(j));
+      }
+    }
+    int masterTotalSubGroupCount = allSubGroupNamesList.size();
+
+    // iii) Store the Rows of the Requested Species
+    this.species = new Species[speciesNamesList.size()];
+    this.speciesProperties = new double[speciesNamesList.size()][];
+    this.speciesCorrelationParameters = new double[speciesNamesList.size()][];
+    int storedSpeciesCount = 0;
+    int[] subGroupSlots = new int[masterTotalSubGroupCount]; // Position of each used sub-group, or -1
+    for (int j = 0; j < masterTotalSubGroupCount; j++) {
+      subGroupSlots[j] = -1;
+    }
+    ArrayList<Integer> subGroupPositionsList = new ArrayList<Integer>(); // Column positions of the used sub-groups
+    HashSet<String> allSpeciesNames = new HashSet<String>();
+    HashSet<Integer> allSpeciesIndices = new HashSet<Integer>();
+    boolean speciesNamesAreUnique = true;
+    boolean speciesIndicesAreUnique = true;
+
+    while (file.nextRow()) {
+      if (file.isEmpty(0)) {
+        break; // End of the Species.csv File
+      }
+
+      String name = file.getString(0);
+      int speciesIndex = (int) file.getDouble(1);
+      speciesNamesAreUnique &= allSpeciesNames.add(name);
+      speciesIndicesAreUnique &= allSpeciesIndices.add(Integer.valueOf(speciesIndex));
+
+      Integer requestedCount = speciesToStore.get(name);
+      if (requestedCount == null) {
+        continue;
+      }
+      if (requestedCount.intValue() == 1) {
+        speciesToStore.remove(name);
+      } else {
+        speciesToStore.put(name, Integer.valueOf(requestedCount.intValue() - 1));
+      }
+
+      double[] properties = new double[propertyCount];
+      for (int j = 0; j < propertyCount; j++) {
+        properties[j] = file.getDouble(2 + j);
+      }
+
+      double[] correlationParameters = new double[correlationParameterCount];
+      for (int j = 0; j < correlationParameterCount; j++) {
+        correlationParameters[j] = file.getDouble(2 + propertyCount + j);
+      }
+
+      // Sub-groups are stored by column position here and converted to sub-group indices in section II
+      int speciesSubGroupTypeCount = 0;
+      int[][] speciesSubGroups = new int[2][masterTotalSubGroupCount];
+      for (int j = 0; j < masterTotalSubGroupCount; j++) {
+        if (file.isEmpty(firstSubGroupColumn + j)) {
+          continue;
+        }
+        int speciesSubGroupCount = file.getInt(firstSubGroupColumn + j);
+        if (speciesSubGroupCount != 0) {
+          speciesSubGroups[0][speciesSubGroupTypeCount] = j;
+          speciesSubGroups[1][speciesSubGroupTypeCount] = speciesSubGroupCount;
+          speciesSubGroupTypeCount++;
+
+          if (subGroupSlots[j] == -1) {
+            subGroupSlots[j] = subGroupPositionsList.size();
+            subGroupPositionsList.add(Integer.valueOf(j));
+          }
+        }
+      }
+
+      int[][] trimmedSubGroups = new int[2][speciesSubGroupTypeCount];
+      System.arraycopy(speciesSubGroups[0], 0, trimmedSubGroups[0], 0, speciesSubGroupTypeCount);
+      System.arraycopy(speciesSubGroups[1], 0, trimmedSubGroups[1], 0, speciesSubGroupTypeCount);
+
+      this.species[storedSpeciesCount] = new Species(name, speciesIndex, properties, correlationParameters,
+                                                     trimmedSubGroups);
+      this.speciesProperties[storedSpeciesCount] = properties;
+      this.speciesCorrelationParameters[storedSpeciesCount] = correlationParameters;
+      storedSpeciesCount++;
+    }
+
+    // iv) Verify Data Integrity
+    if (!speciesToStore.isEmpty()) {
+      ArrayList<String> missingSpeciesNamesList = new ArrayList<String>();
+      for (int i = 0; i < speciesNamesList.size(); i++) {
+        Integer count = speciesToStore.get(speciesNamesList.get(i));
+        if (count != null) {
+          missingSpeciesNamesList.add(speciesNamesList.get(i));
+          if (count.intValue() == 1) {
+            speciesToStore.remove(speciesNamesList.get(i));
+          } else {
+            speciesToStore.put(speciesNamesList.get(i), Integer.valueOf(count.intValue() - 1));
+          }
+        }
+      }
+      throw new IOException("The following species were not found in " + this.speciesFilePath
+                              + " : " + missingSpeciesNamesList.toString());
+    }
+    if (!speciesNamesAreUnique) {
+      throw new IOException("Species names in " + this.speciesFilePath + " are not unique.");
+    }
+    if (!speciesIndicesAreUnique) {
+      throw new IOException("Species indices in " + this.speciesFilePath + " are not unique.");
+    }
+    if (!SpeciesDataLoader.areElementsUnique(allSubGroupNamesList)) {
+      throw new IOException("Sub-group names in " + this.speciesFilePath + " are not unique.");
+    }
+
+    /*
+     * II. Store Sub-Group Data
+     * -----------------------------------------------------------------------------
+     */
+    int subGroupCount = subGroupPositionsList.size();
+    file = new CSVTokenizer(this.subGroupsFilePath);
+    file.nextRow(); // Skip Row 1
+
+    // i) Map the Names of the Used Sub-Groups to their Positions
+    HashMap<String, Integer> subGroupNames = new HashMap<String, Integer>();
+    for (int k = 0; k < subGroupCount; k++) {
+      subGroupNames.put(allSubGroupNamesList.get(subGroupPositionsList.get(k).intValue()), Integer.valueOf(k));
+    }
+
+    // ii) Store Sub-Groups
+    this.subGroupIndices = new int[subGroupCount];
+    this.subGroupRelativeVolume = new double[subGroupCount];
+    this.subGroupRelativeSurfaceArea = new double[subGroupCount];
+
+    HashSet<String> allSubGroupNames = new HashSet<String>();
+    HashSet<Integer> allSubGroupIndices = new HashSet<Integer>();
+    boolean subGroupNamesAreUnique = true;
+    boolean subGroupIndicesAreUnique = true;
+
+    while (file.nextRow()) {
+      if (file.getFieldCount() == 0) {
+        continue; // Blank row
+      }
+
+      String name = file.getString(0);
+      int subGroupIndex = file.getInt(1);
+      subGroupNamesAreUnique &= allSubGroupNames.add(name);
+      subGroupIndicesAreUnique &= allSubGroupIndices.add(Integer.valueOf(subGroupIndex));
+
+      Integer k = subGroupNames.get(name);
+      if (k != null) {
+        this.subGroupIndices[k.intValue()] = subGroupIndex;
+        this.subGroupRelativeVolume[k.intValue()] = file.getDouble(2);
+        this.subGroupRelativeSurfaceArea[k.intValue()] = file.getDouble(3);
+      }
+    }
+
+    // iii) Convert Sub-Group Positions stored in Species Objects to Sub-Group Indices
+    for (int i = 0; i < storedSpeciesCount; i++) {
+      int[][] speciesSubGroups = this.species[i].getSubGroups();
+      for (int j = 0; j < speciesSubGroups[0].length; j++) {
+        speciesSubGroups[0][j] = this.subGroupIndices[subGroupSlots[speciesSubGroups[0][j]]];
+      }
+      this.species[i].setSubGroups(speciesSubGroups);
+    }
+
+    // iv) Verify Data Integrity
+    if (!subGroupNamesAreUnique) {
+      throw new IOException("Sub-group names in " + this.subGroupsFilePath + " are not unique.");
+    }
+    if (!subGroupIndicesAreUnique) {
+      throw new IOException("Sub-group indices in " + this.subGroupsFilePath + " are not unique.");
+    }
+    if (allSubGroupNames.size() != masterTotalSubGroupCount) {
+      throw new IOException("Number of sub-groups in " + this.subGroupsFilePath
+                              + " is inconsistant with that in " + this.speciesFilePath
+                              + ". \r\nThere are " + masterTotalSubGroupCount + " sub-groups defined in "
+                              + this.speciesFilePath + " and " + allSubGroupNames.size() + " in "
+                              + this.subGroupsFilePath);
+    }
+
+    /*
+     * III. Store Interaction Parameters
+     * -----------------------------------------------------------------------------
+     */
+    file = new CSVTokenizer(this.interactionParametersFilePath);
+    file.nextRow(); // Skip Row 1
+    file.nextRow();
+
+    // i) Store Sub-Group Names (Column Headers) and the Position of each Used Sub-Group
+    ArrayList<String> columnSubGroupNamesList = new ArrayList<String>();
+    int totalSubGroupCount = file.getFieldCount() - 1;
+    int[] columnSlots = new int[Math.max(totalSubGroupCount, 0)];
+    for (int j = 0; j < totalSubGroupCount; j++) {
+      String name = file.getString(j + 1);
+      columnSubGroupNamesList.add(name);
+      Integer k = subGroupNames.get(name);
+      columnSlots[j] = k == null ? -1 : k.intValue();
+    }
+
+    // ii) Store Interaction Parameters
+    this.interactionParameters = new double[subGroupCount][subGroupCount];
+    int rowSubGroupCount = 0;
+    while (file.nextRow()) {
+      if (file.getFieldCount() == 0) {
+        continue; // Blank row
+      }
+      rowSubGroupCount++;
+
+      Integer i = subGroupNames.get(file.getString(0));
+      if (i == null) {
+        continue;
+      }
+      for (int j = 0; j < totalSubGroupCount; j++) {
+        double interactionParameter = file.getDouble(j + 1);
+        if (columnSlots[j] != -1) {
+          this.interactionParameters[i.intValue()][columnSlots[j]] = interactionParameter;
+        }
+      }
+    }
+
+    // iii) Verify Data Integrity
+    if (!SpeciesDataLoader.areElementsUnique(columnSubGroupNamesList)) {
+      throw new IOException("Sub-group names in " + this.interactionParametersFilePath
+                              + " are not unique.");
+    }
+    if (columnSubGroupNamesList.size() != masterTotalSubGroupCount) {
+      throw new IOException("Number of sub-groups in " + this.interactionParametersFilePath
+                              + " (row headers) is inconsistant with that in " + this.speciesFilePath
+                              + ". \r\nThere are " + masterTotalSubGroupCount + " sub-groups defined in "
+                              + this.speciesFilePath + " and " + columnSubGroupNamesList.size() + " in "
+                              + this.interactionParametersFilePath);
+    }
+    if (rowSubGroupCount != masterTotalSubGroupCount) {
+      throw new IOException("Number of sub-groups in " + this.interactionParametersFilePath
+                              + " (column headers) is inconsistant with that in " + this.speciesFilePath
+                              + ". \r\nThere are " + masterTotalSubGroupCount + " sub-groups defined in "
+                              + this.speciesFilePath + " and " + rowSubGroupCount + " in "
+                              + this.interactionParametersFilePath);
+    }
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 3) readSpeciesNames() : Returns the names of all species defined in a species file.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public static ArrayList<String> readSpeciesNames(String speciesFilePath) throws IOException {
+
+    CSVTokenizer file = new CSVTokenizer(speciesFilePath);
+    ArrayList<String> speciesNamesList = new ArrayList<String>();
+
+    file.nextRow(); // Skip Row 1
+    file.nextRow(); // Skip Row 2
+    while (file.nextRow()) {
+      if (file.isEmpty(0)) {
+        break; // End of the Species.csv File
+      }
+      speciesNamesList.add(file.getString(0));
+    }
+
+    return speciesNamesList;
+  }
+  /*********************************************************************************************************************/
+
+
+  private static boolean areElementsUnique(ArrayList<String> list) {
+    return new HashSet<String>(list).size() == list.size();
+  }
+
+  public Species[] getSpecies() {
+    return this.species;
+  }
+
+  public double[] getSpeciesProperties(int i) {
+    return this.speciesProperties[i].clone();
+  }
+
+  public double[] getSpeciesCorrelationParameters(int i) {
+    return this.speciesCorrelationParameters[i].clone();
+  }
+
+  public int[] getSubGroupIndices() {
+    return this.subGroupIndices;
+  }
+
+  public double[] getSubGroupRelativeVolume() {
+    return this.subGroupRelativeVolume;
+  }
+
+  public double[] getSubGroupRelativeSurfaceArea() {
+    return this.subGroupRelativeSurfaceArea;
+  }
+
+  public double[][] getInteractionParameters() {
+    return this.interactionParameters;
+  }
+
+}
@@ -1,4 +1,6 @@
+import java.io.IOException;
 import java.text.DecimalFormat;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class Stream {
   
@@ -17,12 +19,11 @@ public class Stream {
   private double[] K;
   private double[] gamma;
   private double[] phi;
-  private double[][] omega_ij;
-  private double[][] Tc_ij;
-  private double[][] Pc_ij;
-  private double[][] Zc_ij;
-  private double[][] Vc_ij;
+  private MixtureParameters mixtureParameters; // Looked up on first use; shared with every stream of the same species
   private boolean[] isCondensable;
+  private AtomicInteger arrayHolderCount; // Number of streams holding the component arrays; shared by those streams
+  private MixtureCorrelations mixtureCorrelations; // Created on first use; shared with copies of the stream
+  private ThermoState thermoState; // Properties at the last temperature read; shared with copies of the stream
   
   
   /**********************************************************************************************************************
@@ -45,12 +46,10 @@ public class Stream {
     this.K = new double[componentCount];
     this.gamma = new double[componentCount];
     this.phi = new double[componentCount];
-    this.omega_ij = new double[componentCount][componentCount];
-    this.Tc_ij = new double[componentCount][componentCount];
-    this.Pc_ij = new double[componentCount][componentCount];
-    this.Zc_ij = new double[componentCount][componentCount];
-    this.Vc_ij = new double[componentCount][componentCount];
+    double[][] zeros = new double[componentCount][componentCount];
+    this.mixtureParameters = new MixtureParameters(zeros, zeros, zeros, zeros, zeros);
     this.isCondensable = new boolean[componentCount];
+    this.arrayHolderCount = new AtomicInteger(1);
   }
   /*********************************************************************************************************************/
   
@@ -68,6 +67,7 @@ public class Stream {
     this.P = 10.;
     this.F = F;
     this.speciesIndices = speciesIndices.clone();
+    this.arrayHolderCount = new AtomicInteger(1);
     
     this.condensableFraction = 1.;
     this.vapourFraction = 0.;
@@ -90,8 +90,6 @@ public class Stream {
     this.isCondensable = new boolean[componentCount];
     this.updateCondensableState(false);
     
-    this.generateMixtureParameters();
-    
     for (int i = 0; i < componentCount; i++) {
       if (this.isCondensable[i]) {
         this.x[i] = this.z[i] / this.condensableFraction;
@@ -128,6 +126,7 @@ public class Stream {
     this.P = P;
     this.F = F;
     this.speciesIndices = speciesIndices.clone();
+    this.arrayHolderCount = new AtomicInteger(1);
     
     this.P_bp = 0.;
     this.P_dp = 0.;
@@ -213,8 +212,6 @@ public class Stream {
         break;
     }
     
-    this.generateMixtureParameters();
-    
     this.isCondensable = new boolean[componentCount];
     this.updateCondensableState(false);
   }
@@ -222,7 +219,69 @@ public class Stream {
   
   
   /**********************************************************************************************************************
-    * 2) Copy Constructor
+    * 1.4) Constructor D: Used by FlashSeparator.splitPhases() to construct a single-phase outlet stream from the given
+    *       components of the flash stream source; liquid only for phaseIndex = 0, vapour/gas only otherwise.
+    *       The stream keeps the fractions array, which must not be changed afterwards, and is built as Constructor
+    *       C would build it, without checking the fractions again. The correlations and, if source has looked them
+    *       up, the critical interactions are taken from those of source.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  Stream(String name, double T, double P, double F, int phaseIndex, double[] fractions, Stream source,
+         int[] componentIndices) {
+  
+    this.name = name;
+    this.T = T;
+    this.P = P;
+    this.F = F;
+  
+    // As in Constructor C, the vapour fraction and the bubble-point and dew-point pressures are left at 0
+    this.vapourFraction = 0.;
+    this.P_bp = 0.;
+    this.P_dp = 0.;
+  
+    int componentCount = componentIndices.length;
+    this.speciesIndices = new int[componentCount];
+    for (int k = 0; k < componentCount; k++) {
+      this.speciesIndices[k] = source.speciesIndices[componentIndices[k]];
+    }
+  
+    // The phase fractions are also the overall fractions, and the other phase fractions and K are all 0, so those
+    // arrays are shared until one of their elements is changed; see copySharedArrays()
+    double[] zeros = new double[componentCount];
+    double[] ones = new double[componentCount];
+    for (int k = 0; k < componentCount; k++) {
+      ones[k] = 1.;
+    }
+    this.x = (phaseIndex == 0) ? fractions : zeros;
+    this.y = (phaseIndex == 0) ? zeros : fractions;
+    this.z = fractions;
+    this.K = zeros;
+    this.gamma = ones;
+    this.phi = ones;
+    this.arrayHolderCount = new AtomicInteger(2); // The arrays are held twice over by this stream alone
+  
+    this.mixtureCorrelations = source.getMixtureCorrelations().getSubset(componentIndices);
+    if (source.mixtureParameters != null) {
+      this.mixtureParameters = source.mixtureParameters.getSubset(componentIndices);
+    }
+  
+    // As updateCondensableState(false) does, without copying the arrays
+    this.isCondensable = new boolean[componentCount];
+    this.condensableFraction = 0.;
+    for (int k = 0; k < componentCount; k++) {
+      if (this.T < this.mixtureCorrelations.getTc(k)) {
+        this.condensableFraction += this.z[k];
+        this.isCondensable[k] = true;
+      }
+    }
+  }
+  /*********************************************************************************************************************/
+  
+  
+  /**********************************************************************************************************************
+    * 2) Copy Constructor : The copy shares the component arrays of the source until either stream changes one of
+    *       their elements; see copySharedArrays(). Only the holder count shared by the two streams is changed, so 
+    *       that several threads may copy the same source.
     * ---------------------------------------------------------------------------------------------------------------------
     */
   public Stream(Stream source) {
@@ -235,61 +294,21 @@ public class Stream {
     this.P_bp = source.P_bp;
     this.P_dp = source.P_dp;
     
-    int componentCount = source.getComponentCount();
-    if (source.speciesIndices != null) {
-      this.speciesIndices = source.speciesIndices.clone();
-    }
-    if (source.x != null) {
-      this.x = source.x.clone();
-    }
-    if (source.y != null) {
-      this.y = source.y.clone();
-    }
-    if (source.z != null) {
-      this.z = source.z.clone();
-    }
-    if (source.K != null) {
-      this.K = source.K.clone();
-    }
-    if (source.gamma != null) {
-      this.gamma = source.gamma.clone();
-    }
-    if (source.phi != null) {
-      this.phi = source.phi.clone();
-    }
-    if (source.omega_ij != null) {
-      this.omega_ij = new double[componentCount][];
-      for (int i = 0; i < componentCount; i++) {
-        this.omega_ij[i] = source.omega_ij[i].clone();
-      }
-    }
-    if (source.Tc_ij != null) {
-      this.Tc_ij = new double[componentCount][];
-      for (int i = 0; i < componentCount; i++) {
-        this.Tc_ij[i] = source.Tc_ij[i].clone();
-      }
-    }
-    if (source.Pc_ij != null) {
-      this.Pc_ij = new double[componentCount][];
-      for (int i = 0; i < componentCount; i++) {
-        this.Pc_ij[i] = source.Pc_ij[i].clone();
-      }
-    }
-    if (source.Zc_ij != null) {
-      this.Zc_ij = new double[componentCount][];
-      for (int i = 0; i < componentCount; i++) {
-        this.Zc_ij[i] = source.Zc_ij[i].clone();
-      }
-    }
-    if (source.Vc_ij != null) {
-      this.Vc_ij = new double[componentCount][];
-      for (int i = 0; i < componentCount; i++) {
-        this.Vc_ij[i] = source.Vc_ij[i].clone();
-      }
-    }
-    if (source.isCondensable != null) {
-      this.isCondensable = source.isCondensable.clone();
-    }
+    // The component arrays are shared until either stream changes one of their elements
+    this.speciesIndices = source.speciesIndices;
+    this.x = source.x;
+    this.y = source.y;
+    this.z = source.z;
+    this.K = source.K;
+    this.gamma = source.gamma;
+    this.phi = source.phi;
+    this.isCondensable = source.isCondensable;
+    this.arrayHolderCount = source.arrayHolderCount;
+    this.arrayHolderCount.incrementAndGet();
+    
+    this.mixtureParameters = source.mixtureParameters;
+    this.mixtureCorrelations = source.mixtureCorrelations;
+    this.thermoState = source.thermoState;
     
   }
   /*********************************************************************************************************************/
@@ -306,49 +325,64 @@ public class Stream {
   
   
   /**********************************************************************************************************************
-    * 4) toString()
+    * 4.1) toString()
     * ---------------------------------------------------------------------------------------------------------------------
     */
   public String toString() {
     
-    String message = new String();
-    DecimalFormat formatter = new DecimalFormat("###,###,##0.00");
+    StringBuilder message = new StringBuilder(1024);
+    try {
+      this.appendTo(message, new DecimalFormat("###,###,##0.00"));
+    } catch (IOException e) {
+      // A StringBuilder does not throw IOException
+    }
+    
+    return message.toString();
+  }
+  /*********************************************************************************************************************/
+  
+  
+  /**********************************************************************************************************************
+    * 4.2) appendTo() : Appends the report returned by toString() to output without building intermediate Strings.
+    *         The formatter is not thread-safe; each thread must use its own.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public void appendTo(Appendable output, DecimalFormat formatter) throws IOException {
     
-    message = this.name + ": \r\n" + "   T = " + formatter.format(this.T) + " K \r\n" 
-      + "   P = " + formatter.format(this.P) + " bar \r\n" 
-      + "   F = " + formatter.format(this.F) + " mol/h \r\n"
-      + "   Fraction of condensable moles = " + formatter.format(this.condensableFraction * 100.) 
-      + " % \r\n"
-      + "   Fraction of condensable moles in the vapour phase = " 
-      + formatter.format(this.vapourFraction * 100.) + " % \r\n";
+    output.append(this.name).append(": \r\n").append("   T = ").append(formatter.format(this.T)).append(" K \r\n")
+      .append("   P = ").append(formatter.format(this.P)).append(" bar \r\n")
+      .append("   F = ").append(formatter.format(this.F)).append(" mol/h \r\n")
+      .append("   Fraction of condensable moles = ").append(formatter.format(this.condensableFraction * 100.))
+      .append(" % \r\n")
+      .append("   Fraction of condensable moles in the vapour phase = ")
+      .append(formatter.format(this.vapourFraction * 100.)).append(" % \r\n");
     
     if (P_bp > 0.) {
-      message += "   Bubble-point P = " + formatter.format(this.P_bp) + " bar \r\n";
+      output.append("   Bubble-point P = ").append(formatter.format(this.P_bp)).append(" bar \r\n");
     }
     if (P_dp > 0.) {
-      message += "   Dew-point P = " + formatter.format(this.P_dp) + " bar \r\n";
+      output.append("   Dew-point P = ").append(formatter.format(this.P_dp)).append(" bar \r\n");
     }
     
-    message += "   Components: \r\n";
+    output.append("   Components: \r\n");
     for (int i = 0; i < this.getComponentCount(); i++) {
-      message += "      " + (i + 1) + ". " + Menu.getSpecies(this.getSpeciesIndex(i)).getName() 
-        + " (" + this.getSpeciesIndex(i) + ") " + ": \r\n"
-        + "            x = " + formatter.format(this.x[i] * 100) + "% \r\n" 
-        + "            y = " + formatter.format(this.y[i] * 100) + "% \r\n" 
-        + "            z = " + formatter.format(this.z[i] * 100) + "% \r\n";
+      output.append("      ").append(String.valueOf(i + 1)).append(". ")
+        .append(Menu.getSpeciesName(this.speciesIndices[i]))
+        .append(" (").append(String.valueOf(this.speciesIndices[i])).append(") ").append(": \r\n")
+        .append("            x = ").append(formatter.format(this.x[i] * 100)).append("% \r\n")
+        .append("            y = ").append(formatter.format(this.y[i] * 100)).append("% \r\n")
+        .append("            z = ").append(formatter.format(this.z[i] * 100)).append("% \r\n");
       
       if (this.K[i] > 0.) {
-        message += "            K = " + formatter.format(this.K[i]) + " \r\n";
+        output.append("            K = ").append(formatter.format(this.K[i])).append(" \r\n");
       }
       if (this.gamma[i] > 0.) {
-        message += "            gamma = " + formatter.format(this.gamma[i]) + " \r\n";
+        output.append("            gamma = ").append(formatter.format(this.gamma[i])).append(" \r\n");
       }
       if (this.phi[i] > 0.) {
-        message += "            phi = " + formatter.format(this.phi[i]) + " \r\n";
+        output.append("            phi = ").append(formatter.format(this.phi[i])).append(" \r\n");
       }
     }
-    
-    return message;
   }
   /*********************************************************************************************************************/
   
@@ -358,52 +392,119 @@ public class Stream {
     * ---------------------------------------------------------------------------------------------------------------------
     */
   public double evaluateStreamEnthalpy(double Tref, boolean derivative) throws FunctionException {
+    return this.evaluateStreamEnthalpy(Tref, derivative, new EnthalpyWorkspace(this.speciesIndices.length));
+  }
+  /*********************************************************************************************************************/
+  
+  
+  /**********************************************************************************************************************
+    * 5.1) evaluateStreamEnthalpyWithDerivative() : Writes the enthalpy of the stream and its derivative with respect 
+    *           to temperature into result, in a single pass over the components.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public void evaluateStreamEnthalpyWithDerivative(double Tref, FunctionValue result) throws FunctionException {
+    this.evaluateStreamEnthalpyWithDerivative(Tref, new EnthalpyWorkspace(this.speciesIndices.length), result);
+  }
+  /*********************************************************************************************************************/
+  
+  
+  /**********************************************************************************************************************
+    * 5.2) evaluateStreamEnthalpy() : Evaluates the enthalpy on the arrays of the given workspace, which must have one 
+    *           element per component.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public double evaluateStreamEnthalpy(double Tref, boolean derivative, EnthalpyWorkspace workspace) 
+    throws FunctionException {
+    
+    int componentCount = this.checkWorkspace(workspace);
+    boolean[] isLiquid = workspace.getIsLiquid(); // Components whose liquid enthalpy is needed
+    boolean[] isVapour = workspace.getIsVapour(); // Components whose vapour enthalpy is needed
+    for (int i = 0; i < componentCount; i++) {
+      isLiquid[i] = this.isCondensable[i] && this.x[i] > 0;
+      isVapour[i] = !this.isCondensable[i] || this.y[i] > 0;
+    }
+    
+    double[] hL = workspace.getHL();
+    double[] Hv = workspace.getHv();
+    MixtureCorrelations correlations = this.getMixtureCorrelations();
+    correlations.evaluateEnthalpiesLiquid(this.T, Tref, derivative, isLiquid, hL);
+    correlations.evaluateEnthalpiesVapour(this.T, Tref, derivative, isVapour, Hv);
+    
     double H = 0.;
-    for (int i = 0; i < this.speciesIndices.length; i++) {
-      
-      double hL_i = 0.;
-      double Hv_i = 0.;
-      Species species_i = Menu.getSpecies(this.speciesIndices[i]);
-      // System.out.println("Test - Stream Class - evaluateStreamEnthalpy: Species = "
-      // + species_i.getName());
+    for (int i = 0; i < componentCount; i++) {
       if (this.isCondensable[i]) {
-        
-        if (this.x[i] > 0) {
-          hL_i = species_i.evaluateEnthalpyLiquid(this.T, Tref, derivative);
-          // System.out.println("Test - Stream Class - evaluateStreamEnthalpy: hL = "
-          // +hL_i);
-        }
-        if (this.y[i] > 0) {
-          Hv_i = species_i.evaluateEnthalpyVapour(this.T, Tref, this.P, derivative);
-          // System.out.println("Test - Stream Class - evaluateStreamEnthalpy: Hv = "
-          // +Hv_i);
-        }
-        
         H += this.condensableFraction * this.F
-          * (this.x[i] * (1 - this.vapourFraction) * hL_i + this.y[i] * this.vapourFraction * Hv_i);
+          * (this.x[i] * (1 - this.vapourFraction) * hL[i] + this.y[i] * this.vapourFraction * Hv[i]);
       } else {
-        Hv_i = species_i.evaluateEnthalpyVapour(this.T, Tref, this.P, derivative);
-        // System.out.println("Test - Stream Class - evaluateStreamEnthalpy: Hv = " +
-        // Hv_i);
-        H += this.z[i] * this.F * Hv_i;
+        H += this.z[i] * this.F * Hv[i];
       }
     }
     
-    /*
-     * System.out.
-     * println("Test - Stream Class - evaluateStreamEnthalpy: cdFraction = " +
-     * this.condensableFraction); System.out.
-     * println("Test - Stream Class - evaluateStreamEnthalpy: vapourFraction = " +
-     * this.vapourFraction);
-     * System.out.println("Test - Stream Class - evaluateStreamEnthalpy: F = " +
-     * this.F);
-     * System.out.println("Test - Stream Class - evaluateStreamEnthalpy: H = " + H);
-     */
     return H;
   }
   /*********************************************************************************************************************/
   
   
+  /**********************************************************************************************************************
+    * 5.3) evaluateStreamEnthalpyWithDerivative() : Evaluates the enthalpy and its derivative on the arrays of the 
+    *           given workspace, which must have one element per component.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public void evaluateStreamEnthalpyWithDerivative(double Tref, EnthalpyWorkspace workspace, FunctionValue result) 
+    throws FunctionException {
+    
+    int componentCount = this.checkWorkspace(workspace);
+    boolean[] isLiquid = workspace.getIsLiquid(); // Components whose liquid enthalpy is needed
+    boolean[] isVapour = workspace.getIsVapour(); // Components whose vapour enthalpy is needed
+    for (int i = 0; i < componentCount; i++) {
+      isLiquid[i] = this.isCondensable[i] && this.x[i] > 0;
+      isVapour[i] = !this.isCondensable[i] || this.y[i] > 0;
+    }
+    
+    double[] hL = workspace.getHL();
+    double[] Hv = workspace.getHv();
+    double[] dhLdT = workspace.getDhLdT();
+    double[] dHvdT = workspace.getDHvdT();
+    MixtureCorrelations correlations = this.getMixtureCorrelations();
+    correlations.evaluateEnthalpiesLiquid(this.T, Tref, false, isLiquid, hL);
+    correlations.evaluateEnthalpiesLiquid(this.T, Tref, true, isLiquid, dhLdT);
+    correlations.evaluateEnthalpiesVapour(this.T, Tref, false, isVapour, Hv);
+    correlations.evaluateEnthalpiesVapour(this.T, Tref, true, isVapour, dHvdT);
+    
+    double H = 0.;
+    double dHdT = 0.;
+    for (int i = 0; i < componentCount; i++) {
+      if (this.isCondensable[i]) {
+        H += this.condensableFraction * this.F
+          * (this.x[i] * (1 - this.vapourFraction) * hL[i] + this.y[i] * this.vapourFraction * Hv[i]);
+        dHdT += this.condensableFraction * this.F
+          * (this.x[i] * (1 - this.vapourFraction) * dhLdT[i] + this.y[i] * this.vapourFraction * dHvdT[i]);
+      } else {
+        H += this.z[i] * this.F * Hv[i];
+        dHdT += this.z[i] * this.F * dHvdT[i];
+      }
+    }
+    
+    result.set(H, dHdT);
+  }
+  /*********************************************************************************************************************/
+  
+  
+  /**********************************************************************************************************************
+    * 5.4) checkWorkspace() : Returns the number of components, once the workspace has been checked to match it.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  private int checkWorkspace(EnthalpyWorkspace workspace) {
+    int componentCount = this.speciesIndices.length;
+    if (workspace.getComponentCount() != componentCount) {
+      throw new IllegalArgumentException("IllegalArgumentException: The enthalpy workspace must have an element for "
+                                           + "each of the " + componentCount + " components.");
+    }
+    return componentCount;
+  }
+  /*********************************************************************************************************************/
+  
+  
   /**********************************************************************************************************************
     * 6) getComponentCount(): Returns the number of components in the stream.
     * ---------------------------------------------------------------------------------------------------------------------
@@ -420,10 +521,12 @@ public class Stream {
     * ---------------------------------------------------------------------------------------------------------------------
     */
   public void updateCondensableState(boolean updatePhaseFractions) {
+    this.copySharedArrays();
     double oldCdFraction = this.condensableFraction;
     this.condensableFraction = 0.;
+    MixtureCorrelations correlations = this.getMixtureCorrelations(); // Holds Tc without copying the Species
     for (int i = 0; i < this.getComponentCount(); i++) {
-      if (this.T < Menu.getSpecies(this.speciesIndices[i]).getTc()) {
+      if (this.T < correlations.getTc(i)) {
         this.condensableFraction += this.z[i];
         this.isCondensable[i] = true;
       } else {
@@ -464,60 +567,136 @@ public class Stream {
   
   
   /**********************************************************************************************************************
-    * 8) generateMixtureParameters() : Calculates and stores the critical interactions.
+    * 7.1) copySharedArrays() : Gives the stream its own copies of the component arrays if they may be shared with 
+    *         another stream, or with one another. Must be called before an element of one of the arrays is changed; 
+    *         setters that replace a whole array do not need it. A stream whose copies have all been discarded still 
+    *         copies its arrays once, since the holder count is not decreased when a stream is collected.
     * ---------------------------------------------------------------------------------------------------------------------
     */
-  public void generateMixtureParameters() {
-    
-    int componentCount = this.getComponentCount();
-    this.omega_ij = new double[componentCount][componentCount];
-    this.Tc_ij = new double[componentCount][componentCount];
-    this.Pc_ij = new double[componentCount][componentCount];
-    this.Zc_ij = new double[componentCount][componentCount];
-    this.Vc_ij = new double[componentCount][componentCount];
-    Species[] components = new Species[componentCount];
-    
-    for (int i = 0; i < componentCount; i++) {
-      components[i] = Menu.getSpecies(this.getSpeciesIndex(i));
+  private void copySharedArrays() {
+    if (this.arrayHolderCount.get() == 1) {
+      return;
     }
-    
-    /* Calculate interaction accentric factors (unitless) */
-    for (int i = 0; i < componentCount; i++) {
-      for (int j = 0; j < componentCount; j++) {
-        this.omega_ij[i][j] = (components[i].getAccentricFactor() 
-                                 + components[j].getAccentricFactor()) / 2.;
-      }
+    if (this.speciesIndices != null) {
+      this.speciesIndices = this.speciesIndices.clone();
     }
-    
-    /* Calculate interactions Z_c_ij (unitless) */
-    for (int i = 0; i < componentCount; i++) {
-      for (int j = 0; j < componentCount; j++) {
-        this.Zc_ij[i][j] = (components[i].getZc() + components[j].getZc()) / 2.;
-      }
+    if (this.x != null) {
+      this.x = this.x.clone();
     }
-    
-    /* Calculate interactions T_c_ij, in K */
-    for (int i = 0; i < componentCount; i++) {
-      for (int j = 0; j < componentCount; j++) {
-        this.Tc_ij[i][j] = Math.pow((components[i].getTc() * components[j].getTc()), 0.5);
-      }
+    if (this.y != null) {
+      this.y = this.y.clone();
+    }
+    if (this.z != null) {
+      this.z = this.z.clone();
+    }
+    if (this.K != null) {
+      this.K = this.K.clone();
+    }
+    if (this.gamma != null) {
+      this.gamma = this.gamma.clone();
+    }
+    if (this.phi != null) {
+      this.phi = this.phi.clone();
+    }
+    if (this.isCondensable != null) {
+      this.isCondensable = this.isCondensable.clone();
     }
+    this.arrayHolderCount.decrementAndGet();
+    this.arrayHolderCount = new AtomicInteger(1);
+  }
+  /*********************************************************************************************************************/
+  
+  
+  /**********************************************************************************************************************
+    * 7.2) copyFrom() : Sets the stream to the state of source. The component arrays of source are copied into those 
+    *         of the stream, so that a stream that is restored before each evaluation of a function does not allocate
+    *         them again; arrays that are shared or have a different length are replaced by copies.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public void copyFrom(Stream source) {
+    this.name = source.name;
+    this.T = source.T;
+    this.P = source.P;
+    this.F = source.F;
+    this.condensableFraction = source.condensableFraction;
+    this.vapourFraction = source.vapourFraction;
+    this.P_bp = source.P_bp;
+    this.P_dp = source.P_dp;
     
-    /* Calculate interactions V_c_ij, in cm^3/mol */
-    for (int i = 0; i < componentCount; i++) {
-      for (int j = 0; j < componentCount; j++) {
-        this.Vc_ij[i][j] = Math.pow((Math.pow(components[i].getVc(), 1./3.) 
-                                       + Math.pow(components[j].getVc(), 1./3.)) / 2., 3);
-      }
+    if (this.arrayHolderCount.get() != 1) {
+      this.speciesIndices = null;
+      this.x = null;
+      this.y = null;
+      this.z = null;
+      this.K = null;
+      this.gamma = null;
+      this.phi = null;
+      this.isCondensable = null;
+      this.arrayHolderCount.decrementAndGet();
+      this.arrayHolderCount = new AtomicInteger(1);
     }
+    this.speciesIndices = Stream.copyInto(source.speciesIndices, this.speciesIndices);
+    this.x = Stream.copyInto(source.x, this.x);
+    this.y = Stream.copyInto(source.y, this.y);
+    this.z = Stream.copyInto(source.z, this.z);
+    this.K = Stream.copyInto(source.K, this.K);
+    this.gamma = Stream.copyInto(source.gamma, this.gamma);
+    this.phi = Stream.copyInto(source.phi, this.phi);
+    this.isCondensable = Stream.copyInto(source.isCondensable, this.isCondensable);
     
-    /* Calculate interactions P_c_ij, in bar */
-    for (int i = 0; i < componentCount; i++) {
-      for (int j = 0; j < componentCount; j++) {
-        this.Pc_ij[i][j] = (this.Zc_ij[i][j] * 10.*Menu.GAS_CONSTANT * this.Tc_ij[i][j]) 
-          / (this.Vc_ij[i][j]);
-      }
+    this.mixtureParameters = source.mixtureParameters;
+    this.mixtureCorrelations = source.mixtureCorrelations;
+    this.thermoState = source.thermoState;
+  }
+  /*********************************************************************************************************************/
+  
+  
+  // The copyInto() methods copy source into target and return target, or return a copy of source if target is null
+  // or has a different length
+  
+  private static double[] copyInto(double[] source, double[] target) {
+    if (source == null) {
+      return null;
+    }
+    if (target == null || target.length != source.length) {
+      return source.clone();
+    }
+    System.arraycopy(source, 0, target, 0, source.length);
+    return target;
+  }
+  
+  
+  private static int[] copyInto(int[] source, int[] target) {
+    if (source == null) {
+      return null;
+    }
+    if (target == null || target.length != source.length) {
+      return source.clone();
     }
+    System.arraycopy(source, 0, target, 0, source.length);
+    return target;
+  }
+  
+  
+  private static boolean[] copyInto(boolean[] source, boolean[] target) {
+    if (source == null) {
+      return null;
+    }
+    if (target == null || target.length != source.length) {
+      return source.clone();
+    }
+    System.arraycopy(source, 0, target, 0, source.length);
+    return target;
+  }
+  
+  
+  /**********************************************************************************************************************
+    * 8) generateMixtureParameters() : Looks up the critical interactions of the species of the stream. The
+    *       constructors leave them to be looked up on first use, since only the non-ideal behaviour reads them.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public void generateMixtureParameters() {
+    this.mixtureParameters = MixtureParameters.getInstance(this.speciesIndices);
   }
   /*********************************************************************************************************************/
   
@@ -572,6 +751,8 @@ public class Stream {
   
   public void setSpeciesIndices(int[] speciesIndices) {
     this.speciesIndices = speciesIndices.clone();
+    this.mixtureCorrelations = null;
+    this.mixtureParameters = null;
   }
   
   
@@ -581,7 +762,29 @@ public class Stream {
   
   
   public void setSpeciesIndex(int speciesIndex, int componentIndex) {
+    this.copySharedArrays();
     this.speciesIndices[componentIndex] = speciesIndex;
+    this.mixtureCorrelations = null;
+    this.mixtureParameters = null;
+  }
+  
+  
+  public MixtureCorrelations getMixtureCorrelations() {
+    if (this.mixtureCorrelations == null) {
+      this.mixtureCorrelations = new MixtureCorrelations(this.speciesIndices);
+    }
+    return this.mixtureCorrelations;
+  }
+  
+  
+  // Returns the properties of the mixture at the current temperature and condensable components, replacing the 
+  // state kept by the stream once either has changed
+  public ThermoState getThermoState() {
+    MixtureCorrelations correlations = this.getMixtureCorrelations();
+    if (this.thermoState == null || !this.thermoState.isStateOf(this.T, this.isCondensable, correlations)) {
+      this.thermoState = new ThermoState(this.T, this.isCondensable, correlations);
+    }
+    return this.thermoState;
   }
   
   
@@ -655,6 +858,7 @@ public class Stream {
   
   
   public void setXi(double x_i, int componentIndex) {
+    this.copySharedArrays();
     this.x[componentIndex] = x_i;
   }
   
@@ -689,6 +893,7 @@ public class Stream {
   
   
   public void setYi(double y_i, int componentIndex) {
+    this.copySharedArrays();
     this.y[componentIndex] = y_i;
   }
   
@@ -723,6 +928,7 @@ public class Stream {
   
   
   public void setZi(double z_i, int componentIndex) {
+    this.copySharedArrays();
     this.z[componentIndex] = z_i;
   }
   
@@ -737,6 +943,11 @@ public class Stream {
   }
   
   
+  public double getKi(int componentIndex) {
+    return this.K[componentIndex];
+  }
+  
+  
   public double[] getGamma() {
     return this.gamma.clone();
   }
@@ -747,6 +958,11 @@ public class Stream {
   }
   
   
+  public double getGammai(int componentIndex) {
+    return this.gamma[componentIndex];
+  }
+  
+  
   public double[] getPhi() {
     return this.phi.clone();
   }
@@ -757,88 +973,66 @@ public class Stream {
   }
   
   
-  public double[][] getOmega_ij() {
-    double[][] arrayCopy = new double[this.getComponentCount()][this.getComponentCount()];
-    for (int i = 0; i < this.getComponentCount(); i++) {
-      arrayCopy[i] = this.omega_ij[i].clone();
+  public double getPhii(int componentIndex) {
+    return this.phi[componentIndex];
+  }
+  
+  
+  public MixtureParameters getMixtureParameters() {
+    if (this.mixtureParameters == null) {
+      this.generateMixtureParameters();
     }
-    return arrayCopy;
+    return this.mixtureParameters;
+  }
+  
+  
+  public double[][] getOmega_ij() {
+    return this.getMixtureParameters().getOmega_ij();
   }
   
   
   public void setOmega_ij(double[][] omega_ij) {
-    this.omega_ij = new double[this.getComponentCount()][this.getComponentCount()];
-    for (int i = 0; i < omega_ij.length; i++) {
-      this.omega_ij[i] = omega_ij[i].clone();
-    }
+    this.mixtureParameters = this.getMixtureParameters().withOmega_ij(omega_ij);
   }
   
   
   public double[][] getTc_ij() {
-    double[][] arrayCopy = new double[this.getComponentCount()][this.getComponentCount()];
-    for (int i = 0; i < this.getComponentCount(); i++) {
-      arrayCopy[i] = this.Tc_ij[i].clone();
-    }
-    return arrayCopy;
+    return this.getMixtureParameters().getTc_ij();
   }
   
   
   public void setTc_ij(double[][] Tc_ij) {
-    this.Tc_ij = new double[this.getComponentCount()][this.getComponentCount()];
-    for (int i = 0; i < Tc_ij.length; i++) {
-      this.Tc_ij[i] = Tc_ij[i].clone();
-    }
+    this.mixtureParameters = this.getMixtureParameters().withTc_ij(Tc_ij);
   }
   
   
   public double[][] getPc_ij() {
-    double[][] arrayCopy = new double[this.getComponentCount()][this.getComponentCount()];
-    for (int i = 0; i < this.getComponentCount(); i++) {
-      arrayCopy[i] = this.Pc_ij[i].clone();
-    }
-    return arrayCopy;
+    return this.getMixtureParameters().getPc_ij();
   }
   
   
   public void setPc_ij(double[][] Pc_ij) {
-    this.Pc_ij = new double[this.getComponentCount()][this.getComponentCount()];
-    for (int i = 0; i < Pc_ij.length; i++) {
-      this.Pc_ij[i] = Pc_ij[i].clone();
-    }
+    this.mixtureParameters = this.getMixtureParameters().withPc_ij(Pc_ij);
   }
   
   
   public double[][] getZc_ij() {
-    double[][] arrayCopy = new double[this.getComponentCount()][this.getComponentCount()];
-    for (int i = 0; i < this.getComponentCount(); i++) {
-      arrayCopy[i] = this.Zc_ij[i].clone();
-    }
-    return arrayCopy;
+    return this.getMixtureParameters().getZc_ij();
   }
   
   
   public void setZc_ij(double[][] Zc_ij) {
-    this.Zc_ij = new double[this.getComponentCount()][this.getComponentCount()];
-    for (int i = 0; i < Zc_ij.length; i++) {
-      this.Zc_ij[i] = Zc_ij[i].clone();
-    }
+    this.mixtureParameters = this.getMixtureParameters().withZc_ij(Zc_ij);
   }
   
   
   public double[][] getVc_ij() {
-    double[][] arrayCopy = new double[this.getComponentCount()][this.getComponentCount()];
-    for (int i = 0; i < this.getComponentCount(); i++) {
-      arrayCopy[i] = this.Vc_ij[i].clone();
-    }
-    return arrayCopy;
+    return this.getMixtureParameters().getVc_ij();
   }
   
   
   public void setVc_ij(double[][] Vc_ij) {
-    this.Vc_ij = new double[this.getComponentCount()][this.getComponentCount()];
-    for (int i = 0; i < Vc_ij.length; i++) {
-      this.Vc_ij[i] = Vc_ij[i].clone();
-    }
+    this.mixtureParameters = this.getMixtureParameters().withVc_ij(Vc_ij);
   }
   
   
@@ -861,6 +1055,7 @@ public class Stream {
   
   
   public void setComponentCondensableState(boolean isCondensable, int componentIndex) {
+    this.copySharedArrays();
     this.isCondensable[componentIndex] = isCondensable;
   }
   
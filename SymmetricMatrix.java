@@ -0,0 +1,131 @@
+/* A symmetric n x n matrix stored as its packed upper triangle: the elements (i, j) with j >= i, row after row, in a
+ * single array of n(n + 1)/2 values. Element (i, j) is found at getIndex(i, j) whichever of i and j is larger.
+ * Row i of the triangle starts at getIndex(i, i) and its elements are contiguous; down a column j, the index of
+ * (k, j) grows by n - k - 1 from one row k to the next, until row j is reached.
+ *
+ * getValues() returns the packed array itself, not a copy, so that loops over the matrix can step through it
+ * directly.
+ */
+
+public class SymmetricMatrix {
+
+  private int size; // n
+  private double[] values; // Packed upper triangle
+
+
+  /**********************************************************************************************************************
+    * 1.1) Constructor A : Creates an n x n matrix of zeros.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public SymmetricMatrix(int size) {
+    this.size = size;
+    this.values = new double[size * (size + 1) / 2];
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 1.2) Constructor B : Packs the upper triangle of a square matrix; the lower triangle is not read.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public SymmetricMatrix(double[][] matrix) {
+    this(matrix.length);
+    int index = 0;
+    for (int i = 0; i < this.size; i++) {
+      for (int j = i; j < this.size; j++) {
+        this.values[index++] = matrix[i][j];
+      }
+    }
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 2) Copy Constructor
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public SymmetricMatrix(SymmetricMatrix source) {
+    this.size = source.size;
+    this.values = source.values.clone();
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 3) clone()
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public SymmetricMatrix clone() {
+    return new SymmetricMatrix(this);
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 4) getIndex() : Returns the position of element (i, j) in the packed array.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public int getIndex(int i, int j) {
+    if (i > j) {
+      int k = i;
+      i = j;
+      j = k;
+    }
+    return i * this.size - i * (i - 1) / 2 + (j - i);
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 5) toArray() : Returns the full matrix as a new n x n array.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public double[][] toArray() {
+    double[][] matrix = new double[this.size][this.size];
+    int index = 0;
+    for (int i = 0; i < this.size; i++) {
+      for (int j = i; j < this.size; j++) {
+        matrix[i][j] = this.values[index];
+        matrix[j][i] = this.values[index];
+        index++;
+      }
+    }
+    return matrix;
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 6) getSubmatrix() : Returns the matrix of the given rows and columns, in the given order, as a new matrix.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public SymmetricMatrix getSubmatrix(int[] indices) {
+    SymmetricMatrix submatrix = new SymmetricMatrix(indices.length);
+    int index = 0;
+    for (int i = 0; i < indices.length; i++) {
+      for (int j = i; j < indices.length; j++) {
+        submatrix.values[index++] = this.values[this.getIndex(indices[i], indices[j])];
+      }
+    }
+    return submatrix;
+  }
+  /*********************************************************************************************************************/
+
+
+  public int getSize() {
+    return this.size;
+  }
+
+  public double get(int i, int j) {
+    return this.values[this.getIndex(i, j)];
+  }
+
+  public void set(int i, int j, double value) {
+    this.values[this.getIndex(i, j)] = value;
+  }
+
+  public double[] getValues() {
+    return this.values;
+  }
+
+}
@@ -0,0 +1,158 @@
+import java.util.Arrays;
+
+/* The properties of a mixture that depend only on its temperature: the vapour pressure of each condensable component,
+ * the UNIFAC sub-group interaction terms tau[m][k], and the virial coefficients B[i][j] with their combinations
+ * delta[i][j]. At one temperature the bubble-point, dew-point, partition coefficient, activity coefficient and
+ * fugacity coefficient calculations all read the same values, so a Stream keeps the state of its current temperature
+ * and shares it with its copies (see Stream.getThermoState()); each value is calculated the first time it is read.
+ *
+ * A state belongs to one temperature, one set of condensable components and one MixtureCorrelations object;
+ * isStateOf() tells whether it still applies. The virial coefficients are kept for the MixtureParameters they were
+ * last calculated from. The arrays are returned themselves rather than copied, and must not be changed. A state can
+ * be read by several threads at once; two threads that read a value before it is stored may both calculate it, with
+ * the same result.
+ */
+
+public class ThermoState {
+
+  private double T; // [K]
+  private boolean[] isCondensable; // Components whose vapour pressures are calculated
+  private MixtureCorrelations mixtureCorrelations;
+  private volatile double[] P_sat; // [bar]; 0 for non-condensable components
+  private volatile double[][] tau; // [m][k], over all sub-group types
+  private volatile Object[] virialCoefficients; // { MixtureParameters, B, delta }; B and delta in [cm^3/mol]
+
+
+  /**********************************************************************************************************************
+    * 1) Constructor
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public ThermoState(double T, boolean[] isCondensable, MixtureCorrelations mixtureCorrelations) {
+    this.T = T;
+    this.isCondensable = (isCondensable != null) ? isCondensable.clone() : null;
+    this.mixtureCorrelations = mixtureCorrelations;
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 2) isStateOf() : Returns true if the state holds the properties of the given temperature, condensable components
+    *        and mixture.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public boolean isStateOf(double T, boolean[] isCondensable, MixtureCorrelations mixtureCorrelations) {
+    return this.T == T && this.mixtureCorrelations == mixtureCorrelations
+      && Arrays.equals(this.isCondensable, isCondensable);
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 3) getVapourPressures() : Returns the vapour pressure [bar] of each condensable component.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public double[] getVapourPressures() throws FunctionException {
+    double[] P_sat = this.P_sat;
+    if (P_sat == null) {
+      P_sat = new double[this.mixtureCorrelations.getComponentCount()];
+      this.mixtureCorrelations.evaluateVapourPressures(this.T, false, this.isCondensable, P_sat);
+      this.P_sat = P_sat;
+    }
+    return P_sat;
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 4) getTau() : Returns the UNIFAC interaction terms exp(-a[m][k]/T) of every pair of sub-group types.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public double[][] getTau() {
+    double[][] tau = this.tau;
+    if (tau == null) {
+      int subGroupTypeCount = Menu.getSubGroupTypeCount(); // Number of Sub-Groups Types
+      tau = new double[subGroupTypeCount][subGroupTypeCount];
+      for (int m = 0; m < subGroupTypeCount; m++) {
+        for (int k = 0; k < subGroupTypeCount; k++) {
+          tau[m][k] = Math.exp(-Menu.getInteractionParameter(m, k) / this.T);
+        }
+      }
+      this.tau = tau;
+    }
+    return tau;
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 5.1) getVirialCoefficients() : Returns the virial coefficients B[i][j] of the mixture with the given critical
+    *          properties; the diagonal is 0.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public SymmetricMatrix getVirialCoefficients(MixtureParameters mixtureParameters) {
+    return (SymmetricMatrix) this.getVirialCoefficientArray(mixtureParameters)[1];
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 5.2) getVirialDeltas() : Returns delta[i][j] = 2 B[i][j] - B[i][i] - B[j][j] of the mixture with the given
+    *          critical properties.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public SymmetricMatrix getVirialDeltas(MixtureParameters mixtureParameters) {
+    return (SymmetricMatrix) this.getVirialCoefficientArray(mixtureParameters)[2];
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 6) getVirialCoefficientArray() : Returns { mixtureParameters, B, delta }, calculating B and delta unless they
+    *        were last calculated from the same parameters.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  private Object[] getVirialCoefficientArray(MixtureParameters mixtureParameters) {
+
+    Object[] virialCoefficients = this.virialCoefficients;
+    if (virialCoefficients != null && virialCoefficients[0] == mixtureParameters) {
+      return virialCoefficients;
+    }
+
+    int componentCount = mixtureParameters.getComponentCount();
+    SymmetricMatrix B = new SymmetricMatrix(componentCount);
+    SymmetricMatrix delta = new SymmetricMatrix(componentCount);
+
+    // Steps 1 to 5. Calculate B[i][j] from the reduced temperatures, B0[i][j], B1[i][j] and Bhat[i][j]; the
+    // diagonal of B is 0
+    for (int i = 0; i < componentCount; i++) {
+      for (int j = i + 1; j < componentCount; j++) {
+        double Tr = this.T / mixtureParameters.getTc_ij(i, j); // Reduced Temperature
+        double B0 = 0.083 - (0.422 / Math.pow(Tr, 1.6));
+        double B1 = 0.139 - (0.172 / Math.pow(Tr, 4.2));
+        double B_hat = B0 + mixtureParameters.getOmega_ij(i, j) * B1;
+
+        // P = [bar], T = [K], B = [cm^3/mol], R = 83.14
+        B.set(i, j, (B_hat * 10.*Menu.GAS_CONSTANT * mixtureParameters.getTc_ij(i, j))
+                / mixtureParameters.getPc_ij(i, j));
+      }
+    }
+
+    // Step 6. Calculate delta[i][j]
+    for (int i = 0; i < componentCount; i++) {
+      for (int j = i; j < componentCount; j++) {
+        delta.set(i, j, 2 * B.get(i, j) - B.get(i, i) - B.get(j, j));
+      }
+    }
+
+    virialCoefficients = new Object[] { mixtureParameters, B, delta };
+    this.virialCoefficients = virialCoefficients;
+    return virialCoefficients;
+  }
+  /*********************************************************************************************************************/
+
+
+  public double getT() {
+    return this.T;
+  }
+
+}
@@ -0,0 +1,185 @@
+/* Kernels that process four components per step with four independent partial sums, which are added together at
+ * the end. The partial sums do not wait on each other, so they can be computed in parallel by the processor; the
+ * order of the additions differs from the scalar kernels, so sums can differ in the last bits.
+ */
+
+public class UnrolledKernels extends Kernels {
+
+  public static final String NAME = "unrolled";
+  public static final int LANE_COUNT = 4;
+
+
+  /**********************************************************************************************************************
+    * 1) rachfordRice()
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public double rachfordRice(double vapourFraction, double[] z, double[] Km1, int n) {
+
+    double f0 = 0.;
+    double f1 = 0.;
+    double f2 = 0.;
+    double f3 = 0.;
+
+    int i = 0;
+    for (; i + UnrolledKernels.LANE_COUNT <= n; i += UnrolledKernels.LANE_COUNT) {
+      f0 += (z[i] * Km1[i]) / (1 + Km1[i] * vapourFraction);
+      f1 += (z[i + 1] * Km1[i + 1]) / (1 + Km1[i + 1] * vapourFraction);
+      f2 += (z[i + 2] * Km1[i + 2]) / (1 + Km1[i + 2] * vapourFraction);
+      f3 += (z[i + 3] * Km1[i + 3]) / (1 + Km1[i + 3] * vapourFraction);
+    }
+    for (; i < n; i++) {
+      f0 += (z[i] * Km1[i]) / (1 + Km1[i] * vapourFraction);
+    }
+
+    return (f0 + f1) + (f2 + f3);
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 2) rachfordRiceDerivative()
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public double rachfordRiceDerivative(double vapourFraction, double[] z, double[] Km1, int n) {
+
+    double df0 = 0.;
+    double df1 = 0.;
+    double df2 = 0.;
+    double df3 = 0.;
+
+    int i = 0;
+    for (; i + UnrolledKernels.LANE_COUNT <= n; i += UnrolledKernels.LANE_COUNT) {
+      double r0 = Km1[i] / (1 + Km1[i] * vapourFraction);
+      double r1 = Km1[i + 1] / (1 + Km1[i + 1] * vapourFraction);
+      double r2 = Km1[i + 2] / (1 + Km1[i + 2] * vapourFraction);
+      double r3 = Km1[i + 3] / (1 + Km1[i + 3] * vapourFraction);
+      df0 -= z[i] * (r0 * r0);
+      df1 -= z[i + 1] * (r1 * r1);
+      df2 -= z[i + 2] * (r2 * r2);
+      df3 -= z[i + 3] * (r3 * r3);
+    }
+    for (; i < n; i++) {
+      double r = Km1[i] / (1 + Km1[i] * vapourFraction);
+      df0 -= z[i] * (r * r);
+    }
+
+    return (df0 + df1) + (df2 + df3);
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 2.1) rachfordRiceWithDerivative() : The terms of the sum are z[i] * r and those of the derivative -z[i] * r^2,
+    *          where r = Km1[i] / (1 + Km1[i] * vapourFraction), so a single division serves both.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public void rachfordRiceWithDerivative(double vapourFraction, double[] z, double[] Km1, int n,
+                                         FunctionValue result) {
+
+    double f0 = 0.;
+    double f1 = 0.;
+    double f2 = 0.;
+    double f3 = 0.;
+    double df0 = 0.;
+    double df1 = 0.;
+    double df2 = 0.;
+    double df3 = 0.;
+
+    int i = 0;
+    for (; i + UnrolledKernels.LANE_COUNT <= n; i += UnrolledKernels.LANE_COUNT) {
+      double r0 = Km1[i] / (1 + Km1[i] * vapourFraction);
+      double r1 = Km1[i + 1] / (1 + Km1[i + 1] * vapourFraction);
+      double r2 = Km1[i + 2] / (1 + Km1[i + 2] * vapourFraction);
+      double r3 = Km1[i + 3] / (1 + Km1[i + 3] * vapourFraction);
+      double zr0 = z[i] * r0;
+      double zr1 = z[i + 1] * r1;
+      double zr2 = z[i + 2] * r2;
+      double zr3 = z[i + 3] * r3;
+      f0 += zr0;
+      f1 += zr1;
+      f2 += zr2;
+      f3 += zr3;
+      df0 -= zr0 * r0;
+      df1 -= zr1 * r1;
+      df2 -= zr2 * r2;
+      df3 -= zr3 * r3;
+    }
+    for (; i < n; i++) {
+      double r = Km1[i] / (1 + Km1[i] * vapourFraction);
+      double zr = z[i] * r;
+      f0 += zr;
+      df0 -= zr * r;
+    }
+
+    result.set((f0 + f1) + (f2 + f3), (df0 + df1) + (df2 + df3));
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 3) vapourPressures() : The exponent is calculated for every component first, so that the loop holding the
+    *          divisions and products has no calls in it.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public void vapourPressures(double T, boolean derivative, double[] C1, double[] C2, double[] C3, double[] C4,
+                              double[] C5, double[] result, int n) {
+
+    double lnT = Math.log(T);
+    double inverseT = 1. / T;
+
+    for (int i = 0; i < n; i++) {
+      result[i] = Math.pow(T, C5[i]); // T^C5
+    }
+
+    if (derivative) {
+      for (int i = 0; i < n; i++) {
+        double T_C5 = result[i];
+        result[i] = (1. / 100000.)
+          * (-C2[i] * inverseT * inverseT + C3[i] * inverseT + C4[i] * C5[i] * T_C5 * inverseT)
+          * Math.exp(C1[i] + C2[i] * inverseT + C3[i] * lnT + C4[i] * T_C5);
+      }
+    }
+    else {
+      for (int i = 0; i < n; i++) {
+        result[i] = C1[i] + C2[i] * inverseT + C3[i] * lnT + C4[i] * result[i];
+      }
+      for (int i = 0; i < n; i++) {
+        result[i] = (1. / 100000.) * Math.exp(result[i]);
+      }
+    }
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 4) dotProduct()
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public double dotProduct(double[] a, double[] b, int n) {
+
+    double sum0 = 0.;
+    double sum1 = 0.;
+    double sum2 = 0.;
+    double sum3 = 0.;
+
+    int i = 0;
+    for (; i + UnrolledKernels.LANE_COUNT <= n; i += UnrolledKernels.LANE_COUNT) {
+      sum0 += a[i] * b[i];
+      sum1 += a[i + 1] * b[i + 1];
+      sum2 += a[i + 2] * b[i + 2];
+      sum3 += a[i + 3] * b[i + 3];
+    }
+    for (; i < n; i++) {
+      sum0 += a[i] * b[i];
+    }
+
+    return (sum0 + sum1) + (sum2 + sum3);
+  }
+  /*********************************************************************************************************************/
+
+
+  public String getName() {
+    return UnrolledKernels.NAME;
+  }
+
+}
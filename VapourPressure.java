@@ -97,4 +97,27 @@ public class VapourPressure extends Correlation {
   /*********************************************************************************************************************/
   
   
+  /**********************************************************************************************************************
+    * 7) evaluateWithDerivativeWithinBounds() : The exponential is shared by the vapour pressure and its derivative.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  protected void evaluateWithDerivativeWithinBounds(double x, double[] constants, FunctionValue result) {
+    double T = x;
+    
+    double P = 0.; // Target Vapour Pressure
+    if (constants != null && constants.length > 0) {
+      P = constants[0];
+    }
+    
+    double[] C = super.getC();
+    
+    double exponential = Math.pow(Math.E, C[0] + C[1] / T + C[2] * Math.log(T) + C[3] * Math.pow(T, C[4]));
+    
+    result.set(-P + (1. / 100000.) * exponential, 
+               (1. / 100000.) * (-C[1] / Math.pow(T, 2) + C[2] / T + C[3] * C[4] * Math.pow(T, C[4] - 1)) 
+                 * exponential);
+  }
+  /*********************************************************************************************************************/
+  
+  
 }
\ No newline at end of file
@@ -0,0 +1,209 @@
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/* Kernels that use the incubating Vector API (jdk.incubator.vector) to process as many components per step as the
+ * processor's widest vector register holds, with the remaining components processed one at a time. The lanes are
+ * summed at the end, and T^C5 is taken as exp(C5 * ln T), so results can differ from the scalar kernels in the last
+ * bits.
+ *
+ * The class is kept out of the main source directory because it only compiles with the incubator module:
+ *   javac --add-modules jdk.incubator.vector -d <classes> *.java vector/*.java
+ *   java --add-modules jdk.incubator.vector -Dflash.kernels=vector -cp <classes> Menu ...
+ * Kernels.select() loads it by name, and falls back to the scalar kernels if it was not compiled or the module was
+ * not added.
+ */
+
+public class VectorKernels extends Kernels {
+
+  private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+
+  /**********************************************************************************************************************
+    * 1) rachfordRice()
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public double rachfordRice(double vapourFraction, double[] z, double[] Km1, int n) {
+
+    double f = 0.;
+
+    int i = 0;
+    int upperBound = VectorKernels.SPECIES.loopBound(n);
+    if (upperBound > 0) {
+      DoubleVector sum = DoubleVector.zero(VectorKernels.SPECIES);
+      for (; i < upperBound; i += VectorKernels.SPECIES.length()) {
+        DoubleVector Km1_i = DoubleVector.fromArray(VectorKernels.SPECIES, Km1, i);
+        DoubleVector z_i = DoubleVector.fromArray(VectorKernels.SPECIES, z, i);
+        sum = sum.add(z_i.mul(Km1_i).div(Km1_i.mul(vapourFraction).add(1.)));
+      }
+      f = sum.reduceLanes(VectorOperators.ADD);
+    }
+    for (; i < n; i++) {
+      f += (z[i] * Km1[i]) / (1 + Km1[i] * vapourFraction);
+    }
+
+    return f;
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 2) rachfordRiceDerivative()
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public double rachfordRiceDerivative(double vapourFraction, double[] z, double[] Km1, int n) {
+
+    double df = 0.;
+
+    int i = 0;
+    int upperBound = VectorKernels.SPECIES.loopBound(n);
+    if (upperBound > 0) {
+      DoubleVector sum = DoubleVector.zero(VectorKernels.SPECIES);
+      for (; i < upperBound; i += VectorKernels.SPECIES.length()) {
+        DoubleVector Km1_i = DoubleVector.fromArray(VectorKernels.SPECIES, Km1, i);
+        DoubleVector r = Km1_i.div(Km1_i.mul(vapourFraction).add(1.));
+        sum = sum.add(DoubleVector.fromArray(VectorKernels.SPECIES, z, i).mul(r.mul(r)));
+      }
+      df = -sum.reduceLanes(VectorOperators.ADD);
+    }
+    for (; i < n; i++) {
+      double r = Km1[i] / (1 + Km1[i] * vapourFraction);
+      df -= z[i] * (r * r);
+    }
+
+    return df;
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 2.1) rachfordRiceWithDerivative() : The terms of the sum are z[i] * r and those of the derivative -z[i] * r^2,
+    *          where r = Km1[i] / (1 + Km1[i] * vapourFraction), so a single division serves both.
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public void rachfordRiceWithDerivative(double vapourFraction, double[] z, double[] Km1, int n,
+                                         FunctionValue result) {
+
+    double f = 0.;
+    double df = 0.;
+
+    int i = 0;
+    int upperBound = VectorKernels.SPECIES.loopBound(n);
+    if (upperBound > 0) {
+      DoubleVector sum = DoubleVector.zero(VectorKernels.SPECIES);
+      DoubleVector derivativeSum = DoubleVector.zero(VectorKernels.SPECIES);
+      for (; i < upperBound; i += VectorKernels.SPECIES.length()) {
+        DoubleVector Km1_i = DoubleVector.fromArray(VectorKernels.SPECIES, Km1, i);
+        DoubleVector r = Km1_i.div(Km1_i.mul(vapourFraction).add(1.));
+        DoubleVector zr = DoubleVector.fromArray(VectorKernels.SPECIES, z, i).mul(r);
+        sum = sum.add(zr);
+        derivativeSum = derivativeSum.add(zr.mul(r));
+      }
+      f = sum.reduceLanes(VectorOperators.ADD);
+      df = -derivativeSum.reduceLanes(VectorOperators.ADD);
+    }
+    for (; i < n; i++) {
+      double r = Km1[i] / (1 + Km1[i] * vapourFraction);
+      double zr = z[i] * r;
+      f += zr;
+      df -= zr * r;
+    }
+
+    result.set(f, df);
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 3) vapourPressures()
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public void vapourPressures(double T, boolean derivative, double[] C1, double[] C2, double[] C3, double[] C4,
+                              double[] C5, double[] result, int n) {
+
+    double lnT = Math.log(T);
+    double inverseT = 1. / T;
+
+    int i = 0;
+    int upperBound = VectorKernels.SPECIES.loopBound(n);
+    for (; i < upperBound; i += VectorKernels.SPECIES.length()) {
+      DoubleVector C2_i = DoubleVector.fromArray(VectorKernels.SPECIES, C2, i);
+      DoubleVector C3_i = DoubleVector.fromArray(VectorKernels.SPECIES, C3, i);
+      DoubleVector C4_i = DoubleVector.fromArray(VectorKernels.SPECIES, C4, i);
+      DoubleVector C5_i = DoubleVector.fromArray(VectorKernels.SPECIES, C5, i);
+      DoubleVector T_C5 = C5_i.mul(lnT).lanewise(VectorOperators.EXP);
+      DoubleVector P_sat = DoubleVector.fromArray(VectorKernels.SPECIES, C1, i)
+        .add(C2_i.mul(inverseT)).add(C3_i.mul(lnT)).add(C4_i.mul(T_C5))
+        .lanewise(VectorOperators.EXP).mul(1. / 100000.);
+      if (derivative) {
+        P_sat = P_sat.mul(C2_i.mul(-inverseT * inverseT).add(C3_i.mul(inverseT))
+                            .add(C4_i.mul(C5_i).mul(T_C5).mul(inverseT)));
+      }
+      P_sat.intoArray(result, i);
+    }
+    for (; i < n; i++) {
+      double T_C5 = Math.pow(T, C5[i]);
+      result[i] = (1. / 100000.) * Math.exp(C1[i] + C2[i] * inverseT + C3[i] * lnT + C4[i] * T_C5);
+      if (derivative) {
+        result[i] *= -C2[i] * inverseT * inverseT + C3[i] * inverseT + C4[i] * C5[i] * T_C5 * inverseT;
+      }
+    }
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 4) dotProduct()
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public double dotProduct(double[] a, double[] b, int n) {
+
+    double sum = 0.;
+
+    int i = 0;
+    int upperBound = VectorKernels.SPECIES.loopBound(n);
+    if (upperBound > 0) {
+      DoubleVector laneSums = DoubleVector.zero(VectorKernels.SPECIES);
+      for (; i < upperBound; i += VectorKernels.SPECIES.length()) {
+        laneSums = DoubleVector.fromArray(VectorKernels.SPECIES, a, i)
+          .fma(DoubleVector.fromArray(VectorKernels.SPECIES, b, i), laneSums);
+      }
+      sum = laneSums.reduceLanes(VectorOperators.ADD);
+    }
+    for (; i < n; i++) {
+      sum += a[i] * b[i];
+    }
+
+    return sum;
+  }
+  /*********************************************************************************************************************/
+
+
+  /**********************************************************************************************************************
+    * 5) accumulateProduct()
+    * ---------------------------------------------------------------------------------------------------------------------
+    */
+  public void accumulateProduct(double a, double[] b, double[] result, int n) {
+
+    int i = 0;
+    int upperBound = VectorKernels.SPECIES.loopBound(n);
+    for (; i < upperBound; i += VectorKernels.SPECIES.length()) {
+      DoubleVector.fromArray(VectorKernels.SPECIES, b, i).mul(a)
+        .add(DoubleVector.fromArray(VectorKernels.SPECIES, result, i)).intoArray(result, i);
+    }
+    for (; i < n; i++) {
+      result[i] += a * b[i];
+    }
+  }
+  /*********************************************************************************************************************/
+
+
+  public String getName() {
+    return Kernels.VECTOR_NAME;
+  }
+
+  public int getLaneCount() {
+    return VectorKernels.SPECIES.length();
+  }
+
+}